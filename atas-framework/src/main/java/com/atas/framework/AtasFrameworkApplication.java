@@ -12,7 +12,8 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 @SpringBootApplication
 @org.springframework.boot.context.properties.EnableConfigurationProperties({
   com.atas.framework.config.StorageProperties.class,
-  com.atas.framework.config.DatabaseProperties.class
+  com.atas.framework.config.DatabaseProperties.class,
+  com.atas.framework.config.ExecutionProperties.class
 })
 public class AtasFrameworkApplication {
 
@@ -5,12 +5,10 @@ import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -65,15 +63,4 @@ public class CacheConfig {
     template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
     return template;
   }
-
-  @Bean
-  @Lazy
-  public RedisMessageListenerContainer redisMessageListenerContainer(
-      RedisConnectionFactory connectionFactory) {
-    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
-    container.setConnectionFactory(connectionFactory);
-    // Lazy initialization prevents connection attempts during ApplicationContext startup
-    // Container will start when RedisSseService.init() is called
-    return container;
-  }
 }
@@ -0,0 +1,171 @@
+package com.atas.framework.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties controlling how API-triggered test executions are run. Values are bound
+ * from {@code atas.execution.*} in application.yml and can be overridden through environment
+ * variables.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "atas.execution")
+@Data
+public class ExecutionProperties {
+
+  /** Execution backend used for API-triggered runs */
+  private Mode mode = Mode.MAVEN;
+
+  /**
+   * How long a finished execution waits for the result completion markers of its test JVMs when
+   * their output could not be read to the end
+   */
+  private long resultsTimeoutMs = 5000;
+
+  /** Settings for the warm JUnit Platform runner JVM used in {@link Mode#LAUNCHER} mode */
+  private Runner runner = new Runner();
+
+  /** Splitting of TAGS and SUITE executions into parallel shards */
+  private Sharding sharding = new Sharding();
+
+  /** Work queue distributing executions across replicas */
+  private Queue queue = new Queue();
+
+  /** Admission, priority and fair-share scheduling of executions */
+  private Scheduler scheduler = new Scheduler();
+
+  /** Incremental persistence of execution output */
+  private Logs logs = new Logs();
+
+  /** Supported execution backends */
+  public enum Mode {
+    /** Spawn {@code mvnw test -pl atas-tests} for every execution */
+    MAVEN,
+    /** Run the selection through the JUnit Platform Launcher inside a warm runner JVM */
+    LAUNCHER
+  }
+
+  @Data
+  public static class Runner {
+    /**
+     * File containing the precompiled atas-tests test classpath (output of {@code mvn
+     * dependency:build-classpath}). The launcher mode is unavailable when this is not set.
+     */
+    private String classpathFile;
+
+    /** Compiled atas-tests classes. Defaults to atas-tests/target/test-classes next to mvnw. */
+    private String testClassesDir;
+
+    /** Working directory of the runner JVM. Defaults to the atas-tests module next to mvnw. */
+    private String workingDir;
+
+    /** Java executable used to start the runner. Defaults to the JVM running the framework. */
+    private String javaCommand;
+
+    /** JVM arguments for the runner, mirroring the surefire argLine of atas-tests */
+    private List<String> jvmArgs =
+        new ArrayList<>(List.of("-Xmx1024m", "-XX:+UseG1GC", "-Djava.awt.headless=true"));
+
+    /** Root package scanned for tests when the selection is not a fully qualified class */
+    private String basePackage = "com.atas";
+
+    /** Maximum time to wait for a freshly started runner to report that it is ready */
+    private int startupTimeoutSeconds = 120;
+
+    /** Warm pool of pre-started runners */
+    private Pool pool = new Pool();
+  }
+
+  @Data
+  public static class Pool {
+    /** Idle runners kept started even when no execution is waiting */
+    private int minIdle = 1;
+
+    /** Upper bound of runner JVMs (idle, leased and starting) */
+    private int maxSize = 4;
+
+    /** Recycle a runner after it served this many executions */
+    private int maxExecutionsPerRunner = 50;
+
+    /** Recycle a runner once its live heap after a run exceeds this share of the maximum heap */
+    private int maxHeapUsagePercent = 75;
+
+    /** How long an execution waits for a runner before falling back to Maven */
+    private int leaseTimeoutSeconds = 30;
+
+    /** Interval of the pool resize check against the execution queue depth */
+    private long scaleIntervalMs = 5000;
+  }
+
+  @Data
+  public static class Sharding {
+    /** Number of parallel shards for TAGS and SUITE executions. 1 disables sharding. */
+    private int shards = 1;
+
+    /** Assumed duration of test classes without recorded history */
+    private long defaultClassDurationSeconds = 60;
+
+    /** How far back recorded results are used to estimate class durations */
+    private int historyDays = 30;
+  }
+
+  @Data
+  public static class Queue {
+    /**
+     * Enqueue executions in the shared database queue instead of running them on the replica that
+     * received the request
+     */
+    private boolean enabled = false;
+
+    /** Lease duration; an execution whose lease is not renewed in time is claimed again */
+    private int leaseSeconds = 60;
+
+    /** Interval at which running executions renew their leases */
+    private long heartbeatIntervalMs = 15000;
+
+    /** Interval at which the replica looks for claimable executions */
+    private long pollIntervalMs = 1000;
+
+    /** Claims after which an execution that keeps losing its replica is marked ERROR */
+    private int maxAttempts = 3;
+  }
+
+  @Data
+  public static class Scheduler {
+    /**
+     * Executions running at the same time on this replica. 0 derives the limit from the host: one
+     * execution per two available processors.
+     */
+    private int maxConcurrent = 0;
+
+    /** Executions allowed to wait; further requests are rejected with 429 */
+    private int maxQueued = 100;
+
+    /** Retry-After sent on rejection before any execution duration has been observed */
+    private long defaultRetryAfterSeconds = 60;
+  }
+
+  @Data
+  public static class Logs {
+    /**
+     * Output is persisted as a gzip frame of complete lines once this many uncompressed bytes are
+     * buffered. Larger frames compress better; smaller ones make range reads cheaper.
+     */
+    private int chunkSizeBytes = 64 * 1024;
+
+    /** Buffered output is persisted at least this often so running executions can be followed */
+    private long flushIntervalMs = 1000;
+
+    /** Maximum bytes returned by one read of the log API */
+    private int maxReadBytes = 1024 * 1024;
+
+    /** Maximum lines returned by one line-range read of the log API */
+    private int maxReadLines = 10000;
+
+    /** Interval at which live log tails are sent new output */
+    private long tailIntervalMs = 1000;
+  }
+}
@@ -7,7 +7,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-/** Configuration for test execution thread pool with bounded resources. */
+/** Configuration for test execution thread pools with bounded resources. */
 @Configuration
 @Slf4j
 public class ExecutorConfig {
@@ -24,9 +24,6 @@ public class ExecutorConfig {
   @Value("${ataas.execution.keep-alive-seconds:60}")
   private long keepAliveSeconds;
 
-  @Value("${ataas.execution.output-capture-pool-size:50}")
-  private int outputCapturePoolSize;
-
   @Bean(name = "testExecutionExecutor")
   public ExecutorService testExecutionExecutor() {
     ThreadPoolExecutor executor =
@@ -44,8 +41,9 @@ public class ExecutorConfig {
                         log.error(
                             "Uncaught exception in test execution thread: {}", t.getName(), e))
                 .build(),
-            new ThreadPoolExecutor.CallerRunsPolicy() // Reject policy: caller runs
-            );
+            // Admission is handled by ExecutionScheduler; running a test execution on the request
+            // thread would block the HTTP caller for the whole run
+            new ThreadPoolExecutor.AbortPolicy());
 
     // Allow core threads to timeout if idle
     executor.allowCoreThreadTimeOut(true);
@@ -60,31 +58,24 @@ public class ExecutorConfig {
   }
 
   /**
-   * Separate executor for output capture tasks. This prevents output capture from consuming threads
-   * from the main test execution pool, allowing more tests to run concurrently.
+   * Executor running the orchestration of admitted executions. {@link
+   * com.atas.framework.execution.ExecutionScheduler} bounds how many run at once, and an execution
+   * spends nearly all of its time waiting for child processes, so each one gets a virtual thread
+   * rather than a slot in a platform thread pool.
+   */
+  @Bean(name = "executionOrchestratorExecutor")
+  public ExecutorService executionOrchestratorExecutor() {
+    return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("test-exec-", 0).factory());
+  }
+
+  /**
+   * Executor draining the output streams of test processes. Readers block on pipe reads for the
+   * whole run, so they use virtual threads and do not cap the number of concurrent executions.
    */
   @Bean(name = "outputCaptureExecutor")
   public ExecutorService outputCaptureExecutor() {
-    ThreadPoolExecutor executor =
-        new ThreadPoolExecutor(
-            outputCapturePoolSize,
-            outputCapturePoolSize,
-            60L,
-            TimeUnit.SECONDS,
-            new LinkedBlockingQueue<>(200),
-            new ThreadFactoryBuilder()
-                .setNameFormat("output-capture-%d")
-                .setDaemon(true)
-                .setUncaughtExceptionHandler(
-                    (t, e) ->
-                        log.error(
-                            "Uncaught exception in output capture thread: {}", t.getName(), e))
-                .build(),
-            new ThreadPoolExecutor.CallerRunsPolicy());
-
-    log.info("Configured output capture executor: pool-size={}", outputCapturePoolSize);
-
-    return executor;
+    return Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("output-capture-", 0).factory());
   }
 
   /** Shutdown hook to gracefully shutdown executor on application stop. */
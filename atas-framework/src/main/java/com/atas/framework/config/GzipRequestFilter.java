@@ -0,0 +1,137 @@
+package com.atas.framework.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Decompresses request bodies sent to the result ingest API with {@code Content-Encoding: gzip}, so
+ * the controller reads them like any other body. Used by the test listener, which gzips its result
+ * batches. Bodies that decompress to more than {@code max-body-bytes} are rejected with 413 before
+ * anything reads them; other endpoints do not accept compressed bodies.
+ */
+@Component
+public class GzipRequestFilter extends OncePerRequestFilter {
+
+  static final String INGEST_PATH = "/api/v1/internal/ingest/";
+
+  @Value("${atas.execution.ingest.max-body-bytes:16777216}")
+  private int maxBodyBytes = 16777216;
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !"gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))
+        || !request.getRequestURI().startsWith(request.getContextPath() + INGEST_PATH);
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    byte[] body;
+    try (InputStream gzip = new GZIPInputStream(request.getInputStream())) {
+      // One byte more than allowed tells a body at the limit from one beyond it
+      body = gzip.readNBytes(maxBodyBytes + 1);
+    } catch (ZipException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Malformed gzip body");
+      return;
+    }
+    if (body.length > maxBodyBytes) {
+      response.sendError(
+          HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+          "Decompressed body exceeds " + maxBodyBytes + " bytes");
+      return;
+    }
+    filterChain.doFilter(new DecompressedRequest(request, body), response);
+  }
+
+  private static class DecompressedRequest extends HttpServletRequestWrapper {
+
+    private final byte[] body;
+
+    private ServletInputStream inputStream;
+
+    DecompressedRequest(HttpServletRequest request, byte[] body) {
+      super(request);
+      this.body = body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      if (inputStream == null) {
+        ByteArrayInputStream in = new ByteArrayInputStream(body);
+        inputStream =
+            new ServletInputStream() {
+
+              @Override
+              public int read() {
+                return in.read();
+              }
+
+              @Override
+              public int read(byte[] buffer, int offset, int length) {
+                return in.read(buffer, offset, length);
+              }
+
+              @Override
+              public boolean isFinished() {
+                return in.available() == 0;
+              }
+
+              /** The whole body is in memory, so reads never block */
+              @Override
+              public boolean isReady() {
+                return true;
+              }
+
+              @Override
+              public void setReadListener(ReadListener readListener) {
+                try {
+                  if (!isFinished()) {
+                    readListener.onDataAvailable();
+                  }
+                  readListener.onAllDataRead();
+                } catch (IOException e) {
+                  readListener.onError(e);
+                }
+              }
+            };
+      }
+      return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() {
+      String encoding = getCharacterEncoding();
+      Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+      return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+
+    @Override
+    public int getContentLength() {
+      return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+      return body.length;
+    }
+  }
+}
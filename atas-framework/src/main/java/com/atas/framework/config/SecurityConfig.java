@@ -53,6 +53,8 @@ public class SecurityConfig {
                     .permitAll()
                     .requestMatchers("/api/v1/internal/auth/**")
                     .permitAll() // Token generation uses API key authentication
+                    .requestMatchers(WebSocketConfig.MONITORING_ENDPOINT)
+                    .permitAll() // Authenticated by its first message; browsers cannot send headers
                     .requestMatchers("/api/v1/internal/**")
                     .hasAuthority("ROLE_INTERNAL_API") // Internal APIs require internal API token
                     .requestMatchers("/actuator/health")
@@ -23,6 +23,8 @@ public class WebConfig implements WebMvcConfigurer {
             "/api/v1/database/operations",
             "/api/v1/database/statistics",
             "/api/v1/test-execution/live",
-            "/api/v1/test-execution/dashboard/active/live");
+            "/api/v1/test-execution/dashboard/active/live",
+            WebSocketConfig.MONITORING_ENDPOINT,
+            "/api/v1/test-execution/*/logs/tail");
   }
 }
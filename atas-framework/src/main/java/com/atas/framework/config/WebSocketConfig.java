@@ -0,0 +1,25 @@
+package com.atas.framework.config;
+
+import com.atas.framework.monitoring.MonitoringWebSocketHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/** WebSocket endpoints; only same-origin browser clients may connect. */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+  public static final String MONITORING_ENDPOINT = "/api/v1/monitoring/ws";
+
+  private final MonitoringWebSocketHandler monitoringWebSocketHandler;
+
+  @Override
+  public void registerWebSocketHandlers(@NonNull WebSocketHandlerRegistry registry) {
+    registry.addHandler(monitoringWebSocketHandler, MONITORING_ENDPOINT);
+  }
+}
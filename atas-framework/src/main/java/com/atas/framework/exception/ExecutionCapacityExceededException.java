@@ -0,0 +1,19 @@
+package com.atas.framework.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when the execution scheduler has no room for another execution. Mapped to HTTP 429 with a
+ * {@code Retry-After} header instead of blocking the request thread.
+ */
+@Getter
+public class ExecutionCapacityExceededException extends RuntimeException {
+
+  /** Suggested number of seconds before the client retries */
+  private final long retryAfterSeconds;
+
+  public ExecutionCapacityExceededException(String message, long retryAfterSeconds) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+}
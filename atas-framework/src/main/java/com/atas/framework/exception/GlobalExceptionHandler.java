@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -30,6 +31,21 @@ public class GlobalExceptionHandler {
                 .build());
   }
 
+  @ExceptionHandler(ExecutionCapacityExceededException.class)
+  public ResponseEntity<ErrorResponse> handleExecutionCapacityExceeded(
+      ExecutionCapacityExceededException e) {
+    log.warn("Execution rejected: {}", e.getMessage());
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+        .body(
+            ErrorResponse.builder()
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error("EXECUTION_CAPACITY_EXCEEDED")
+                .message(e.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build());
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ErrorResponse> handleValidationExceptions(
       MethodArgumentNotValidException e) {
@@ -0,0 +1,184 @@
+package com.atas.framework.execution;
+
+import com.atas.framework.config.ExecutionProperties;
+import com.atas.framework.exception.ExecutionCapacityExceededException;
+import com.atas.framework.execution.dto.TestExecutionRequest;
+import com.atas.framework.execution.dto.TestExecutionRequest.ExecutionPriority;
+import com.atas.framework.model.ExecutionQueueEntry;
+import com.atas.framework.repository.ExecutionQueueRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Execution work queue shared by all replicas, backed by the {@code execution_queue} table.
+ * Replicas claim entries with {@code FOR UPDATE SKIP LOCKED} and hold them under a lease that is
+ * renewed while the execution runs. If a replica dies its leases expire and the executions are
+ * claimed by another replica.
+ */
+@Service
+@Slf4j
+public class DistributedExecutionQueue {
+
+  private final ExecutionQueueRepository queueRepository;
+  private final ExecutionProperties properties;
+  private final ObjectMapper objectMapper;
+
+  /** Lease owner identity of this replica (the pod name in Kubernetes) */
+  @Getter private final String replicaId;
+
+  public DistributedExecutionQueue(
+      ExecutionQueueRepository queueRepository,
+      ExecutionProperties properties,
+      ObjectMapper objectMapper) {
+    this.queueRepository = queueRepository;
+    this.properties = properties;
+    this.objectMapper = objectMapper;
+    String hostname = System.getenv("HOSTNAME");
+    this.replicaId =
+        (hostname != null && !hostname.isBlank() ? hostname : "atas")
+            + "-"
+            + UUID.randomUUID().toString().substring(0, 8);
+  }
+
+  public boolean isEnabled() {
+    return properties.getQueue().isEnabled();
+  }
+
+  /**
+   * Add an accepted execution to the queue.
+   *
+   * @param shareKey team or user the execution is accounted to for fair sharing
+   * @return position among the pending executions (1 is next)
+   * @throws ExecutionCapacityExceededException if {@code maxQueued} executions are already pending
+   */
+  @Transactional
+  public int enqueue(String executionId, TestExecutionRequest request, String shareKey) {
+    long pending = pendingCount();
+    if (pending >= properties.getScheduler().getMaxQueued()) {
+      throw new ExecutionCapacityExceededException(
+          "Execution queue is full (" + pending + " waiting)",
+          properties.getScheduler().getDefaultRetryAfterSeconds());
+    }
+    try {
+      ExecutionPriority priority =
+          request.getPriority() != null ? request.getPriority() : ExecutionPriority.P2;
+      queueRepository.save(
+          ExecutionQueueEntry.builder()
+              .executionId(executionId)
+              .payload(objectMapper.writeValueAsString(request))
+              .status(ExecutionQueueEntry.Status.PENDING)
+              .priority(priority.ordinal())
+              .shareKey(shareKey)
+              .enqueuedAt(LocalDateTime.now(ZoneOffset.UTC))
+              .build());
+      log.info("Enqueued execution {} ({}, {})", executionId, priority, shareKey);
+      return getQueuePosition(executionId);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not serialize execution request " + executionId, e);
+    }
+  }
+
+  /**
+   * Claim up to {@code limit} executions for this replica.
+   *
+   * @return claimed executions with their requests, oldest first
+   */
+  @Transactional
+  public List<ClaimedExecution> claim(int limit) {
+    LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+    List<ClaimedExecution> claimed = new ArrayList<>();
+    for (ExecutionQueueEntry entry : queueRepository.lockClaimable(now, limit)) {
+      if (entry.getStatus() == ExecutionQueueEntry.Status.LEASED) {
+        log.warn(
+            "Lease of execution {} held by {} expired, re-queuing on {}",
+            entry.getExecutionId(),
+            entry.getOwner(),
+            replicaId);
+      }
+      entry.setStatus(ExecutionQueueEntry.Status.LEASED);
+      entry.setOwner(replicaId);
+      entry.setLeaseExpiresAt(now.plusSeconds(properties.getQueue().getLeaseSeconds()));
+      entry.setAttempts(entry.getAttempts() + 1);
+      try {
+        claimed.add(
+            new ClaimedExecution(
+                entry.getExecutionId(),
+                objectMapper.readValue(entry.getPayload(), TestExecutionRequest.class),
+                entry.getAttempts()));
+      } catch (JsonProcessingException e) {
+        log.error("Dropping unreadable queue entry {}: {}", entry.getExecutionId(), e.getMessage());
+        claimed.add(new ClaimedExecution(entry.getExecutionId(), null, entry.getAttempts()));
+      }
+    }
+    return claimed;
+  }
+
+  /**
+   * Renew the leases of executions running on this replica.
+   *
+   * @return number of leases still held
+   */
+  @Transactional
+  public int renewLeases(Collection<String> executionIds) {
+    if (executionIds.isEmpty()) {
+      return 0;
+    }
+    return queueRepository.renewLeases(
+        executionIds,
+        replicaId,
+        LocalDateTime.now(ZoneOffset.UTC).plusSeconds(properties.getQueue().getLeaseSeconds()));
+  }
+
+  /** Remove a finished execution from the queue */
+  @Transactional
+  public void complete(String executionId) {
+    if (queueRepository.deleteByExecutionIdAndOwner(executionId, replicaId) == 0) {
+      log.warn("Execution {} was no longer leased by {} on completion", executionId, replicaId);
+    }
+  }
+
+  /**
+   * Position of a pending execution, ignoring fair share.
+   *
+   * @return 1-based position, or 0 if the execution is no longer pending
+   */
+  public int getQueuePosition(String executionId) {
+    return queueRepository
+        .findByExecutionId(executionId)
+        .filter(entry -> entry.getStatus() == ExecutionQueueEntry.Status.PENDING)
+        .map(
+            entry ->
+                (int) queueRepository.countAhead(executionId, ExecutionQueueEntry.Status.PENDING)
+                    + 1)
+        .orElse(0);
+  }
+
+  /** Number of executions waiting to be claimed */
+  public long pendingCount() {
+    return queueRepository.countByStatus(ExecutionQueueEntry.Status.PENDING);
+  }
+
+  /** An execution claimed by this replica */
+  @Getter
+  @AllArgsConstructor
+  public static class ClaimedExecution {
+    private final String executionId;
+
+    /** The original request, {@code null} if the payload could not be read */
+    private final TestExecutionRequest request;
+
+    /** Number of times the execution was claimed, including this claim */
+    private final int attempts;
+  }
+}
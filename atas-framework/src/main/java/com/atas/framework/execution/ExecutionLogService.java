@@ -0,0 +1,409 @@
+package com.atas.framework.execution;
+
+import com.atas.framework.config.ExecutionProperties;
+import com.atas.framework.execution.dto.ExecutionLogLines;
+import com.atas.framework.execution.dto.ExecutionLogSlice;
+import com.atas.framework.model.ExecutionLogChunk;
+import com.atas.framework.repository.ExecutionLogChunkRepository;
+import com.atas.framework.repository.TestExecutionRepository;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Persists execution output in chunks while the test process runs and serves it back by byte offset
+ * or line number, either as ranges or as a live SSE tail. Output is buffered per execution and
+ * written as a gzip frame once a chunk is full or the flush interval elapses, so neither the whole
+ * log is held in memory nor do readers wait for the process to exit. Each chunk records the byte
+ * and line range it covers, so reads decompress only the frames they need.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutionLogService {
+
+  private final ExecutionLogChunkRepository chunkRepository;
+  private final TestExecutionRepository executionRepository;
+  private final ExecutionProperties properties;
+
+  /** Chunks fetched per query when reading lines */
+  private static final int LINE_READ_PAGE_SIZE = 16;
+
+  private final Set<LogWriter> openWriters = ConcurrentHashMap.newKeySet();
+  private final Map<String, List<LogTail>> tails = new ConcurrentHashMap<>();
+
+  /**
+   * Start the log of an execution. Output left by an earlier attempt of the same execution is
+   * discarded.
+   *
+   * @param executionId the execution ID
+   * @return writer accepting output lines; must be closed when the output ends
+   */
+  public LogWriter open(String executionId) {
+    chunkRepository.deleteByExecutionId(executionId);
+    executionRepository.updateOutputComplete(executionId, false);
+    LogWriter writer = new LogWriter(executionId);
+    openWriters.add(writer);
+    return writer;
+  }
+
+  /**
+   * Read persisted output starting at a byte offset.
+   *
+   * @param executionId the execution ID
+   * @param fromOffset log offset to start at
+   * @param maxBytes maximum bytes to return, capped by {@code atas.execution.logs.max-read-bytes}
+   * @return the slice, or empty if no such execution exists
+   */
+  public Optional<ExecutionLogSlice> read(String executionId, long fromOffset, int maxBytes) {
+    // Read the flag first: once set, every chunk is already persisted
+    Optional<Boolean> outputComplete =
+        executionRepository.findOutputCompleteByExecutionId(executionId);
+    if (outputComplete.isEmpty()) {
+      return Optional.empty();
+    }
+
+    int limit = Math.max(1, Math.min(maxBytes, properties.getLogs().getMaxReadBytes()));
+    int pageSize = limit / properties.getLogs().getChunkSizeBytes() + 2;
+    List<ExecutionLogChunk> chunks =
+        chunkRepository.findByExecutionIdAndEndOffsetGreaterThanOrderByChunkIndexAsc(
+            executionId, Math.max(0, fromOffset), PageRequest.of(0, pageSize));
+
+    ByteArrayOutputStream content = new ByteArrayOutputStream();
+    long nextOffset = Math.max(0, fromOffset);
+    boolean reachedEnd = chunks.size() < pageSize;
+    for (ExecutionLogChunk chunk : chunks) {
+      if (content.size() >= limit) {
+        reachedEnd = false;
+        break;
+      }
+      // A chunk lost to a failed write leaves a gap; continue after it
+      long position = Math.max(nextOffset, chunk.getStartOffset());
+      int from = (int) (position - chunk.getStartOffset());
+      byte[] data = decompress(chunk);
+      int length = Math.min(data.length - from, limit - content.size());
+      if (length < data.length - from) {
+        length = cutLength(data, from, length, content.size() == 0);
+      }
+      content.write(data, from, length);
+      nextOffset = position + length;
+      if (nextOffset < chunk.getEndOffset()) {
+        reachedEnd = false;
+        break;
+      }
+    }
+
+    return Optional.of(
+        ExecutionLogSlice.builder()
+            .executionId(executionId)
+            .fromOffset(fromOffset)
+            .nextOffset(nextOffset)
+            .content(content.toString(StandardCharsets.UTF_8))
+            .complete(Boolean.TRUE.equals(outputComplete.get()) && reachedEnd)
+            .build());
+  }
+
+  /**
+   * Read persisted output by line number.
+   *
+   * @param executionId the execution ID
+   * @param fromLine number of the first line to return, starting at 1
+   * @param count maximum lines to return, capped by {@code atas.execution.logs.max-read-lines}
+   * @return the lines, or empty if no such execution exists
+   */
+  public Optional<ExecutionLogLines> readLines(String executionId, long fromLine, int count) {
+    Optional<Boolean> outputComplete =
+        executionRepository.findOutputCompleteByExecutionId(executionId);
+    if (outputComplete.isEmpty()) {
+      return Optional.empty();
+    }
+
+    long first = Math.max(1, fromLine);
+    int limit = Math.max(1, Math.min(count, properties.getLogs().getMaxReadLines()));
+    List<String> lines = new ArrayList<>();
+    long nextLine = first;
+    for (int page = 0; lines.size() < limit; page++) {
+      List<ExecutionLogChunk> chunks =
+          chunkRepository.findByExecutionIdAndEndLineGreaterThanOrderByChunkIndexAsc(
+              executionId, first, PageRequest.of(page, LINE_READ_PAGE_SIZE));
+      for (ExecutionLogChunk chunk : chunks) {
+        // A chunk lost to a failed write leaves a gap; continue after it
+        nextLine = Math.max(nextLine, chunk.getFirstLine());
+        String[] chunkLines = decompressedText(chunk).split("\n", -1);
+        int index = (int) (nextLine - chunk.getFirstLine());
+        while (nextLine < chunk.getEndLine() && index < chunkLines.length && lines.size() < limit) {
+          lines.add(chunkLines[index++]);
+          nextLine++;
+        }
+        if (lines.size() >= limit) {
+          break;
+        }
+      }
+      if (chunks.size() < LINE_READ_PAGE_SIZE) {
+        break;
+      }
+    }
+    boolean reachedEnd =
+        !chunkRepository.existsByExecutionIdAndEndLineGreaterThan(executionId, nextLine);
+
+    return Optional.of(
+        ExecutionLogLines.builder()
+            .executionId(executionId)
+            .fromLine(first)
+            .nextLine(nextLine)
+            .lines(lines)
+            .complete(Boolean.TRUE.equals(outputComplete.get()) && reachedEnd)
+            .build());
+  }
+
+  /**
+   * Follow the output of an execution. The emitter receives {@code log} events carrying new output,
+   * with the offset to resume from as event ID, and a final {@code complete} event.
+   *
+   * @param executionId the execution ID
+   * @param fromOffset log offset to start at
+   */
+  public SseEmitter tail(String executionId, long fromOffset) {
+    SseEmitter emitter = new SseEmitter(0L);
+    LogTail tail = new LogTail(executionId, emitter, Math.max(0, fromOffset));
+    emitter.onCompletion(() -> removeTail(tail));
+    emitter.onTimeout(() -> removeTail(tail));
+    emitter.onError(error -> removeTail(tail));
+    tails.computeIfAbsent(executionId, id -> new CopyOnWriteArrayList<>()).add(tail);
+    return emitter;
+  }
+
+  /** Persist output buffered by running executions */
+  @Scheduled(fixedDelayString = "${atas.execution.logs.flush-interval-ms:1000}")
+  public void flushOpenWriters() {
+    openWriters.forEach(LogWriter::flush);
+  }
+
+  /** Send new output to live tails */
+  @Scheduled(fixedDelayString = "${atas.execution.logs.tail-interval-ms:1000}")
+  public void pushTails() {
+    if (tails.isEmpty()) {
+      return;
+    }
+    for (List<LogTail> executionTails : tails.values()) {
+      for (LogTail tail : executionTails) {
+        pushTail(tail);
+      }
+    }
+  }
+
+  private void pushTail(LogTail tail) {
+    try {
+      Optional<ExecutionLogSlice> slice =
+          read(tail.executionId, tail.offset, properties.getLogs().getMaxReadBytes());
+      if (slice.isEmpty()) {
+        tail.emitter.complete();
+        removeTail(tail);
+        return;
+      }
+      if (!slice.get().getContent().isEmpty()) {
+        tail.emitter.send(
+            SseEmitter.event()
+                .name("log")
+                .id(String.valueOf(slice.get().getNextOffset()))
+                .data(slice.get().getContent()));
+        tail.offset = slice.get().getNextOffset();
+      }
+      if (slice.get().isComplete()) {
+        tail.emitter.send(SseEmitter.event().name("complete").data(tail.offset));
+        tail.emitter.complete();
+        removeTail(tail);
+      }
+    } catch (IOException | IllegalStateException e) {
+      log.debug("Removing log tail of execution {}: {}", tail.executionId, e.getMessage());
+      removeTail(tail);
+    } catch (Exception e) {
+      log.warn("Failed to push log tail of execution {}", tail.executionId, e);
+    }
+  }
+
+  private void removeTail(LogTail tail) {
+    tails.computeIfPresent(
+        tail.executionId,
+        (id, executionTails) -> {
+          executionTails.remove(tail);
+          return executionTails.isEmpty() ? null : executionTails;
+        });
+  }
+
+  /**
+   * Bytes to return of output cut at {@code from + length}: up to the last line ending before the
+   * cut, so the next read resumes at the start of a line. Output read so far ends with a chunk, and
+   * so with a line; without it, a first line longer than the limit is cut after its last complete
+   * UTF-8 character, or after its first character should not even that fit.
+   */
+  private static int cutLength(byte[] data, int from, int length, boolean first) {
+    for (int end = from + length; end > from; end--) {
+      if (data[end - 1] == '\n') {
+        return end - from;
+      }
+    }
+    if (!first) {
+      return 0;
+    }
+    // Continuation bytes (10xxxxxx) belong to the character started before them
+    int end = from + length;
+    while (end > from && (data[end] & 0xC0) == 0x80) {
+      end--;
+    }
+    if (end == from) {
+      end = from + length;
+      while (end < data.length && (data[end] & 0xC0) == 0x80) {
+        end++;
+      }
+    }
+    return end - from;
+  }
+
+  /** Uncompressed bytes of a chunk */
+  private static byte[] decompress(ExecutionLogChunk chunk) {
+    if (!Boolean.TRUE.equals(chunk.getCompressed())) {
+      return chunk.getData();
+    }
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(chunk.getData()))) {
+      return in.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(
+          "Corrupt log chunk " + chunk.getChunkIndex() + " of execution " + chunk.getExecutionId(),
+          e);
+    }
+  }
+
+  private static String decompressedText(ExecutionLogChunk chunk) {
+    return new String(decompress(chunk), StandardCharsets.UTF_8);
+  }
+
+  private static byte[] compress(byte[] data) {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 4 + 64);
+    try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+      out.write(data);
+    } catch (IOException e) {
+      // In-memory streams do not fail
+      throw new UncheckedIOException(e);
+    }
+    return compressed.toByteArray();
+  }
+
+  /**
+   * Buffers the output lines of one execution and persists them as gzip compressed chunks of
+   * complete lines. A chunk exceeds the configured size only by the line that filled it.
+   */
+  public final class LogWriter implements Consumer<String> {
+    private final String executionId;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private long offset;
+    private long line = 1;
+    private int bufferedLines;
+    private int chunkIndex;
+    private boolean closed;
+
+    private LogWriter(String executionId) {
+      this.executionId = executionId;
+    }
+
+    /** Append one output line; ignored once the writer is closed */
+    @Override
+    public synchronized void accept(String line) {
+      if (closed) {
+        return;
+      }
+      buffer.writeBytes((line + "\n").getBytes(StandardCharsets.UTF_8));
+      bufferedLines++;
+      if (buffer.size() >= properties.getLogs().getChunkSizeBytes()) {
+        flush();
+      }
+    }
+
+    /** Persist the buffered output as a chunk */
+    public synchronized void flush() {
+      if (buffer.size() == 0) {
+        return;
+      }
+      byte[] data = buffer.toByteArray();
+      int lines = bufferedLines;
+      buffer.reset();
+      bufferedLines = 0;
+      try {
+        chunkRepository.save(
+            ExecutionLogChunk.builder()
+                .executionId(executionId)
+                .chunkIndex(chunkIndex)
+                .startOffset(offset)
+                .endOffset(offset + data.length)
+                .firstLine(line)
+                .endLine(line + lines)
+                .data(compress(data))
+                .compressed(true)
+                .createdAt(LocalDateTime.now(ZoneOffset.UTC))
+                .build());
+      } catch (Exception e) {
+        log.warn(
+            "Dropping {} bytes of output of execution {}: {}",
+            data.length,
+            executionId,
+            e.getMessage());
+      }
+      // Offsets advance even for a dropped chunk so later chunks keep their positions
+      offset += data.length;
+      line += lines;
+      chunkIndex++;
+    }
+
+    /** Persist the remaining output and mark the execution's output as complete */
+    public synchronized void close() {
+      if (closed) {
+        return;
+      }
+      flush();
+      closed = true;
+      openWriters.remove(this);
+      try {
+        executionRepository.updateOutputComplete(executionId, true);
+      } catch (Exception e) {
+        log.warn("Failed to mark output of execution {} complete: {}", executionId, e.getMessage());
+      }
+    }
+
+    /** Bytes written so far, persisted or buffered */
+    public synchronized long size() {
+      return offset + buffer.size();
+    }
+  }
+
+  private static final class LogTail {
+    private final String executionId;
+    private final SseEmitter emitter;
+    private volatile long offset;
+
+    private LogTail(String executionId, SseEmitter emitter, long offset) {
+      this.executionId = executionId;
+      this.emitter = emitter;
+      this.offset = offset;
+    }
+  }
+}
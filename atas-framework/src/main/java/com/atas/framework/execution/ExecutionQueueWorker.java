@@ -0,0 +1,122 @@
+package com.atas.framework.execution;
+
+import com.atas.framework.config.ExecutionProperties;
+import com.atas.framework.exception.ExecutionCapacityExceededException;
+import com.atas.framework.model.TestStatus;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pulls executions from the {@link DistributedExecutionQueue} into this replica's {@link
+ * ExecutionScheduler} while it has free slots, and renews the leases of the executions it is
+ * running. Capacity therefore grows with the number of replicas rather than with how the ingress
+ * spreads the requests.
+ */
+@Component
+@Slf4j
+public class ExecutionQueueWorker {
+
+  private final DistributedExecutionQueue queue;
+  private final TestExecutionService testExecutionService;
+  private final ExecutionProperties properties;
+  private final ExecutionScheduler scheduler;
+
+  /** Executions claimed by this replica and not yet completed */
+  private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+  public ExecutionQueueWorker(
+      DistributedExecutionQueue queue,
+      TestExecutionService testExecutionService,
+      ExecutionProperties properties,
+      ExecutionScheduler scheduler) {
+    this.queue = queue;
+    this.testExecutionService = testExecutionService;
+    this.properties = properties;
+    this.scheduler = scheduler;
+  }
+
+  /** Claim executions for the scheduler's free slots */
+  @Scheduled(fixedDelayString = "${atas.execution.queue.poll-interval-ms:1000}")
+  public void poll() {
+    if (!queue.isEnabled()) {
+      return;
+    }
+    int free = scheduler.freeSlots();
+    if (free <= 0) {
+      return;
+    }
+
+    List<DistributedExecutionQueue.ClaimedExecution> claimed;
+    try {
+      claimed = queue.claim(free);
+    } catch (Exception e) {
+      log.warn("Could not claim queued executions: {}", e.getMessage());
+      return;
+    }
+
+    for (DistributedExecutionQueue.ClaimedExecution execution : claimed) {
+      String executionId = execution.getExecutionId();
+      if (execution.getRequest() == null
+          || execution.getAttempts() > properties.getQueue().getMaxAttempts()) {
+        log.error(
+            "Giving up on execution {} after {} attempts", executionId, execution.getAttempts());
+        testExecutionService.updateExecutionStatus(executionId, TestStatus.ERROR);
+        queue.complete(executionId);
+        continue;
+      }
+
+      running.add(executionId);
+      try {
+        scheduler.submit(
+            executionId,
+            execution.getRequest().getPriority(),
+            queue.getReplicaId(),
+            () -> {
+              try {
+                testExecutionService.runExecution(executionId, execution.getRequest());
+              } finally {
+                complete(executionId);
+              }
+            });
+      } catch (ExecutionCapacityExceededException e) {
+        // Leave the lease to expire so another replica picks the execution up
+        log.warn("Scheduler rejected queued execution {}: {}", executionId, e.getMessage());
+        running.remove(executionId);
+      }
+    }
+  }
+
+  /** Keep the leases of running executions alive */
+  @Scheduled(fixedDelayString = "${atas.execution.queue.heartbeat-interval-ms:15000}")
+  public void heartbeat() {
+    if (!queue.isEnabled() || running.isEmpty()) {
+      return;
+    }
+    try {
+      int renewed = queue.renewLeases(Set.copyOf(running));
+      if (renewed < running.size()) {
+        log.warn(
+            "Only {} of {} execution leases renewed on {}; expired executions may run twice",
+            renewed,
+            running.size(),
+            queue.getReplicaId());
+      }
+    } catch (Exception e) {
+      log.warn("Could not renew execution leases: {}", e.getMessage());
+    }
+  }
+
+  private void complete(String executionId) {
+    try {
+      queue.complete(executionId);
+    } catch (Exception e) {
+      log.warn("Could not complete queued execution {}: {}", executionId, e.getMessage());
+    } finally {
+      running.remove(executionId);
+    }
+  }
+}
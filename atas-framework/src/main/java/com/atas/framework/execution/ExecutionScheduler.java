@@ -0,0 +1,181 @@
+package com.atas.framework.execution;
+
+import com.atas.framework.config.ExecutionProperties;
+import com.atas.framework.exception.ExecutionCapacityExceededException;
+import com.atas.framework.execution.dto.TestExecutionRequest.ExecutionPriority;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * Admission control in front of the {@code executionOrchestratorExecutor}. At most {@code
+ * maxConcurrent} executions run at once; the rest wait ordered by priority, then by fair share (the
+ * share key with the fewest running executions, then the one served least recently), then by
+ * arrival. When {@code maxQueued} executions are already waiting, new submissions are rejected with
+ * an estimate of when to retry rather than blocking the caller.
+ */
+@Service
+@Slf4j
+public class ExecutionScheduler {
+
+  private final ExecutionProperties properties;
+  private final ExecutorService executorService;
+
+  private final List<Job> waiting = new ArrayList<>();
+  private final Map<String, Integer> runningByShare = new HashMap<>();
+  private final Map<String, Long> lastServedByShare = new HashMap<>();
+  private int running;
+  private long sequence;
+  private long servedSequence;
+
+  /** Exponentially weighted average of execution durations, used for Retry-After */
+  private double averageDurationMillis;
+
+  public ExecutionScheduler(
+      ExecutionProperties properties,
+      @Qualifier("executionOrchestratorExecutor") ExecutorService executorService) {
+    this.properties = properties;
+    this.executorService = executorService;
+  }
+
+  /**
+   * Submit an execution.
+   *
+   * @param executionId the execution ID
+   * @param priority scheduling priority
+   * @param shareKey team or user the execution is accounted to
+   * @param task runs the execution
+   * @return queue position (1 is next), or 0 if the execution started immediately
+   * @throws ExecutionCapacityExceededException if the queue is full
+   */
+  public synchronized int submit(
+      String executionId, ExecutionPriority priority, String shareKey, Runnable task) {
+    if (waiting.size() >= properties.getScheduler().getMaxQueued()) {
+      throw new ExecutionCapacityExceededException(
+          "Execution queue is full (" + waiting.size() + " waiting)", retryAfterSeconds());
+    }
+    waiting.add(new Job(executionId, priority, shareKey, sequence++, task));
+    dispatch();
+    return getQueuePosition(executionId);
+  }
+
+  /**
+   * Queue position of a waiting execution.
+   *
+   * @return 1-based position, or 0 if the execution is not waiting
+   */
+  public synchronized int getQueuePosition(String executionId) {
+    List<Job> ordered = new ArrayList<>(waiting);
+    ordered.sort(order());
+    for (int i = 0; i < ordered.size(); i++) {
+      if (ordered.get(i).executionId.equals(executionId)) {
+        return i + 1;
+      }
+    }
+    return 0;
+  }
+
+  /** Number of executions that can start right now without waiting */
+  public synchronized int freeSlots() {
+    return Math.max(0, getMaxConcurrent() - running - waiting.size());
+  }
+
+  /** Effective limit of concurrently running executions */
+  public int getMaxConcurrent() {
+    int configured = properties.getScheduler().getMaxConcurrent();
+    return configured > 0
+        ? configured
+        : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+  }
+
+  public synchronized int getRunningCount() {
+    return running;
+  }
+
+  public synchronized int getWaitingCount() {
+    return waiting.size();
+  }
+
+  private void dispatch() {
+    while (running < getMaxConcurrent() && !waiting.isEmpty()) {
+      Job job = waiting.stream().min(order()).orElseThrow();
+      waiting.remove(job);
+      running++;
+      runningByShare.merge(job.shareKey, 1, Integer::sum);
+      lastServedByShare.put(job.shareKey, servedSequence++);
+      try {
+        executorService.execute(() -> run(job));
+      } catch (RejectedExecutionException e) {
+        log.warn("Executor rejected execution {}, keeping it queued", job.executionId);
+        finished(job);
+        waiting.add(job);
+        return;
+      }
+    }
+  }
+
+  private void run(Job job) {
+    long start = System.currentTimeMillis();
+    try {
+      job.task.run();
+    } finally {
+      synchronized (this) {
+        long duration = System.currentTimeMillis() - start;
+        averageDurationMillis =
+            averageDurationMillis == 0 ? duration : averageDurationMillis * 0.8 + duration * 0.2;
+        finished(job);
+        dispatch();
+      }
+    }
+  }
+
+  private void finished(Job job) {
+    running--;
+    runningByShare.computeIfPresent(job.shareKey, (key, count) -> count > 1 ? count - 1 : null);
+  }
+
+  /** Priority first, then the share with the fewest running and least recently served jobs */
+  private Comparator<Job> order() {
+    return Comparator.comparing((Job job) -> job.priority)
+        .thenComparingInt(job -> runningByShare.getOrDefault(job.shareKey, 0))
+        .thenComparingLong(job -> lastServedByShare.getOrDefault(job.shareKey, -1L))
+        .thenComparingLong(job -> job.sequence);
+  }
+
+  /** Time until the queue has drained enough to accept another execution */
+  private long retryAfterSeconds() {
+    if (averageDurationMillis == 0) {
+      return properties.getScheduler().getDefaultRetryAfterSeconds();
+    }
+    double seconds = averageDurationMillis / 1000.0 / getMaxConcurrent();
+    return Math.max(1, Math.min(3600, (long) Math.ceil(seconds)));
+  }
+
+  private static final class Job {
+    private final String executionId;
+    private final ExecutionPriority priority;
+    private final String shareKey;
+    private final long sequence;
+    private final Runnable task;
+
+    private Job(
+        String executionId,
+        ExecutionPriority priority,
+        String shareKey,
+        long sequence,
+        Runnable task) {
+      this.executionId = executionId;
+      this.priority = priority != null ? priority : ExecutionPriority.P2;
+      this.shareKey = shareKey;
+      this.sequence = sequence;
+      this.task = task;
+    }
+  }
+}
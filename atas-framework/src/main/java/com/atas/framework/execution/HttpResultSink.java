@@ -0,0 +1,195 @@
+package com.atas.framework.execution;
+
+import com.atas.framework.execution.dto.ResultIngestBatch;
+import com.atas.framework.model.TestStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends result batches to the framework's ingest endpoint instead of writing them to the database.
+ * Bodies are gzip-compressed; failed requests are retried with exponential backoff and the internal
+ * API token is requested again once it expires or is rejected.
+ */
+@Slf4j
+class HttpResultSink implements ResultBatchWriter.ResultSink {
+
+  static final String INGEST_PATH = "/api/v1/internal/ingest/results";
+  static final String TOKEN_PATH = "/api/v1/internal/auth/token";
+
+  private static final String CLIENT_ID = "atas-listener";
+  private static final long MAX_BACKOFF_MS = 5_000;
+
+  /** Tokens are renewed this long before they expire */
+  private static final long TOKEN_RENEWAL_MARGIN_MS = 60_000;
+
+  private final String baseUrl;
+  private final String apiKey;
+  private final String suiteName;
+  private final String environment;
+  private final int maxAttempts;
+  private final long backoffMs;
+  private final HttpClient client =
+      HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+  private final ObjectMapper mapper =
+      new ObjectMapper()
+          .findAndRegisterModules()
+          .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+          .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+  private String token;
+  private long tokenExpiresAt;
+
+  /**
+   * @param suiteName suite name the framework creates the execution with if it does not exist
+   * @param maxAttempts requests per batch before it is given up
+   * @param backoffMs wait before the first retry, doubled for every further one
+   */
+  HttpResultSink(
+      String baseUrl,
+      String apiKey,
+      String suiteName,
+      String environment,
+      int maxAttempts,
+      long backoffMs) {
+    this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    this.apiKey = apiKey;
+    this.suiteName = suiteName;
+    this.environment = environment;
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.backoffMs = backoffMs;
+  }
+
+  /** One request per execution in the batch, which in practice is a single one */
+  @Override
+  public void write(List<ResultBatchWriter.PendingResult> batch)
+      throws IOException, InterruptedException, ResultBatchWriter.RejectedBatchException {
+    Map<String, ResultIngestBatch> requests = new LinkedHashMap<>();
+    for (ResultBatchWriter.PendingResult result : batch) {
+      requests
+          .computeIfAbsent(result.executionId(), this::newBatch)
+          .getResults()
+          .add(
+              ResultIngestBatch.ResultEvent.builder()
+                  .testId(result.testId())
+                  .testName(result.testName())
+                  .status(result.status())
+                  .startTime(result.startTime())
+                  .endTime(result.endTime())
+                  .build());
+    }
+    for (ResultIngestBatch request : requests.values()) {
+      send(request);
+    }
+  }
+
+  /** Report the status of the execution once this JVM recorded its last result */
+  void reportStatus(String executionId, TestStatus status)
+      throws IOException, InterruptedException, ResultBatchWriter.RejectedBatchException {
+    ResultIngestBatch request = newBatch(executionId);
+    request.setStatus(status);
+    send(request);
+  }
+
+  private ResultIngestBatch newBatch(String executionId) {
+    return ResultIngestBatch.builder()
+        .executionId(executionId)
+        .suiteName(suiteName)
+        .environment(environment)
+        .build();
+  }
+
+  private void send(ResultIngestBatch batch)
+      throws IOException, InterruptedException, ResultBatchWriter.RejectedBatchException {
+    byte[] body = gzip(mapper.writeValueAsBytes(batch));
+    IOException failure = null;
+    for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+      if (attempt > 1) {
+        Thread.sleep(Math.min(backoffMs << Math.min(attempt - 2, 16), MAX_BACKOFF_MS));
+      }
+      HttpResponse<String> response;
+      try {
+        response =
+            client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + INGEST_PATH))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Authorization", "Bearer " + token())
+                    .header("Content-Type", "application/json")
+                    .header("Content-Encoding", "gzip")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build(),
+                HttpResponse.BodyHandlers.ofString());
+      } catch (IOException e) {
+        failure = e;
+        continue;
+      }
+
+      int status = response.statusCode();
+      if (status >= 200 && status < 300) {
+        return;
+      }
+      failure = new IOException("Result ingestion failed with HTTP " + status);
+      if (status == 401) {
+        invalidateToken();
+      } else if (status != 429 && status < 500) {
+        // The batch itself was rejected; sending it again would not help
+        throw new ResultBatchWriter.RejectedBatchException(
+            "Result ingestion rejected with HTTP " + status + ": " + response.body(), null);
+      }
+    }
+    throw failure;
+  }
+
+  private synchronized String token() throws IOException, InterruptedException {
+    if (token != null && System.currentTimeMillis() < tokenExpiresAt) {
+      return token;
+    }
+    HttpResponse<String> response =
+        client.send(
+            HttpRequest.newBuilder(URI.create(baseUrl + TOKEN_PATH))
+                .timeout(Duration.ofSeconds(30))
+                .header("X-API-Key", apiKey)
+                .header("Content-Type", "application/json")
+                .POST(
+                    HttpRequest.BodyPublishers.ofString(
+                        mapper.writeValueAsString(Map.of("clientId", CLIENT_ID))))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IOException("Could not obtain internal API token: HTTP " + response.statusCode());
+    }
+    JsonNode json = mapper.readTree(response.body());
+    token = json.path("token").asText();
+    tokenExpiresAt =
+        System.currentTimeMillis()
+            + json.path("expiresIn").asLong(3600) * 1000
+            - TOKEN_RENEWAL_MARGIN_MS;
+    log.debug("Obtained internal API token for result ingestion");
+    return token;
+  }
+
+  private synchronized void invalidateToken() {
+    token = null;
+  }
+
+  private static byte[] gzip(byte[] data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(data);
+    }
+    return out.toByteArray();
+  }
+}
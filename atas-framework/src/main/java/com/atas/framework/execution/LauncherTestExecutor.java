@@ -0,0 +1,132 @@
+package com.atas.framework.execution;
+
+import com.atas.framework.config.ExecutionProperties;
+import com.atas.framework.execution.runner.RunnerRequest;
+import com.atas.framework.execution.runner.RunnerResult;
+import com.atas.framework.execution.runner.TestRunnerProcess;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Executes test selections through the JUnit Platform Launcher inside a warm runner JVM instead of
+ * spawning {@code mvnw test} for every request. Enabled with {@code atas.execution.mode=LAUNCHER}
+ * and a precompiled atas-tests classpath ({@code make runner-classpath}).
+ *
+ * <p>Runners are leased from the {@link TestRunnerPool}. When no runner can be leased, {@link
+ * #execute} returns {@code null} and the caller falls back to the Maven path.
+ */
+@Service
+@Slf4j
+public class LauncherTestExecutor {
+
+  private final ExecutionProperties properties;
+  private final TestRunnerPool runnerPool;
+
+  public LauncherTestExecutor(ExecutionProperties properties, TestRunnerPool runnerPool) {
+    this.properties = properties;
+    this.runnerPool = runnerPool;
+  }
+
+  /** Whether launcher mode is selected and a precompiled classpath is configured */
+  public boolean isEnabled() {
+    return runnerPool.isEnabled();
+  }
+
+  /**
+   * Execute a request in a leased runner and wait for it.
+   *
+   * @param request the selection to run
+   * @param timeoutMinutes maximum execution time; the runner is killed when it is exceeded
+   * @param output receives the test output line by line
+   * @return the runner's exit code, or {@code null} if the launcher cannot serve this request
+   * @throws TimeoutException if the execution did not finish in time
+   */
+  public Integer execute(RunnerRequest request, int timeoutMinutes, Consumer<String> output)
+      throws TimeoutException, InterruptedException {
+    CompletableFuture<Integer> exitCode = submit(request, output);
+    if (exitCode == null) {
+      return null;
+    }
+    try {
+      return exitCode.get(timeoutMinutes, TimeUnit.MINUTES);
+    } catch (TimeoutException | InterruptedException e) {
+      exitCode.cancel(true);
+      throw e;
+    } catch (ExecutionException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Submit a request to a leased runner without waiting for it. Cancelling the returned future
+   * kills the runner, which is the only way to stop tests that are still running.
+   *
+   * @param request the selection to run
+   * @param output receives the test output line by line
+   * @return future of the runner's exit code, or {@code null} if no runner could be leased
+   */
+  public CompletableFuture<Integer> submit(RunnerRequest request, Consumer<String> output)
+      throws InterruptedException {
+    TestRunnerProcess runner = runnerPool.lease();
+    if (runner == null) {
+      return null;
+    }
+
+    CompletableFuture<RunnerResult> result;
+    try {
+      request.setBasePackage(properties.getRunner().getBasePackage());
+      result = runner.execute(request, output);
+    } catch (IOException e) {
+      log.warn(
+          "Test runner {} unavailable for executionId {}: {}",
+          runner.getName(),
+          request.getExecutionId(),
+          e.getMessage());
+      runnerPool.discard(runner);
+      return null;
+    }
+
+    AtomicBoolean returned = new AtomicBoolean();
+    CompletableFuture<Integer> exitCode = new CompletableFuture<>();
+    result.whenComplete(
+        (summary, error) -> {
+          if (!returned.compareAndSet(false, true)) {
+            return;
+          }
+          if (error == null) {
+            log.info(
+                "Runner {} finished executionId {} in {} ms: {} found, {} succeeded, {} failed",
+                runner.getName(),
+                request.getExecutionId(),
+                summary.getDurationMillis(),
+                summary.getTestsFound(),
+                summary.getTestsSucceeded(),
+                summary.getTestsFailed());
+            runnerPool.release(runner, summary);
+            exitCode.complete(summary.getExitCode());
+          } else {
+            log.error(
+                "Test runner {} died during executionId {}: {}",
+                runner.getName(),
+                request.getExecutionId(),
+                error.getMessage());
+            runnerPool.discard(runner);
+            exitCode.complete(-1);
+          }
+        });
+    exitCode.whenComplete(
+        (code, error) -> {
+          if (exitCode.isCancelled() && returned.compareAndSet(false, true)) {
+            runnerPool.discard(runner);
+          }
+        });
+    return exitCode;
+  }
+}
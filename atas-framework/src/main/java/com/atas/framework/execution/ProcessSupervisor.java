@@ -0,0 +1,115 @@
+package com.atas.framework.execution;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Supervises child processes without dedicating a platform thread to each of them. Exits are
+ * observed through {@link Process#onExit()}, timeouts are scheduled on one shared timer thread and
+ * output streams are drained on virtual threads, so the number of supervised processes is bounded
+ * by the host rather than by thread pools.
+ */
+@Component
+@Slf4j
+public class ProcessSupervisor {
+
+  private final ExecutorService outputCaptureExecutor;
+  private final ScheduledThreadPoolExecutor timeouts;
+
+  public ProcessSupervisor(
+      @Qualifier("outputCaptureExecutor") ExecutorService outputCaptureExecutor) {
+    this.outputCaptureExecutor = outputCaptureExecutor;
+    this.timeouts =
+        new ScheduledThreadPoolExecutor(
+            1, new ThreadFactoryBuilder().setNameFormat("process-timeout").setDaemon(true).build());
+    // Most processes exit before their timeout; do not keep the cancelled timers around
+    this.timeouts.setRemoveOnCancelPolicy(true);
+  }
+
+  /**
+   * Watch a process until it exits or the timeout elapses.
+   *
+   * @return the exit code, or a future failed with {@link TimeoutException} once the process tree
+   *     has been killed after the timeout. Cancelling the future kills the process tree as well.
+   */
+  public CompletableFuture<Integer> supervise(Process process, long timeout, TimeUnit unit) {
+    CompletableFuture<Integer> exitCode = process.onExit().thenApply(Process::exitValue);
+    ScheduledFuture<?> timer =
+        timeouts.schedule(
+            () ->
+                exitCode.completeExceptionally(
+                    new TimeoutException(
+                        "Process "
+                            + process.pid()
+                            + " did not exit within "
+                            + timeout
+                            + " "
+                            + unit)),
+            timeout,
+            unit);
+    exitCode.whenComplete(
+        (code, error) -> {
+          timer.cancel(false);
+          if (error != null) {
+            destroy(process);
+          }
+        });
+    return exitCode;
+  }
+
+  /** Read a process's standard output line by line on a virtual thread */
+  public CompletableFuture<Void> readLines(Process process, Consumer<String> consumer) {
+    return readLines(process.getInputStream(), consumer);
+  }
+
+  /** Read a stream line by line on a virtual thread until it is closed */
+  public CompletableFuture<Void> readLines(InputStream stream, Consumer<String> consumer) {
+    return CompletableFuture.runAsync(
+        () -> {
+          try (BufferedReader reader =
+              new BufferedReader(new InputStreamReader(stream, Charset.defaultCharset()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+              consumer.accept(line);
+            }
+          } catch (IOException e) {
+            log.debug("Process output closed: {}", e.getMessage());
+          }
+        },
+        outputCaptureExecutor);
+  }
+
+  /** Kill a process and the JVMs it forked (Maven forks surefire) */
+  public void destroy(Process process) {
+    // Kill the parent first so it does not react to its children dying
+    List<ProcessHandle> descendants = process.descendants().toList();
+    process.destroyForcibly();
+    descendants.forEach(ProcessHandle::destroyForcibly);
+  }
+
+  /** Number of timeouts currently armed */
+  int pendingTimeouts() {
+    return timeouts.getQueue().size();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    timeouts.shutdownNow();
+  }
+}
@@ -0,0 +1,391 @@
+package com.atas.framework.execution;
+
+import com.atas.framework.model.TestStatus;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes test results recorded by {@link TestExecutionListener} on a background thread, so database
+ * or network latency is not added to the runtime of every test. Each result is first appended to a
+ * {@link ResultSpool}, which is all a test thread waits for; the writer reads the spool back and
+ * hands it to the {@link ResultSink} in batches once {@code batchSize} results are waiting or
+ * {@code flushIntervalMs} elapsed.
+ *
+ * <p>While the sink is unavailable the writer retries with backoff and results keep accumulating in
+ * the spool. Whatever is still undelivered when the JVM exits is replayed by the next writer using
+ * the same spool directory, so results are never dropped. Results a sink rejects outright are set
+ * aside next to the spool file instead of blocking the ones behind them.
+ */
+@Slf4j
+class ResultBatchWriter implements AutoCloseable {
+
+  /** Destination of the batches */
+  @FunctionalInterface
+  interface ResultSink {
+    /**
+     * Persist the whole batch or, by throwing, none of it. Any exception other than {@link
+     * RejectedBatchException} means the destination is unavailable and the batch is retried.
+     */
+    void write(List<PendingResult> batch) throws Exception;
+  }
+
+  /** Thrown by a sink when a batch can never be written, so retrying it would not help */
+  static class RejectedBatchException extends Exception {
+    RejectedBatchException(String message, Throwable cause) {
+      super(message, cause);
+    }
+  }
+
+  /** Source of pooled connections */
+  @FunctionalInterface
+  interface ConnectionSource {
+    Connection getConnection() throws SQLException;
+  }
+
+  /** A result waiting to be written */
+  record PendingResult(
+      String executionId,
+      String testId,
+      String testName,
+      TestStatus status,
+      LocalDateTime startTime,
+      LocalDateTime endTime) {}
+
+  private static final long MAX_RETRY_DELAY_MS = 10_000;
+
+  private final ResultSink sink;
+  private final Path spoolDirectory;
+  private final ResultSpool spool;
+  private final int batchSize;
+  private final long flushIntervalMs;
+  private final Thread thread;
+  private final Object progress = new Object();
+  private final Map<String, AtomicLong> written = new ConcurrentHashMap<>();
+  private boolean flushRequested;
+  private volatile boolean failing;
+  private volatile boolean closed;
+
+  ResultBatchWriter(ResultSink sink, Path spoolDirectory, int batchSize, long flushIntervalMs)
+      throws IOException {
+    this.sink = sink;
+    this.spoolDirectory = spoolDirectory;
+    this.spool = ResultSpool.create(spoolDirectory);
+    this.batchSize = batchSize;
+    this.flushIntervalMs = flushIntervalMs;
+    this.thread = Thread.ofPlatform().name("atas-result-writer").daemon().start(this::run);
+  }
+
+  ResultSink sink() {
+    return sink;
+  }
+
+  /** Append a result to the spool; it is written by the background thread */
+  void submit(PendingResult result) throws IOException {
+    if (closed) {
+      throw new IllegalStateException("Result writer is closed");
+    }
+    spool.append(result);
+    if (spool.pending() >= batchSize) {
+      synchronized (progress) {
+        progress.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Wait until every result submitted before this call has been written. Returns early while the
+   * sink is unavailable; those results stay in the spool until it is back.
+   */
+  void flush() {
+    long target = spool.appended();
+    synchronized (progress) {
+      flushRequested = true;
+      progress.notifyAll();
+      try {
+        while (spool.committed() < target && !failing && thread.isAlive()) {
+          progress.wait(flushIntervalMs);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        log.warn("Interrupted while waiting for results to be written");
+      }
+    }
+  }
+
+  /** Number of results of the execution this writer delivered, forgetting the execution */
+  long takeWritten(String executionId) {
+    AtomicLong count = written.remove(executionId);
+    return count != null ? count.get() : 0;
+  }
+
+  /** Write what the sink accepts and stop the writer thread */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    flush();
+    closed = true;
+    synchronized (progress) {
+      progress.notifyAll();
+    }
+    try {
+      thread.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void run() {
+    List<ResultSpool> leftovers = new ArrayList<>(ResultSpool.leftovers(spoolDirectory));
+    if (!leftovers.isEmpty()) {
+      log.info("Replaying {} result spool files left by earlier test runs", leftovers.size());
+    }
+    List<PendingResult> batch = List.of();
+    ResultSpool source = spool;
+    int failures = 0;
+    try {
+      while (true) {
+        try {
+          if (batch.isEmpty()) {
+            awaitBatch(!leftovers.isEmpty());
+            if (spool.hasUnread()) {
+              source = spool;
+              // One fsync covers every append since the last batch
+              spool.sync();
+              batch = spool.read(batchSize);
+            } else if (!leftovers.isEmpty()) {
+              source = leftovers.get(0);
+              batch = source.read(batchSize);
+              if (batch.isEmpty()) {
+                source.commit();
+                source.close();
+                leftovers.remove(0);
+                continue;
+              }
+            } else if (closed) {
+              return;
+            } else {
+              continue;
+            }
+          }
+
+          deliver(source, batch);
+          source.commit();
+          batch = List.of();
+          if (failing) {
+            log.info("Result sink available again, resuming delivery");
+          }
+          failures = 0;
+          failing = false;
+          synchronized (progress) {
+            progress.notifyAll();
+          }
+        } catch (Exception e) {
+          if (!failing) {
+            log.error(
+                "Error saving {} test results, keeping them spooled in {}: {}",
+                batch.size(),
+                spool.file(),
+                e.getMessage(),
+                e);
+          } else {
+            log.debug("Result sink still unavailable: {}", e.getMessage());
+          }
+          failing = true;
+          failures++;
+          synchronized (progress) {
+            progress.notifyAll();
+            if (closed) {
+              return;
+            }
+            progress.wait(
+                Math.min(flushIntervalMs << Math.min(failures - 1, 16), MAX_RETRY_DELAY_MS));
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      leftovers.forEach(ResultSpool::close);
+      try {
+        if (spool.hasUnread() || !batch.isEmpty()) {
+          log.warn(
+              "{} test results could not be written yet; {} keeps them for the next test run",
+              spool.appended() - spool.committed(),
+              spool.file());
+        }
+      } catch (IOException e) {
+        log.warn("Cannot inspect result spool {}: {}", spool.file(), e.getMessage());
+      }
+      spool.close();
+    }
+  }
+
+  /** Wait until a batch is full, a flush was requested or the flush interval elapsed */
+  private void awaitBatch(boolean replaying) throws InterruptedException {
+    synchronized (progress) {
+      long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+      while (!closed && !flushRequested && !replaying && spool.pending() < batchSize) {
+        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remaining <= 0) {
+          break;
+        }
+        progress.wait(remaining);
+      }
+      flushRequested = false;
+    }
+  }
+
+  /**
+   * Hand a batch to the sink. If it is rejected, its results are retried one by one, so a single
+   * bad result only sets itself aside.
+   */
+  private void deliver(ResultSpool source, List<PendingResult> batch) throws Exception {
+    try {
+      sink.write(batch);
+    } catch (RejectedBatchException e) {
+      if (batch.size() > 1) {
+        for (PendingResult result : batch) {
+          deliver(source, List.of(result));
+        }
+        return;
+      }
+      log.error(
+          "Test result {} was rejected and set aside next to {}: {}",
+          batch.get(0).testId(),
+          source.file(),
+          e.getMessage());
+      source.reject(batch.get(0), e.getMessage());
+      return;
+    }
+    if (source == spool) {
+      batch.forEach(
+          result ->
+              written
+                  .computeIfAbsent(result.executionId(), id -> new AtomicLong())
+                  .incrementAndGet());
+    }
+  }
+
+  /**
+   * Upserts each batch in one transaction over a pooled connection. Executions unknown to the
+   * database, because it was not reachable when the run started, are created on the way.
+   */
+  static class JdbcSink implements ResultSink {
+
+    private final ConnectionSource connections;
+    private final String suiteName;
+    private final String environment;
+    private final Map<String, Long> executionDbIds = new ConcurrentHashMap<>();
+
+    JdbcSink(ConnectionSource connections, String suiteName, String environment) {
+      this.connections = connections;
+      this.suiteName = suiteName;
+      this.environment = environment;
+    }
+
+    @Override
+    public void write(List<PendingResult> batch) throws SQLException, RejectedBatchException {
+      // Not getting a connection means the database is unavailable, which is always retried
+      try (Connection conn = connections.getConnection()) {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        Map<String, Long> resolved = new HashMap<>();
+        try (PreparedStatement stmt = ResultUpsert.prepare(conn)) {
+          for (PendingResult result : batch) {
+            ResultUpsert.bind(
+                stmt,
+                executionDbId(conn, result.executionId(), resolved),
+                result.testId(),
+                result.testName(),
+                result.status(),
+                result.startTime(),
+                result.endTime());
+            stmt.addBatch();
+          }
+          stmt.executeBatch();
+          conn.commit();
+          executionDbIds.putAll(resolved);
+        } catch (SQLException e) {
+          conn.rollback();
+          if (isTransient(e)) {
+            throw e;
+          }
+          throw new RejectedBatchException(e.getMessage(), e);
+        } finally {
+          conn.setAutoCommit(autoCommit);
+        }
+      }
+    }
+
+    /** Primary key of the execution; new ones are only cached once the transaction committed */
+    private long executionDbId(Connection conn, String executionId, Map<String, Long> resolved)
+        throws SQLException {
+      Long cached = executionDbIds.get(executionId);
+      if (cached == null) {
+        cached = resolved.get(executionId);
+      }
+      if (cached != null) {
+        return cached;
+      }
+      long id;
+      try (PreparedStatement stmt =
+          conn.prepareStatement("SELECT id FROM test_executions WHERE execution_id = ?")) {
+        stmt.setString(1, executionId);
+        try (ResultSet rs = stmt.executeQuery()) {
+          id = rs.next() ? rs.getLong(1) : createExecution(conn, executionId);
+        }
+      }
+      resolved.put(executionId, id);
+      return id;
+    }
+
+    private long createExecution(Connection conn, String executionId) throws SQLException {
+      try (PreparedStatement stmt =
+          conn.prepareStatement(
+              "INSERT INTO test_executions (execution_id, suite_name, status, start_time,"
+                  + " environment) VALUES (?, ?, ?, ?, ?)",
+              new String[] {"id"})) {
+        stmt.setString(1, executionId);
+        stmt.setString(2, suiteName);
+        stmt.setString(3, TestStatus.RUNNING.name());
+        stmt.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+        stmt.setString(5, environment);
+        stmt.executeUpdate();
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+          if (!keys.next()) {
+            throw new SQLException("No key generated for execution " + executionId);
+          }
+          log.info("Created execution record: {}", executionId);
+          return keys.getLong(1);
+        }
+      }
+    }
+
+    /** Connection loss, timeouts and rollbacks the database asks to retry */
+    private static boolean isTransient(SQLException e) {
+      String state = e.getSQLState();
+      return e instanceof SQLTransientException
+          || e instanceof SQLRecoverableException
+          || (state != null
+              && (state.startsWith("08") || state.startsWith("40") || state.startsWith("57")));
+    }
+  }
+}
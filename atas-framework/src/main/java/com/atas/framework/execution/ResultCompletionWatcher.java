@@ -0,0 +1,80 @@
+package com.atas.framework.execution;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Watches the output of an execution for the completion markers printed by {@link
+ * TestExecutionListener} once every result of a test JVM has been written. The execution is
+ * complete when each expected reporter (one per shard) has printed its marker, so the final status
+ * can be resolved without guessing how long the listener still needs.
+ */
+@Slf4j
+class ResultCompletionWatcher {
+
+  private final String executionId;
+  private final int expectedReporters;
+  private final AtomicInteger reporters = new AtomicInteger();
+  private final AtomicLong results = new AtomicLong();
+  private final CompletableFuture<Long> completion = new CompletableFuture<>();
+
+  ResultCompletionWatcher(String executionId, int expectedReporters) {
+    this.executionId = executionId;
+    this.expectedReporters = expectedReporters;
+  }
+
+  /** Wrap an output consumer; marker lines of this execution are consumed and not passed on */
+  Consumer<String> watch(Consumer<String> output) {
+    return line -> {
+      int index = line.indexOf(TestExecutionListener.RESULTS_MARKER);
+      if (index < 0) {
+        output.accept(line);
+        return;
+      }
+      String[] fields =
+          line.substring(index + TestExecutionListener.RESULTS_MARKER.length()).trim().split(" ");
+      if (fields.length != 2 || !executionId.equals(fields[0])) {
+        output.accept(line);
+        return;
+      }
+      try {
+        results.addAndGet(Long.parseLong(fields[1]));
+      } catch (NumberFormatException e) {
+        output.accept(line);
+        return;
+      }
+      if (reporters.incrementAndGet() >= expectedReporters) {
+        completion.complete(results.get());
+      }
+    };
+  }
+
+  /**
+   * Wait for all reporters to print their marker.
+   *
+   * @return the number of results they recorded, or empty if a reporter did not finish within the
+   *     timeout (it crashed, was killed or recording was disabled)
+   */
+  Optional<Long> await(long timeout, TimeUnit unit) {
+    try {
+      return Optional.of(completion.get(timeout, unit));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Optional.empty();
+    } catch (ExecutionException | TimeoutException e) {
+      log.debug(
+          "{} of {} result reporters finished for executionId {}",
+          reporters.get(),
+          expectedReporters,
+          executionId);
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package com.atas.framework.execution;
+
+import com.atas.framework.execution.dto.ResultIngestBatch;
+import com.atas.framework.execution.dto.ResultIngestResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Internal REST controller receiving the results test JVMs record, so they do not need direct
+ * database access. Requires an internal API token; bodies may be gzip-compressed.
+ */
+@RestController
+@RequestMapping("/api/v1/internal/ingest")
+@RequiredArgsConstructor
+@Slf4j
+public class ResultIngestController {
+
+  private final ResultIngestService resultIngestService;
+
+  /**
+   * Persist a batch of result, step, assertion and metric events in one transaction
+   *
+   * @param batch Events of one execution
+   * @return Number of rows written per event type
+   */
+  @PostMapping("/results")
+  public ResponseEntity<ResultIngestResponse> ingestResults(
+      @Valid @RequestBody ResultIngestBatch batch) {
+    log.debug(
+        "Ingesting {} results, {} steps, {} assertions and {} metrics for execution {}",
+        batch.getResults().size(),
+        batch.getSteps().size(),
+        batch.getAssertions().size(),
+        batch.getMetrics().size(),
+        batch.getExecutionId());
+    return ResponseEntity.ok(resultIngestService.ingest(batch));
+  }
+}
@@ -0,0 +1,354 @@
+package com.atas.framework.execution;
+
+import com.atas.framework.execution.dto.ResultIngestBatch;
+import com.atas.framework.execution.dto.ResultIngestResponse;
+import com.atas.framework.model.TestStatus;
+import com.atas.framework.monitoring.DailyStatsRollup;
+import com.atas.framework.monitoring.ExecutionUpdatePublisher;
+import com.atas.framework.monitoring.LiveExecutionCounters;
+import com.atas.framework.monitoring.LiveExecutionCounters.Transition;
+import com.atas.framework.repository.TestExecutionRepository;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Persists result batches reported by test JVMs over HTTP. Every batch is written in a single
+ * transaction with one JDBC batch per event type, so a test JVM never needs a database connection
+ * of its own.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResultIngestService {
+
+  /** IDs per query when resolving the results events belong to or replacing their events */
+  private static final int LOOKUP_CHUNK_SIZE = 500;
+
+  /** Relies on the unique {@code (result_id, step_number)} constraint of {@code test_steps} */
+  private static final String POSTGRES_STEP_UPSERT =
+      "INSERT INTO test_steps (result_id, step_number, action, description, status, start_time,"
+          + " end_time, data) VALUES (?, ?, ?, ?, ?, ?, ?, CAST(? AS JSONB))"
+          + " ON CONFLICT (result_id, step_number) DO UPDATE SET action = EXCLUDED.action,"
+          + " description = EXCLUDED.description, status = EXCLUDED.status,"
+          + " start_time = EXCLUDED.start_time, end_time = EXCLUDED.end_time, data = EXCLUDED.data";
+
+  private static final String H2_STEP_UPSERT =
+      "MERGE INTO test_steps (result_id, step_number, action, description, status, start_time,"
+          + " end_time, data) KEY (result_id, step_number) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TestExecutionRepository executionRepository;
+  private final DailyStatsRollup dailyStatsRollup;
+  private final LiveExecutionCounters liveCounters;
+  private final ExecutionUpdatePublisher updatePublisher;
+
+  private volatile Boolean h2;
+
+  /**
+   * Write a batch. Results are upserted first, so steps, assertions and metrics may refer to
+   * results of the same batch. Replaying a batch changes nothing: steps are upserted by step
+   * number, and the assertions and metrics of a test replace those it reported before.
+   *
+   * @throws IllegalArgumentException if the execution does not exist and the batch does not carry
+   *     what is needed to create it
+   */
+  @Transactional
+  public ResultIngestResponse ingest(ResultIngestBatch batch) {
+    String executionId = batch.getExecutionId();
+    long executionDbId = resolveExecution(batch);
+
+    Map<String, TestStatus> previous =
+        statuses(
+            executionDbId,
+            batch.getResults().stream().map(ResultIngestBatch.ResultEvent::getTestId).toList());
+    int results = upsertResults(executionDbId, batch.getResults());
+    Map<String, Long> resultIds =
+        resultIds(
+            executionDbId,
+            Stream.of(
+                    batch.getSteps().stream().map(ResultIngestBatch.StepEvent::getTestId),
+                    batch.getAssertions().stream().map(ResultIngestBatch.AssertionEvent::getTestId),
+                    batch.getMetrics().stream().map(ResultIngestBatch.MetricEvent::getTestId))
+                .flatMap(Function.identity())
+                .toList());
+
+    List<Object[]> steps = new ArrayList<>();
+    List<Object[]> assertions = new ArrayList<>();
+    List<Object[]> metrics = new ArrayList<>();
+    int skipped = 0;
+    for (ResultIngestBatch.StepEvent step : batch.getSteps()) {
+      Long resultId = resultIds.get(step.getTestId());
+      if (resultId == null) {
+        skipped++;
+        continue;
+      }
+      steps.add(
+          new Object[] {
+            resultId,
+            step.getStepNumber(),
+            step.getAction(),
+            step.getDescription(),
+            name(step.getStatus()),
+            step.getStartTime(),
+            step.getEndTime(),
+            step.getData()
+          });
+    }
+    LocalDateTime now = LocalDateTime.now();
+    for (ResultIngestBatch.AssertionEvent assertion : batch.getAssertions()) {
+      Long resultId = resultIds.get(assertion.getTestId());
+      if (resultId == null) {
+        skipped++;
+        continue;
+      }
+      assertions.add(
+          new Object[] {
+            resultId,
+            assertion.getType(),
+            assertion.getExpectValue(),
+            assertion.getActualValue(),
+            name(assertion.getStatus()),
+            now
+          });
+    }
+    for (ResultIngestBatch.MetricEvent metric : batch.getMetrics()) {
+      Long resultId = resultIds.get(metric.getTestId());
+      if (resultId == null) {
+        skipped++;
+        continue;
+      }
+      metrics.add(new Object[] {resultId, metric.getKey(), metric.getValue()});
+    }
+    if (skipped > 0) {
+      log.warn("Dropped {} events of execution {} without a recorded result", skipped, executionId);
+    }
+
+    if (!steps.isEmpty()) {
+      jdbcTemplate.batchUpdate(isH2() ? H2_STEP_UPSERT : POSTGRES_STEP_UPSERT, steps);
+    }
+    if (!assertions.isEmpty()) {
+      deleteByResult("test_assertions", assertions);
+      jdbcTemplate.batchUpdate(
+          "INSERT INTO test_assertions (result_id, type, expect_value, actual_value, status,"
+              + " created_at) VALUES (?, ?, ?, ?, ?, ?)",
+          assertions);
+    }
+    if (!metrics.isEmpty()) {
+      deleteByResult("test_metrics", metrics);
+      jdbcTemplate.batchUpdate(
+          "INSERT INTO test_metrics (result_id, metric_key, metric_value) VALUES (?, ?, ?)",
+          metrics);
+    }
+
+    // Failures are applied as they arrive, like the listener does when writing directly
+    if (batch.getResults().stream()
+        .anyMatch(
+            result ->
+                result.getStatus() == TestStatus.FAILED
+                    || result.getStatus() == TestStatus.ERROR)) {
+      transition(executionId, TestStatus.FAILED);
+    }
+    if (batch.getStatus() != null) {
+      transition(executionId, batch.getStatus());
+    }
+    List<Transition> transitions = new ArrayList<>(batch.getResults().size());
+    for (ResultIngestBatch.ResultEvent result : batch.getResults()) {
+      transitions.add(
+          new Transition(previous.put(result.getTestId(), result.getStatus()), result.getStatus()));
+    }
+    Map<String, Long> deltas = liveCounters.record(executionId, transitions);
+    if (!deltas.isEmpty() || batch.getStatus() != null) {
+      updatePublisher.publish(executionId, batch.getStatus(), deltas);
+    }
+    dailyStatsRollup.markChanged(executionId);
+
+    return ResultIngestResponse.builder()
+        .executionId(executionId)
+        .results(results)
+        .steps(steps.size())
+        .assertions(assertions.size())
+        .metrics(metrics.size())
+        .skipped(skipped)
+        .build();
+  }
+
+  /** Primary key of the batch's execution, creating the execution for local recordings */
+  private long resolveExecution(ResultIngestBatch batch) {
+    List<Long> ids =
+        jdbcTemplate.queryForList(
+            "SELECT id FROM test_executions WHERE execution_id = ?",
+            Long.class,
+            batch.getExecutionId());
+    if (!ids.isEmpty()) {
+      return ids.get(0);
+    }
+    if (batch.getSuiteName() == null || batch.getSuiteName().isBlank()) {
+      throw new IllegalArgumentException("Execution not found: " + batch.getExecutionId());
+    }
+
+    KeyHolder keyHolder = new GeneratedKeyHolder();
+    jdbcTemplate.update(
+        conn -> {
+          PreparedStatement stmt =
+              conn.prepareStatement(
+                  "INSERT INTO test_executions (execution_id, suite_name, status, start_time,"
+                      + " environment) VALUES (?, ?, ?, ?, ?)",
+                  new String[] {"id"});
+          stmt.setString(1, batch.getExecutionId());
+          stmt.setString(2, batch.getSuiteName());
+          stmt.setString(3, TestStatus.RUNNING.name());
+          stmt.setObject(4, LocalDateTime.now());
+          stmt.setString(5, batch.getEnvironment());
+          return stmt;
+        },
+        keyHolder);
+    log.info("Created execution record: {}", batch.getExecutionId());
+    return keyHolder.getKey().longValue();
+  }
+
+  private int upsertResults(long executionDbId, List<ResultIngestBatch.ResultEvent> results) {
+    if (results.isEmpty()) {
+      return 0;
+    }
+    return jdbcTemplate.execute(
+        (ConnectionCallback<Integer>)
+            conn -> {
+              try (PreparedStatement stmt = ResultUpsert.prepare(conn)) {
+                for (ResultIngestBatch.ResultEvent result : results) {
+                  ResultUpsert.bind(
+                      stmt,
+                      executionDbId,
+                      result.getTestId(),
+                      result.getTestName() != null ? result.getTestName() : result.getTestId(),
+                      result.getStatus(),
+                      result.getStartTime(),
+                      result.getEndTime());
+                  stmt.addBatch();
+                }
+                int written = 0;
+                for (int count : stmt.executeBatch()) {
+                  written += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+                }
+                return written;
+              }
+            });
+  }
+
+  /**
+   * Delete what the table holds for the results of the given rows, which start with the result ID
+   */
+  private void deleteByResult(String table, List<Object[]> rows) {
+    NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbcTemplate);
+    List<Object> resultIds =
+        new ArrayList<>(new LinkedHashSet<>(rows.stream().map(row -> row[0]).toList()));
+    for (int from = 0; from < resultIds.size(); from += LOOKUP_CHUNK_SIZE) {
+      named.update(
+          "DELETE FROM " + table + " WHERE result_id IN (:resultIds)",
+          new MapSqlParameterSource(
+              "resultIds",
+              resultIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, resultIds.size()))));
+    }
+  }
+
+  /** Result IDs of the given tests within the execution; tests without a result are left out */
+  private Map<String, Long> resultIds(long executionDbId, List<String> testIds) {
+    Map<String, Long> ids = new HashMap<>();
+    queryResults(executionDbId, testIds, rs -> ids.put(rs.getString("test_id"), rs.getLong("id")));
+    return ids;
+  }
+
+  /** Current statuses of the given tests within the execution, before the batch is written */
+  private Map<String, TestStatus> statuses(long executionDbId, List<String> testIds) {
+    Map<String, TestStatus> statuses = new HashMap<>();
+    queryResults(
+        executionDbId,
+        testIds,
+        rs -> statuses.put(rs.getString("test_id"), TestStatus.valueOf(rs.getString("status"))));
+    return statuses;
+  }
+
+  private void queryResults(long executionDbId, List<String> testIds, RowCallbackHandler handler) {
+    if (testIds.isEmpty()) {
+      return;
+    }
+    NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbcTemplate);
+    List<String> distinct = new ArrayList<>(new LinkedHashSet<>(testIds));
+    for (int from = 0; from < distinct.size(); from += LOOKUP_CHUNK_SIZE) {
+      named.query(
+          "SELECT id, test_id, status FROM test_results"
+              + " WHERE execution_id = :executionId AND test_id IN (:testIds)",
+          new MapSqlParameterSource()
+              .addValue("executionId", executionDbId)
+              .addValue(
+                  "testIds",
+                  distinct.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, distinct.size()))),
+          handler);
+    }
+  }
+
+  private void transition(String executionId, TestStatus status) {
+    int updated =
+        executionRepository.transitionStatus(
+            executionId,
+            status,
+            reportableFrom(status),
+            status == TestStatus.PASSED
+                || status == TestStatus.FAILED
+                || status == TestStatus.ERROR
+                || status == TestStatus.TIMEOUT,
+            LocalDateTime.now());
+    if (updated > 0) {
+      log.info("Updated execution status: {} -> {}", executionId, status);
+    }
+  }
+
+  /**
+   * Statuses a reported status may replace. A test JVM only knows about its own tests, so PASSED is
+   * applied to a running execution only, while failures override a reported success.
+   */
+  private static Set<TestStatus> reportableFrom(TestStatus status) {
+    if (status == TestStatus.PASSED) {
+      return EnumSet.of(TestStatus.RUNNING);
+    }
+    Set<TestStatus> from = EnumSet.of(TestStatus.QUEUED, TestStatus.RUNNING, status);
+    if (status == TestStatus.FAILED || status == TestStatus.ERROR) {
+      from.add(TestStatus.PASSED);
+      from.add(TestStatus.SKIPPED);
+    }
+    return from;
+  }
+
+  private boolean isH2() {
+    Boolean cached = h2;
+    if (cached == null) {
+      cached = jdbcTemplate.execute((ConnectionCallback<Boolean>) ResultUpsert::isH2);
+      h2 = cached;
+    }
+    return cached;
+  }
+
+  private static String name(TestStatus status) {
+    return status != null ? status.name() : null;
+  }
+}
@@ -0,0 +1,340 @@
+package com.atas.framework.execution;
+
+import com.atas.framework.model.TestStatus;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only file of recorded results, written before any of them is sent to the database or the
+ * ingest endpoint. Records are read back in order by the {@link ResultBatchWriter} and marked
+ * committed once delivered; what is not committed when the test JVM exits is replayed by the next
+ * one using the same spool directory. Each file is locked by the JVM writing it, so files of
+ * running JVMs are never mistaken for leftovers.
+ *
+ * <p>A record is a length and CRC32 header followed by its fields; a record torn by a crash fails
+ * its checksum and ends the file. The committed offset is kept in a {@code .ckpt} file next to it.
+ * Delivery is at least once, which the idempotent result upsert makes safe.
+ */
+@Slf4j
+final class ResultSpool implements AutoCloseable {
+
+  static final String SUFFIX = ".wal";
+  private static final String CHECKPOINT_SUFFIX = ".ckpt";
+  private static final String REJECTED_SUFFIX = ".rejected";
+  private static final int HEADER_BYTES = 8;
+  private static final int MAX_RECORD_BYTES = 1 << 20;
+
+  private final Path file;
+  private final Path checkpoint;
+  private final FileChannel channel;
+  private final FileLock lock;
+
+  /** Whether this JVM appends to the file, as opposed to replaying a leftover one */
+  private final boolean own;
+
+  private long readOffset;
+  private long committedOffset;
+  private long appended;
+  private long read;
+  private long committed;
+
+  private ResultSpool(Path file, FileChannel channel, FileLock lock, boolean own)
+      throws IOException {
+    this.file = file;
+    this.checkpoint = sibling(file, CHECKPOINT_SUFFIX);
+    this.channel = channel;
+    this.lock = lock;
+    this.own = own;
+    this.committedOffset = readCheckpoint();
+    this.readOffset = committedOffset;
+  }
+
+  /** Create a spool file of this JVM in the directory */
+  static ResultSpool create(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    Path file =
+        directory.resolve(
+            "results-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID() + SUFFIX);
+    FileChannel channel =
+        FileChannel.open(
+            file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    return new ResultSpool(file, channel, channel.lock(), true);
+  }
+
+  /**
+   * Spool files in the directory no running JVM holds, left behind by test JVMs that could not
+   * deliver all of their results. They stay locked by the caller until closed.
+   */
+  static List<ResultSpool> leftovers(Path directory) {
+    List<ResultSpool> leftovers = new ArrayList<>();
+    if (!Files.isDirectory(directory)) {
+      return leftovers;
+    }
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+      for (Path file : files) {
+        FileChannel channel = null;
+        try {
+          channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+          FileLock lock = channel.tryLock();
+          if (lock == null) {
+            channel.close();
+            continue;
+          }
+          leftovers.add(new ResultSpool(file, channel, lock, false));
+        } catch (OverlappingFileLockException e) {
+          // Held by this JVM
+          channel.close();
+        } catch (IOException e) {
+          log.warn("Cannot open result spool {}: {}", file, e.getMessage());
+          if (channel != null) {
+            channel.close();
+          }
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Cannot list result spool directory {}: {}", directory, e.getMessage());
+    }
+    return leftovers;
+  }
+
+  Path file() {
+    return file;
+  }
+
+  /** Append a record. Only the OS page cache is involved; {@link #sync()} makes it durable. */
+  synchronized void append(ResultBatchWriter.PendingResult result) throws IOException {
+    byte[] payload = encode(result);
+    CRC32 crc = new CRC32();
+    crc.update(payload);
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+    buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+    long start = channel.size();
+    long position = start;
+    try {
+      while (buffer.hasRemaining()) {
+        position += channel.write(buffer, position);
+      }
+    } catch (IOException e) {
+      // Leave no partial record behind for the next append to follow
+      channel.truncate(start);
+      throw e;
+    }
+    appended++;
+  }
+
+  /** Flush appended records to disk; called once per batch, so many appends share one fsync */
+  void sync() throws IOException {
+    channel.force(false);
+  }
+
+  /** Whether records follow the ones read so far */
+  synchronized boolean hasUnread() throws IOException {
+    return readOffset < channel.size();
+  }
+
+  /** Records appended by this JVM and not yet read */
+  synchronized long pending() {
+    return appended - read;
+  }
+
+  /** Records appended by this JVM */
+  synchronized long appended() {
+    return appended;
+  }
+
+  /** Records read and then committed */
+  synchronized long committed() {
+    return committed;
+  }
+
+  /**
+   * Read up to {@code max} records following the ones read so far. A record that is incomplete or
+   * fails its checksum ends the read; in a leftover file it marks where its JVM crashed.
+   */
+  synchronized List<ResultBatchWriter.PendingResult> read(int max) throws IOException {
+    List<ResultBatchWriter.PendingResult> results = new ArrayList<>();
+    long size = channel.size();
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+    while (results.size() < max && readOffset < size) {
+      header.clear();
+      if (readOffset + HEADER_BYTES > size) {
+        log.warn("Skipping the corrupt end of result spool {} at offset {}", file, readOffset);
+        readOffset = size;
+        break;
+      }
+      readFully(header, readOffset);
+      int length = header.getInt(0);
+      int checksum = header.getInt(4);
+      boolean complete =
+          length >= 0 && length <= MAX_RECORD_BYTES && readOffset + HEADER_BYTES + length <= size;
+      ByteBuffer payload = ByteBuffer.allocate(complete ? length : 0);
+      if (complete) {
+        readFully(payload, readOffset + HEADER_BYTES);
+      }
+      CRC32 crc = new CRC32();
+      crc.update(payload.array());
+      if (!complete || (int) crc.getValue() != checksum) {
+        log.warn("Skipping the corrupt end of result spool {} at offset {}", file, readOffset);
+        readOffset = size;
+        break;
+      }
+      results.add(decode(payload.array()));
+      readOffset += HEADER_BYTES + length;
+    }
+    read += results.size();
+    return results;
+  }
+
+  /**
+   * Mark everything read so far as delivered. Once an own file has been delivered completely it is
+   * truncated, so it only ever holds what is still in flight.
+   */
+  synchronized void commit() throws IOException {
+    committed = read;
+    committedOffset = readOffset;
+    if (own && committedOffset == channel.size()) {
+      channel.truncate(0);
+      readOffset = 0;
+      committedOffset = 0;
+    }
+    writeCheckpoint(committedOffset);
+  }
+
+  /** Keep records that were permanently rejected next to the spool file for inspection */
+  void reject(ResultBatchWriter.PendingResult result, String reason) {
+    Path rejected = sibling(file, REJECTED_SUFFIX);
+    String line =
+        String.join(
+                "\t",
+                result.executionId(),
+                result.testId(),
+                String.valueOf(result.testName()),
+                String.valueOf(result.status()),
+                String.valueOf(result.startTime()),
+                String.valueOf(result.endTime()),
+                String.valueOf(reason).replace('\n', ' '))
+            + System.lineSeparator();
+    try {
+      Files.writeString(rejected, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      log.error(
+          "Cannot keep rejected result {} in {}: {}", result.testId(), rejected, e.getMessage());
+    }
+  }
+
+  /**
+   * Release the file. It is deleted if everything in it was delivered, otherwise kept for the next
+   * test JVM to replay.
+   */
+  @Override
+  public synchronized void close() {
+    try {
+      boolean delivered = committedOffset >= channel.size();
+      lock.release();
+      channel.close();
+      if (delivered) {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(checkpoint);
+      }
+    } catch (IOException e) {
+      log.warn("Cannot close result spool {}: {}", file, e.getMessage());
+    }
+  }
+
+  private void readFully(ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      int n = channel.read(buffer, position + buffer.position());
+      if (n < 0) {
+        throw new IOException("Unexpected end of result spool " + file);
+      }
+    }
+  }
+
+  private long readCheckpoint() throws IOException {
+    if (!Files.exists(checkpoint)) {
+      return 0;
+    }
+    byte[] bytes = Files.readAllBytes(checkpoint);
+    long offset = bytes.length == Long.BYTES ? ByteBuffer.wrap(bytes).getLong() : 0;
+    // A checkpoint past the end belongs to a truncated file
+    return offset <= channel.size() ? offset : 0;
+  }
+
+  private void writeCheckpoint(long offset) throws IOException {
+    Files.write(checkpoint, ByteBuffer.allocate(Long.BYTES).putLong(offset).array());
+  }
+
+  private static Path sibling(Path file, String suffix) {
+    String name = file.getFileName().toString();
+    return file.resolveSibling(name.substring(0, name.length() - SUFFIX.length()) + suffix);
+  }
+
+  private static byte[] encode(ResultBatchWriter.PendingResult result) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      writeString(out, result.executionId());
+      writeString(out, result.testId());
+      writeString(out, result.testName());
+      writeString(out, result.status() != null ? result.status().name() : null);
+      writeString(out, result.startTime() != null ? result.startTime().toString() : null);
+      writeString(out, result.endTime() != null ? result.endTime().toString() : null);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static ResultBatchWriter.PendingResult decode(byte[] payload) throws IOException {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+      String executionId = readString(in);
+      String testId = readString(in);
+      String testName = readString(in);
+      String status = readString(in);
+      String startTime = readString(in);
+      String endTime = readString(in);
+      return new ResultBatchWriter.PendingResult(
+          executionId,
+          testId,
+          testName,
+          status != null ? TestStatus.valueOf(status) : null,
+          startTime != null ? LocalDateTime.parse(startTime) : null,
+          endTime != null ? LocalDateTime.parse(endTime) : null);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
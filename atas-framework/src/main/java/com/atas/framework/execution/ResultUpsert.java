@@ -0,0 +1,80 @@
+package com.atas.framework.execution;
+
+import com.atas.framework.model.TestStatus;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Idempotent single-statement write of a test result, relying on the unique {@code (execution_id,
+ * test_id)} constraint of {@code test_results}. PostgreSQL gets {@code INSERT ... ON CONFLICT DO
+ * UPDATE}; H2, which does not support it, gets the equivalent {@code MERGE ... KEY}.
+ */
+final class ResultUpsert {
+
+  private static final String POSTGRES_BY_ID =
+      "INSERT INTO test_results (execution_id, test_id, test_name, status, start_time, end_time)"
+          + " VALUES (?, ?, ?, ?, ?, ?)"
+          + " ON CONFLICT (execution_id, test_id) DO UPDATE SET test_name = EXCLUDED.test_name,"
+          + " status = EXCLUDED.status, start_time = EXCLUDED.start_time,"
+          + " end_time = EXCLUDED.end_time";
+
+  private static final String H2_BY_ID =
+      "MERGE INTO test_results (execution_id, test_id, test_name, status, start_time, end_time)"
+          + " KEY (execution_id, test_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+  private static final String POSTGRES_BY_EXECUTION_ID =
+      "INSERT INTO test_results (execution_id, test_id, test_name, status, start_time, end_time)"
+          + " SELECT id, ?, ?, ?, ?, ? FROM test_executions WHERE execution_id = ?"
+          + " ON CONFLICT (execution_id, test_id) DO UPDATE SET test_name = EXCLUDED.test_name,"
+          + " status = EXCLUDED.status, start_time = EXCLUDED.start_time,"
+          + " end_time = EXCLUDED.end_time";
+
+  private static final String H2_BY_EXECUTION_ID =
+      "MERGE INTO test_results (execution_id, test_id, test_name, status, start_time, end_time)"
+          + " KEY (execution_id, test_id)"
+          + " SELECT id, ?, ?, ?, ?, ? FROM test_executions WHERE execution_id = ?";
+
+  private ResultUpsert() {}
+
+  /**
+   * Statement taking the execution's primary key, the test ID, name, status, start and end time.
+   */
+  static PreparedStatement prepare(Connection conn) throws SQLException {
+    return conn.prepareStatement(isH2(conn) ? H2_BY_ID : POSTGRES_BY_ID);
+  }
+
+  /**
+   * Statement that resolves the execution's primary key itself. Takes the test ID, name, status,
+   * start and end time followed by the external execution ID; writes nothing if there is no such
+   * execution.
+   */
+  static PreparedStatement prepareByExecutionId(Connection conn) throws SQLException {
+    return conn.prepareStatement(isH2(conn) ? H2_BY_EXECUTION_ID : POSTGRES_BY_EXECUTION_ID);
+  }
+
+  /** Bind the parameters of a {@link #prepare} statement */
+  static void bind(
+      PreparedStatement stmt,
+      long executionDbId,
+      String testId,
+      String testName,
+      TestStatus status,
+      LocalDateTime startTime,
+      LocalDateTime endTime)
+      throws SQLException {
+    stmt.setLong(1, executionDbId);
+    stmt.setString(2, testId);
+    stmt.setString(3, testName);
+    stmt.setString(4, status.name());
+    stmt.setTimestamp(5, startTime != null ? Timestamp.valueOf(startTime) : null);
+    stmt.setTimestamp(6, endTime != null ? Timestamp.valueOf(endTime) : null);
+  }
+
+  /** Whether the connection talks to H2, which lacks some PostgreSQL syntax */
+  static boolean isH2(Connection conn) throws SQLException {
+    return "H2".equals(conn.getMetaData().getDatabaseProductName());
+  }
+}
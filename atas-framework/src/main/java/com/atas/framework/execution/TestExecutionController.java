@@ -28,6 +28,8 @@ public class TestExecutionController {
    * @param browserType Browser type for UI tests (CHROMIUM, FIREFOX, WEBKIT)
    * @param recordVideo Whether to record video
    * @param captureScreenshots Whether to capture screenshots on failure
+   * @param priority Scheduling priority, P0 (highest) to P3
+   * @param team Optional team the execution is accounted to for fair sharing
    * @return Test execution response
    */
   @PostMapping("/execute/individual")
@@ -37,7 +39,9 @@ public class TestExecutionController {
       @RequestParam(defaultValue = "dev") String environment,
       @RequestParam(required = false) String browserType,
       @RequestParam(defaultValue = "true") boolean recordVideo,
-      @RequestParam(defaultValue = "true") boolean captureScreenshots) {
+      @RequestParam(defaultValue = "true") boolean captureScreenshots,
+      @RequestParam(defaultValue = "P2") TestExecutionRequest.ExecutionPriority priority,
+      @RequestParam(required = false) String team) {
 
     log.info("Executing individual test: {}.{}", testClass, testMethod);
 
@@ -50,6 +54,8 @@ public class TestExecutionController {
             .browserType(browserType)
             .recordVideo(recordVideo)
             .captureScreenshots(captureScreenshots)
+            .priority(priority)
+            .team(team)
             .build();
 
     TestExecutionResponse response = testExecutionService.executeTests(request);
@@ -64,6 +70,8 @@ public class TestExecutionController {
    * @param browserType Browser type for UI tests
    * @param recordVideo Whether to record video
    * @param captureScreenshots Whether to capture screenshots on failure
+   * @param priority Scheduling priority, P0 (highest) to P3
+   * @param team Optional team the execution is accounted to for fair sharing
    * @return Test execution response
    */
   @PostMapping("/execute/tags")
@@ -72,7 +80,9 @@ public class TestExecutionController {
       @RequestParam(defaultValue = "dev") String environment,
       @RequestParam(required = false) String browserType,
       @RequestParam(defaultValue = "true") boolean recordVideo,
-      @RequestParam(defaultValue = "true") boolean captureScreenshots) {
+      @RequestParam(defaultValue = "true") boolean captureScreenshots,
+      @RequestParam(defaultValue = "P2") TestExecutionRequest.ExecutionPriority priority,
+      @RequestParam(required = false) String team) {
 
     log.info("Executing tests with tags: {}", tags);
 
@@ -84,6 +94,8 @@ public class TestExecutionController {
             .browserType(browserType)
             .recordVideo(recordVideo)
             .captureScreenshots(captureScreenshots)
+            .priority(priority)
+            .team(team)
             .build();
 
     TestExecutionResponse response = testExecutionService.executeTests(request);
@@ -98,6 +110,8 @@ public class TestExecutionController {
    * @param browserType Browser type for UI tests
    * @param recordVideo Whether to record video
    * @param captureScreenshots Whether to capture screenshots on failure
+   * @param priority Scheduling priority, P0 (highest) to P3
+   * @param team Optional team the execution is accounted to for fair sharing
    * @return Test execution response
    */
   @PostMapping("/execute/grep")
@@ -106,7 +120,9 @@ public class TestExecutionController {
       @RequestParam(defaultValue = "dev") String environment,
       @RequestParam(required = false) String browserType,
       @RequestParam(defaultValue = "true") boolean recordVideo,
-      @RequestParam(defaultValue = "true") boolean captureScreenshots) {
+      @RequestParam(defaultValue = "true") boolean captureScreenshots,
+      @RequestParam(defaultValue = "P2") TestExecutionRequest.ExecutionPriority priority,
+      @RequestParam(required = false) String team) {
 
     log.info("Executing tests matching pattern: {}", pattern);
 
@@ -118,6 +134,8 @@ public class TestExecutionController {
             .browserType(browserType)
             .recordVideo(recordVideo)
             .captureScreenshots(captureScreenshots)
+            .priority(priority)
+            .team(team)
             .build();
 
     TestExecutionResponse response = testExecutionService.executeTests(request);
@@ -132,6 +150,8 @@ public class TestExecutionController {
    * @param browserType Browser type for UI tests
    * @param recordVideo Whether to record video
    * @param captureScreenshots Whether to capture screenshots on failure
+   * @param priority Scheduling priority, P0 (highest) to P3
+   * @param team Optional team the execution is accounted to for fair sharing
    * @return Test execution response
    */
   @PostMapping("/execute/suite")
@@ -140,7 +160,9 @@ public class TestExecutionController {
       @RequestParam(defaultValue = "dev") String environment,
       @RequestParam(required = false) String browserType,
       @RequestParam(defaultValue = "true") boolean recordVideo,
-      @RequestParam(defaultValue = "true") boolean captureScreenshots) {
+      @RequestParam(defaultValue = "true") boolean captureScreenshots,
+      @RequestParam(defaultValue = "P2") TestExecutionRequest.ExecutionPriority priority,
+      @RequestParam(required = false) String team) {
 
     log.info("Executing test suite: {}", suiteName);
 
@@ -152,6 +174,8 @@ public class TestExecutionController {
             .browserType(browserType)
             .recordVideo(recordVideo)
             .captureScreenshots(captureScreenshots)
+            .priority(priority)
+            .team(team)
             .build();
 
     TestExecutionResponse response = testExecutionService.executeTests(request);
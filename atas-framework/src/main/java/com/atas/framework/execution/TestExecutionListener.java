@@ -1,18 +1,25 @@
 package com.atas.framework.execution;
 
 import com.atas.framework.model.TestStatus;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.Map;
+import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import lombok.extern.slf4j.Slf4j;
-import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.AfterEachCallback;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
@@ -26,7 +33,6 @@ import org.junit.jupiter.api.extension.TestExecutionExceptionHandler;
 @Slf4j
 public class TestExecutionListener
     implements BeforeAllCallback,
-        AfterAllCallback,
         BeforeEachCallback,
         AfterEachCallback,
         TestExecutionExceptionHandler {
@@ -36,8 +42,55 @@ public class TestExecutionListener
   private static final String TEST_RESULTS_KEY = "ATAS_TEST_RESULTS";
   private static final String RECORDING_ENABLED_KEY = "ATAS_RECORDING_ENABLED";
 
+  /** Per-invocation state, kept in the test's own store so parallel tests never share it */
+  private static final ExtensionContext.Namespace INVOCATION =
+      ExtensionContext.Namespace.create(TestExecutionListener.class);
+
+  private static final String START_TIME_KEY = "START_TIME";
+  private static final String RECORDED_KEY = "RECORDED";
+
+  /** Unique ID segments of the invocations of parameterized, repeated and dynamic tests */
+  private static final Pattern INVOCATION_SEGMENT =
+      Pattern.compile("\\[(?:test-template-invocation|dynamic-test|dynamic-container):#(\\d+)]");
+
+  /**
+   * JUnit configuration parameter carrying the execution ID. Used by the warm runner JVM, where a
+   * single process serves many executions and the ATAS_EXECUTION_ID environment variable cannot be
+   * changed between runs.
+   */
+  public static final String EXECUTION_ID_PARAMETER = "atas.execution.id";
+
+  /**
+   * JUnit configuration parameter (or ATAS_EXECUTION_SHARD environment variable) set when this run
+   * is one shard of a larger execution. Shards never mark the execution PASSED themselves; the
+   * framework finalizes the status once every shard has finished.
+   */
+  public static final String SHARD_PARAMETER = "atas.execution.shard";
+
+  /**
+   * Prefix of the line printed to standard output once every result of this test JVM has been
+   * written, followed by the execution ID and the number of recorded results. The framework reads
+   * it from the process output to finalize the execution as soon as the last result landed.
+   */
+  public static final String RESULTS_MARKER = "##atas-results## ";
+
+  private static final int DEFAULT_POOL_SIZE = 4;
+
+  private static final String SUITE_NAME = "maven-test-run";
+
   private static volatile boolean envFileLoaded = false;
 
+  /** Connection settings resolved by the first listener of this JVM */
+  private static volatile ConnectionSettings connectionSettings;
+
+  /** Pool shared by every listener instance of this JVM, closed from a shutdown hook */
+  private static volatile HikariDataSource dataSource;
+
+  private static volatile ResultBatchWriter resultWriter;
+
+  /** Set when results are sent to the framework's ingest endpoint instead of the database */
+  private static volatile HttpResultSink httpSink;
+
   private static synchronized void ensureEnvFileLoaded() {
     if (envFileLoaded) {
       return;
@@ -95,7 +148,11 @@ public class TestExecutionListener
         "S3_VIDEO_FOLDER",
         "S3_SCREENSHOT_FOLDER",
         "ATAS_EXECUTION_ID",
-        "ATAS_RECORD_LOCAL"
+        "ATAS_RECORD_LOCAL",
+        "ATAS_LISTENER_SINK",
+        "ATAS_LISTENER_SPOOL_DIR",
+        "ATAS_FRAMEWORK_URL",
+        "ATAS_INTERNAL_API_KEY"
       };
 
       int loadedCount = 0;
@@ -144,9 +201,25 @@ public class TestExecutionListener
     return (value != null && "null".equalsIgnoreCase(value)) ? null : value;
   }
 
-  private boolean isRecordingEnabled() {
+  /** Execution ID from the launcher configuration parameters, falling back to the environment */
+  private String getExecutionId(ExtensionContext context) {
+    return context
+        .getConfigurationParameter(EXECUTION_ID_PARAMETER)
+        .filter(id -> !id.isBlank())
+        .orElseGet(() -> getProperty("ATAS_EXECUTION_ID", null));
+  }
+
+  private boolean isShard(ExtensionContext context) {
+    String shard =
+        context
+            .getConfigurationParameter(SHARD_PARAMETER)
+            .orElseGet(() -> getProperty("ATAS_EXECUTION_SHARD", null));
+    return shard != null && !shard.isBlank();
+  }
+
+  private boolean isRecordingEnabled(ExtensionContext context) {
     ensureEnvFileLoaded();
-    String executionId = getProperty("ATAS_EXECUTION_ID", null);
+    String executionId = getExecutionId(context);
     if (executionId != null && !executionId.isEmpty()) {
       log.info("Recording enabled: ATAS_EXECUTION_ID is set");
       return true;
@@ -173,7 +246,7 @@ public class TestExecutionListener
 
   @Override
   public void beforeAll(ExtensionContext context) throws Exception {
-    boolean recordingEnabled = isRecordingEnabled();
+    boolean recordingEnabled = isRecordingEnabled(context);
     ExtensionContext rootContext = context.getRoot();
 
     rootContext
@@ -186,39 +259,43 @@ public class TestExecutionListener
       return;
     }
 
-    TestExecutionData existingData =
-        (TestExecutionData)
-            rootContext.getStore(ExtensionContext.Namespace.GLOBAL).get(TEST_RESULTS_KEY);
+    // Test classes running in parallel all get here first; only one of them creates the data
+    rootContext
+        .getStore(ExtensionContext.Namespace.GLOBAL)
+        .getOrComputeIfAbsent(
+            TEST_RESULTS_KEY, key -> createExecutionData(context), TestExecutionData.class);
+  }
 
-    if (existingData == null) {
-      String executionId = getProperty("ATAS_EXECUTION_ID", null);
-      if (executionId == null || executionId.isEmpty()) {
-        executionId = UUID.randomUUID().toString();
-        log.info("Created new execution ID for local recording: {}", executionId);
-      } else {
-        log.info("Using execution ID from environment (API-triggered): {}", executionId);
-      }
+  private TestExecutionData createExecutionData(ExtensionContext context) {
+    String executionId = getExecutionId(context);
+    if (executionId == null || executionId.isEmpty()) {
+      executionId = UUID.randomUUID().toString();
+      log.info("Created new execution ID for local recording: {}", executionId);
+    } else {
+      log.info("Using execution ID from environment (API-triggered): {}", executionId);
+    }
 
-      String suiteName = "maven-test-run";
-      String environment = getProperty("SPRING_PROFILES_ACTIVE", "spring.profiles.active");
-      if (environment == null || environment.isEmpty()) {
-        environment = "dev";
-      }
+    String suiteName = SUITE_NAME;
+    String environment = resolveEnvironment();
 
-      TestExecutionData data = new TestExecutionData(executionId, suiteName, environment);
+    TestExecutionData data =
+        new TestExecutionData(
+            executionId, suiteName, environment, isShard(context), this::reportStatus);
+    // Over HTTP the framework creates the execution with the first batch
+    if (!(resultWriter().sink() instanceof HttpResultSink)) {
       ensureExecutionRecord(executionId, suiteName, environment);
-
-      rootContext.getStore(ExtensionContext.Namespace.GLOBAL).put(EXECUTION_ID_KEY, executionId);
-      rootContext
-          .getStore(ExtensionContext.Namespace.GLOBAL)
-          .put(EXECUTION_START_KEY, LocalDateTime.now());
-      rootContext.getStore(ExtensionContext.Namespace.GLOBAL).put(TEST_RESULTS_KEY, data);
-      log.info(
-          "Test execution recording enabled: {} (suite: {}, environment: {})",
-          executionId,
-          suiteName,
-          environment);
     }
+
+    ExtensionContext.Store rootStore =
+        context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL);
+    rootStore.put(EXECUTION_ID_KEY, executionId);
+    rootStore.put(EXECUTION_START_KEY, LocalDateTime.now());
+    log.info(
+        "Test execution recording enabled: {} (suite: {}, environment: {})",
+        executionId,
+        suiteName,
+        environment);
+    return data;
   }
 
   @Override
@@ -237,8 +314,7 @@ public class TestExecutionListener
         (TestExecutionData)
             context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL).get(TEST_RESULTS_KEY);
     if (data != null) {
-      String testId = generateTestId(context);
-      data.testStarts.put(testId, LocalDateTime.now());
+      context.getStore(INVOCATION).put(START_TIME_KEY, LocalDateTime.now());
     }
   }
 
@@ -261,14 +337,14 @@ public class TestExecutionListener
       return;
     }
 
-    String testId = generateTestId(context);
-
-    if (data.processedTests.contains(testId)) {
+    // Already recorded by handleTestExecutionException
+    if (context.getStore(INVOCATION).get(RECORDED_KEY) != null) {
       return;
     }
 
+    String testId = generateTestId(context);
     String testName = context.getDisplayName();
-    LocalDateTime startTime = data.testStarts.get(testId);
+    LocalDateTime startTime = context.getStore(INVOCATION).get(START_TIME_KEY, LocalDateTime.class);
     LocalDateTime endTime = LocalDateTime.now();
 
     boolean isSkipped = false;
@@ -288,21 +364,13 @@ public class TestExecutionListener
 
     TestStatus status = isSkipped ? TestStatus.SKIPPED : TestStatus.PASSED;
 
-    saveTestResult(
-        data.executionId,
-        testId,
-        testName,
-        status,
-        startTime != null ? startTime : endTime,
-        endTime);
+    recordResult(data, testId, testName, status, startTime != null ? startTime : endTime, endTime);
 
     if (status == TestStatus.FAILED || status == TestStatus.ERROR) {
-      data.hasFailures = true;
-      updateExecutionStatus(data.executionId, TestStatus.FAILED);
+      markFailed(data);
     }
 
-    data.testCount++;
-    data.processedTests.add(testId);
+    data.testCount.incrementAndGet();
   }
 
   @Override
@@ -322,11 +390,12 @@ public class TestExecutionListener
         (TestExecutionData)
             context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL).get(TEST_RESULTS_KEY);
     if (data != null) {
-      String testId = generateTestId(context);
-      data.processedTests.add(testId);
+      context.getStore(INVOCATION).put(RECORDED_KEY, Boolean.TRUE);
 
+      String testId = generateTestId(context);
       String testName = context.getDisplayName();
-      LocalDateTime startTime = data.testStarts.get(testId);
+      LocalDateTime startTime =
+          context.getStore(INVOCATION).get(START_TIME_KEY, LocalDateTime.class);
       LocalDateTime endTime = LocalDateTime.now();
 
       TestStatus status;
@@ -338,164 +407,225 @@ public class TestExecutionListener
         status = TestStatus.ERROR;
       }
 
-      saveTestResult(
-          data.executionId,
-          testId,
-          testName,
-          status,
-          startTime != null ? startTime : endTime,
-          endTime);
+      recordResult(
+          data, testId, testName, status, startTime != null ? startTime : endTime, endTime);
 
       if (status == TestStatus.FAILED || status == TestStatus.ERROR) {
-        data.hasFailures = true;
-        updateExecutionStatus(data.executionId, TestStatus.FAILED);
+        markFailed(data);
       }
 
-      data.testCount++;
+      data.testCount.incrementAndGet();
     }
     throw throwable;
   }
 
-  @Override
-  public void afterAll(ExtensionContext context) throws Exception {
-    Boolean recordingEnabled =
-        (Boolean)
-            context
-                .getRoot()
-                .getStore(ExtensionContext.Namespace.GLOBAL)
-                .get(RECORDING_ENABLED_KEY);
-    if (recordingEnabled == null || !recordingEnabled) {
-      return;
-    }
-
-    TestExecutionData data =
-        (TestExecutionData)
-            context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL).get(TEST_RESULTS_KEY);
-    if (data == null) {
-      return;
-    }
-
-    if (!data.hasFailures && data.testCount > 0) {
-      try (Connection conn = getConnection();
-          PreparedStatement checkStmt =
-              conn.prepareStatement("SELECT status FROM test_executions WHERE execution_id = ?")) {
-        checkStmt.setString(1, data.executionId);
-        ResultSet rs = checkStmt.executeQuery();
-        if (rs.next()) {
-          String currentStatus = rs.getString("status");
-          if (TestStatus.RUNNING.name().equals(currentStatus)) {
-            updateExecutionStatus(data.executionId, TestStatus.PASSED);
-            log.info("Finalized execution status: {} -> PASSED", data.executionId);
-          }
-        }
-      } catch (SQLException e) {
-        log.error("Error checking execution status: {}", e.getMessage(), e);
-      }
-    }
-  }
-
+  /**
+   * Test class and method, followed by the invocation index for parameterized, repeated and dynamic
+   * tests (e.g. {@code LoginTest#login[2]}), so invocations running in parallel do not overwrite
+   * each other's result.
+   */
   private String generateTestId(ExtensionContext context) {
-    return context.getRequiredTestClass().getName()
-        + "#"
-        + context.getRequiredTestMethod().getName();
+    StringBuilder testId =
+        new StringBuilder(context.getRequiredTestClass().getName())
+            .append('#')
+            .append(context.getRequiredTestMethod().getName());
+    Matcher invocation = INVOCATION_SEGMENT.matcher(context.getUniqueId());
+    while (invocation.find()) {
+      testId.append('[').append(invocation.group(1)).append(']');
+    }
+    return testId.toString();
   }
 
+  /**
+   * Create the execution row unless it exists. Should the database not be reachable yet, the result
+   * writer creates it along with the first result it manages to write.
+   */
   private void ensureExecutionRecord(String executionId, String suiteName, String environment) {
     try (Connection conn = getConnection();
         PreparedStatement checkStmt =
             conn.prepareStatement("SELECT id FROM test_executions WHERE execution_id = ?")) {
       checkStmt.setString(1, executionId);
       ResultSet rs = checkStmt.executeQuery();
+      if (rs.next()) {
+        return;
+      }
 
-      if (!rs.next()) {
-        try (PreparedStatement insertStmt =
-            conn.prepareStatement(
-                "INSERT INTO test_executions (execution_id, suite_name, status, start_time, environment) VALUES (?, ?, ?, ?, ?)")) {
-          insertStmt.setString(1, executionId);
-          insertStmt.setString(2, suiteName);
-          insertStmt.setString(3, TestStatus.RUNNING.name());
-          insertStmt.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
-          insertStmt.setString(5, environment);
-          insertStmt.executeUpdate();
-          log.info("Created execution record: {}", executionId);
-        }
+      try (PreparedStatement insertStmt =
+          conn.prepareStatement(
+              "INSERT INTO test_executions (execution_id, suite_name, status, start_time, environment) VALUES (?, ?, ?, ?, ?)")) {
+        insertStmt.setString(1, executionId);
+        insertStmt.setString(2, suiteName);
+        insertStmt.setString(3, TestStatus.RUNNING.name());
+        insertStmt.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+        insertStmt.setString(5, environment);
+        insertStmt.executeUpdate();
+        log.info("Created execution record: {}", executionId);
       }
     } catch (SQLException e) {
       log.error("Error ensuring execution record: {}", e.getMessage(), e);
     }
   }
 
-  private void saveTestResult(
-      String executionId,
+  /**
+   * Hand a result to the background writer, which spools it to disk before writing it. Only if the
+   * spool cannot be appended to is the result written synchronously.
+   */
+  private void recordResult(
+      TestExecutionData data,
       String testId,
       String testName,
       TestStatus status,
       LocalDateTime startTime,
       LocalDateTime endTime) {
-    try (Connection conn = getConnection();
-        PreparedStatement getExecutionStmt =
-            conn.prepareStatement("SELECT id FROM test_executions WHERE execution_id = ?")) {
-      getExecutionStmt.setString(1, executionId);
-      ResultSet rs = getExecutionStmt.executeQuery();
-
-      if (!rs.next()) {
-        log.warn("Execution not found: {}, cannot save test result", executionId);
-        return;
+    ResultBatchWriter writer = resultWriter();
+    ResultBatchWriter.PendingResult result =
+        new ResultBatchWriter.PendingResult(
+            data.executionId, testId, testName, status, startTime, endTime);
+    try {
+      writer.submit(result);
+    } catch (IOException | IllegalStateException e) {
+      log.warn("Cannot spool test result {}, writing it directly: {}", testId, e.getMessage());
+      try {
+        writer.sink().write(List.of(result));
+        data.directlyWritten.incrementAndGet();
+      } catch (Exception writeError) {
+        log.error("Error saving test result: {}", writeError.getMessage(), writeError);
       }
+    }
+  }
 
-      long executionDbId = rs.getLong("id");
+  /**
+   * Mark the execution FAILED on the first failure of this JVM; tests failing concurrently update
+   * it only once. The ingest endpoint does so itself when it receives the failed result.
+   */
+  private void markFailed(TestExecutionData data) {
+    if (!data.hasFailures.compareAndSet(false, true)) {
+      return;
+    }
+    if (!(resultWriter().sink() instanceof HttpResultSink)) {
+      updateExecutionStatus(data.executionId, TestStatus.FAILED);
+    }
+  }
 
-      try (PreparedStatement checkStmt =
-          conn.prepareStatement(
-              "SELECT id FROM test_results WHERE execution_id = ? AND test_id = ?")) {
-        checkStmt.setLong(1, executionDbId);
-        checkStmt.setString(2, testId);
-        ResultSet resultRs = checkStmt.executeQuery();
-
-        if (resultRs.next()) {
-          try (PreparedStatement updateStmt =
-              conn.prepareStatement(
-                  "UPDATE test_results SET test_name = ?, status = ?, start_time = ?, end_time = ? WHERE execution_id = ? AND test_id = ?")) {
-            updateStmt.setString(1, testName);
-            updateStmt.setString(2, status.name());
-            updateStmt.setTimestamp(3, Timestamp.valueOf(startTime));
-            updateStmt.setTimestamp(4, Timestamp.valueOf(endTime));
-            updateStmt.setLong(5, executionDbId);
-            updateStmt.setString(6, testId);
-            updateStmt.executeUpdate();
-          }
-        } else {
-          try (PreparedStatement insertStmt =
-              conn.prepareStatement(
-                  "INSERT INTO test_results (execution_id, test_id, test_name, status, start_time, end_time) VALUES (?, ?, ?, ?, ?, ?)")) {
-            insertStmt.setLong(1, executionDbId);
-            insertStmt.setString(2, testId);
-            insertStmt.setString(3, testName);
-            insertStmt.setString(4, status.name());
-            insertStmt.setTimestamp(5, Timestamp.valueOf(startTime));
-            insertStmt.setTimestamp(6, Timestamp.valueOf(endTime));
-            insertStmt.executeUpdate();
-          }
+  /**
+   * Background writer shared by every listener instance of this JVM. Created with the first
+   * recorded result; a shutdown hook writes what is still spooled before the pool is closed.
+   */
+  private ResultBatchWriter resultWriter() {
+    ResultBatchWriter writer = resultWriter;
+    if (writer != null) {
+      return writer;
+    }
+    synchronized (TestExecutionListener.class) {
+      if (resultWriter == null) {
+        Path spoolDirectory = spoolDirectory();
+        try {
+          resultWriter =
+              new ResultBatchWriter(
+                  createResultSink(),
+                  spoolDirectory,
+                  intProperty("ATAS_LISTENER_BATCH_SIZE", "atas.listener.batch-size", 100),
+                  intProperty("ATAS_LISTENER_FLUSH_MS", "atas.listener.flush-ms", 200));
+        } catch (IOException e) {
+          throw new UncheckedIOException(
+              "Cannot create result spool in " + spoolDirectory + "; set ATAS_LISTENER_SPOOL_DIR",
+              e);
         }
+        Runtime.getRuntime()
+            .addShutdownHook(new Thread(TestExecutionListener::shutdown, "atas-listener-shutdown"));
       }
-    } catch (SQLException e) {
-      log.error("Error saving test result: {}", e.getMessage(), e);
+      return resultWriter;
+    }
+  }
+
+  /**
+   * Database writes by default; with ATAS_LISTENER_SINK=http results are sent to the framework's
+   * ingest endpoint at ATAS_FRAMEWORK_URL, authenticated with ATAS_INTERNAL_API_KEY.
+   */
+  private ResultBatchWriter.ResultSink createResultSink() {
+    ensureEnvFileLoaded();
+    if (!"http".equalsIgnoreCase(getProperty("ATAS_LISTENER_SINK", "atas.listener.sink"))) {
+      return new ResultBatchWriter.JdbcSink(this::getConnection, SUITE_NAME, resolveEnvironment());
+    }
+    String apiKey = getProperty("ATAS_INTERNAL_API_KEY", "atas.internal.api-key");
+    if (apiKey == null || apiKey.isBlank()) {
+      log.error("ATAS_LISTENER_SINK=http requires ATAS_INTERNAL_API_KEY, writing to the database");
+      return new ResultBatchWriter.JdbcSink(this::getConnection, SUITE_NAME, resolveEnvironment());
+    }
+    String frameworkUrl = getProperty("ATAS_FRAMEWORK_URL", "atas.framework.url");
+    if (frameworkUrl == null || frameworkUrl.isBlank()) {
+      frameworkUrl = "http://localhost:8080";
+    }
+    log.info("Sending test results to {}", frameworkUrl);
+    httpSink =
+        new HttpResultSink(
+            frameworkUrl,
+            apiKey,
+            SUITE_NAME,
+            resolveEnvironment(),
+            intProperty("ATAS_LISTENER_HTTP_ATTEMPTS", "atas.listener.http-attempts", 5),
+            intProperty("ATAS_LISTENER_HTTP_BACKOFF_MS", "atas.listener.http-backoff-ms", 250));
+    return httpSink;
+  }
+
+  /** Shared by the test JVMs of a machine, so each can replay what an earlier one left behind */
+  private Path spoolDirectory() {
+    String directory = getProperty("ATAS_LISTENER_SPOOL_DIR", "atas.listener.spool-dir");
+    return directory != null && !directory.isBlank()
+        ? Path.of(directory)
+        : Path.of(System.getProperty("java.io.tmpdir"), "atas-spool");
+  }
+
+  private String resolveEnvironment() {
+    String environment = getProperty("SPRING_PROFILES_ACTIVE", "spring.profiles.active");
+    return environment == null || environment.isEmpty() ? "dev" : environment;
+  }
+
+  /** Write the spooled results, then close the pool */
+  private static void shutdown() {
+    ResultBatchWriter writer = resultWriter;
+    if (writer != null) {
+      writer.close();
+    }
+    HikariDataSource pool = dataSource;
+    if (pool != null) {
+      pool.close();
+    }
+  }
+
+  /** Report the status over HTTP when results are sent there, to the database otherwise */
+  private void reportStatus(String executionId, TestStatus status) {
+    HttpResultSink sink = httpSink;
+    if (sink == null) {
+      updateExecutionStatus(executionId, status);
+      return;
+    }
+    try {
+      sink.reportStatus(executionId, status);
+    } catch (Exception e) {
+      log.error("Error reporting execution status: {}", e.getMessage(), e);
     }
   }
 
+  /**
+   * Check and write the status in one statement, so test classes finishing concurrently cannot
+   * interleave between the two. Like the ingest endpoint, PASSED only replaces RUNNING, while a
+   * failure overrides a success reported earlier.
+   */
   private void updateExecutionStatus(String executionId, TestStatus status) {
+    String from =
+        status == TestStatus.PASSED
+            ? "'RUNNING'"
+            : "'QUEUED', 'RUNNING', 'PASSED', 'SKIPPED', '" + status.name() + "'";
     try (Connection conn = getConnection();
         PreparedStatement stmt =
             conn.prepareStatement(
-                "UPDATE test_executions SET status = ?, end_time = ? WHERE execution_id = ?")) {
+                "UPDATE test_executions SET status = ?, end_time = ? WHERE execution_id = ?"
+                    + " AND (status IS NULL OR status IN ("
+                    + from
+                    + "))")) {
       stmt.setString(1, status.name());
-      if (status == TestStatus.PASSED
-          || status == TestStatus.FAILED
-          || status == TestStatus.ERROR) {
-        stmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
-      } else {
-        stmt.setTimestamp(2, null);
-      }
+      stmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
       stmt.setString(3, executionId);
       int updated = stmt.executeUpdate();
       if (updated > 0) {
@@ -506,7 +636,71 @@ public class TestExecutionListener
     }
   }
 
+  /**
+   * Borrow a connection from the pool shared by every listener instance of this JVM. The pool is
+   * created on first use; the connection settings (including the Docker and port probing when
+   * DB_URL is not set) are resolved only once.
+   */
   private Connection getConnection() throws SQLException {
+    HikariDataSource pool = dataSource;
+    if (pool == null) {
+      pool = createDataSource();
+    }
+    return pool.getConnection();
+  }
+
+  private HikariDataSource createDataSource() throws SQLException {
+    synchronized (TestExecutionListener.class) {
+      if (dataSource != null) {
+        return dataSource;
+      }
+      if (connectionSettings == null) {
+        connectionSettings = resolveConnectionSettings();
+      }
+
+      HikariConfig config = new HikariConfig();
+      config.setPoolName("atas-listener");
+      config.setJdbcUrl(connectionSettings.url());
+      config.setUsername(connectionSettings.username());
+      config.setPassword(connectionSettings.password());
+      config.setMaximumPoolSize(
+          intProperty("ATAS_LISTENER_POOL_SIZE", "atas.listener.pool-size", DEFAULT_POOL_SIZE));
+      config.setMinimumIdle(1);
+      config.setConnectionTimeout(10_000);
+      try {
+        dataSource = new HikariDataSource(config);
+      } catch (RuntimeException e) {
+        // Database not reachable yet; the next result tries again with the resolved settings
+        log.error(
+            "Failed to connect to database: {}",
+            connectionSettings.url().replaceAll("://([^:]+):([^@]+)@", "://***:***@"),
+            e);
+        if (connectionSettings.url().contains("localhost:5433")
+            || connectionSettings.url().contains("localhost:5432")) {
+          log.error("Ensure Docker containers are running: docker ps");
+          log.error("For local development, use: make dev (exposes DB on port 5433)");
+        }
+        throw new SQLException("Could not open listener connection pool", "08001", e);
+      }
+      return dataSource;
+    }
+  }
+
+  /** Positive integer setting from the environment or a system property */
+  private int intProperty(String envKey, String systemKey, int defaultValue) {
+    String value = getProperty(envKey, systemKey);
+    if (value == null || value.isBlank()) {
+      return defaultValue;
+    }
+    try {
+      return Math.max(1, Integer.parseInt(value.trim()));
+    } catch (NumberFormatException e) {
+      log.warn("Ignoring invalid {}: {}", envKey, value);
+      return defaultValue;
+    }
+  }
+
+  private ConnectionSettings resolveConnectionSettings() throws SQLException {
     ensureEnvFileLoaded();
     String url = getProperty("DB_URL", "spring.datasource.url");
     if (url == null || url.isEmpty()) {
@@ -528,20 +722,7 @@ public class TestExecutionListener
       throw new SQLException(
           "Database password is required. Set DB_PASSWORD in .env file or as environment variable.");
     }
-
-    try {
-      return DriverManager.getConnection(url, username, password);
-    } catch (SQLException e) {
-      log.error(
-          "Failed to connect to database: {}",
-          url.replaceAll("://([^:]+):([^@]+)@", "://***:***@"),
-          e);
-      if (url.contains("localhost:5433") || url.contains("localhost:5432")) {
-        log.error("Ensure Docker containers are running: docker ps");
-        log.error("For local development, use: make dev (exposes DB on port 5433)");
-      }
-      throw e;
-    }
+    return new ConnectionSettings(url, username, password);
   }
 
   private String detectDatabaseConnectionUrl() {
@@ -644,7 +825,14 @@ public class TestExecutionListener
     }
   }
 
-  private static class TestExecutionData {
+  private record ConnectionSettings(String url, String username, String password) {}
+
+  /**
+   * Results of one test JVM run. Stored in the root context, so JUnit closes it once the last test
+   * class has finished, which is when the queued results are written and the completion marker is
+   * printed.
+   */
+  private static class TestExecutionData implements ExtensionContext.Store.CloseableResource {
     final String executionId;
 
     @SuppressWarnings("unused")
@@ -653,15 +841,46 @@ public class TestExecutionListener
     @SuppressWarnings("unused")
     final String environment;
 
-    final Map<String, LocalDateTime> testStarts = new ConcurrentHashMap<>();
-    final java.util.Set<String> processedTests = ConcurrentHashMap.newKeySet();
-    volatile boolean hasFailures = false;
-    volatile int testCount = 0;
+    /** Whether this JVM runs one shard of the execution */
+    final boolean shard;
+
+    final AtomicBoolean hasFailures = new AtomicBoolean();
+    final AtomicInteger testCount = new AtomicInteger();
+
+    /** Results written without the spool, which the writer does not count */
+    final AtomicInteger directlyWritten = new AtomicInteger();
+
+    private final BiConsumer<String, TestStatus> statusReporter;
 
-    TestExecutionData(String executionId, String suiteName, String environment) {
+    TestExecutionData(
+        String executionId,
+        String suiteName,
+        String environment,
+        boolean shard,
+        BiConsumer<String, TestStatus> statusReporter) {
       this.executionId = executionId;
       this.suiteName = suiteName;
       this.environment = environment;
+      this.shard = shard;
+      this.statusReporter = statusReporter;
+    }
+
+    @Override
+    public void close() {
+      ResultBatchWriter writer = resultWriter;
+      if (writer != null) {
+        writer.flush();
+      }
+      // Every test class has finished and its results are written
+      if (!hasFailures.get() && testCount.get() > 0 && !shard) {
+        statusReporter.accept(executionId, TestStatus.PASSED);
+      }
+      // Start on a fresh line in case a test left partial output behind
+      System.out.println();
+      long recorded =
+          directlyWritten.get() + (writer != null ? writer.takeWritten(executionId) : 0);
+      System.out.println(RESULTS_MARKER + executionId + " " + recorded);
+      System.out.flush();
     }
   }
 }
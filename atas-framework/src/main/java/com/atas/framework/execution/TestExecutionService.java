@@ -1,26 +1,32 @@
 package com.atas.framework.execution;
 
+import com.atas.framework.config.ExecutionProperties;
+import com.atas.framework.exception.ExecutionCapacityExceededException;
 import com.atas.framework.execution.dto.TestDiscoveryResponse;
 import com.atas.framework.execution.dto.TestExecutionRequest;
 import com.atas.framework.execution.dto.TestExecutionResponse;
+import com.atas.framework.execution.runner.RunnerRequest;
 import com.atas.framework.model.TestExecution;
-import com.atas.framework.model.TestResult;
 import com.atas.framework.model.TestStatus;
+import com.atas.framework.monitoring.DailyStatsRollup;
+import com.atas.framework.monitoring.ExecutionUpdatePublisher;
+import com.atas.framework.monitoring.LiveExecutionCounters;
 import com.atas.framework.repository.TestExecutionRepository;
 import com.atas.framework.repository.TestResultRepository;
+import com.atas.framework.repository.TestResultRepository.ResultCountsView;
 import com.atas.framework.security.AuditService;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 /** Service for executing tests with various filtering options */
@@ -33,9 +39,17 @@ public class TestExecutionService {
   private final TestDiscoveryService testDiscoveryService;
   private final TestInputValidator inputValidator;
   private final AuditService auditService;
-  private final RedisTemplate<String, Object> redisTemplate;
+  private final ExecutionUpdatePublisher updatePublisher;
   private final ExecutorService executorService;
-  private final ExecutorService outputCaptureExecutor;
+  private final ProcessSupervisor processSupervisor;
+  private final LauncherTestExecutor launcherTestExecutor;
+  private final TestShardPlanner shardPlanner;
+  private final DistributedExecutionQueue executionQueue;
+  private final ExecutionScheduler scheduler;
+  private final ExecutionLogService executionLogService;
+  private final ExecutionProperties properties;
+  private final DailyStatsRollup dailyStatsRollup;
+  private final LiveExecutionCounters liveCounters;
 
   @Value("${atas.mvnw.path:/app/mvnw}")
   private String mvnwPath;
@@ -46,20 +60,41 @@ public class TestExecutionService {
       TestDiscoveryService testDiscoveryService,
       TestInputValidator inputValidator,
       AuditService auditService,
-      RedisTemplate<String, Object> redisTemplate,
+      ExecutionUpdatePublisher updatePublisher,
       @Qualifier("testExecutionExecutor") ExecutorService executorService,
-      @Qualifier("outputCaptureExecutor") ExecutorService outputCaptureExecutor) {
+      ProcessSupervisor processSupervisor,
+      LauncherTestExecutor launcherTestExecutor,
+      TestShardPlanner shardPlanner,
+      DistributedExecutionQueue executionQueue,
+      ExecutionScheduler scheduler,
+      ExecutionLogService executionLogService,
+      ExecutionProperties properties,
+      DailyStatsRollup dailyStatsRollup,
+      LiveExecutionCounters liveCounters) {
     this.executionRepository = executionRepository;
     this.resultRepository = resultRepository;
     this.testDiscoveryService = testDiscoveryService;
     this.inputValidator = inputValidator;
     this.auditService = auditService;
-    this.redisTemplate = redisTemplate;
+    this.updatePublisher = updatePublisher;
     this.executorService = executorService;
-    this.outputCaptureExecutor = outputCaptureExecutor;
+    this.processSupervisor = processSupervisor;
+    this.launcherTestExecutor = launcherTestExecutor;
+    this.shardPlanner = shardPlanner;
+    this.executionQueue = executionQueue;
+    this.scheduler = scheduler;
+    this.executionLogService = executionLogService;
+    this.properties = properties;
+    this.dailyStatsRollup = dailyStatsRollup;
+    this.liveCounters = liveCounters;
   }
 
-  /** Execute tests based on the provided request */
+  /**
+   * Execute tests based on the provided request. The execution is admitted through the {@link
+   * ExecutionScheduler} (or the distributed queue) and reported as QUEUED until a slot frees up.
+   *
+   * @throws ExecutionCapacityExceededException if too many executions are already waiting
+   */
   public TestExecutionResponse executeTests(TestExecutionRequest request) {
     log.info("Starting test execution with type: {}", request.getType());
 
@@ -70,13 +105,33 @@ public class TestExecutionService {
         TestExecution.builder()
             .executionId(executionId)
             .suiteName(generateSuiteName(request))
-            .status(TestStatus.RUNNING)
+            .status(TestStatus.QUEUED)
             .startTime(startTime)
             .environment(request.getEnvironment())
             .build();
 
     executionRepository.save(execution);
 
+    String shareKey = resolveShareKey(request);
+    int queuePosition;
+    try {
+      if (executionQueue.isEnabled()) {
+        // Any replica with free capacity picks the execution up from the shared queue
+        queuePosition = executionQueue.enqueue(executionId, request, shareKey);
+      } else {
+        queuePosition =
+            scheduler.submit(
+                executionId,
+                request.getPriority(),
+                shareKey,
+                () -> runExecution(executionId, request));
+      }
+    } catch (ExecutionCapacityExceededException e) {
+      log.warn("Rejected execution {}: {}", executionId, e.getMessage());
+      executionRepository.delete(execution);
+      throw e;
+    }
+
     // Log test execution asynchronously to avoid blocking HTTP response
     // Use fire-and-forget approach to prevent blocking
     try {
@@ -98,7 +153,8 @@ public class TestExecutionService {
     TestExecutionResponse response =
         TestExecutionResponse.builder()
             .executionId(executionId)
-            .status("RUNNING")
+            .status(queuePosition > 0 ? TestStatus.QUEUED.name() : TestStatus.RUNNING.name())
+            .queuePosition(queuePosition > 0 ? queuePosition : null)
             .executionType(request.getType().name())
             .description(generateDescription(request))
             .startTime(startTime)
@@ -111,23 +167,37 @@ public class TestExecutionService {
             .monitoringUrl("/api/v1/test-execution/status?executionId=" + executionId)
             .liveUpdatesUrl("/api/v1/test-execution/live?executionId=" + executionId)
             .resultsUrl("/api/v1/test-execution/results/" + executionId)
+            .logsUrl("/api/v1/test-execution/" + executionId + "/logs")
+            .logsTailUrl("/api/v1/test-execution/" + executionId + "/logs/tail")
             .build();
 
-    // Execute tests asynchronously
-    CompletableFuture.runAsync(
-        () -> {
-          try {
-            executeTestsAsync(executionId, request);
-          } catch (Exception e) {
-            log.error("Error executing tests for executionId: {}", executionId, e);
-            updateExecutionStatus(executionId, TestStatus.ERROR);
-          }
-        },
-        executorService);
-
     return response;
   }
 
+  /** Team of the request, otherwise the authenticated user, used for fair sharing */
+  private String resolveShareKey(TestExecutionRequest request) {
+    if (request.getTeam() != null && !request.getTeam().isBlank()) {
+      return "team:" + request.getTeam().trim();
+    }
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    String user = authentication != null ? authentication.getName() : null;
+    return "user:" + (user != null ? user : "anonymous");
+  }
+
+  /**
+   * Run an accepted execution on the calling thread. Used for local executions and for executions
+   * claimed from the distributed queue.
+   */
+  public void runExecution(String executionId, TestExecutionRequest request) {
+    try {
+      updateExecutionStatus(executionId, TestStatus.RUNNING);
+      executeTestsAsync(executionId, request);
+    } catch (Exception e) {
+      log.error("Error executing tests for executionId: {}", executionId, e);
+      updateExecutionStatus(executionId, TestStatus.ERROR);
+    }
+  }
+
   /** Discover available tests, suites, and tags */
   public TestDiscoveryResponse discoverTests() {
     return testDiscoveryService.discoverTests();
@@ -151,32 +221,29 @@ public class TestExecutionService {
   /** Execute tests asynchronously with timeout enforcement */
   private void executeTestsAsync(String executionId, TestExecutionRequest request) {
     Process process = null;
-    Future<Integer> processFuture = null;
-    ExecutorService timeoutExecutor = null;
+    CompletableFuture<Integer> exitCode = null;
+    ExecutionLogService.LogWriter logWriter = executionLogService.open(executionId);
 
     try {
       log.info("Executing tests for executionId: {}", executionId);
 
+      List<List<String>> shards = planShards(request);
+      if (shards.size() > 1) {
+        executeSharded(executionId, request, shards, logWriter);
+        return;
+      }
+
+      if (launcherTestExecutor.isEnabled()
+          && executeWithLauncher(executionId, request, logWriter)) {
+        return;
+      }
+
       // Build Maven command based on request type
       List<String> mavenArgs = buildMavenCommand(request);
       log.info("Maven command for executionId {}: {}", executionId, String.join(" ", mavenArgs));
 
       // Execute Maven command
-      ProcessBuilder processBuilder = new ProcessBuilder(mavenArgs);
-      processBuilder.directory(new java.io.File(mvnwPath).getParentFile());
-
-      // Inherit all environment variables from the parent process
-      // This ensures ConfigMap and Secrets are available to test execution
-      processBuilder.environment().putAll(System.getenv());
-
-      // Override/add specific variables
-      processBuilder.environment().put("ATAS_EXECUTION_ID", executionId);
-      processBuilder.environment().put("ATAS_SUITE_NAME", generateSuiteName(request));
-      // Note: MAVEN_HOME and PATH are not set here because mvnw (Maven wrapper) is self-contained
-      // and will download/use Maven automatically. Setting incorrect paths can cause failures.
-
-      // Redirect error stream to output stream for unified logging
-      processBuilder.redirectErrorStream(true);
+      ProcessBuilder processBuilder = mavenProcessBuilder(mavenArgs, executionId, request);
 
       log.info("Starting Maven process for executionId: {}", executionId);
       try {
@@ -194,82 +261,28 @@ public class TestExecutionService {
       }
 
       // Capture process output asynchronously
-      captureProcessOutput(process, executionId);
-
-      // Create final reference for lambda
-      final Process finalProcess = process;
-
-      // Execute with timeout
-      timeoutExecutor =
-          Executors.newSingleThreadExecutor(
-              r -> {
-                Thread t = new Thread(r, "test-timeout-" + executionId);
-                t.setDaemon(true);
-                return t;
-              });
-
-      processFuture =
-          timeoutExecutor.submit(
-              () -> {
-                try {
-                  return finalProcess.waitFor();
-                } catch (Exception e) {
-                  log.error("Error waiting for process: {}", executionId, e);
-                  return -1;
-                }
-              });
+      ResultCompletionWatcher results = new ResultCompletionWatcher(executionId, 1);
+      CompletableFuture<Void> output =
+          captureProcessOutput(process, executionId, results.watch(logWriter));
 
       int timeoutMinutes = request.getTimeoutMinutes();
       log.info(
           "Waiting for test execution {} with timeout of {} minutes", executionId, timeoutMinutes);
 
+      // The supervisor kills the process tree when the timeout elapses
+      exitCode = processSupervisor.supervise(process, timeoutMinutes, TimeUnit.MINUTES);
       try {
-        int exitCode = processFuture.get(timeoutMinutes, TimeUnit.MINUTES);
-
-        // Determine final status based on actual test results in database, not Maven exit code
-        // This ensures we correctly report failures even if Maven returns exit code 0
-        // or if TestExecutionListener hasn't finished updating status yet
-        TestStatus finalStatus = determineFinalStatusFromTestResults(executionId);
-
-        if (finalStatus != null) {
-          updateExecutionStatus(executionId, finalStatus);
-          log.info(
-              "Finalized execution status for {}: {} (Maven exit code: {})",
-              executionId,
-              finalStatus,
-              exitCode);
-        } else {
-          // Fallback to exit code if no test results found (shouldn't happen normally)
-          log.warn(
-              "No test results found for executionId: {}, falling back to Maven exit code: {}",
-              executionId,
-              exitCode);
-          if (exitCode == 0) {
-            updateExecutionStatus(executionId, TestStatus.PASSED);
-          } else {
-            updateExecutionStatus(executionId, TestStatus.FAILED);
-          }
+        int code = exitCode.get();
+        boolean drained = awaitOutput(List.of(output));
+        logWriter.close();
+        finalizeExecution(executionId, code, results, drained);
+      } catch (ExecutionException e) {
+        if (!(e.getCause() instanceof TimeoutException)) {
+          throw e;
         }
-      } catch (TimeoutException e) {
         log.warn("Test execution timeout after {} minutes: {}", timeoutMinutes, executionId);
-
-        // Forcefully terminate the process
-        if (process != null && process.isAlive()) {
-          log.info("Terminating process for executionId: {}", executionId);
-          process.destroyForcibly();
-
-          // Wait a bit for graceful shutdown, then force
-          try {
-            boolean terminated = process.waitFor(5, TimeUnit.SECONDS);
-            if (!terminated) {
-              log.warn("Process did not terminate gracefully, forcing kill");
-            }
-          } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
-            log.error("Interrupted while waiting for process termination", ie);
-          }
-        }
-
+        awaitOutput(List.of(output));
+        logWriter.close();
         updateExecutionStatus(executionId, TestStatus.TIMEOUT);
         cleanupResources(executionId);
       }
@@ -279,100 +292,339 @@ public class TestExecutionService {
 
       // Ensure process is terminated on error
       if (process != null && process.isAlive()) {
-        process.destroyForcibly();
+        processSupervisor.destroy(process);
       }
 
       updateExecutionStatus(executionId, TestStatus.ERROR);
     } finally {
-      // Cleanup
-      if (processFuture != null && !processFuture.isDone()) {
-        processFuture.cancel(true);
+      if (exitCode != null && !exitCode.isDone()) {
+        exitCode.cancel(true);
       }
-      if (timeoutExecutor != null) {
-        timeoutExecutor.shutdown();
-        try {
-          if (!timeoutExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-            timeoutExecutor.shutdownNow();
+      logWriter.close();
+    }
+  }
+
+  /** Create a process builder for a Maven command of the given execution */
+  private ProcessBuilder mavenProcessBuilder(
+      List<String> mavenArgs, String executionId, TestExecutionRequest request) {
+    ProcessBuilder processBuilder = new ProcessBuilder(mavenArgs);
+    processBuilder.directory(new java.io.File(mvnwPath).getParentFile());
+
+    // Inherit all environment variables from the parent process
+    // This ensures ConfigMap and Secrets are available to test execution
+    processBuilder.environment().putAll(System.getenv());
+
+    // Override/add specific variables
+    processBuilder.environment().put("ATAS_EXECUTION_ID", executionId);
+    processBuilder.environment().put("ATAS_SUITE_NAME", generateSuiteName(request));
+    // Note: MAVEN_HOME and PATH are not set here because mvnw (Maven wrapper) is self-contained
+    // and will download/use Maven automatically. Setting incorrect paths can cause failures.
+
+    // Redirect error stream to output stream for unified logging
+    processBuilder.redirectErrorStream(true);
+    return processBuilder;
+  }
+
+  /**
+   * Split TAGS and SUITE executions into shards of similar expected duration. Other execution
+   * types, or sharding being disabled, yield a single shard.
+   */
+  private List<List<String>> planShards(TestExecutionRequest request) {
+    if (shardPlanner.getShardCount() <= 1
+        || (request.getType() != TestExecutionRequest.ExecutionType.TAGS
+            && request.getType() != TestExecutionRequest.ExecutionType.SUITE)) {
+      return List.of();
+    }
+    List<String> classNames = discoverTestsToExecute(request);
+    if (classNames.size() < 2) {
+      return List.of();
+    }
+    // Class names end up on the Maven command line
+    classNames.forEach(inputValidator::validateTestClass);
+    return shardPlanner.plan(classNames, shardPlanner.getShardCount());
+  }
+
+  /**
+   * Run each shard as its own child process (or warm runner) under the parent execution ID. The
+   * listener in every shard records results against the same execution; the final status is set
+   * here once all shards have exited.
+   */
+  private void executeSharded(
+      String executionId,
+      TestExecutionRequest request,
+      List<List<String>> shards,
+      ExecutionLogService.LogWriter logWriter)
+      throws InterruptedException {
+    validateSelection(request);
+    long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(request.getTimeoutMinutes());
+    log.info("Executing {} in {} shards: {}", executionId, shards.size(), shards);
+
+    List<CompletableFuture<Integer>> exitCodes = new ArrayList<>();
+    List<CompletableFuture<Void>> outputReaders = new ArrayList<>();
+    List<Process> processes = new ArrayList<>();
+    ResultCompletionWatcher results = new ResultCompletionWatcher(executionId, shards.size());
+    boolean compiled = false;
+
+    try {
+      for (int i = 0; i < shards.size(); i++) {
+        String shardLabel = (i + 1) + "/" + shards.size();
+        Consumer<String> shardOutput =
+            results.watch(
+                line -> {
+                  logWriter.accept("[shard " + shardLabel + "] " + line);
+                  logImportantLine(executionId, line);
+                });
+
+        CompletableFuture<Integer> exitCode = null;
+        if (launcherTestExecutor.isEnabled()) {
+          exitCode =
+              launcherTestExecutor.submit(
+                  toRunnerRequest(executionId, request).toBuilder()
+                      .classNames(shards.get(i))
+                      .shard(shardLabel)
+                      .build(),
+                  shardOutput);
+        }
+
+        if (exitCode == null) {
+          // Compile once so the shards only run surefire and do not race on target/
+          if (!compiled && !compileTests(executionId, request, deadline, shardOutput)) {
+            logWriter.close();
+            updateExecutionStatus(executionId, TestStatus.ERROR);
+            return;
           }
-        } catch (InterruptedException e) {
-          timeoutExecutor.shutdownNow();
-          Thread.currentThread().interrupt();
+          compiled = true;
+
+          ProcessBuilder processBuilder =
+              mavenProcessBuilder(
+                  buildShardMavenCommand(request, shards.get(i)), executionId, request);
+          processBuilder.environment().put("ATAS_EXECUTION_SHARD", shardLabel);
+          Process process = processBuilder.start();
+          log.info("Shard {} of {} started, PID: {}", shardLabel, executionId, process.pid());
+          processes.add(process);
+          outputReaders.add(processSupervisor.readLines(process, shardOutput));
+          exitCode =
+              processSupervisor.supervise(
+                  process, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
         }
+        exitCodes.add(exitCode);
       }
+
+      try {
+        CompletableFuture.allOf(exitCodes.toArray(CompletableFuture[]::new))
+            .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+      } catch (ExecutionException e) {
+        // A Maven shard reached the shared deadline before the wait did
+        if (e.getCause() instanceof TimeoutException timeout) {
+          throw timeout;
+        }
+        throw e;
+      }
+      int exitCode = exitCodes.stream().mapToInt(CompletableFuture::join).max().orElse(0);
+
+      boolean drained = awaitOutput(outputReaders);
+      logWriter.close();
+      finalizeExecution(executionId, exitCode, results, drained);
+    } catch (TimeoutException e) {
+      log.warn(
+          "Sharded test execution timeout after {} minutes: {}",
+          request.getTimeoutMinutes(),
+          executionId);
+      exitCodes.forEach(exitCode -> exitCode.cancel(true));
+      processes.forEach(processSupervisor::destroy);
+      awaitOutput(outputReaders);
+      logWriter.close();
+      updateExecutionStatus(executionId, TestStatus.TIMEOUT);
+      cleanupResources(executionId);
+    } catch (IOException | ExecutionException e) {
+      log.error("Error executing shards for executionId: {}", executionId, e);
+      exitCodes.forEach(exitCode -> exitCode.cancel(true));
+      processes.forEach(processSupervisor::destroy);
+      updateExecutionStatus(executionId, TestStatus.ERROR);
+    }
+  }
+
+  /** Compile atas-tests once before Maven shards run surefire in parallel */
+  private boolean compileTests(
+      String executionId, TestExecutionRequest request, long deadline, Consumer<String> output)
+      throws IOException, InterruptedException {
+    List<String> args = mavenBaseCommand("test-compile");
+    Process process = mavenProcessBuilder(args, executionId, request).start();
+    CompletableFuture<Void> reader = processSupervisor.readLines(process, output);
+    int exitCode;
+    try {
+      exitCode =
+          processSupervisor
+              .supervise(process, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+              .get();
+    } catch (ExecutionException e) {
+      log.warn(
+          "Compiling tests did not complete for executionId {}: {}",
+          executionId,
+          e.getCause().getMessage());
+      return false;
     }
+    awaitOutput(List.of(reader));
+    if (exitCode != 0) {
+      log.error(
+          "Compiling tests failed for executionId {} with exit code {}", executionId, exitCode);
+      return false;
+    }
+    return true;
+  }
+
+  /** Wait for the output readers to reach the end of their streams, returning whether they did */
+  private boolean awaitOutput(List<CompletableFuture<Void>> readers) {
+    try {
+      CompletableFuture.allOf(readers.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException e) {
+      log.warn("Process output was not fully captured: {}", e.getMessage());
+    }
+    return false;
   }
 
   /**
-   * Capture process output asynchronously using a separate executor. This prevents output capture
-   * from consuming threads from the main test execution pool, allowing more tests to run
-   * concurrently.
+   * Run the request in the warm JUnit Platform runner.
+   *
+   * @return {@code false} if the runner could not take the request and Maven should be used
    */
-  private void captureProcessOutput(Process process, String executionId) {
-    // Capture stdout using dedicated output capture executor
-    CompletableFuture.runAsync(
-        () -> {
-          try (BufferedReader reader =
-              new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-            String line;
-            StringBuilder output = new StringBuilder();
-            while ((line = reader.readLine()) != null) {
-              output.append(line).append("\n");
-              // Log important lines at INFO level for visibility
-              if (line.contains("ERROR")
-                  || line.contains("FAILURE")
-                  || line.contains("Downloading")
-                  || line.contains("BUILD")
-                  || line.contains("Tests run:")) {
-                log.info("[{}] {}", executionId, line);
-              }
-            }
-            // Store output in database
-            storeProcessOutput(executionId, "stdout", output.toString());
-          } catch (IOException e) {
-            log.error("Error reading process stdout for executionId: {}", executionId, e);
-          }
-        },
-        outputCaptureExecutor);
+  private boolean executeWithLauncher(
+      String executionId, TestExecutionRequest request, ExecutionLogService.LogWriter logWriter)
+      throws InterruptedException {
+    validateSelection(request);
+    RunnerRequest runnerRequest = toRunnerRequest(executionId, request);
+    ResultCompletionWatcher results = new ResultCompletionWatcher(executionId, 1);
+
+    Integer exitCode;
+    try {
+      exitCode =
+          launcherTestExecutor.execute(
+              runnerRequest,
+              request.getTimeoutMinutes(),
+              results.watch(
+                  line -> {
+                    logWriter.accept(line);
+                    logImportantLine(executionId, line);
+                  }));
+    } catch (TimeoutException e) {
+      log.warn(
+          "Test execution timeout after {} minutes: {}", request.getTimeoutMinutes(), executionId);
+      logWriter.close();
+      updateExecutionStatus(executionId, TestStatus.TIMEOUT);
+      cleanupResources(executionId);
+      return true;
+    }
 
-    // Capture stderr (though redirectErrorStream is true, keep this for safety)
-    CompletableFuture.runAsync(
-        () -> {
-          try (BufferedReader reader =
-              new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
-            String line;
-            StringBuilder output = new StringBuilder();
-            while ((line = reader.readLine()) != null) {
-              output.append(line).append("\n");
-              // Log stderr at WARN level
-              log.warn("[{}] {}", executionId, line);
-            }
-            storeProcessOutput(executionId, "stderr", output.toString());
-          } catch (IOException e) {
-            log.error("Error reading process stderr for executionId: {}", executionId, e);
-          }
-        },
-        outputCaptureExecutor);
+    if (exitCode == null) {
+      log.info("Test runner not available for executionId {}, using Maven", executionId);
+      return false;
+    }
+
+    // The runner prints the marker before it reports the result on the same stream
+    logWriter.close();
+    finalizeExecution(executionId, exitCode, results, true);
+    return true;
   }
 
-  /** Store process output in database */
-  private void storeProcessOutput(String executionId, String type, String output) {
-    try {
-      TestExecution execution = executionRepository.findByExecutionId(executionId).orElse(null);
+  private RunnerRequest toRunnerRequest(String executionId, TestExecutionRequest request) {
+    return RunnerRequest.builder()
+        .executionId(executionId)
+        .suiteName(generateSuiteName(request))
+        .type(request.getType().name())
+        .testClass(request.getTestClass())
+        .testMethod(request.getTestMethod())
+        .tags(request.getTags())
+        .grepPattern(request.getGrepPattern())
+        .suite(request.getSuiteName())
+        .parameters(sanitizeParameters(request.getParameters()))
+        .build();
+  }
 
-      if (execution != null) {
-        if ("stdout".equals(type)) {
-          execution.setStdoutOutput(output);
-        } else if ("stderr".equals(type)) {
-          execution.setStderrOutput(output);
-        }
-        execution.setOutputComplete(true);
-        executionRepository.save(execution);
+  /**
+   * Set the final execution status once the test process has exited. The status is derived from the
+   * recorded test results, falling back to the exit code when none were recorded.
+   *
+   * @param outputDrained whether the process output was read to its end. The completion markers are
+   *     then already known and waiting for them would only delay executions whose listener never
+   *     got to print one.
+   */
+  private void finalizeExecution(
+      String executionId, int exitCode, ResultCompletionWatcher results, boolean outputDrained) {
+    Optional<Long> recorded =
+        results.await(outputDrained ? 0 : properties.getResultsTimeoutMs(), TimeUnit.MILLISECONDS);
+    if (recorded.isEmpty()) {
+      log.warn(
+          "No result completion marker for executionId {}, using the results recorded so far",
+          executionId);
+    }
+
+    // Determine final status based on actual test results in database, not Maven exit code
+    // This ensures we correctly report failures even if Maven returns exit code 0
+    TestStatus finalStatus = determineFinalStatusFromTestResults(executionId, recorded);
+
+    if (finalStatus != null) {
+      updateExecutionStatus(executionId, finalStatus);
+      log.info(
+          "Finalized execution status for {}: {} (exit code: {})",
+          executionId,
+          finalStatus,
+          exitCode);
+    } else {
+      // Fallback to exit code if no test results found (shouldn't happen normally)
+      log.warn(
+          "No test results found for executionId: {}, falling back to exit code: {}",
+          executionId,
+          exitCode);
+      if (exitCode == 0) {
+        updateExecutionStatus(executionId, TestStatus.PASSED);
+      } else {
+        updateExecutionStatus(executionId, TestStatus.FAILED);
       }
-    } catch (Exception e) {
-      log.error("Error storing process output for executionId: {}", executionId, e);
     }
   }
 
+  /** Log important output lines at INFO level for visibility */
+  private void logImportantLine(String executionId, String line) {
+    if (line.contains("ERROR")
+        || line.contains("FAILURE")
+        || line.contains("Downloading")
+        || line.contains("BUILD")
+        || line.contains("Tests run:")) {
+      log.info("[{}] {}", executionId, line);
+    }
+  }
+
+  /**
+   * Capture process output asynchronously on virtual threads of the {@link ProcessSupervisor} and
+   * persist it in chunks through the execution's log writer as it arrives.
+   *
+   * @return completes once both streams are drained
+   */
+  private CompletableFuture<Void> captureProcessOutput(
+      Process process, String executionId, Consumer<String> output) {
+    CompletableFuture<Void> stdout =
+        processSupervisor.readLines(
+            process,
+            line -> {
+              output.accept(line);
+              logImportantLine(executionId, line);
+            });
+
+    // Capture stderr (though redirectErrorStream is true, keep this for safety)
+    CompletableFuture<Void> stderr =
+        processSupervisor.readLines(
+            process.getErrorStream(),
+            line -> {
+              output.accept(line);
+              // Log stderr at WARN level
+              log.warn("[{}] {}", executionId, line);
+            });
+    return CompletableFuture.allOf(stdout, stderr);
+  }
+
   /** Cleanup resources after timeout or failure */
   private void cleanupResources(String executionId) {
     // Cleanup any temporary files, connections, etc.
@@ -382,58 +634,118 @@ public class TestExecutionService {
 
   /** Build Maven command based on request type */
   private List<String> buildMavenCommand(TestExecutionRequest request) {
+    List<String> args = mavenBaseCommand("test");
+
+    validateSelection(request);
+    switch (request.getType()) {
+      case INDIVIDUAL_TEST:
+        if (request.getTestClass() != null) {
+          String testArg = request.getTestClass();
+          if (request.getTestMethod() != null) {
+            // Use # separator for class#method format
+            testArg = request.getTestClass() + "#" + request.getTestMethod();
+          }
+          args.add("-Dtest=" + testArg);
+        }
+        break;
+
+      case TAGS:
+        if (request.getTags() != null && !request.getTags().isEmpty()) {
+          // Join tags with | (pipe) for JUnit 5 tag expression OR logic
+          // JUnit 5 syntax: tag1|tag2 (OR), tag1&tag2 (AND)
+          String tagExpression = String.join("|", request.getTags());
+          args.add("-Djunit.jupiter.includeTags=" + tagExpression);
+        }
+        break;
+
+      case GREP:
+        if (request.getGrepPattern() != null) {
+          args.add("-Dtest=" + request.getGrepPattern());
+        }
+        break;
+
+      case SUITE:
+        if (request.getSuiteName() != null) {
+          args.add("-Dtest=" + request.getSuiteName() + "TestSuite");
+        }
+        break;
+    }
+
+    // Add additional parameters
+    sanitizeParameters(request.getParameters())
+        .forEach((key, value) -> args.add("-D" + key + "=" + value));
+
+    return args;
+  }
+
+  /**
+   * Build the Maven command of one shard. Tests are compiled beforehand, so surefire runs directly
+   * on the shard's classes.
+   */
+  private List<String> buildShardMavenCommand(TestExecutionRequest request, List<String> classes) {
+    List<String> args = mavenBaseCommand("surefire:test");
+    args.add("-Dtest=" + String.join(",", classes));
+    args.add("-Dsurefire.failIfNoSpecifiedTests=false");
+    if (request.getType() == TestExecutionRequest.ExecutionType.TAGS
+        && request.getTags() != null
+        && !request.getTags().isEmpty()) {
+      args.add("-Djunit.jupiter.includeTags=" + String.join("|", request.getTags()));
+    }
+    sanitizeParameters(request.getParameters())
+        .forEach((key, value) -> args.add("-D" + key + "=" + value));
+    return args;
+  }
+
+  /** mvnw invocation of the given goal on the atas-tests module */
+  private List<String> mavenBaseCommand(String goal) {
     List<String> args = new ArrayList<>();
     // Execute mvnw via /bin/sh explicitly for Alpine Linux compatibility
     // Alpine Linux may not properly execute shebang scripts when running as non-root user
     args.add("/bin/sh");
     args.add(mvnwPath);
-    args.add("test");
+    args.add(goal);
     args.add("-pl");
     args.add("atas-tests");
+    return args;
+  }
 
+  /** Validate the test selection of a request before it is handed to a test process */
+  private void validateSelection(TestExecutionRequest request) {
     switch (request.getType()) {
       case INDIVIDUAL_TEST:
         if (request.getTestClass() != null) {
           inputValidator.validateTestClass(request.getTestClass());
-
-          String testArg = request.getTestClass();
           if (request.getTestMethod() != null) {
             inputValidator.validateTestMethod(request.getTestMethod());
-            // Use # separator for class#method format
-            testArg = request.getTestClass() + "#" + request.getTestMethod();
           }
-          args.add("-Dtest=" + testArg);
         }
         break;
 
       case TAGS:
         if (request.getTags() != null && !request.getTags().isEmpty()) {
           inputValidator.validateTags(request.getTags());
-          // Join tags with | (pipe) for JUnit 5 tag expression OR logic
-          // JUnit 5 syntax: tag1|tag2 (OR), tag1&tag2 (AND)
-          String tagExpression = String.join("|", request.getTags());
-          args.add("-Djunit.jupiter.includeTags=" + tagExpression);
         }
         break;
 
       case GREP:
         if (request.getGrepPattern() != null) {
           inputValidator.validateGrepPattern(request.getGrepPattern());
-          args.add("-Dtest=" + request.getGrepPattern());
         }
         break;
 
       case SUITE:
         if (request.getSuiteName() != null) {
           inputValidator.validateSuiteName(request.getSuiteName());
-          args.add("-Dtest=" + request.getSuiteName() + "TestSuite");
         }
         break;
     }
+  }
 
-    // Add additional parameters (validate these too)
-    if (request.getParameters() != null) {
-      for (Map.Entry<String, String> param : request.getParameters().entrySet()) {
+  /** Drop blank or potentially unsafe additional parameters */
+  private Map<String, String> sanitizeParameters(Map<String, String> parameters) {
+    Map<String, String> sanitized = new LinkedHashMap<>();
+    if (parameters != null) {
+      for (Map.Entry<String, String> param : parameters.entrySet()) {
         String key = param.getKey();
         String value = param.getValue();
 
@@ -453,11 +765,10 @@ public class TestExecutionService {
           continue;
         }
 
-        args.add("-D" + key.trim() + "=" + value.trim());
+        sanitized.put(key.trim(), value.trim());
       }
     }
-
-    return args;
+    return sanitized;
   }
 
   /** Discover tests that will be executed based on request */
@@ -508,20 +819,17 @@ public class TestExecutionService {
   /**
    * Determine the final execution status based on actual test results in the database. This is more
    * reliable than relying on Maven exit code, as it reflects the actual test outcomes recorded by
-   * TestExecutionListener.
+   * TestExecutionListener. Reads the execution and one grouped count of its results.
    *
    * @param executionId the execution ID to check
+   * @param recorded number of results the listener reported as written, if it finished
    * @return the final status (FAILED if any tests failed, PASSED if all passed, null if no results
    *     found)
    */
-  private TestStatus determineFinalStatusFromTestResults(String executionId) {
+  private TestStatus determineFinalStatusFromTestResults(
+      String executionId, Optional<Long> recorded) {
     try {
-      // Wait a short time for TestExecutionListener to finish recording results
-      // This handles the race condition where Maven process completes before afterAll() runs
-      Thread.sleep(500);
-
-      Optional<TestExecution> executionOpt =
-          executionRepository.findByExecutionIdWithResults(executionId);
+      Optional<TestExecution> executionOpt = executionRepository.findByExecutionId(executionId);
       if (executionOpt.isEmpty()) {
         log.warn("Execution not found: {}", executionId);
         return null;
@@ -535,53 +843,40 @@ public class TestExecutionService {
         return null; // Don't override already-finalized status
       }
 
-      List<TestResult> results = execution.getResults();
+      ResultCountsView counts =
+          resultRepository.countByExecutionIds(List.of(execution.getId())).stream()
+              .findFirst()
+              .orElse(null);
+      long total = counts != null ? counts.getTotal() : 0;
 
-      if (results.isEmpty()) {
+      if (recorded.isPresent() && total < recorded.get()) {
+        log.warn(
+            "Execution {} reported {} results but only {} are visible",
+            executionId,
+            recorded.get(),
+            total);
+      }
+
+      if (total == 0) {
         log.warn("No test results found for executionId: {}", executionId);
         return null; // Fallback to exit code
       }
 
       // Check if any tests failed or errored
-      boolean hasFailures =
-          results.stream()
-              .anyMatch(
-                  r -> r.getStatus() == TestStatus.FAILED || r.getStatus() == TestStatus.ERROR);
-
-      if (hasFailures) {
-        long failedCount =
-            results.stream()
-                .filter(
-                    r -> r.getStatus() == TestStatus.FAILED || r.getStatus() == TestStatus.ERROR)
-                .count();
+      if (counts.getFailed() > 0) {
         log.info(
             "Execution {} has {} failed/errored tests, setting status to FAILED",
             executionId,
-            failedCount);
+            counts.getFailed());
         return TestStatus.FAILED;
       }
 
       // All tests passed or were skipped
-      // CRITICAL FIX: Validate that we actually have test results before marking as PASSED
-      // If we have results but they're all passed/skipped, that's valid
-      // But if we have no results at all, we should be more cautious
-      if (results.isEmpty()) {
-        log.warn(
-            "Execution {} has no test results but status determination was called. "
-                + "This may indicate a test execution issue.",
-            executionId);
-        return null; // Let fallback logic handle this
-      }
-
       log.info(
           "Execution {} has {} tests, all passed/skipped, setting status to PASSED",
           executionId,
-          results.size());
+          total);
       return TestStatus.PASSED;
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      log.warn("Interrupted while determining final status for executionId: {}", executionId);
-      return null;
     } catch (Exception e) {
       log.error(
           "Error determining final status from test results for executionId: {}: {}",
@@ -598,42 +893,26 @@ public class TestExecutionService {
       allEntries = true)
   protected void updateExecutionStatus(String executionId, TestStatus status) {
     try {
-      TestExecution execution =
-          executionRepository
-              .findByExecutionId(executionId)
-              .orElseThrow(() -> new RuntimeException("Execution not found: " + executionId));
-
-      // Don't overwrite FAILED/ERROR status with PASSED (failures take precedence)
-      // But allow overwriting PASSED with FAILED if we discover failures
-      if (execution.getStatus() != TestStatus.RUNNING
-          && execution.getStatus() != null
-          && execution.getStatus() != status) {
-        // Allow upgrading from PASSED to FAILED/ERROR (failures take precedence)
-        boolean isUpgradingToFailure =
-            (execution.getStatus() == TestStatus.PASSED
-                    || execution.getStatus() == TestStatus.SKIPPED)
-                && (status == TestStatus.FAILED || status == TestStatus.ERROR);
-
-        if (!isUpgradingToFailure) {
-          return;
-        } else {
-          log.info(
-              "Upgrading execution {} status from {} to {} (failures take precedence)",
+      // Don't overwrite FAILED/ERROR status with PASSED (failures take precedence), but allow
+      // overwriting PASSED with FAILED if we discover failures. Checking and writing the status
+      // in one statement keeps concurrent updates from interleaving between the two.
+      int updated =
+          executionRepository.transitionStatus(
               executionId,
-              execution.getStatus(),
-              status);
-        }
-      }
-
-      execution.setStatus(status);
-      if (status == TestStatus.PASSED
-          || status == TestStatus.FAILED
-          || status == TestStatus.ERROR
-          || status == TestStatus.TIMEOUT) {
-        execution.setEndTime(LocalDateTime.now(ZoneOffset.UTC));
+              status,
+              predecessorsOf(status),
+              status == TestStatus.PASSED
+                  || status == TestStatus.FAILED
+                  || status == TestStatus.ERROR
+                  || status == TestStatus.TIMEOUT,
+              LocalDateTime.now(ZoneOffset.UTC));
+      if (updated == 0) {
+        log.debug(
+            "Execution {} not moved to {}: unknown, or its status takes precedence",
+            executionId,
+            status);
+        return;
       }
-
-      executionRepository.save(execution);
       log.info("Updated execution {} status to {}", executionId, status);
 
       // CRITICAL FIX: If execution is marked as FAILED/ERROR/TIMEOUT, sync test result statuses
@@ -642,15 +921,28 @@ public class TestExecutionService {
           || status == TestStatus.ERROR
           || status == TestStatus.TIMEOUT) {
         syncTestResultStatuses(executionId, status);
+        // Results may have changed in bulk; count them again from the database
+        liveCounters.evict(executionId);
       }
+      dailyStatsRollup.markChanged(executionId);
 
-      // Publish execution update to Redis for SSE scaling
+      // Append the change to the execution event stream for SSE scaling
       publishExecutionUpdate(executionId, status);
     } catch (Exception e) {
       log.error("Error updating execution status for {}: {}", executionId, e.getMessage());
     }
   }
 
+  /** Statuses an execution may currently be in for a transition to the given status */
+  private static Set<TestStatus> predecessorsOf(TestStatus status) {
+    Set<TestStatus> from = EnumSet.of(TestStatus.QUEUED, TestStatus.RUNNING, status);
+    if (status == TestStatus.FAILED || status == TestStatus.ERROR) {
+      from.add(TestStatus.PASSED);
+      from.add(TestStatus.SKIPPED);
+    }
+    return from;
+  }
+
   /**
    * Sync test result statuses with execution status when execution fails. If execution is
    * FAILED/ERROR/TIMEOUT but test results show PASSED/SKIPPED, update test results to match
@@ -658,37 +950,10 @@ public class TestExecutionService {
    */
   private void syncTestResultStatuses(String executionId, TestStatus executionStatus) {
     try {
-      Optional<TestExecution> executionOpt =
-          executionRepository.findByExecutionIdWithResults(executionId);
-      if (executionOpt.isEmpty()) {
-        return;
-      }
-
-      TestExecution execution = executionOpt.get();
-      List<TestResult> results = execution.getResults();
-
-      if (results.isEmpty()) {
-        return;
-      }
-
-      int updatedCount = 0;
-      for (TestResult result : results) {
-        TestStatus resultStatus = result.getStatus();
-        // Only update PASSED/SKIPPED results - don't overwrite existing FAILED/ERROR
-        if ((resultStatus == TestStatus.PASSED || resultStatus == TestStatus.SKIPPED)
-            && (executionStatus == TestStatus.FAILED
-                || executionStatus == TestStatus.ERROR
-                || executionStatus == TestStatus.TIMEOUT)) {
-          log.info(
-              "Syncing test result {} status from {} to {} to match execution status",
-              result.getId(),
-              resultStatus,
-              executionStatus);
-          result.setStatus(executionStatus);
-          resultRepository.save(result);
-          updatedCount++;
-        }
-      }
+      // Only update PASSED/SKIPPED results - don't overwrite existing FAILED/ERROR
+      int updatedCount =
+          resultRepository.updateStatusByExecutionId(
+              executionId, executionStatus, EnumSet.of(TestStatus.PASSED, TestStatus.SKIPPED));
 
       if (updatedCount > 0) {
         log.info(
@@ -707,15 +972,10 @@ public class TestExecutionService {
     }
   }
 
-  /** Publish execution update to Redis for SSE scaling */
+  /** Append the status change to the execution event stream for SSE scaling */
   private void publishExecutionUpdate(String executionId, TestStatus status) {
     try {
-      Map<String, Object> update = new HashMap<>();
-      update.put("executionId", executionId);
-      update.put("status", status.name());
-      update.put("timestamp", LocalDateTime.now(ZoneOffset.UTC).toString());
-
-      redisTemplate.convertAndSend("atas:execution:updates", update);
+      updatePublisher.publish(executionId, status, Map.of());
     } catch (Exception e) {
       log.warn("Failed to publish execution update to Redis: {}", e.getMessage());
       // Don't fail the status update if Redis publish fails
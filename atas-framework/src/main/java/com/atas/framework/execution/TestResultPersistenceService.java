@@ -13,6 +13,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
@@ -178,15 +179,15 @@ public class TestResultPersistenceService {
     }
 
     TestExecution execution = executionOpt.get();
+    // A test recorded again (e.g. a retry) replaces its earlier result
     TestResult result =
-        TestResult.builder()
-            .execution(execution)
-            .testId(testId)
-            .testName(testName)
-            .status(status)
-            .startTime(startTime)
-            .endTime(endTime != null ? endTime : LocalDateTime.now())
-            .build();
+        resultRepository
+            .findByExecutionIdAndTestId(execution.getId(), testId)
+            .orElseGet(() -> TestResult.builder().execution(execution).testId(testId).build());
+    result.setTestName(testName);
+    result.setStatus(status);
+    result.setStartTime(startTime);
+    result.setEndTime(endTime != null ? endTime : LocalDateTime.now());
 
     resultRepository.save(result);
     log.debug("Saved test result: {} - {}", testId, status);
@@ -199,55 +200,19 @@ public class TestResultPersistenceService {
       TestStatus status,
       LocalDateTime startTime,
       LocalDateTime endTime) {
+    // Resolving the execution and inserting or updating the result is one statement
     try (Connection conn = getConnection();
-        PreparedStatement getExecutionStmt =
-            conn.prepareStatement("SELECT id FROM test_executions WHERE execution_id = ?")) {
-      getExecutionStmt.setString(1, executionId);
-      ResultSet rs = getExecutionStmt.executeQuery();
-
-      if (!rs.next()) {
+        PreparedStatement stmt = ResultUpsert.prepareByExecutionId(conn)) {
+      stmt.setString(1, testId);
+      stmt.setString(2, testName);
+      stmt.setString(3, status.name());
+      stmt.setTimestamp(4, Timestamp.valueOf(startTime));
+      stmt.setTimestamp(5, Timestamp.valueOf(endTime != null ? endTime : LocalDateTime.now()));
+      stmt.setString(6, executionId);
+      if (stmt.executeUpdate() == 0) {
         log.warn("Execution not found: {}, cannot save test result", executionId);
-        return;
-      }
-
-      long executionDbId = rs.getLong("id");
-
-      try (PreparedStatement checkStmt =
-          conn.prepareStatement(
-              "SELECT id FROM test_results WHERE execution_id = ? AND test_id = ?")) {
-        checkStmt.setLong(1, executionDbId);
-        checkStmt.setString(2, testId);
-        ResultSet resultRs = checkStmt.executeQuery();
-
-        if (resultRs.next()) {
-          try (PreparedStatement updateStmt =
-              conn.prepareStatement(
-                  "UPDATE test_results SET test_name = ?, status = ?, start_time = ?, end_time = ? WHERE execution_id = ? AND test_id = ?")) {
-            updateStmt.setString(1, testName);
-            updateStmt.setString(2, status.name());
-            updateStmt.setTimestamp(3, Timestamp.valueOf(startTime));
-            updateStmt.setTimestamp(
-                4, Timestamp.valueOf(endTime != null ? endTime : LocalDateTime.now()));
-            updateStmt.setLong(5, executionDbId);
-            updateStmt.setString(6, testId);
-            updateStmt.executeUpdate();
-            log.debug("Updated test result: {} - {}", testId, status);
-          }
-        } else {
-          try (PreparedStatement insertStmt =
-              conn.prepareStatement(
-                  "INSERT INTO test_results (execution_id, test_id, test_name, status, start_time, end_time) VALUES (?, ?, ?, ?, ?, ?)")) {
-            insertStmt.setLong(1, executionDbId);
-            insertStmt.setString(2, testId);
-            insertStmt.setString(3, testName);
-            insertStmt.setString(4, status.name());
-            insertStmt.setTimestamp(5, Timestamp.valueOf(startTime));
-            insertStmt.setTimestamp(
-                6, Timestamp.valueOf(endTime != null ? endTime : LocalDateTime.now()));
-            insertStmt.executeUpdate();
-            log.debug("Inserted test result: {} - {}", testId, status);
-          }
-        }
+      } else {
+        log.debug("Saved test result: {} - {}", testId, status);
       }
     } catch (SQLException e) {
       log.error("Error saving test result: {}", e.getMessage(), e);
@@ -264,16 +229,16 @@ public class TestResultPersistenceService {
   }
 
   private void updateExecutionStatusSpring(String executionId, TestStatus status) {
-    Optional<TestExecution> executionOpt = executionRepository.findByExecutionId(executionId);
-    if (executionOpt.isPresent()) {
-      TestExecution execution = executionOpt.get();
-      execution.setStatus(status);
-      if (status == TestStatus.PASSED
-          || status == TestStatus.FAILED
-          || status == TestStatus.ERROR) {
-        execution.setEndTime(LocalDateTime.now());
-      }
-      executionRepository.save(execution);
+    int updated =
+        executionRepository.transitionStatus(
+            executionId,
+            status,
+            EnumSet.allOf(TestStatus.class),
+            status == TestStatus.PASSED
+                || status == TestStatus.FAILED
+                || status == TestStatus.ERROR,
+            LocalDateTime.now());
+    if (updated > 0) {
       log.info("Updated execution status: {} -> {}", executionId, status);
     }
   }
@@ -0,0 +1,265 @@
+package com.atas.framework.execution;
+
+import com.atas.framework.config.ExecutionProperties;
+import com.atas.framework.execution.runner.RunnerResult;
+import com.atas.framework.execution.runner.TestRunnerProcess;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pool of pre-started runner JVMs. Executions lease an idle runner and return it when they are
+ * done; runners are recycled after a configured number of executions or when their live heap grows
+ * past a threshold. The number of idle runners follows the number of executions waiting in the
+ * {@link ExecutionScheduler}, so bursts of executions find warm runners waiting for them.
+ */
+@Component
+@Slf4j
+public class TestRunnerPool {
+
+  private final ExecutionProperties properties;
+  private final ExecutionScheduler scheduler;
+
+  /** Most recently returned runners first, so surplus runners age out at the tail */
+  private final LinkedBlockingDeque<TestRunnerProcess> idle = new LinkedBlockingDeque<>();
+
+  private final AtomicInteger leased = new AtomicInteger();
+  private final AtomicInteger starting = new AtomicInteger();
+  private final AtomicInteger runnerSequence = new AtomicInteger();
+  private final ExecutorService starter =
+      Executors.newCachedThreadPool(
+          new ThreadFactoryBuilder().setNameFormat("runner-starter-%d").setDaemon(true).build());
+
+  private volatile boolean closed;
+
+  @Value("${atas.mvnw.path:/app/mvnw}")
+  private String mvnwPath;
+
+  public TestRunnerPool(ExecutionProperties properties, ExecutionScheduler scheduler) {
+    this.properties = properties;
+    this.scheduler = scheduler;
+  }
+
+  /** Whether launcher mode is selected and a precompiled classpath is configured */
+  public boolean isEnabled() {
+    String classpathFile = properties.getRunner().getClasspathFile();
+    return properties.getMode() == ExecutionProperties.Mode.LAUNCHER
+        && classpathFile != null
+        && !classpathFile.isBlank();
+  }
+
+  @PostConstruct
+  void prestart() {
+    if (isEnabled()) {
+      scale();
+    }
+  }
+
+  /**
+   * Lease a runner for one execution. An idle runner is returned immediately; otherwise a new one
+   * is started if the pool has room, or the call waits for a runner to be returned.
+   *
+   * @return a live runner, or {@code null} if none became available within the lease timeout
+   */
+  public TestRunnerProcess lease() throws InterruptedException {
+    if (!isEnabled() || closed) {
+      return null;
+    }
+    ExecutionProperties.Pool config = properties.getRunner().getPool();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getLeaseTimeoutSeconds());
+
+    while (System.nanoTime() < deadline) {
+      TestRunnerProcess runner = idle.pollFirst();
+      if (runner == null && reserveSlot(config.getMaxSize())) {
+        try {
+          runner = startRunner();
+        } catch (IOException e) {
+          log.warn("Could not start test runner: {}", e.getMessage());
+          return null;
+        } finally {
+          starting.decrementAndGet();
+        }
+      }
+      if (runner == null) {
+        runner = idle.pollFirst(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+      }
+      if (runner != null && runner.isAlive()) {
+        leased.incrementAndGet();
+        return runner;
+      }
+      if (runner != null) {
+        runner.close();
+      }
+    }
+    return null;
+  }
+
+  /** Return a leased runner after a completed execution */
+  public void release(TestRunnerProcess runner, RunnerResult result) {
+    leased.decrementAndGet();
+    if (closed || !runner.isAlive() || shouldRecycle(runner.getExecutionCount(), result)) {
+      log.info(
+          "Recycling runner {} after {} executions", runner.getName(), runner.getExecutionCount());
+      runner.close();
+      scale();
+      return;
+    }
+    idle.offerFirst(runner);
+  }
+
+  /** Drop a leased runner that can no longer be used, e.g. after a timeout */
+  public void discard(TestRunnerProcess runner) {
+    leased.decrementAndGet();
+    runner.close();
+    scale();
+  }
+
+  /** Whether a runner has served enough executions or retained too much heap to be reused */
+  boolean shouldRecycle(int executionCount, RunnerResult result) {
+    ExecutionProperties.Pool config = properties.getRunner().getPool();
+    if (executionCount >= config.getMaxExecutionsPerRunner()) {
+      return true;
+    }
+    return result != null
+        && result.getHeapMaxBytes() > 0
+        && result.getHeapUsedBytes() * 100
+            > result.getHeapMaxBytes() * (long) config.getMaxHeapUsagePercent();
+  }
+
+  /**
+   * Number of idle runners to keep: one per execution waiting in the executor queue, at least
+   * {@code minIdle}, and never more than the pool has room for next to the leased runners.
+   */
+  int targetIdle(int queuedExecutions, int leasedRunners) {
+    ExecutionProperties.Pool config = properties.getRunner().getPool();
+    int room = Math.max(0, config.getMaxSize() - leasedRunners);
+    return Math.min(room, Math.max(config.getMinIdle(), queuedExecutions));
+  }
+
+  /** Grow or shrink the idle runners to match the current execution queue depth */
+  @Scheduled(fixedDelayString = "${atas.execution.runner.pool.scale-interval-ms:5000}")
+  public void scale() {
+    if (!isEnabled() || closed) {
+      return;
+    }
+    int target = targetIdle(queuedExecutions(), leased.get());
+
+    while (idle.size() + starting.get() < target
+        && reserveSlot(properties.getRunner().getPool().getMaxSize())) {
+      starter.execute(
+          () -> {
+            try {
+              TestRunnerProcess runner = startRunner();
+              if (closed) {
+                runner.close();
+              } else {
+                idle.offerLast(runner);
+              }
+            } catch (IOException e) {
+              log.warn("Could not prestart test runner: {}", e.getMessage());
+            } finally {
+              starting.decrementAndGet();
+            }
+          });
+    }
+
+    while (idle.size() > target) {
+      TestRunnerProcess surplus = idle.pollLast();
+      if (surplus == null) {
+        break;
+      }
+      log.info("Stopping idle runner {} (target idle: {})", surplus.getName(), target);
+      surplus.close();
+    }
+  }
+
+  private int queuedExecutions() {
+    return scheduler.getWaitingCount();
+  }
+
+  /** Reserve room for a runner that is about to be started */
+  private boolean reserveSlot(int maxSize) {
+    while (true) {
+      int current = starting.get();
+      if (idle.size() + leased.get() + current >= maxSize) {
+        return false;
+      }
+      if (starting.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private TestRunnerProcess startRunner() throws IOException {
+    ExecutionProperties.Runner config = properties.getRunner();
+    List<String> command =
+        TestRunnerProcess.command(
+            resolveJavaCommand(), config.getJvmArgs(), buildClasspath(), config.getBasePackage());
+    return TestRunnerProcess.start(
+        command,
+        resolveWorkingDir(),
+        "atas-runner-" + runnerSequence.incrementAndGet(),
+        config.getStartupTimeoutSeconds());
+  }
+
+  private List<String> buildClasspath() throws IOException {
+    ExecutionProperties.Runner config = properties.getRunner();
+    Path classpathFile = Paths.get(config.getClasspathFile());
+    if (!Files.isReadable(classpathFile)) {
+      throw new IOException("Runner classpath file not found: " + classpathFile);
+    }
+
+    List<String> classpath = new ArrayList<>();
+    classpath.add(
+        config.getTestClassesDir() != null && !config.getTestClassesDir().isBlank()
+            ? config.getTestClassesDir()
+            : new File(resolveWorkingDir(), "target/test-classes").getPath());
+    Arrays.stream(Files.readString(classpathFile).trim().split(File.pathSeparator))
+        .filter(entry -> !entry.isBlank())
+        .forEach(classpath::add);
+    return classpath;
+  }
+
+  private File resolveWorkingDir() {
+    String workingDir = properties.getRunner().getWorkingDir();
+    if (workingDir != null && !workingDir.isBlank()) {
+      return new File(workingDir);
+    }
+    return new File(new File(mvnwPath).getAbsoluteFile().getParentFile(), "atas-tests");
+  }
+
+  private String resolveJavaCommand() {
+    String javaCommand = properties.getRunner().getJavaCommand();
+    if (javaCommand != null && !javaCommand.isBlank()) {
+      return javaCommand;
+    }
+    return Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    closed = true;
+    starter.shutdownNow();
+    TestRunnerProcess runner;
+    while ((runner = idle.pollFirst()) != null) {
+      runner.close();
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package com.atas.framework.execution;
+
+import com.atas.framework.config.ExecutionProperties;
+import com.atas.framework.repository.TestResultRepository;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Splits the test classes of an execution into shards of similar expected duration. Durations come
+ * from the recorded test results; classes are assigned longest first to the currently lightest
+ * shard (LPT bin-packing), which keeps the slowest shard close to the optimum.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TestShardPlanner {
+
+  private final TestResultRepository resultRepository;
+  private final ExecutionProperties properties;
+
+  /** Configured number of shards; sharding is enabled when it is greater than one */
+  public int getShardCount() {
+    return properties.getSharding().getShards();
+  }
+
+  /**
+   * Plan shards for the given classes.
+   *
+   * @param classNames fully qualified or simple test class names
+   * @param shardCount requested number of shards
+   * @return non-empty shards, at most {@code shardCount} and at most one per class
+   */
+  public List<List<String>> plan(List<String> classNames, int shardCount) {
+    ExecutionProperties.Sharding config = properties.getSharding();
+    Map<String, Double> durations = new HashMap<>();
+    try {
+      LocalDateTime since = LocalDateTime.now(ZoneOffset.UTC).minusDays(config.getHistoryDays());
+      for (TestResultRepository.ClassDurationView row :
+          resultRepository.findAverageClassDurationsSince(since)) {
+        if (row.getClassName() != null && row.getAverageSeconds() != null) {
+          durations.put(row.getClassName(), row.getAverageSeconds());
+        }
+      }
+    } catch (Exception e) {
+      log.warn("Could not load class durations, sharding by class count: {}", e.getMessage());
+    }
+    return partition(classNames, shardCount, durations, config.getDefaultClassDurationSeconds());
+  }
+
+  /**
+   * Longest-processing-time-first assignment of classes to shards.
+   *
+   * @param durations average duration in seconds keyed by fully qualified class name
+   * @param defaultSeconds duration assumed for classes without history
+   */
+  static List<List<String>> partition(
+      List<String> classNames,
+      int shardCount,
+      Map<String, Double> durations,
+      double defaultSeconds) {
+    int shards = Math.max(1, Math.min(shardCount, classNames.size()));
+
+    Map<String, Double> bySimpleName = new HashMap<>();
+    durations.forEach(
+        (className, seconds) ->
+            bySimpleName.put(className.substring(className.lastIndexOf('.') + 1), seconds));
+
+    List<String> ordered = new ArrayList<>(classNames);
+    Map<String, Double> expected = new HashMap<>();
+    for (String className : ordered) {
+      Double seconds = durations.get(className);
+      if (seconds == null) {
+        seconds = bySimpleName.get(className.substring(className.lastIndexOf('.') + 1));
+      }
+      expected.put(className, seconds != null ? seconds : defaultSeconds);
+    }
+    ordered.sort(Comparator.comparing(expected::get).reversed());
+
+    PriorityQueue<Shard> loads =
+        new PriorityQueue<>(
+            Comparator.comparingDouble((Shard shard) -> shard.seconds)
+                .thenComparingInt(shard -> shard.index));
+    List<Shard> all = new ArrayList<>();
+    for (int i = 0; i < shards; i++) {
+      Shard shard = new Shard(i);
+      loads.add(shard);
+      all.add(shard);
+    }
+    for (String className : ordered) {
+      Shard lightest = loads.poll();
+      lightest.classes.add(className);
+      lightest.seconds += expected.get(className);
+      loads.add(lightest);
+    }
+
+    List<List<String>> result = new ArrayList<>();
+    for (Shard shard : all) {
+      if (!shard.classes.isEmpty()) {
+        log.debug(
+            "Shard {} expected {}s: {}", shard.index + 1, Math.round(shard.seconds), shard.classes);
+        result.add(shard.classes);
+      }
+    }
+    return result;
+  }
+
+  private static final class Shard {
+    private final int index;
+    private final List<String> classes = new ArrayList<>();
+    private double seconds;
+
+    private Shard(int index) {
+      this.index = index;
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.atas.framework.execution.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO for a range of lines of the persisted output of an execution */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionLogLines {
+
+  /** Execution the output belongs to */
+  private String executionId;
+
+  /** Number of the first requested line, starting at 1 */
+  private long fromLine;
+
+  /** Line number to request next to continue reading */
+  private long nextLine;
+
+  /** Output lines without line terminators */
+  private List<String> lines;
+
+  /** Whether the execution's output is complete and the range reaches its end */
+  private boolean complete;
+}
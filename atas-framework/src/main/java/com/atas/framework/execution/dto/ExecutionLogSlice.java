@@ -0,0 +1,29 @@
+package com.atas.framework.execution.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO for a range of the persisted output of an execution */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionLogSlice {
+
+  /** Execution the output belongs to */
+  private String executionId;
+
+  /** Log offset (in bytes) the slice starts at */
+  private long fromOffset;
+
+  /** Offset to request next to continue reading */
+  private long nextOffset;
+
+  /** Output text of the slice */
+  private String content;
+
+  /** Whether the execution's output is complete and the slice reaches its end */
+  private boolean complete;
+}
@@ -0,0 +1,105 @@
+package com.atas.framework.execution.dto;
+
+import com.atas.framework.model.TestStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a batch of events a test JVM reports for one execution. Steps, assertions and metrics
+ * refer to their result by test ID, which may be reported in the same or in an earlier batch.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultIngestBatch {
+
+  /** Execution the events belong to */
+  @NotBlank private String executionId;
+
+  /**
+   * Suite name to create the execution with if it does not exist yet (local recording). Left empty
+   * when the execution was started through the API.
+   */
+  private String suiteName;
+
+  /** Environment to create the execution with, see {@link #suiteName} */
+  private String environment;
+
+  /**
+   * Execution status reported by the test JVM after its last result. PASSED is only applied to a
+   * RUNNING execution, so it never overrides a failure.
+   */
+  private TestStatus status;
+
+  @Valid @NotNull @Builder.Default private List<ResultEvent> results = new ArrayList<>();
+
+  @Valid @NotNull @Builder.Default private List<StepEvent> steps = new ArrayList<>();
+
+  @Valid @NotNull @Builder.Default private List<AssertionEvent> assertions = new ArrayList<>();
+
+  @Valid @NotNull @Builder.Default private List<MetricEvent> metrics = new ArrayList<>();
+
+  /** Outcome of a test; reporting a test again replaces its result */
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class ResultEvent {
+    @NotBlank private String testId;
+    private String testName;
+    @NotNull private TestStatus status;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+  }
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class StepEvent {
+    @NotBlank private String testId;
+
+    /** Identifies the step within its test; reporting a step again replaces it */
+    @NotNull private Integer stepNumber;
+
+    private String action;
+    private String description;
+    private TestStatus status;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+
+    /** Step-specific data as a JSON object */
+    private String data;
+  }
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class AssertionEvent {
+    @NotBlank private String testId;
+    private String type;
+    private String expectValue;
+    private String actualValue;
+    private TestStatus status;
+  }
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class MetricEvent {
+    @NotBlank private String testId;
+    private String key;
+    private String value;
+  }
+}
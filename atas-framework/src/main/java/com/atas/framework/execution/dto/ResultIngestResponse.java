@@ -0,0 +1,27 @@
+package com.atas.framework.execution.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO acknowledging an ingested batch with the number of rows written per event type */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultIngestResponse {
+
+  private String executionId;
+
+  private int results;
+
+  private int steps;
+
+  private int assertions;
+
+  private int metrics;
+
+  /** Steps, assertions and metrics dropped because no result exists for their test ID */
+  private int skipped;
+}
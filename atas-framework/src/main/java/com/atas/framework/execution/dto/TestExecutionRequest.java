@@ -58,6 +58,15 @@ public class TestExecutionRequest {
    */
   @Builder.Default private int timeoutMinutes = getDefaultTimeoutMinutes();
 
+  /** Scheduling priority; P0 executions start before anything of a lower priority */
+  @Builder.Default private ExecutionPriority priority = ExecutionPriority.P2;
+
+  /**
+   * Team the execution is accounted to for fair sharing. Defaults to the authenticated user when
+   * not set.
+   */
+  private String team;
+
   /**
    * Get default environment from environment variable, system property, or Spring profile.
    * Priority: ATAS_TEST_ENVIRONMENT > atas.test.environment > SPRING_PROFILES_ACTIVE > "dev"
@@ -113,4 +122,12 @@ public class TestExecutionRequest {
     GREP, // Run tests matching grep pattern
     SUITE // Run a specific test suite
   }
+
+  /** Scheduling priorities, highest first */
+  public enum ExecutionPriority {
+    P0, // Smoke and release-blocking runs
+    P1, // Pull request and deployment checks
+    P2, // Regular executions
+    P3 // Nightly regression and other background runs
+  }
 }
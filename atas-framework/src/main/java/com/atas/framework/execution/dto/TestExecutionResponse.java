@@ -20,6 +20,9 @@ public class TestExecutionResponse {
   /** Status of the execution */
   private String status;
 
+  /** Position in the scheduler queue while QUEUED (1 is next), null once running */
+  private Integer queuePosition;
+
   /** Type of execution that was triggered */
   private String executionType;
 
@@ -55,4 +58,10 @@ public class TestExecutionResponse {
 
   /** URL for results */
   private String resultsUrl;
+
+  /** URL for reading the execution output by offset */
+  private String logsUrl;
+
+  /** URL for following the execution output via SSE */
+  private String logsTailUrl;
 }
@@ -0,0 +1,155 @@
+package com.atas.framework.execution.runner;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectPackage;
+
+import com.atas.framework.execution.TestExecutionListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.junit.platform.engine.discovery.ClassNameFilter;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.MethodFilter;
+import org.junit.platform.launcher.TagFilter;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+
+/**
+ * Translates a {@link RunnerRequest} into a {@link LauncherDiscoveryRequest}. The selection mirrors
+ * what the Maven command line does for the same request: {@code -Dtest=Class#method} for individual
+ * tests, tag expressions for TAGS, surefire class patterns for GREP and {@code <suite>TestSuite}
+ * classes for SUITE executions.
+ */
+public final class LauncherRequestFactory {
+
+  private LauncherRequestFactory() {}
+
+  public static LauncherDiscoveryRequest create(RunnerRequest request) {
+    LauncherDiscoveryRequestBuilder builder =
+        LauncherDiscoveryRequestBuilder.request()
+            .configurationParameter("junit.jupiter.extensions.autodetection.enabled", "true")
+            .configurationParameter(
+                TestExecutionListener.EXECUTION_ID_PARAMETER, request.getExecutionId());
+
+    if (request.getShard() != null) {
+      builder.configurationParameter(TestExecutionListener.SHARD_PARAMETER, request.getShard());
+    }
+    if (request.getParameters() != null) {
+      for (Map.Entry<String, String> param : request.getParameters().entrySet()) {
+        builder.configurationParameter(param.getKey(), param.getValue());
+      }
+    }
+
+    String basePackage =
+        request.getBasePackage() != null && !request.getBasePackage().isBlank()
+            ? request.getBasePackage()
+            : "com.atas";
+
+    List<String> classNames = request.getClassNames();
+    if (classNames != null && !classNames.isEmpty()) {
+      if (classNames.stream().allMatch(className -> className.contains("."))) {
+        classNames.forEach(className -> builder.selectors(selectClass(className)));
+      } else {
+        // Suites list their classes by simple name
+        builder
+            .selectors(selectPackage(basePackage))
+            .filters(
+                ClassNameFilter.includeClassNamePatterns(
+                    classNames.stream()
+                        .map(LauncherRequestFactory::simpleNamePattern)
+                        .toArray(String[]::new)));
+      }
+      addTagFilter(builder, request.getTags());
+      return builder.build();
+    }
+
+    switch (request.getType()) {
+      case "INDIVIDUAL_TEST" -> selectIndividualTest(builder, request, basePackage);
+      case "TAGS" -> {
+        builder
+            .selectors(selectPackage(basePackage))
+            .filters(
+                ClassNameFilter.includeClassNamePatterns(ClassNameFilter.STANDARD_INCLUDE_PATTERN));
+        addTagFilter(builder, request.getTags());
+      }
+      case "GREP" ->
+          builder
+              .selectors(selectPackage(basePackage))
+              .filters(
+                  ClassNameFilter.includeClassNamePatterns(
+                      toClassNamePatterns(request.getGrepPattern())));
+      case "SUITE" ->
+          builder
+              .selectors(selectPackage(basePackage))
+              .filters(
+                  ClassNameFilter.includeClassNamePatterns(
+                      simpleNamePattern(request.getSuite() + "TestSuite")));
+      default ->
+          throw new IllegalArgumentException("Unsupported execution type: " + request.getType());
+    }
+    return builder.build();
+  }
+
+  private static void selectIndividualTest(
+      LauncherDiscoveryRequestBuilder builder, RunnerRequest request, String basePackage) {
+    String testClass = request.getTestClass();
+    String testMethod = request.getTestMethod();
+
+    if (testClass.contains(".")) {
+      builder.selectors(
+          testMethod != null ? selectMethod(testClass, testMethod) : selectClass(testClass));
+      return;
+    }
+
+    // Simple class names are resolved like surefire does: any class with that name
+    builder
+        .selectors(selectPackage(basePackage))
+        .filters(ClassNameFilter.includeClassNamePatterns(simpleNamePattern(testClass)));
+    if (testMethod != null) {
+      builder.filters(
+          MethodFilter.includeMethodNamePatterns(".*#" + Pattern.quote(testMethod) + "\\(.*\\)"));
+    }
+  }
+
+  private static void addTagFilter(LauncherDiscoveryRequestBuilder builder, List<String> tags) {
+    if (tags != null && !tags.isEmpty()) {
+      builder.filters(TagFilter.includeTags(tags));
+    }
+  }
+
+  /**
+   * Convert a surefire {@code -Dtest} value (comma separated, {@code *} wildcards, optional {@code
+   * #method} suffix) into class name regular expressions.
+   */
+  static String[] toClassNamePatterns(String grepPattern) {
+    List<String> patterns = new ArrayList<>();
+    for (String part : grepPattern.split(",")) {
+      String classPart = part.trim();
+      int methodIndex = classPart.indexOf('#');
+      if (methodIndex >= 0) {
+        classPart = classPart.substring(0, methodIndex);
+      }
+      // Path style patterns (**/ui/**/*Test) address packages with slashes
+      classPart = classPart.replace('/', '.').replaceFirst("^(\\*\\*\\.)+", "");
+      if (classPart.isEmpty()) {
+        continue;
+      }
+      StringBuilder regex = new StringBuilder("^(?:.*\\.)?");
+      for (String literal : classPart.split("\\*", -1)) {
+        if (regex.length() > "^(?:.*\\.)?".length()) {
+          regex.append(".*");
+        }
+        if (!literal.isEmpty()) {
+          regex.append(Pattern.quote(literal));
+        }
+      }
+      patterns.add(regex.append("$").toString());
+    }
+    return patterns.toArray(String[]::new);
+  }
+
+  private static String simpleNamePattern(String simpleName) {
+    return "^(?:.*\\.)?" + Pattern.quote(simpleName) + "$";
+  }
+}
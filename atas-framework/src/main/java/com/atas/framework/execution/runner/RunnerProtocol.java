@@ -0,0 +1,26 @@
+package com.atas.framework.execution.runner;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Line protocol spoken between the framework and a warm runner JVM. Requests are written as one
+ * JSON document per line to the runner's standard input. The runner's standard output carries the
+ * test output; control messages are the lines that contain {@link #MARKER}.
+ */
+public final class RunnerProtocol {
+
+  /** Prefix identifying control messages in the runner output */
+  public static final String MARKER = "##atas-runner## ";
+
+  /** Emitted once the runner has warmed up and is waiting for requests */
+  public static final String READY = "READY";
+
+  /** Emitted after each request, followed by the JSON encoded {@link RunnerResult} */
+  public static final String RESULT = "RESULT ";
+
+  static final ObjectMapper MAPPER =
+      new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+  private RunnerProtocol() {}
+}
@@ -0,0 +1,56 @@
+package com.atas.framework.execution.runner;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Selection sent from the framework to a warm runner JVM. It mirrors the filtering options of
+ * {@link com.atas.framework.execution.dto.TestExecutionRequest} in a form that can be serialized as
+ * a single JSON line on the runner's standard input.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class RunnerRequest {
+
+  /** Execution ID the test results are recorded under */
+  private String executionId;
+
+  /** Suite name of the execution */
+  private String suiteName;
+
+  /** Execution type name (INDIVIDUAL_TEST, TAGS, GREP, SUITE) */
+  private String type;
+
+  /** Test class, either fully qualified or a simple class name */
+  private String testClass;
+
+  /** Optional test method within {@link #testClass} */
+  private String testMethod;
+
+  /** Tags to include for TAGS executions */
+  private List<String> tags;
+
+  /** Surefire-style class name pattern for GREP executions */
+  private String grepPattern;
+
+  /** Suite name for SUITE executions ({@code <suiteName>TestSuite} is selected) */
+  private String suite;
+
+  /** Explicit fully qualified classes to run. Overrides the type-based selection when present. */
+  private List<String> classNames;
+
+  /** Shard label ({@code index/count}) when the execution is split across runners */
+  private String shard;
+
+  /** Root package scanned for tests when the selection is not a fully qualified class */
+  private String basePackage;
+
+  /** Additional parameters, exposed as system properties and configuration parameters */
+  private Map<String, String> parameters;
+}
@@ -0,0 +1,35 @@
+package com.atas.framework.execution.runner;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Summary reported by a warm runner JVM once a {@link RunnerRequest} has finished. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RunnerResult {
+
+  /** Execution ID of the finished run */
+  private String executionId;
+
+  /** Exit code equivalent to the Maven process (0 when no test failed) */
+  private int exitCode;
+
+  private long testsFound;
+  private long testsSucceeded;
+  private long testsFailed;
+  private long testsAborted;
+  private long testsSkipped;
+
+  /** Wall clock time spent in the launcher */
+  private long durationMillis;
+
+  /** Live heap of the runner after the run, used to decide when to recycle it */
+  private long heapUsedBytes;
+
+  /** Maximum heap of the runner */
+  private long heapMaxBytes;
+}
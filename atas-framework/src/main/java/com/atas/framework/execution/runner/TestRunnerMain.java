@@ -0,0 +1,154 @@
+package com.atas.framework.execution.runner;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+/**
+ * Entry point of a warm runner JVM. The process is started with the precompiled atas-tests
+ * classpath, loads the heavy classes once (JDBC driver, Playwright, Jackson, the test classes
+ * themselves) and then executes {@link RunnerRequest}s read from standard input through a reused
+ * JUnit Platform {@link Launcher}. This removes the Maven startup, dependency resolution and
+ * compilation steps from every API-triggered execution.
+ */
+public final class TestRunnerMain {
+
+  private static final String[] WARM_UP_CLASSES = {
+    "org.postgresql.Driver", "com.microsoft.playwright.Playwright", "com.zaxxer.hikari.HikariConfig"
+  };
+
+  private TestRunnerMain() {}
+
+  public static void main(String[] args) throws Exception {
+    PrintStream out = System.out;
+    String basePackage = args.length > 0 ? args[0] : "com.atas";
+
+    Launcher launcher = LauncherFactory.create();
+    warmUp(launcher, basePackage);
+    emit(out, RunnerProtocol.READY);
+
+    BufferedReader in =
+        new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+    String line;
+    while ((line = in.readLine()) != null) {
+      if (line.isBlank()) {
+        continue;
+      }
+      RunnerRequest request = RunnerProtocol.MAPPER.readValue(line, RunnerRequest.class);
+      RunnerResult result = execute(launcher, request);
+      recordHeapUsage(result);
+      emit(out, RunnerProtocol.RESULT + RunnerProtocol.MAPPER.writeValueAsString(result));
+    }
+  }
+
+  private static void warmUp(Launcher launcher, String basePackage) {
+    for (String className : WARM_UP_CLASSES) {
+      try {
+        Class.forName(className);
+      } catch (ClassNotFoundException | LinkageError e) {
+        // Optional dependency not on the test classpath
+      }
+    }
+    try {
+      launcher.discover(
+          LauncherRequestFactory.create(
+              RunnerRequest.builder()
+                  .executionId("warm-up")
+                  .type("TAGS")
+                  .basePackage(basePackage)
+                  .build()));
+    } catch (Exception e) {
+      System.err.println("Runner warm-up discovery failed: " + e.getMessage());
+    }
+  }
+
+  private static RunnerResult execute(Launcher launcher, RunnerRequest request) {
+    long start = System.currentTimeMillis();
+    Map<String, String> previous = applySystemProperties(request.getParameters());
+    SummaryGeneratingListener listener = new SummaryGeneratingListener();
+    try {
+      launcher.execute(LauncherRequestFactory.create(request), listener);
+    } catch (Exception e) {
+      System.err.println(
+          "Runner failed to execute " + request.getExecutionId() + ": " + e.getMessage());
+      return RunnerResult.builder()
+          .executionId(request.getExecutionId())
+          .exitCode(1)
+          .durationMillis(System.currentTimeMillis() - start)
+          .build();
+    } finally {
+      restoreSystemProperties(previous);
+    }
+
+    TestExecutionSummary summary = listener.getSummary();
+    long failed = summary.getTotalFailureCount();
+    return RunnerResult.builder()
+        .executionId(request.getExecutionId())
+        .exitCode(failed > 0 ? 1 : 0)
+        .testsFound(summary.getTestsFoundCount())
+        .testsSucceeded(summary.getTestsSucceededCount())
+        .testsFailed(summary.getTestsFailedCount())
+        .testsAborted(summary.getTestsAbortedCount())
+        .testsSkipped(summary.getTestsSkippedCount())
+        .durationMillis(System.currentTimeMillis() - start)
+        .build();
+  }
+
+  /**
+   * Report the heap that survived the last collection. Garbage left behind by the finished run is
+   * not counted, so the value reflects what leaks from one execution into the next.
+   */
+  private static void recordHeapUsage(RunnerResult result) {
+    long used = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      MemoryUsage usage = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+      if (usage != null) {
+        used += usage.getUsed();
+      }
+    }
+    Runtime runtime = Runtime.getRuntime();
+    result.setHeapUsedBytes(used > 0 ? used : runtime.totalMemory() - runtime.freeMemory());
+    result.setHeapMaxBytes(runtime.maxMemory());
+  }
+
+  /** Request parameters are {@code -D} options in Maven mode, so expose them the same way */
+  private static Map<String, String> applySystemProperties(Map<String, String> parameters) {
+    Map<String, String> previous = new HashMap<>();
+    if (parameters != null) {
+      parameters.forEach(
+          (key, value) -> {
+            previous.put(key, System.getProperty(key));
+            System.setProperty(key, value);
+          });
+    }
+    return previous;
+  }
+
+  private static void restoreSystemProperties(Map<String, String> previous) {
+    previous.forEach(
+        (key, value) -> {
+          if (value == null) {
+            System.clearProperty(key);
+          } else {
+            System.setProperty(key, value);
+          }
+        });
+  }
+
+  private static void emit(PrintStream out, String message) {
+    out.println();
+    out.println(RunnerProtocol.MARKER + message);
+    out.flush();
+  }
+}
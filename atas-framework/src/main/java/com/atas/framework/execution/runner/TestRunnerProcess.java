@@ -0,0 +1,195 @@
+package com.atas.framework.execution.runner;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Framework-side handle of a warm runner JVM running {@link TestRunnerMain}. A runner executes one
+ * request at a time; callers must not submit a new request before the previous result completed.
+ */
+@Slf4j
+public class TestRunnerProcess implements AutoCloseable {
+
+  private final Process process;
+  private final BufferedWriter stdin;
+  private final CountDownLatch ready = new CountDownLatch(1);
+  private final String name;
+  private final AtomicInteger executionCount = new AtomicInteger();
+
+  private volatile CompletableFuture<RunnerResult> pending;
+  private volatile Consumer<String> outputConsumer;
+
+  private TestRunnerProcess(Process process, String name) {
+    this.process = process;
+    this.name = name;
+    this.stdin =
+        new BufferedWriter(
+            new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+    Thread.ofVirtual().name(name + "-output").start(this::readOutput);
+  }
+
+  /**
+   * Start a runner JVM and wait until it reports that it is ready.
+   *
+   * @param command full java command line of the runner
+   * @param workingDir working directory of the runner
+   * @param name name used for threads and log messages
+   * @param startupTimeoutSeconds maximum time to wait for the ready message
+   */
+  public static TestRunnerProcess start(
+      List<String> command, File workingDir, String name, int startupTimeoutSeconds)
+      throws IOException {
+    ProcessBuilder processBuilder = new ProcessBuilder(command);
+    processBuilder.directory(workingDir);
+    processBuilder.redirectErrorStream(true);
+    // The runner serves many executions; the ID is passed per request instead
+    processBuilder.environment().remove("ATAS_EXECUTION_ID");
+
+    TestRunnerProcess runner = new TestRunnerProcess(processBuilder.start(), name);
+    try {
+      if (!runner.ready.await(startupTimeoutSeconds, TimeUnit.SECONDS) || !runner.isAlive()) {
+        runner.close();
+        throw new IOException(
+            "Runner " + name + " did not become ready within " + startupTimeoutSeconds + "s");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      runner.close();
+      throw new IOException("Interrupted while starting runner " + name, e);
+    }
+    log.info("Runner {} ready (PID: {})", name, runner.process.pid());
+    return runner;
+  }
+
+  /** Build the java command line for a runner using the given classpath entries */
+  public static List<String> command(
+      String javaCommand, List<String> jvmArgs, List<String> classpath, String basePackage) {
+    List<String> command = new ArrayList<>();
+    command.add(javaCommand);
+    command.addAll(jvmArgs);
+    command.add("-cp");
+    command.add(String.join(File.pathSeparator, classpath));
+    command.add(TestRunnerMain.class.getName());
+    command.add(basePackage);
+    return command;
+  }
+
+  /**
+   * Submit a request to the runner.
+   *
+   * @param request the selection to execute
+   * @param output receives every test output line produced while the request runs
+   * @return future completed with the runner's summary, or exceptionally if the runner dies
+   */
+  public synchronized CompletableFuture<RunnerResult> execute(
+      RunnerRequest request, Consumer<String> output) throws IOException {
+    if (pending != null && !pending.isDone()) {
+      throw new IllegalStateException("Runner " + name + " is busy");
+    }
+    CompletableFuture<RunnerResult> future = new CompletableFuture<>();
+    this.outputConsumer = output;
+    this.pending = future;
+    stdin.write(RunnerProtocol.MAPPER.writeValueAsString(request));
+    stdin.newLine();
+    stdin.flush();
+    return future;
+  }
+
+  public boolean isAlive() {
+    return process.isAlive();
+  }
+
+  public long pid() {
+    return process.pid();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /** Number of requests this runner completed */
+  public int getExecutionCount() {
+    return executionCount.get();
+  }
+
+  private void readOutput() {
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.startsWith(RunnerProtocol.MARKER)) {
+          handleControlMessage(line.substring(RunnerProtocol.MARKER.length()));
+        } else {
+          Consumer<String> consumer = outputConsumer;
+          if (consumer != null) {
+            consumer.accept(line);
+          } else if (!line.isEmpty()) {
+            log.debug("[{}] {}", name, line);
+          }
+        }
+      }
+    } catch (IOException e) {
+      log.debug("Runner {} output closed: {}", name, e.getMessage());
+    } finally {
+      CompletableFuture<RunnerResult> future = pending;
+      if (future != null) {
+        future.completeExceptionally(new IOException("Runner " + name + " exited"));
+      }
+      ready.countDown();
+    }
+  }
+
+  private void handleControlMessage(String message) {
+    if (RunnerProtocol.READY.equals(message)) {
+      ready.countDown();
+    } else if (message.startsWith(RunnerProtocol.RESULT)) {
+      CompletableFuture<RunnerResult> future = pending;
+      outputConsumer = null;
+      if (future == null) {
+        return;
+      }
+      executionCount.incrementAndGet();
+      try {
+        future.complete(
+            RunnerProtocol.MAPPER.readValue(
+                message.substring(RunnerProtocol.RESULT.length()), RunnerResult.class));
+      } catch (IOException e) {
+        future.completeExceptionally(e);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      stdin.close();
+    } catch (IOException e) {
+      // Process already gone
+    }
+    if (process.isAlive()) {
+      process.destroy();
+      try {
+        if (!process.waitFor(5, TimeUnit.SECONDS)) {
+          process.destroyForcibly();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        process.destroyForcibly();
+      }
+    }
+  }
+}
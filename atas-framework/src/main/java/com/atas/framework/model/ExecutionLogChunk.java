@@ -0,0 +1,62 @@
+package com.atas.framework.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Slice of the output of an execution, persisted while the test process is still running. Chunks
+ * hold complete lines and are numbered consecutively; {@code startOffset} and {@code endOffset}
+ * locate the chunk's uncompressed bytes in the execution's whole log and {@code firstLine} and
+ * {@code endLine} its lines, so a range is read by decompressing only the chunks covering it.
+ */
+@Entity
+@Table(name = "execution_log_chunks")
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ExecutionLogChunk {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  Long id;
+
+  @Column(name = "execution_id", nullable = false, updatable = false)
+  String executionId;
+
+  /** Position of the chunk in the log, starting at 0 */
+  @Column(name = "chunk_index", nullable = false)
+  Integer chunkIndex;
+
+  /** Log offset of the first byte of the chunk */
+  @Column(name = "start_offset", nullable = false)
+  Long startOffset;
+
+  /** Log offset just past the last byte of the chunk */
+  @Column(name = "end_offset", nullable = false)
+  Long endOffset;
+
+  /** UTF-8 encoded output lines, as a gzip frame when {@code compressed} is set */
+  @Column(nullable = false)
+  @ToString.Exclude
+  byte[] data;
+
+  /** Whether {@code data} is gzip compressed */
+  @Column(nullable = false)
+  @Builder.Default
+  Boolean compressed = false;
+
+  /** Number of the first line in the chunk, starting at 1 */
+  @Column(name = "first_line", nullable = false)
+  Long firstLine;
+
+  /** Number of the line following the chunk's last line */
+  @Column(name = "end_line", nullable = false)
+  Long endLine;
+
+  @Column(name = "created_at", nullable = false)
+  LocalDateTime createdAt;
+}
@@ -0,0 +1,69 @@
+package com.atas.framework.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Entry of the execution work queue shared by all replicas. The entry exists from the moment an
+ * execution is accepted until the replica that ran it completes it; a replica that dies stops
+ * renewing its lease and the entry is claimed by another replica.
+ */
+@Entity
+@Table(name = "execution_queue")
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ExecutionQueueEntry {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  Long id;
+
+  /** Execution this entry runs */
+  @Column(name = "execution_id", unique = true, nullable = false, updatable = false)
+  String executionId;
+
+  /** JSON encoded execution request */
+  @Column(name = "payload", columnDefinition = "TEXT", nullable = false)
+  String payload;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  Status status;
+
+  /** Replica currently holding the lease */
+  @Column String owner;
+
+  /** The lease is free to be claimed again after this time */
+  @Column(name = "lease_expires_at")
+  LocalDateTime leaseExpiresAt;
+
+  /** Number of times the entry was claimed */
+  @Column(nullable = false)
+  @Builder.Default
+  Integer attempts = 0;
+
+  @Column(name = "enqueued_at", nullable = false)
+  LocalDateTime enqueuedAt;
+
+  /** Ordinal of the request priority; lower values are claimed first */
+  @Column(nullable = false)
+  @Builder.Default
+  Integer priority = 2;
+
+  /** Team or user the execution is accounted to for fair sharing */
+  @Column(name = "share_key")
+  String shareKey;
+
+  /** Queue entry states */
+  public enum Status {
+    /** Waiting to be claimed */
+    PENDING,
+    /** Claimed by a replica that renews the lease while the execution runs */
+    LEASED
+  }
+}
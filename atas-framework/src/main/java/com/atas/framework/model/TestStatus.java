@@ -3,8 +3,8 @@ package com.atas.framework.model;
 /**
  * Enumeration representing the possible statuses for a test or execution. Passed and FAILED
  * indicate final outcomes while RUNNING reflects an ongoing execution and SKIPPED denotes a
- * deliberately skipped test. Additional statuses can be added if necessary, such as ERROR or
- * CANCELLED.
+ * deliberately skipped test. QUEUED marks an accepted execution waiting for the scheduler to start
+ * it. Additional statuses can be added if necessary, such as CANCELLED.
  */
 public enum TestStatus {
   PASSED,
@@ -12,5 +12,6 @@ public enum TestStatus {
   SKIPPED,
   RUNNING,
   ERROR,
-  TIMEOUT;
+  TIMEOUT,
+  QUEUED;
 }
@@ -0,0 +1,102 @@
+package com.atas.framework.monitoring;
+
+import com.atas.framework.repository.TestDailyStatsRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the {@code test_daily_stats} rollup up to date. Executions whose results or status change
+ * are collected and their groups recomputed shortly after, so a burst of result batches costs one
+ * recompute. Results written by the listener straight to the database never pass through here and
+ * are picked up by the periodic reconciliation of the last two days instead.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DailyStatsRollup {
+
+  private final TestDailyStatsRepository dailyStatsRepository;
+
+  private final Set<String> changedExecutions = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Schedule the execution's group for a recompute. Within a transaction the execution is only
+   * taken into account once the transaction commits.
+   */
+  public void markChanged(String executionId) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              changedExecutions.add(executionId);
+            }
+          });
+    } else {
+      changedExecutions.add(executionId);
+    }
+  }
+
+  /** Recompute the groups of the executions changed since the last run */
+  @Scheduled(fixedDelayString = "${atas.monitoring.daily-stats.flush-interval-ms:5000}")
+  public void flushChanged() {
+    if (changedExecutions.isEmpty()) {
+      return;
+    }
+    List<String> executionIds = new ArrayList<>(changedExecutions);
+    changedExecutions.removeAll(executionIds);
+    for (int i = 0; i < executionIds.size(); i++) {
+      try {
+        dailyStatsRepository.refreshExecution(executionIds.get(i));
+      } catch (DataAccessException e) {
+        log.warn(
+            "Could not update daily stats of execution {}: {}",
+            executionIds.get(i),
+            e.getMessage());
+        // Retry this and the remaining executions on the next run
+        changedExecutions.addAll(executionIds.subList(i, executionIds.size()));
+        return;
+      }
+    }
+  }
+
+  /** Recompute yesterday and today, covering results that did not go through the server */
+  @Scheduled(
+      fixedDelayString = "${atas.monitoring.daily-stats.reconcile-interval-ms:300000}",
+      initialDelayString = "${atas.monitoring.daily-stats.reconcile-interval-ms:300000}")
+  public void reconcileRecent() {
+    try {
+      int rows = dailyStatsRepository.refreshSince(LocalDate.now().minusDays(1));
+      log.debug("Reconciled {} daily stats rows", rows);
+    } catch (DataAccessException e) {
+      log.warn("Could not reconcile daily stats: {}", e.getMessage());
+    }
+  }
+
+  /** Build the rollup from the existing history the first time the application starts with it */
+  @Async
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfillIfEmpty() {
+    try {
+      if (dailyStatsRepository.isEmpty()) {
+        int rows = dailyStatsRepository.refreshSince(null);
+        log.info("Backfilled {} daily stats rows", rows);
+      }
+    } catch (DataAccessException e) {
+      log.warn("Could not backfill daily stats: {}", e.getMessage());
+    }
+  }
+}
@@ -11,7 +11,6 @@ import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.sql.DataSource;
 import lombok.RequiredArgsConstructor;
@@ -37,6 +36,9 @@ public class DatabaseHealthService {
   private final TestStepRepository stepRepository;
   private final TestAttachmentRepository attachmentRepository;
   private final TestMetricRepository metricRepository;
+  private final SseHub sseHub;
+
+  static final String DATABASE_TOPIC = "database";
 
   private final AtomicLong insertCount = new AtomicLong(0);
   private final AtomicLong updateCount = new AtomicLong(0);
@@ -48,8 +50,6 @@ public class DatabaseHealthService {
   private final AtomicLong totalQueryTime = new AtomicLong(0);
   private final AtomicLong totalQueryCount = new AtomicLong(0);
 
-  private final Map<String, List<SseEmitter>> dbEmitterMap = new ConcurrentHashMap<>();
-
   @SuppressWarnings("unused")
   private volatile DatabaseHealthDto cachedHealth;
 
@@ -91,12 +91,14 @@ public class DatabaseHealthService {
         .build();
   }
 
-  public SseEmitter registerDatabaseEmitter(String clientId) {
-    SseEmitter emitter = new SseEmitter(0L);
-    emitter.onCompletion(() -> removeDatabaseEmitter(clientId, emitter));
-    emitter.onTimeout(() -> removeDatabaseEmitter(clientId, emitter));
-    dbEmitterMap.computeIfAbsent(clientId, id -> new ArrayList<>()).add(emitter);
-    return emitter;
+  /**
+   * Subscribe to the database updates. Every client gets the same updates, whatever its {@code
+   * clientId}.
+   *
+   * @param lastEventId the {@code Last-Event-ID} of a reconnecting client, or {@code null}
+   */
+  public SseEmitter registerDatabaseEmitter(String clientId, String lastEventId) {
+    return sseHub.subscribe(DATABASE_TOPIC, lastEventId);
   }
 
   public void trackOperation(String operation) {
@@ -122,45 +124,22 @@ public class DatabaseHealthService {
 
   @Scheduled(fixedDelay = 5000)
   public void broadcastDatabaseUpdates() {
-    if (dbEmitterMap.isEmpty()) {
+    if (!sseHub.isOpen(DATABASE_TOPIC)) {
       return;
     }
 
     try {
-      DatabaseHealthDto health = getDatabaseHealth();
-      DatabaseOperationsDto operations = getDatabaseOperations();
-
-      for (Map.Entry<String, List<SseEmitter>> entry : dbEmitterMap.entrySet()) {
-        String clientId = entry.getKey();
-        for (Iterator<SseEmitter> iterator = entry.getValue().iterator(); iterator.hasNext(); ) {
-          SseEmitter emitter = iterator.next();
-          try {
-            Map<String, Object> update = new HashMap<>();
-            update.put("type", "database_update");
-            update.put("health", health);
-            update.put("operations", operations);
-            update.put(
-                "timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-
-            emitter.send(update);
-          } catch (Exception e) {
-            log.warn("Removing dead SSE emitter for database client {}", clientId, e);
-            iterator.remove();
-          }
-        }
-      }
+      Map<String, Object> update = new HashMap<>();
+      update.put("type", "database_update");
+      update.put("health", getDatabaseHealth());
+      update.put("operations", getDatabaseOperations());
+      update.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+      sseHub.publish(DATABASE_TOPIC, update);
     } catch (Exception e) {
       log.error("Error broadcasting database updates", e);
     }
   }
 
-  private void removeDatabaseEmitter(String clientId, SseEmitter emitter) {
-    List<SseEmitter> emitters = dbEmitterMap.get(clientId);
-    if (emitters != null) {
-      emitters.remove(emitter);
-    }
-  }
-
   private String checkConnectionHealth() {
     try (Connection connection = dataSource.getConnection()) {
       return connection.isValid(5) ? "HEALTHY" : "UNHEALTHY";
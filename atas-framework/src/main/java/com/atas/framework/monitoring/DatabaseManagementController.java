@@ -48,8 +48,10 @@ public class DatabaseManagementController {
   }
 
   @GetMapping("/live")
-  public SseEmitter streamDatabaseUpdates(@RequestParam(defaultValue = "default") String clientId) {
-    return databaseHealthService.registerDatabaseEmitter(clientId);
+  public SseEmitter streamDatabaseUpdates(
+      @RequestParam(defaultValue = "default") String clientId,
+      @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+    return databaseHealthService.registerDatabaseEmitter(clientId, lastEventId);
   }
 
   @GetMapping("/browse/executions")
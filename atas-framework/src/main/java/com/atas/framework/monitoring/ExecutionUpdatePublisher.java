@@ -0,0 +1,88 @@
+package com.atas.framework.monitoring;
+
+import com.atas.framework.model.TestStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Appends changes of an execution to the {@value #STREAM} stream, which every instance reads
+ * through its own consumer group to push fresh status to its SSE subscribers. Unlike pub/sub, an
+ * instance that is restarting or briefly disconnected picks up where it left off. Entries are
+ * compact: the execution, its new status, if any, and the change of its result counts. The stream
+ * is trimmed to about {@code max-length} entries on every append.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutionUpdatePublisher {
+
+  public static final String STREAM = "atas:execution:events";
+
+  private final StringRedisTemplate redisTemplate;
+
+  private final ObjectMapper objectMapper;
+
+  @Value("${atas.monitoring.events.max-length:10000}")
+  private long maxLength = 10000;
+
+  /**
+   * Publish once the surrounding transaction, if any, commits.
+   *
+   * @param status new status of the execution, or {@code null} if it did not change
+   * @param deltas change of the result counts per counter, as recorded by {@link
+   *     LiveExecutionCounters#record}
+   */
+  public void publish(String executionId, TestStatus status, Map<String, Long> deltas) {
+    Map<String, String> event = new HashMap<>();
+    event.put("executionId", executionId);
+    if (status != null) {
+      event.put("status", status.name());
+    }
+    if (!deltas.isEmpty()) {
+      try {
+        event.put("deltas", objectMapper.writeValueAsString(deltas));
+      } catch (JsonProcessingException e) {
+        throw new IllegalArgumentException("Cannot serialize result count changes", e);
+      }
+    }
+    event.put("timestamp", LocalDateTime.now(ZoneOffset.UTC).toString());
+
+    Runnable send =
+        () -> {
+          try {
+            redisTemplate
+                .opsForStream()
+                .add(
+                    StreamRecords.string(event).withStreamKey(STREAM),
+                    XAddOptions.maxlen(maxLength).approximateTrimming(true));
+          } catch (Exception e) {
+            // Subscribers still get the change from the fallback sweep
+            log.debug("Failed to publish update of execution {}: {}", executionId, e.getMessage());
+          }
+        };
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              send.run();
+            }
+          });
+    } else {
+      send.run();
+    }
+  }
+}
@@ -0,0 +1,333 @@
+package com.atas.framework.monitoring;
+
+import com.atas.framework.model.TestStatus;
+import com.atas.framework.repository.TestResultRepository;
+import com.atas.framework.repository.TestResultRepository.ResultCountsView;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Result counts per execution kept in a Redis hash ({@code atas:execution:<id>:counters}), so
+ * reading the live status of an execution does not touch its results. The database stays the source
+ * of truth: a missing hash is seeded from one grouped count, and recorded results only move
+ * counters of a hash that already exists.
+ *
+ * <p>A seed counted while results were being written may already include a batch whose counters are
+ * still to be applied, or miss one applied before the seed was stored. Writes therefore register in
+ * {@code atas:execution:<id>:writes} before their transaction commits; a seed counted while one was
+ * in flight, or finished since, is stored as provisional and expires after {@code seed-ttl-ms}
+ * whatever is recorded on top of it. Only a seed counted while no results were written is kept
+ * alive for {@code ttl-ms} by the results recorded afterwards.
+ *
+ * <p>Results the listener writes straight to the database are not recorded here; hashes that were
+ * only seeded therefore expire after {@code seed-ttl-ms} and are counted again. Without Redis every
+ * read falls back to the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LiveExecutionCounters {
+
+  private static final String TOTAL = "total";
+  private static final String PASSED = "passed";
+  private static final String FAILED = "failed";
+  private static final String SKIPPED = "skipped";
+  private static final String RUNNING = "running";
+  private static final String LAST_UPDATE = "lastUpdate";
+  private static final String PROVISIONAL = "provisional";
+
+  /** Fields of the writes hash: transactions not completed yet, and writes started so far */
+  private static final String IN_FLIGHT = "inFlight";
+
+  private static final String SEQUENCE = "sequence";
+
+  /** Register a write with the TTL as argument, before its transaction commits */
+  private static final RedisScript<Long> BEGIN =
+      new DefaultRedisScript<>(
+          "redis.call('HINCRBY', KEYS[1], '"
+              + IN_FLIGHT
+              + "', 1) redis.call('HINCRBY', KEYS[1], '"
+              + SEQUENCE
+              + "', 1) redis.call('PEXPIRE', KEYS[1], ARGV[1]) return 1",
+          Long.class);
+
+  /** Lua ending a registered write, when the last argument says one was registered */
+  private static final String END =
+      " if ARGV[#ARGV] == '1' and redis.call('EXISTS', KEYS[2]) == 1 then"
+          + " redis.call('HINCRBY', KEYS[2], '"
+          + IN_FLIGHT
+          + "', -1) redis.call('HINCRBY', KEYS[2], '"
+          + SEQUENCE
+          + "', 1) end";
+
+  /** End a write whose transaction rolled back */
+  private static final RedisScript<Long> ABORT =
+      new DefaultRedisScript<>(END + " return 1", Long.class);
+
+  /**
+   * Field/delta pairs followed by the update time, the TTL and whether the write was registered;
+   * moves nothing without a seed and never extends a provisional one
+   */
+  private static final RedisScript<Long> APPLY =
+      new DefaultRedisScript<>(
+          END
+              + " if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end"
+              + " for i = 1, #ARGV - 3, 2 do"
+              + " redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1]) end"
+              + " redis.call('HSET', KEYS[1], '"
+              + LAST_UPDATE
+              + "', ARGV[#ARGV - 2])"
+              + " if redis.call('HEXISTS', KEYS[1], '"
+              + PROVISIONAL
+              + "') == 0 then redis.call('PEXPIRE', KEYS[1], ARGV[#ARGV - 1]) end return 1",
+          Long.class);
+
+  /** Drop the counters; the last argument says whether the write was registered */
+  private static final RedisScript<Long> EVICT =
+      new DefaultRedisScript<>(END + " redis.call('DEL', KEYS[1]) return 1", Long.class);
+
+  /**
+   * Field/value pairs followed by the write sequence seen before counting ({@code ""} if a write
+   * was in flight) and the TTL; does nothing if the hash exists
+   */
+  private static final RedisScript<Long> SEED =
+      new DefaultRedisScript<>(
+          "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end"
+              + " redis.call('HSET', KEYS[1], unpack(ARGV, 1, #ARGV - 2))"
+              + " if ARGV[#ARGV - 1] == '' or (redis.call('HGET', KEYS[2], '"
+              + SEQUENCE
+              + "') or '0') ~= ARGV[#ARGV - 1] then"
+              + " redis.call('HSET', KEYS[1], '"
+              + PROVISIONAL
+              + "', '1') end"
+              + " redis.call('PEXPIRE', KEYS[1], ARGV[#ARGV]) return 1",
+          Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final TestResultRepository resultRepository;
+
+  @Value("${atas.monitoring.live-counters.ttl-ms:3600000}")
+  private long ttlMillis;
+
+  @Value("${atas.monitoring.live-counters.seed-ttl-ms:2000}")
+  private long seedTtlMillis;
+
+  /**
+   * Counts of the execution's results, from Redis or, on a miss, from the database.
+   *
+   * @param executionId the external identifier, naming the hash
+   * @param executionDbId the primary key, used on a miss
+   */
+  public Counters get(String executionId, long executionDbId) {
+    try {
+      Map<Object, Object> hash = redisTemplate.opsForHash().entries(key(executionId));
+      if (!hash.isEmpty()) {
+        return new Counters(
+            field(hash, TOTAL),
+            field(hash, PASSED),
+            field(hash, FAILED),
+            field(hash, SKIPPED),
+            field(hash, RUNNING),
+            field(hash, LAST_UPDATE));
+      }
+    } catch (DataAccessException e) {
+      log.debug("Live counters unavailable, counting results: {}", e.getMessage());
+      return load(executionDbId);
+    }
+
+    String sequence = null;
+    try {
+      List<Object> writes =
+          redisTemplate.opsForHash().multiGet(writesKey(executionId), List.of(IN_FLIGHT, SEQUENCE));
+      if (field(writes.get(0)) == 0) {
+        sequence = String.valueOf(field(writes.get(1)));
+      }
+    } catch (DataAccessException e) {
+      log.debug("Could not read writes of {}: {}", executionId, e.getMessage());
+    }
+
+    Counters counters = load(executionDbId);
+    try {
+      redisTemplate.execute(
+          SEED,
+          List.of(key(executionId), writesKey(executionId)),
+          TOTAL,
+          String.valueOf(counters.total()),
+          PASSED,
+          String.valueOf(counters.passed()),
+          FAILED,
+          String.valueOf(counters.failed()),
+          SKIPPED,
+          String.valueOf(counters.skipped()),
+          RUNNING,
+          String.valueOf(counters.running()),
+          LAST_UPDATE,
+          String.valueOf(counters.lastUpdate()),
+          sequence != null ? sequence : "",
+          String.valueOf(seedTtlMillis));
+    } catch (DataAccessException e) {
+      log.debug("Could not seed live counters of {}: {}", executionId, e.getMessage());
+    }
+    return counters;
+  }
+
+  /**
+   * Move the counters by the given result status changes once the surrounding transaction, if any,
+   * commits. Must be called before it commits, so seeds counted meanwhile are known to be
+   * provisional.
+   *
+   * @param transitions one entry per recorded result; {@code from} is {@code null} for a new result
+   * @return the net change per counter, without counters that did not change
+   */
+  public Map<String, Long> record(String executionId, Collection<Transition> transitions) {
+    Map<String, Long> deltas = new LinkedHashMap<>();
+    for (Transition transition : transitions) {
+      if (transition.from() == transition.to()) {
+        continue;
+      }
+      if (transition.from() == null) {
+        deltas.merge(TOTAL, 1L, Long::sum);
+      } else {
+        String from = fieldOf(transition.from());
+        if (from != null) {
+          deltas.merge(from, -1L, Long::sum);
+        }
+      }
+      String to = fieldOf(transition.to());
+      if (to != null) {
+        deltas.merge(to, 1L, Long::sum);
+      }
+    }
+    deltas.values().removeIf(delta -> delta == 0);
+    if (deltas.isEmpty()) {
+      return deltas;
+    }
+
+    List<String> args = new ArrayList<>();
+    deltas.forEach(
+        (field, delta) -> {
+          args.add(field);
+          args.add(String.valueOf(delta));
+        });
+    args.add(String.valueOf(System.currentTimeMillis()));
+    args.add(String.valueOf(ttlMillis));
+    write(executionId, APPLY, args);
+    return deltas;
+  }
+
+  /**
+   * Drop the counters once the surrounding transaction, if any, commits, e.g. after results were
+   * changed in bulk. The next read counts them again.
+   */
+  public void evict(String executionId) {
+    write(executionId, EVICT, new ArrayList<>());
+  }
+
+  private Counters load(long executionDbId) {
+    List<ResultCountsView> rows = resultRepository.countByExecutionIds(List.of(executionDbId));
+    if (rows.isEmpty()) {
+      return new Counters(0, 0, 0, 0, 0, System.currentTimeMillis());
+    }
+    ResultCountsView row = rows.get(0);
+    return new Counters(
+        row.getTotal(),
+        row.getPassed(),
+        row.getFailed(),
+        row.getSkipped(),
+        row.getRunning(),
+        System.currentTimeMillis());
+  }
+
+  /**
+   * Register a write now and run the script once the surrounding transaction, if any, commits; the
+   * registration ends either way.
+   */
+  private void write(String executionId, RedisScript<Long> onCommit, List<String> args) {
+    List<String> keys = List.of(key(executionId), writesKey(executionId));
+    boolean registered = false;
+    try {
+      redisTemplate.execute(BEGIN, List.of(writesKey(executionId)), String.valueOf(ttlMillis));
+      registered = true;
+    } catch (DataAccessException e) {
+      log.debug("Could not register write of {}: {}", executionId, e.getMessage());
+    }
+    args.add(registered ? "1" : "0");
+    Object[] committed = args.toArray(Object[]::new);
+    Runnable apply = () -> run(executionId, onCommit, keys, committed);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      apply.run();
+      return;
+    }
+    boolean end = registered;
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+              apply.run();
+            } else if (end) {
+              run(executionId, ABORT, keys, new Object[] {"1"});
+            }
+          }
+        });
+  }
+
+  private void run(String executionId, RedisScript<Long> script, List<String> keys, Object[] args) {
+    try {
+      redisTemplate.execute(script, keys, args);
+    } catch (DataAccessException e) {
+      // An outdated hash is replaced on expiry
+      log.debug("Could not update live counters of {}: {}", executionId, e.getMessage());
+    }
+  }
+
+  private static String key(String executionId) {
+    return "atas:execution:" + executionId + ":counters";
+  }
+
+  private static String writesKey(String executionId) {
+    return "atas:execution:" + executionId + ":writes";
+  }
+
+  private static long field(Map<Object, Object> hash, String field) {
+    return field(hash.get(field));
+  }
+
+  private static long field(Object value) {
+    return value != null ? Long.parseLong(value.toString()) : 0;
+  }
+
+  /** Counter a result status belongs to, as on the dashboard; {@code null} for uncounted ones */
+  private static String fieldOf(TestStatus status) {
+    if (status == null) {
+      return null;
+    }
+    return switch (status) {
+      case PASSED -> PASSED;
+      case FAILED, ERROR -> FAILED;
+      case SKIPPED -> SKIPPED;
+      case RUNNING -> RUNNING;
+      default -> null;
+    };
+  }
+
+  /** Status of a result before and after it was recorded */
+  public record Transition(TestStatus from, TestStatus to) {}
+
+  /** Result counts of an execution; {@code lastUpdate} is in epoch milliseconds */
+  public record Counters(
+      long total, long passed, long failed, long skipped, long running, long lastUpdate) {}
+}
@@ -0,0 +1,246 @@
+package com.atas.framework.monitoring;
+
+import com.atas.framework.monitoring.SseHub.Subscriber;
+import com.atas.framework.monitoring.SseHub.Subscription;
+import com.atas.framework.security.JwtTokenProvider;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+/**
+ * One WebSocket per dashboard for every live topic, instead of one SSE connection per topic.
+ *
+ * <p>Clients send JSON commands:
+ *
+ * <ul>
+ *   <li>{@code {"type":"auth","token":"<accessToken>"}}, first, unless the handshake was
+ *       authenticated already; browsers cannot send an {@code Authorization} header on it
+ *   <li>{@code {"type":"subscribe","topic":"execution/<id>","lastEventId":"<id>"}}, where topic is
+ *       {@code execution/<id>}, {@code active} or {@code database} and {@code lastEventId} is
+ *       optional
+ *   <li>{@code {"type":"unsubscribe","topic":"execution/<id>"}}
+ * </ul>
+ *
+ * <p>Events arrive as {@code {"topic":...,"id":...,"data":...}}. Once a client has an event of a
+ * topic, the following ones carry only the fields that changed, as {@code "delta"} in place of
+ * {@code "data"}; removed fields are {@code null}. Topics are served by the {@link SseHub}, so
+ * replay and snapshots work as for SSE: a client that reconnects subscribes again with the ID of
+ * the last event it got of each topic. The socket is closed if the client falls behind.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MonitoringWebSocketHandler extends TextWebSocketHandler {
+
+  private static final String EXECUTION_PREFIX = "execution/";
+
+  private final SseHub sseHub;
+
+  private final TestMonitoringService monitoringService;
+
+  private final JwtTokenProvider tokenProvider;
+
+  private final UserDetailsService userDetailsService;
+
+  private final ObjectMapper objectMapper;
+
+  private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+
+  @Value("${atas.monitoring.ws.max-subscriptions:100}")
+  private int maxSubscriptions = 100;
+
+  @Value("${atas.monitoring.ws.send-time-limit-ms:10000}")
+  private int sendTimeLimitMillis = 10000;
+
+  @Value("${atas.monitoring.ws.send-buffer-size:524288}")
+  private int sendBufferSize = 524288;
+
+  @Override
+  public void afterConnectionEstablished(WebSocketSession session) {
+    // Subscriptions write from their own threads, which the decorator serializes
+    WebSocketSession concurrent =
+        new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis, sendBufferSize);
+    connections.put(session.getId(), new Connection(concurrent, session.getPrincipal() != null));
+  }
+
+  @Override
+  protected void handleTextMessage(WebSocketSession session, TextMessage message)
+      throws IOException {
+    Connection connection = connections.get(session.getId());
+    if (connection == null) {
+      return;
+    }
+    JsonNode command;
+    try {
+      command = objectMapper.readTree(message.getPayload());
+    } catch (IOException e) {
+      connection.error(null, "Malformed command");
+      return;
+    }
+    String type = command.path("type").asText();
+    String topic = command.path("topic").asText(null);
+
+    if ("auth".equals(type)) {
+      connection.authenticated = authenticate(command.path("token").asText(null));
+      if (!connection.authenticated) {
+        connection.session.close(CloseStatus.POLICY_VIOLATION.withReason("Invalid token"));
+      }
+      return;
+    }
+    if (!connection.authenticated) {
+      connection.session.close(CloseStatus.POLICY_VIOLATION.withReason("Not authenticated"));
+      return;
+    }
+    switch (type) {
+      case "subscribe" -> subscribe(connection, topic, command.path("lastEventId").asText(null));
+      case "unsubscribe" -> connection.unsubscribe(topic);
+      default -> connection.error(topic, "Unknown command: " + type);
+    }
+  }
+
+  @Override
+  public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+    Connection connection = connections.remove(session.getId());
+    if (connection != null) {
+      connection.subscriptions.values().forEach(Subscription::cancel);
+    }
+  }
+
+  private void subscribe(Connection connection, String topic, String lastEventId)
+      throws IOException {
+    if (topic == null) {
+      connection.error(null, "Missing topic");
+      return;
+    }
+    if (connection.subscriptions.containsKey(topic)) {
+      return;
+    }
+    if (connection.subscriptions.size() >= maxSubscriptions) {
+      connection.error(topic, "Too many subscriptions");
+      return;
+    }
+    String hubTopic;
+    Supplier<Object> snapshot;
+    if (topic.startsWith(EXECUTION_PREFIX) && topic.length() > EXECUTION_PREFIX.length()) {
+      String executionId = topic.substring(EXECUTION_PREFIX.length());
+      hubTopic = TestMonitoringService.EXECUTION_TOPIC + executionId;
+      snapshot = () -> monitoringService.executionSnapshot(executionId);
+    } else if ("active".equals(topic)) {
+      hubTopic = TestMonitoringService.ACTIVE_EXECUTIONS_TOPIC;
+      snapshot = monitoringService::getActiveExecutions;
+    } else if ("database".equals(topic)) {
+      hubTopic = DatabaseHealthService.DATABASE_TOPIC;
+      snapshot = () -> null;
+    } else {
+      connection.error(topic, "Unknown topic");
+      return;
+    }
+    connection.subscriptions.put(
+        topic, sseHub.subscribe(hubTopic, lastEventId, snapshot, connection.subscriber(topic)));
+  }
+
+  private boolean authenticate(String token) {
+    try {
+      if (token == null
+          || !tokenProvider.validateToken(token)
+          || tokenProvider.isRefreshToken(token)) {
+        return false;
+      }
+      UserDetails user =
+          userDetailsService.loadUserByUsername(tokenProvider.getUsernameFromToken(token));
+      return user.isEnabled();
+    } catch (Exception e) {
+      log.debug("Rejected WebSocket token: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  /** A socket and the topics it follows */
+  private final class Connection {
+
+    private final WebSocketSession session;
+
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    private volatile boolean authenticated;
+
+    private Connection(WebSocketSession session, boolean authenticated) {
+      this.session = session;
+      this.authenticated = authenticated;
+    }
+
+    private void unsubscribe(String topic) {
+      Subscription subscription = topic != null ? subscriptions.remove(topic) : null;
+      if (subscription != null) {
+        subscription.cancel();
+      }
+    }
+
+    private void error(String topic, String message) throws IOException {
+      Map<String, Object> error = new LinkedHashMap<>();
+      error.put("type", "error");
+      if (topic != null) {
+        error.put("topic", topic);
+      }
+      error.put("message", message);
+      session.sendMessage(new TextMessage(objectMapper.writeValueAsBytes(error)));
+    }
+
+    private Subscriber subscriber(String topic) throws IOException {
+      byte[] prefix =
+          ("{\"topic\":" + objectMapper.writeValueAsString(topic) + ",\"id\":")
+              .getBytes(StandardCharsets.UTF_8);
+      return new Subscriber() {
+
+        /** ID of the last event sent, which a delta must follow */
+        private long lastSentId = -1;
+
+        @Override
+        public void send(SseFrame frame) throws IOException {
+          if (frame.isHeartbeat()) {
+            session.sendMessage(new PingMessage());
+            return;
+          }
+          boolean asDelta = frame.delta() != null && frame.previousId() == lastSentId;
+          byte[] body = asDelta ? frame.delta() : frame.data();
+          ByteArrayOutputStream out = new ByteArrayOutputStream(prefix.length + body.length + 32);
+          out.write(prefix);
+          out.write(
+              (frame.id() + (asDelta ? ",\"delta\":" : ",\"data\":"))
+                  .getBytes(StandardCharsets.UTF_8));
+          out.write(body);
+          out.write('}');
+          session.sendMessage(new TextMessage(out.toByteArray()));
+          lastSentId = frame.id();
+        }
+
+        @Override
+        public void close() {
+          try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+          } catch (IOException ignored) {
+            // Already closed
+          }
+        }
+      };
+    }
+  }
+}
@@ -1,219 +1,387 @@
 package com.atas.framework.monitoring;
 
 import com.atas.framework.model.TestStatus;
-import java.io.IOException;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.connection.Message;
-import org.springframework.data.redis.connection.MessageListener;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.listener.ChannelTopic;
-import org.springframework.data.redis.listener.RedisMessageListenerContainer;
-import org.springframework.http.MediaType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamInfo.XInfoConsumers;
+import org.springframework.data.redis.connection.stream.StreamInfo.XInfoGroup;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.stream.StreamListener;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamMessageListenerContainerOptions;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamReadRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
- * Service for managing SSE connections with Redis Pub/Sub for horizontal scaling. This allows SSE
- * updates to work across multiple service instances.
+ * Service for pushing execution updates to the SSE subscribers of this instance, whichever instance
+ * the change happened on, for horizontal scaling.
+ *
+ * <p>Every instance reads the {@value ExecutionUpdatePublisher#STREAM} stream through a consumer
+ * group of its own, so each of them sees every event, and acknowledges an event once it has been
+ * handled. Groups are named after the stable {@code replica-id} of the instance, so an instance
+ * that was disconnected or restarted resumes after the last event its group got. Events that were
+ * delivered but not acknowledged, because handling them failed or the instance went down, are
+ * claimed and handled again periodically. A new instance starts with the events published from then
+ * on; subscribers get the current state as a snapshot when they connect. Groups of instances that
+ * are gone are removed after a while.
+ *
+ * <p>Updates of an execution are coalesced: the first announced change opens a short window, later
+ * changes within it are merged into it, and when it closes the status is read once and pushed to
+ * every subscriber. Executions nobody follows are ignored without reading anything. Status changes
+ * are coalesced the same way into one push of the active executions, so catching up on a backlog
+ * does not read them once per event.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class RedisSseService implements MessageListener {
+public class RedisSseService implements StreamListener<String, MapRecord<String, String, String>> {
 
-  private final RedisTemplate<String, Object> redisTemplate;
-  private final RedisMessageListenerContainer redisMessageListenerContainer;
+  static final String GROUP_PREFIX = "sse-";
+
+  private final StringRedisTemplate redisTemplate;
   private final TestMonitoringService testMonitoringService;
 
-  // Map of executionId -> list of SSE emitters for that execution
-  private final Map<String, List<SseEmitter>> executionEmitters = new ConcurrentHashMap<>();
+  // Executions with a push scheduled at the end of their coalescing window
+  private final Set<String> pendingExecutions = ConcurrentHashMap.newKeySet();
+
+  // Whether a push of the active executions is scheduled at the end of the coalescing window
+  private final AtomicBoolean activeExecutionsPending = new AtomicBoolean();
+
+  private final ScheduledExecutorService coalescer =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "sse-coalescer");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final ExecutorService pollers =
+      Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-events-", 0).factory());
+
+  private StreamMessageListenerContainer<String, MapRecord<String, String, String>> container;
+
+  // Consumer group of this instance, and the single consumer reading it
+  private String group;
+  private String consumer;
+
+  @Value("${atas.monitoring.sse.coalesce-window-ms:100}")
+  private long coalesceWindowMillis;
+
+  @Value("${atas.monitoring.events.replica-id:}")
+  private String replicaId = "";
+
+  @Value("${atas.monitoring.events.batch-size:100}")
+  private int batchSize = 100;
+
+  @Value("${atas.monitoring.events.poll-timeout-ms:2000}")
+  private long pollTimeoutMillis = 2000;
 
-  // List of SSE emitters for active executions
-  private final List<SseEmitter> activeExecutionsEmitters =
-      new java.util.concurrent.CopyOnWriteArrayList<>();
+  @Value("${atas.monitoring.events.claim-idle-ms:30000}")
+  private long claimIdleMillis = 30000;
 
-  /** Initialize Redis subscription on service startup. */
+  @Value("${atas.monitoring.events.max-deliveries:5}")
+  private long maxDeliveries = 5;
+
+  @Value("${atas.monitoring.events.stale-group-ms:3600000}")
+  private long staleGroupMillis = 3600000;
+
+  /**
+   * Join the event stream on service startup.
+   *
+   * @throws IllegalStateException if no {@code replica-id} is configured
+   */
   @jakarta.annotation.PostConstruct
   public void init() {
+    if (replicaId == null || replicaId.isBlank()) {
+      // A random name would leave a new group behind on every restart
+      throw new IllegalStateException(
+          "atas.monitoring.events.replica-id (ATAS_EVENTS_REPLICA_ID) must name this instance "
+              + "stably across restarts, e.g. after its StatefulSet pod");
+    }
+    consumer = replicaId;
+    group = GROUP_PREFIX + consumer;
     try {
-      redisMessageListenerContainer.addMessageListener(
-          this, new ChannelTopic("atas:execution:updates"));
-      // Start the container if not already running
-      // This happens after ApplicationContext is fully initialized
-      if (!redisMessageListenerContainer.isRunning()) {
-        redisMessageListenerContainer.start();
-      }
-      log.info("Redis SSE service initialized - subscribed to execution updates");
+      createGroup();
+      // What was delivered before this instance went down, however recently, in batches until
+      // one is not full; what fails to be handled is left to the periodic reclaim
+      int acknowledged;
+      do {
+        acknowledged = reclaim(Duration.ZERO);
+      } while (acknowledged == batchSize);
     } catch (Exception e) {
       log.warn(
-          "Failed to initialize Redis SSE service (Redis may not be available): {}",
-          e.getMessage());
-      // Don't fail application startup if Redis is unavailable
-      // The service will work without Pub/Sub scaling
+          "Failed to join execution event stream (Redis may not be available): {}", e.getMessage());
+      // Don't fail application startup if Redis is unavailable; the poller retries
     }
+
+    container =
+        StreamMessageListenerContainer.create(
+            redisTemplate.getRequiredConnectionFactory(),
+            StreamMessageListenerContainerOptions.builder()
+                .batchSize(batchSize)
+                .pollTimeout(Duration.ofMillis(pollTimeoutMillis))
+                .executor(pollers)
+                .errorHandler(this::onPollError)
+                .build());
+    container.register(
+        StreamReadRequest.builder(
+                StreamOffset.create(ExecutionUpdatePublisher.STREAM, ReadOffset.lastConsumed()))
+            .consumer(Consumer.from(group, consumer))
+            .autoAcknowledge(false)
+            // Keep polling through Redis outages
+            .cancelOnError(e -> false)
+            .build(),
+        this);
+    container.start();
+    log.info("Redis SSE service initialized - reading execution events as group {}", group);
   }
 
-  /** Register an SSE emitter for a specific execution. */
-  public SseEmitter registerExecutionEmitter(String executionId) {
-    SseEmitter emitter = new SseEmitter(0L);
+  /** Handle an execution event and acknowledge it. */
+  @Override
+  public void onMessage(MapRecord<String, String, String> record) {
+    try {
+      handle(record.getValue());
+      redisTemplate.opsForStream().acknowledge(group, record);
+    } catch (Exception e) {
+      // Left pending, so claimed and handled again later
+      log.error("Error processing execution event {}: {}", record.getId(), e.getMessage(), e);
+    }
+  }
 
-    emitter.onCompletion(
-        () -> {
-          removeExecutionEmitter(executionId, emitter);
-        });
+  private void handle(Map<?, ?> event) {
+    Object executionId = event.get("executionId");
+    Object status = event.get("status");
+    if (executionId != null) {
+      scheduleExecutionUpdate(executionId.toString());
+    }
 
-    emitter.onTimeout(
-        () -> {
-          removeExecutionEmitter(executionId, emitter);
-        });
+    // Broadcast to active executions emitters if status changed
+    if (status != null
+        && (TestStatus.QUEUED.name().equals(status)
+            || TestStatus.RUNNING.name().equals(status)
+            || TestStatus.PASSED.name().equals(status)
+            || TestStatus.FAILED.name().equals(status))) {
+      scheduleActiveExecutionsUpdate();
+    }
+  }
 
-    emitter.onError(
-        (ex) -> {
-          removeExecutionEmitter(executionId, emitter);
-          log.warn("SSE emitter error for execution {}: {}", executionId, ex.getMessage());
-        });
+  /** Push the execution at the end of its coalescing window, opening one if none is open. */
+  private void scheduleExecutionUpdate(String executionId) {
+    if (!testMonitoringService.hasSubscribers(executionId)) {
+      return;
+    }
+    if (pendingExecutions.add(executionId)) {
+      coalescer.schedule(
+          () -> broadcastToExecution(executionId), coalesceWindowMillis, TimeUnit.MILLISECONDS);
+    }
+  }
 
-    executionEmitters
-        .computeIfAbsent(executionId, k -> new java.util.concurrent.CopyOnWriteArrayList<>())
-        .add(emitter);
+  /**
+   * Push the active executions at the end of the coalescing window, opening one if none is open.
+   */
+  private void scheduleActiveExecutionsUpdate() {
+    if (activeExecutionsPending.compareAndSet(false, true)) {
+      coalescer.schedule(
+          () -> {
+            activeExecutionsPending.set(false);
+            broadcastToActiveExecutions();
+          },
+          coalesceWindowMillis,
+          TimeUnit.MILLISECONDS);
+    }
+  }
 
-    // Send initial status
+  /** Push the status of the execution to its subscribers on this instance. */
+  private void broadcastToExecution(String executionId) {
+    // Changes announced from here on open a new window
+    pendingExecutions.remove(executionId);
     try {
       var status = testMonitoringService.getStatus(executionId);
-      if (status != null) {
-        emitter.send(status, MediaType.APPLICATION_JSON);
+      if (status == null) {
+        return;
       }
-    } catch (IOException e) {
-      log.warn("Failed to send initial status to SSE emitter: {}", e.getMessage());
-      removeExecutionEmitter(executionId, emitter);
+      testMonitoringService.pushStatus(executionId, status);
+    } catch (Exception e) {
+      log.warn("Failed to push update of execution {}: {}", executionId, e.getMessage());
     }
-
-    return emitter;
   }
 
-  /** Register an SSE emitter for active executions list. */
-  public SseEmitter registerActiveExecutionsEmitter() {
-    SseEmitter emitter = new SseEmitter(0L);
-
-    emitter.onCompletion(
-        () -> {
-          activeExecutionsEmitters.remove(emitter);
-        });
-
-    emitter.onTimeout(
-        () -> {
-          activeExecutionsEmitters.remove(emitter);
-        });
-
-    emitter.onError(
-        (ex) -> {
-          activeExecutionsEmitters.remove(emitter);
-          log.warn("Active executions SSE emitter error: {}", ex.getMessage());
-        });
-
-    activeExecutionsEmitters.add(emitter);
+  /** Push the list of active executions to its subscribers on this instance. */
+  private void broadcastToActiveExecutions() {
+    testMonitoringService.broadcastActiveExecutionsUpdates();
+  }
 
-    // Send initial data
+  /**
+   * Create the group of this instance, reading the events published from now on, unless it exists.
+   * The stream is created along with it if nothing was published yet.
+   */
+  private void createGroup() {
     try {
-      var activeExecutions = testMonitoringService.getActiveExecutions();
-      emitter.send(activeExecutions, MediaType.APPLICATION_JSON);
-    } catch (IOException e) {
-      log.warn("Failed to send initial active executions to SSE emitter: {}", e.getMessage());
-      activeExecutionsEmitters.remove(emitter);
+      redisTemplate.execute(
+          (RedisCallback<Void>)
+              connection -> {
+                connection
+                    .streamCommands()
+                    .xGroupCreate(
+                        ExecutionUpdatePublisher.STREAM.getBytes(StandardCharsets.UTF_8),
+                        group,
+                        ReadOffset.latest(),
+                        true);
+                return null;
+              });
+      log.info("Created consumer group {} on {}", group, ExecutionUpdatePublisher.STREAM);
+    } catch (Exception e) {
+      if (!hasCause(e, "BUSYGROUP")) {
+        throw e;
+      }
     }
-
-    return emitter;
   }
 
-  /** Handle Redis messages for execution updates. */
-  @Override
-  public void onMessage(Message message, byte[] pattern) {
+  /** Handle again what was delivered but not acknowledged for {@code claim-idle-ms}. */
+  @Scheduled(fixedDelayString = "${atas.monitoring.events.claim-interval-ms:30000}")
+  public void reclaimPending() {
     try {
-      String channel = new String(message.getChannel());
-      if (!"atas:execution:updates".equals(channel)) {
-        return;
-      }
-
-      // Parse the message (assuming it's a Map)
-      Object payload = redisTemplate.getValueSerializer().deserialize(message.getBody());
-      if (payload instanceof Map) {
-        @SuppressWarnings("unchecked")
-        Map<String, Object> update = (Map<String, Object>) payload;
-        String executionId = (String) update.get("executionId");
-        String status = (String) update.get("status");
-
-        if (executionId != null) {
-          // Broadcast to all emitters for this execution
-          broadcastToExecution(executionId);
-        }
+      reclaim(Duration.ofMillis(claimIdleMillis));
+    } catch (Exception e) {
+      log.debug("Failed to reclaim pending execution events: {}", e.getMessage());
+    }
+  }
 
-        // Broadcast to active executions emitters if status changed
-        if (status != null
-            && (TestStatus.RUNNING.name().equals(status)
-                || TestStatus.PASSED.name().equals(status)
-                || TestStatus.FAILED.name().equals(status))) {
-          broadcastToActiveExecutions();
+  /**
+   * Claim the oldest events of this group that were delivered but not acknowledged for at least
+   * {@code minIdle}, handle and acknowledge them. Events delivered {@code max-deliveries} times are
+   * acknowledged without handling them again.
+   *
+   * @return the number of events acknowledged
+   */
+  private int reclaim(Duration minIdle) {
+    StreamOperations<String, Object, Object> streams = redisTemplate.opsForStream();
+    PendingMessages pending =
+        streams.pending(ExecutionUpdatePublisher.STREAM, group, Range.unbounded(), batchSize);
+    List<RecordId> claimable = new ArrayList<>();
+    List<RecordId> abandoned = new ArrayList<>();
+    for (PendingMessage message : pending) {
+      if (message.getElapsedTimeSinceLastDelivery().compareTo(minIdle) < 0) {
+        continue;
+      }
+      if (message.getTotalDeliveryCount() >= maxDeliveries) {
+        abandoned.add(message.getId());
+      } else {
+        claimable.add(message.getId());
+      }
+    }
+    int acknowledged = 0;
+    if (!abandoned.isEmpty()) {
+      log.warn("Dropping execution events that failed {} times: {}", maxDeliveries, abandoned);
+      streams.acknowledge(
+          ExecutionUpdatePublisher.STREAM, group, abandoned.toArray(RecordId[]::new));
+      acknowledged += abandoned.size();
+    }
+    if (!claimable.isEmpty()) {
+      List<MapRecord<String, Object, Object>> records =
+          streams.claim(
+              ExecutionUpdatePublisher.STREAM,
+              group,
+              consumer,
+              minIdle,
+              claimable.toArray(RecordId[]::new));
+      for (MapRecord<String, Object, Object> record : records) {
+        try {
+          handle(record.getValue());
+          streams.acknowledge(ExecutionUpdatePublisher.STREAM, group, record.getId());
+          acknowledged++;
+        } catch (Exception e) {
+          log.warn("Failed to handle execution event {}: {}", record.getId(), e.getMessage());
         }
       }
-    } catch (Exception e) {
-      log.error("Error processing Redis message: {}", e.getMessage(), e);
+      log.info("Handled {} pending execution events", records.size());
     }
+    return acknowledged;
   }
 
-  /** Broadcast status update to all emitters for a specific execution. */
-  private void broadcastToExecution(String executionId) {
-    List<SseEmitter> emitters = executionEmitters.get(executionId);
-    if (emitters == null || emitters.isEmpty()) {
-      return;
+  /** Called on the poller when reading fails; waits before the next attempt. */
+  private void onPollError(Throwable error) {
+    log.warn("Failed to read execution events: {}", error.getMessage());
+    try {
+      if (hasCause(error, "NOGROUP")) {
+        // The stream or the group was removed, e.g. Redis was flushed or the group was reaped
+        createGroup();
+      }
+    } catch (Exception e) {
+      log.debug("Failed to recreate consumer group {}: {}", group, e.getMessage());
     }
-
-    var status = testMonitoringService.getStatus(executionId);
-    if (status == null) {
-      return;
+    try {
+      Thread.sleep(pollTimeoutMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
     }
-
-    emitters.removeIf(
-        emitter -> {
-          try {
-            emitter.send(status, MediaType.APPLICATION_JSON);
-            return false;
-          } catch (IOException e) {
-            return true;
-          }
-        });
   }
 
-  /** Broadcast active executions update to all active executions emitters. */
-  private void broadcastToActiveExecutions() {
-    if (activeExecutionsEmitters.isEmpty()) {
-      return;
+  /**
+   * Remove the groups of instances that are gone: groups whose consumers have not read for {@code
+   * stale-group-ms}, or that have none. Their events would otherwise be kept track of forever. An
+   * instance whose group is removed while it starts recreates it on its next read.
+   */
+  @Scheduled(fixedDelayString = "${atas.monitoring.events.cleanup-interval-ms:600000}")
+  public void removeStaleGroups() {
+    try {
+      for (XInfoGroup info : redisTemplate.opsForStream().groups(ExecutionUpdatePublisher.STREAM)) {
+        String name = info.groupName();
+        if (!name.startsWith(GROUP_PREFIX) || name.equals(group)) {
+          continue;
+        }
+        XInfoConsumers consumers =
+            redisTemplate.opsForStream().consumers(ExecutionUpdatePublisher.STREAM, name);
+        if (consumers.stream().allMatch(c -> c.idleTimeMs() > staleGroupMillis)) {
+          redisTemplate.opsForStream().destroyGroup(ExecutionUpdatePublisher.STREAM, name);
+          log.info("Removed consumer group {} of an instance that is gone", name);
+        }
+      }
+    } catch (Exception e) {
+      log.debug("Failed to remove stale consumer groups: {}", e.getMessage());
     }
-
-    var activeExecutions = testMonitoringService.getActiveExecutions();
-
-    activeExecutionsEmitters.removeIf(
-        emitter -> {
-          try {
-            emitter.send(activeExecutions, MediaType.APPLICATION_JSON);
-            return false;
-          } catch (IOException e) {
-            return true;
-          }
-        });
   }
 
-  /** Remove an emitter from the execution's emitter list. */
-  private void removeExecutionEmitter(String executionId, SseEmitter emitter) {
-    List<SseEmitter> emitters = executionEmitters.get(executionId);
-    if (emitters != null) {
-      emitters.remove(emitter);
-      if (emitters.isEmpty()) {
-        executionEmitters.remove(executionId);
+  private static boolean hasCause(Throwable error, String code) {
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause.getMessage() != null && cause.getMessage().contains(code)) {
+        return true;
       }
     }
+    return false;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (container != null) {
+      container.stop();
+    }
+    pollers.shutdownNow();
+    coalescer.shutdownNow();
   }
 }
@@ -0,0 +1,113 @@
+package com.atas.framework.monitoring;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * A complete SSE event, encoded once and written as is to any number of emitters. The bytes are
+ * never modified after construction, so one frame can be shared by every subscriber.
+ *
+ * <p>A frame also keeps its JSON payload and, for object payloads, the fields that changed since
+ * the previous event of its topic, for subscribers that keep state between events such as WebSocket
+ * clients.
+ */
+public final class SseFrame {
+
+  /** A comment line, which clients ignore; writing it tells whether the connection is alive */
+  public static final SseFrame HEARTBEAT =
+      new SseFrame(-1, ":\n\n".getBytes(StandardCharsets.UTF_8), new byte[0], -1, null);
+
+  private final long id;
+
+  private final byte[] bytes;
+
+  private final Set<DataWithMediaType> items;
+
+  private final byte[] data;
+
+  private final long previousId;
+
+  private final byte[] delta;
+
+  private SseFrame(long id, byte[] bytes, byte[] data, long previousId, byte[] delta) {
+    this.id = id;
+    this.bytes = bytes;
+    this.items = Set.of(new DataWithMediaType(bytes, MediaType.TEXT_PLAIN));
+    this.data = data;
+    this.previousId = previousId;
+    this.delta = delta;
+  }
+
+  /**
+   * Event with an ID, which the client sends back as {@code Last-Event-ID} when it reconnects.
+   *
+   * @param data the encoded payload, without line breaks, such as compact JSON
+   */
+  public static SseFrame event(long id, byte[] data) {
+    return event(id, data, -1, null);
+  }
+
+  /**
+   * Event that follows another event of its topic.
+   *
+   * @param previousId ID of the previous event of the topic, or -1 if there is none
+   * @param delta the fields of {@code data} that differ from the previous event, with removed
+   *     fields set to {@code null}, or {@code null} if the payloads are not both objects
+   */
+  public static SseFrame event(long id, byte[] data, long previousId, byte[] delta) {
+    byte[] prefix = ("id:" + id + "\ndata:").getBytes(StandardCharsets.UTF_8);
+    byte[] bytes = Arrays.copyOf(prefix, prefix.length + data.length + 2);
+    System.arraycopy(data, 0, bytes, prefix.length, data.length);
+    bytes[bytes.length - 2] = '\n';
+    bytes[bytes.length - 1] = '\n';
+    return new SseFrame(id, bytes, data, previousId, delta);
+  }
+
+  /** Write the frame to the emitter without encoding anything */
+  public void sendTo(SseEmitter emitter) throws IOException {
+    emitter.send(items);
+  }
+
+  /** ID of the event, or -1 for a heartbeat */
+  public long id() {
+    return id;
+  }
+
+  /** Whether this is the heartbeat rather than an event */
+  public boolean isHeartbeat() {
+    return this == HEARTBEAT;
+  }
+
+  /** The JSON payload of the event; callers must not modify it */
+  public byte[] data() {
+    return data;
+  }
+
+  /** ID of the previous event of the topic, or -1 if there was none */
+  public long previousId() {
+    return previousId;
+  }
+
+  /**
+   * The JSON object of the fields that changed since the previous event of the topic, or {@code
+   * null} if not known; callers must not modify it
+   */
+  public byte[] delta() {
+    return delta;
+  }
+
+  /** Size of the frame on the wire */
+  public int size() {
+    return bytes.length;
+  }
+
+  /** A copy of the frame's bytes */
+  public byte[] toByteArray() {
+    return Arrays.copyOf(bytes, bytes.length);
+  }
+}
@@ -0,0 +1,442 @@
+package com.atas.framework.monitoring;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Every SSE subscription of this instance, grouped by topic, such as {@code execution:<id>}.
+ *
+ * <p>Each published update is serialized once into an {@link SseFrame} carrying an event ID. IDs
+ * grow monotonically across all topics. The last {@code replay-buffer-size} frames of a topic are
+ * kept, so a client that reconnects with {@code Last-Event-ID} gets what it missed instead of a
+ * snapshot recomputed from the database. Topics stay around for {@code replay-retention-ms} after
+ * their last subscriber left, to let reconnecting clients resume.
+ *
+ * <p>Publishing never writes to a connection. Frames are put on a bounded queue per client and
+ * written by a virtual thread, so a slow client cannot hold up the scheduler thread or the other
+ * clients. A client whose queue is full is disconnected; it reconnects and resumes from the buffer.
+ * A heartbeat comment is sent to every client at {@code heartbeat-interval-ms}, which reaps
+ * connections that went away without notice.
+ *
+ * <p>Besides SSE emitters, any {@link Subscriber} can subscribe, which is how topics are served
+ * over the multiplexed WebSocket channel.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SseHub {
+
+  private final ObjectMapper objectMapper;
+
+  /** Seeded with the clock, so IDs handed out before a restart are older than any after it */
+  private final AtomicLong lastEventId = new AtomicLong(System.currentTimeMillis());
+
+  private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+
+  private final ExecutorService sender =
+      Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-sender-", 0).factory());
+
+  @Value("${atas.monitoring.sse.replay-buffer-size:64}")
+  private int replayBufferSize = 64;
+
+  @Value("${atas.monitoring.sse.client-queue-size:32}")
+  private int clientQueueSize = 32;
+
+  @Value("${atas.monitoring.sse.replay-retention-ms:60000}")
+  private long replayRetentionMillis = 60000;
+
+  /** Subscribe to a topic that sends nothing until the next update */
+  public SseEmitter subscribe(String topic, String lastEventId) {
+    return subscribe(topic, lastEventId, () -> null);
+  }
+
+  /**
+   * Subscribe an SSE client to a topic. A client resuming within the replay buffer gets the events
+   * it missed; any other client gets the snapshot followed by what was published while it was
+   * taken.
+   *
+   * @param lastEventId the {@code Last-Event-ID} header, or {@code null} for a new client
+   * @param snapshot current state of the topic; may return {@code null} if there is none
+   */
+  public SseEmitter subscribe(String topic, String lastEventId, Supplier<Object> snapshot) {
+    SseEmitter emitter = new SseEmitter(0L);
+    subscribe(topic, lastEventId, snapshot, emitter);
+    return emitter;
+  }
+
+  void subscribe(String topic, String lastEventId, Supplier<Object> snapshot, SseEmitter emitter) {
+    Subscription subscription =
+        subscribe(
+            topic,
+            lastEventId,
+            snapshot,
+            new Subscriber() {
+              @Override
+              public void send(SseFrame frame) throws IOException {
+                frame.sendTo(emitter);
+              }
+
+              @Override
+              public void close() {
+                try {
+                  emitter.complete();
+                } catch (Exception ignored) {
+                  // Already completed
+                }
+              }
+            });
+    emitter.onCompletion(subscription::cancel);
+    emitter.onTimeout(subscription::cancel);
+    emitter.onError(e -> subscription.cancel());
+  }
+
+  /**
+   * Subscribe to a topic, with events written to the subscriber instead of an SSE connection.
+   * Replay and snapshot work as for SSE clients.
+   *
+   * @param lastEventId ID of the last event the subscriber got, or {@code null}
+   * @param snapshot current state of the topic; may return {@code null} if there is none
+   */
+  public Subscription subscribe(
+      String name, String lastEventId, Supplier<Object> snapshot, Subscriber subscriber) {
+    Long resumeFrom = parseEventId(lastEventId);
+    while (true) {
+      Topic topic = topics.computeIfAbsent(name, n -> new Topic(n, this.lastEventId.get()));
+      Client client = new Client(topic, subscriber);
+      if (resumeFrom != null) {
+        synchronized (topic) {
+          if (topic.removed) {
+            continue;
+          }
+          List<SseFrame> missed = topic.since(resumeFrom);
+          if (missed != null) {
+            topic.add(client, missed);
+            return client;
+          }
+        }
+      }
+
+      // Everything published after this position is in the buffer once the snapshot is taken
+      long position = this.lastEventId.get();
+      Object state = snapshot.get();
+      synchronized (topic) {
+        if (topic.removed) {
+          continue;
+        }
+        List<SseFrame> initial = new ArrayList<>();
+        if (state != null) {
+          initial.add(encode(position, state));
+        }
+        List<SseFrame> published = topic.since(position);
+        if (published != null) {
+          initial.addAll(published);
+        }
+        topic.add(client, initial);
+      }
+      return client;
+    }
+  }
+
+  /**
+   * Send an update to everyone subscribed to the topic. Topics nobody follows are skipped without
+   * serializing the update.
+   *
+   * @throws IllegalArgumentException if the update cannot be serialized
+   */
+  public void publish(String name, Object update) {
+    Topic topic = topics.get(name);
+    if (topic == null) {
+      return;
+    }
+    synchronized (topic) {
+      if (topic.removed) {
+        return;
+      }
+      SseFrame frame = topic.encodeNext(lastEventId.incrementAndGet(), update);
+      topic.append(frame);
+      for (Client client : topic.clients) {
+        client.offer(frame);
+      }
+    }
+  }
+
+  /**
+   * Whether updates of the topic are worth publishing: someone follows it, or did so recently
+   * enough to resume from the replay buffer.
+   */
+  public boolean isOpen(String topic) {
+    return topics.containsKey(topic);
+  }
+
+  /** Names of the open topics starting with the prefix */
+  public List<String> openTopics(String prefix) {
+    return topics.keySet().stream().filter(name -> name.startsWith(prefix)).toList();
+  }
+
+  /** Number of clients connected to the topic */
+  public int subscriberCount(String topic) {
+    Topic t = topics.get(topic);
+    return t != null ? t.clients.size() : 0;
+  }
+
+  /**
+   * Write a heartbeat to every client, which drops those whose connection is gone, and close the
+   * topics nobody followed within the retention period.
+   */
+  @Scheduled(fixedDelayString = "${atas.monitoring.sse.heartbeat-interval-ms:15000}")
+  public void heartbeat() {
+    long idleBefore = System.currentTimeMillis() - replayRetentionMillis;
+    for (Topic topic : topics.values()) {
+      for (Client client : topic.clients) {
+        client.offer(SseFrame.HEARTBEAT);
+      }
+      synchronized (topic) {
+        if (topic.clients.isEmpty() && topic.lastActive < idleBefore) {
+          topic.removed = true;
+          topics.remove(topic.name, topic);
+        }
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    sender.shutdownNow();
+  }
+
+  /**
+   * Encode an update as a JSON event with the given ID, with nothing known of what came before,
+   * using the application's {@link ObjectMapper} so it reads as {@code emitter.send(update,
+   * APPLICATION_JSON)} would have.
+   */
+  SseFrame encode(long id, Object update) {
+    try {
+      return SseFrame.event(id, objectMapper.writeValueAsBytes(update));
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Cannot serialize SSE update", e);
+    }
+  }
+
+  /**
+   * The fields of {@code current} that differ from {@code previous}, with fields it no longer has
+   * set to {@code null}, or {@code null} unless both are objects.
+   */
+  static ObjectNode diff(JsonNode previous, JsonNode current) {
+    if (!(previous instanceof ObjectNode) || !(current instanceof ObjectNode)) {
+      return null;
+    }
+    ObjectNode delta = JsonNodeFactory.instance.objectNode();
+    for (Map.Entry<String, JsonNode> field : current.properties()) {
+      if (!field.getValue().equals(previous.get(field.getKey()))) {
+        delta.set(field.getKey(), field.getValue());
+      }
+    }
+    previous
+        .fieldNames()
+        .forEachRemaining(
+            name -> {
+              if (!current.has(name)) {
+                delta.putNull(name);
+              }
+            });
+    return delta;
+  }
+
+  private static Long parseEventId(String lastEventId) {
+    if (lastEventId == null || lastEventId.isBlank()) {
+      return null;
+    }
+    try {
+      return Long.parseLong(lastEventId.trim());
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /** Subscribers and recent frames of a topic; changes are made while holding its lock */
+  private final class Topic {
+
+    private final String name;
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+
+    private final ArrayDeque<SseFrame> history = new ArrayDeque<>();
+
+    /** ID up to which frames are no longer in the history */
+    private long evictedUpTo;
+
+    private volatile long lastActive = System.currentTimeMillis();
+
+    /** Set once the topic is dropped from the hub; subscribers then start over with a new one */
+    private boolean removed;
+
+    /** Payload and ID of the last published event, to work out what the next one changes */
+    private JsonNode lastPayload;
+
+    private long lastPublishedId = -1;
+
+    private Topic(String name, long createdAt) {
+      this.name = name;
+      this.evictedUpTo = createdAt;
+    }
+
+    /** Encode the next event of the topic, with what it changes compared to the last one */
+    private SseFrame encodeNext(long id, Object update) {
+      try {
+        byte[] data = objectMapper.writeValueAsBytes(update);
+        JsonNode payload = objectMapper.readTree(data);
+        ObjectNode delta = diff(lastPayload, payload);
+        SseFrame frame =
+            SseFrame.event(
+                id,
+                data,
+                lastPublishedId,
+                delta != null ? objectMapper.writeValueAsBytes(delta) : null);
+        lastPayload = payload;
+        lastPublishedId = id;
+        return frame;
+      } catch (IOException e) {
+        throw new IllegalArgumentException("Cannot serialize SSE update", e);
+      }
+    }
+
+    private void append(SseFrame frame) {
+      history.addLast(frame);
+      while (history.size() > replayBufferSize) {
+        evictedUpTo = history.removeFirst().id();
+      }
+      lastActive = System.currentTimeMillis();
+    }
+
+    /** Frames after the ID, or {@code null} if some of them are no longer kept */
+    private List<SseFrame> since(long id) {
+      if (id < evictedUpTo || id > lastEventId.get()) {
+        return null;
+      }
+      return history.stream().filter(frame -> frame.id() > id).toList();
+    }
+
+    private void add(Client client, List<SseFrame> initial) {
+      clients.add(client);
+      for (SseFrame frame : initial) {
+        client.offer(frame);
+      }
+    }
+
+    private void remove(Client client) {
+      clients.remove(client);
+      lastActive = System.currentTimeMillis();
+    }
+  }
+
+  /** A subscriber and the frames waiting to be written to it */
+  private final class Client implements Subscription {
+
+    private final Topic topic;
+
+    private final Subscriber subscriber;
+
+    /** Room for a full replay on top of the regular backlog */
+    private final BlockingQueue<SseFrame> queue =
+        new ArrayBlockingQueue<>(clientQueueSize + replayBufferSize);
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private volatile boolean closed;
+
+    private Client(Topic topic, Subscriber subscriber) {
+      this.topic = topic;
+      this.subscriber = subscriber;
+    }
+
+    private void offer(SseFrame frame) {
+      if (closed) {
+        return;
+      }
+      if (!queue.offer(frame)) {
+        log.debug("Disconnecting SSE client of {} that fell behind", topic.name);
+        cancel();
+        subscriber.close();
+        return;
+      }
+      if (draining.compareAndSet(false, true)) {
+        sender.execute(this::drain);
+      }
+    }
+
+    /** Write queued frames until there are none; only one drain per client runs at a time */
+    private void drain() {
+      try {
+        while (!closed) {
+          SseFrame frame = queue.poll();
+          if (frame != null) {
+            subscriber.send(frame);
+            continue;
+          }
+          draining.set(false);
+          // A frame offered after the poll may have seen the drain still running
+          if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+            return;
+          }
+        }
+      } catch (IOException | IllegalStateException e) {
+        log.debug("Removing dead SSE client of {}", topic.name);
+        cancel();
+      }
+    }
+
+    @Override
+    public void cancel() {
+      closed = true;
+      queue.clear();
+      topic.remove(this);
+    }
+  }
+
+  /** Receives the events of one subscription */
+  public interface Subscriber {
+
+    /**
+     * Write the frame. Called by one thread at a time per subscription, in publishing order.
+     *
+     * @throws IOException if the connection is gone, which ends the subscription
+     */
+    void send(SseFrame frame) throws IOException;
+
+    /**
+     * Close the connection because the subscriber fell behind. The subscription has ended; the
+     * client is expected to reconnect and resume.
+     */
+    void close();
+  }
+
+  /** A subscription, to end it */
+  public interface Subscription {
+
+    void cancel();
+  }
+}
@@ -1,5 +1,8 @@
 package com.atas.framework.monitoring;
 
+import com.atas.framework.execution.ExecutionLogService;
+import com.atas.framework.execution.dto.ExecutionLogLines;
+import com.atas.framework.execution.dto.ExecutionLogSlice;
 import com.atas.framework.model.TestExecution;
 import com.atas.framework.model.TestResult;
 import com.atas.framework.repository.TestExecutionRepository;
@@ -25,6 +28,7 @@ public class TestMonitoringController {
   private final TestMonitoringService monitoringService;
   private final TestExecutionRepository executionRepository;
   private final DatabaseHealthService databaseHealthService;
+  private final ExecutionLogService executionLogService;
 
   /**
    * Endpoint to retrieve the current aggregated status of a test execution. The client must provide
@@ -43,8 +47,10 @@ public class TestMonitoringController {
   }
 
   @GetMapping("/live")
-  public SseEmitter streamUpdates(@RequestParam String executionId) {
-    return monitoringService.registerEmitter(executionId);
+  public SseEmitter streamUpdates(
+      @RequestParam String executionId,
+      @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+    return monitoringService.registerEmitter(executionId, lastEventId);
   }
 
   @GetMapping("/results/{executionId}")
@@ -59,6 +65,62 @@ public class TestMonitoringController {
     return ResponseEntity.ok(dtos);
   }
 
+  /**
+   * Read the output of an execution from a byte offset. The output is persisted while the execution
+   * runs; continue with {@code nextOffset} until {@code complete} is true.
+   *
+   * @param executionId unique identifier of the execution
+   * @param fromOffset byte offset to start reading at
+   * @param maxBytes maximum number of bytes to return
+   * @return the output slice, or 404 if no such execution exists
+   */
+  @GetMapping("/{executionId}/logs")
+  public ResponseEntity<ExecutionLogSlice> getLogs(
+      @PathVariable String executionId,
+      @RequestParam(defaultValue = "0") long fromOffset,
+      @RequestParam(defaultValue = "1048576") int maxBytes) {
+    return executionLogService
+        .read(executionId, fromOffset, maxBytes)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  /**
+   * Read a range of output lines of an execution. Only the stored frames covering the range are
+   * decompressed, so reading deep into a large log stays cheap.
+   *
+   * @param executionId unique identifier of the execution
+   * @param fromLine number of the first line to return, starting at 1
+   * @param count maximum number of lines to return
+   * @return the lines, or 404 if no such execution exists
+   */
+  @GetMapping("/{executionId}/logs/lines")
+  public ResponseEntity<ExecutionLogLines> getLogLines(
+      @PathVariable String executionId,
+      @RequestParam(defaultValue = "1") long fromLine,
+      @RequestParam(defaultValue = "1000") int count) {
+    return executionLogService
+        .readLines(executionId, fromLine, count)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  /**
+   * Follow the output of an execution via SSE. Reconnecting clients resume after the offset sent as
+   * the ID of the last received event.
+   *
+   * @param executionId unique identifier of the execution
+   * @param fromOffset byte offset to start at
+   * @param lastEventId offset sent by the browser when it reconnects
+   */
+  @GetMapping("/{executionId}/logs/tail")
+  public SseEmitter tailLogs(
+      @PathVariable String executionId,
+      @RequestParam(defaultValue = "0") long fromOffset,
+      @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+    return executionLogService.tail(executionId, lastEventId != null ? lastEventId : fromOffset);
+  }
+
   @GetMapping("/dashboard/overview")
   public ResponseEntity<TestMonitoringService.DashboardOverviewDto> getDashboardOverview() {
     TestMonitoringService.DashboardOverviewDto overview = monitoringService.getDashboardOverview();
@@ -88,8 +150,11 @@ public class TestMonitoringController {
 
   @GetMapping("/dashboard/execution-trends")
   public ResponseEntity<TestMonitoringService.ExecutionTrendsDto> getExecutionTrends(
-      @RequestParam(defaultValue = "7") int days) {
-    TestMonitoringService.ExecutionTrendsDto trends = monitoringService.getExecutionTrends(days);
+      @RequestParam(defaultValue = "7") int days,
+      @RequestParam(required = false) String suite,
+      @RequestParam(required = false) String environment) {
+    TestMonitoringService.ExecutionTrendsDto trends =
+        monitoringService.getExecutionTrends(days, suite, environment);
     return ResponseEntity.ok(trends);
   }
 
@@ -100,8 +165,9 @@ public class TestMonitoringController {
   }
 
   @GetMapping("/dashboard/active/live")
-  public SseEmitter streamActiveExecutions() {
-    return monitoringService.registerActiveExecutionsEmitter();
+  public SseEmitter streamActiveExecutions(
+      @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+    return monitoringService.registerActiveExecutionsEmitter(lastEventId);
   }
 
   @lombok.Data
@@ -1,11 +1,18 @@
 package com.atas.framework.monitoring;
 
 import com.atas.framework.model.TestExecution;
-import com.atas.framework.model.TestResult;
 import com.atas.framework.model.TestStatus;
+import com.atas.framework.monitoring.LiveExecutionCounters.Counters;
+import com.atas.framework.repository.DashboardMetricsRepository;
+import com.atas.framework.repository.DashboardMetricsRepository.DashboardMetrics;
+import com.atas.framework.repository.TestDailyStatsRepository;
+import com.atas.framework.repository.TestDailyStatsRepository.DailyTotals;
 import com.atas.framework.repository.TestExecutionRepository;
-import java.io.IOException;
+import com.atas.framework.repository.TestExecutionRepository.ExecutionSummaryView;
+import com.atas.framework.repository.TestResultRepository;
+import com.atas.framework.repository.TestResultRepository.ResultCountsView;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -13,7 +20,9 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.MediaType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
@@ -21,46 +30,61 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 /**
  * Service that tracks the progress of running test executions and notifies subscribers via
  * Server-Sent Events (SSE). It exposes methods to retrieve the current status of a test execution
- * as well as to register SSE clients for live updates. A scheduled task periodically sends updates
- * to all active emitters.
+ * as well as to register SSE clients for live updates, which are delivered through the {@link
+ * SseHub}.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TestMonitoringService {
 
+  /** Topic of the status of an execution, followed by its external identifier */
+  static final String EXECUTION_TOPIC = "execution:";
+
+  static final String ACTIVE_EXECUTIONS_TOPIC = "executions:active";
+
   private final TestExecutionRepository executionRepository;
 
-  private final Map<String, List<SseEmitter>> emitterMap = new ConcurrentHashMap<>();
+  private final TestResultRepository resultRepository;
+
+  private final DashboardMetricsRepository dashboardMetricsRepository;
+
+  private final TestDailyStatsRepository dailyStatsRepository;
+
+  private final LiveExecutionCounters liveCounters;
 
-  private final List<SseEmitter> activeExecutionsEmitters =
-      Collections.synchronizedList(new ArrayList<>());
+  private final SseHub sseHub;
+
+  /** When each followed execution was last pushed, in epoch milliseconds */
+  private final Map<String, Long> lastPushed = new ConcurrentHashMap<>();
+
+  /** Followed executions whose last pushed status had an end time */
+  private final Set<String> finishedExecutions = ConcurrentHashMap.newKeySet();
+
+  @Value("${atas.monitoring.sse.fallback-interval-ms:5000}")
+  private long fallbackIntervalMillis;
+
+  @Value("${atas.monitoring.dashboard.refresh-interval-ms:30000}")
+  private long dashboardRefreshMillis = 30000;
 
   /**
-   * Get the current status of the specified execution. This method queries the database for the
-   * execution and its results and aggregates statistics such as the number of passed/failed tests
-   * and overall progress.
+   * Get the current status of the specified execution. The execution is read on its own; the number
+   * of passed/failed tests comes from the live counters rather than from its results.
    *
    * @param executionId external identifier of the execution
    * @return a DTO with aggregated status information
    */
   public TestExecutionStatus getStatus(String executionId) {
-    TestExecution execution =
-        executionRepository.findByExecutionIdWithResults(executionId).orElse(null);
+    TestExecution execution = executionRepository.findByExecutionId(executionId).orElse(null);
     if (execution == null) {
       return null;
     }
-    List<TestResult> results = execution.getResults();
-    int total = results.size();
-    int passed = (int) results.stream().filter(r -> r.getStatus() == TestStatus.PASSED).count();
-    int failed =
-        (int)
-            results.stream()
-                .filter(
-                    r -> r.getStatus() == TestStatus.FAILED || r.getStatus() == TestStatus.ERROR)
-                .count();
-    int skipped = (int) results.stream().filter(r -> r.getStatus() == TestStatus.SKIPPED).count();
-    int running = (int) results.stream().filter(r -> r.getStatus() == TestStatus.RUNNING).count();
+    Counters counters = liveCounters.get(executionId, execution.getId());
+    int total = (int) counters.total();
+    int passed = (int) counters.passed();
+    int failed = (int) counters.failed();
+    int skipped = (int) counters.skipped();
+    int running = (int) counters.running();
 
     if (total == 0 && execution.getStatus() != null) {
       total = 1;
@@ -96,306 +120,246 @@ public class TestMonitoringService {
         .build();
   }
 
-  public SseEmitter registerEmitter(String executionId) {
-    SseEmitter emitter = new SseEmitter(0L);
-    emitter.onCompletion(() -> removeEmitter(executionId, emitter));
-    emitter.onTimeout(() -> removeEmitter(executionId, emitter));
-    emitterMap.computeIfAbsent(executionId, id -> new ArrayList<>()).add(emitter);
-    return emitter;
+  /**
+   * Subscribe to status updates of the execution.
+   *
+   * @param lastEventId the {@code Last-Event-ID} of a reconnecting client, or {@code null}
+   */
+  public SseEmitter registerEmitter(String executionId, String lastEventId) {
+    return sseHub.subscribe(
+        EXECUTION_TOPIC + executionId, lastEventId, () -> executionSnapshot(executionId));
   }
 
-  private void removeEmitter(String executionId, SseEmitter emitter) {
-    List<SseEmitter> emitters = emitterMap.get(executionId);
-    if (emitters != null) {
-      emitters.remove(emitter);
+  /**
+   * Status new subscribers of the execution start with, as updates are only pushed on changes.
+   *
+   * @return the status, or {@code null} if there is no such execution
+   */
+  TestExecutionStatus executionSnapshot(String executionId) {
+    TestExecutionStatus status = getStatus(executionId);
+    if (status != null) {
+      markPushed(executionId, status);
     }
+    return status;
   }
 
-  @Scheduled(fixedDelay = 1000)
-  public void broadcastUpdates() {
-    if (emitterMap.isEmpty()) {
-      return;
+  /** Whether anyone on this instance follows the execution */
+  boolean hasSubscribers(String executionId) {
+    return sseHub.isOpen(EXECUTION_TOPIC + executionId);
+  }
+
+  /** Send the status to everyone on this instance following the execution */
+  void pushStatus(String executionId, TestExecutionStatus status) {
+    if (hasSubscribers(executionId)) {
+      markPushed(executionId, status);
+      sseHub.publish(EXECUTION_TOPIC + executionId, status);
     }
-    for (Map.Entry<String, List<SseEmitter>> entry : emitterMap.entrySet()) {
-      String executionId = entry.getKey();
-      TestExecutionStatus status = getStatus(executionId);
-      if (status == null) {
+  }
+
+  private void markPushed(String executionId, TestExecutionStatus status) {
+    lastPushed.put(executionId, System.currentTimeMillis());
+    if (status.getEndTime() != null) {
+      finishedExecutions.add(executionId);
+    } else {
+      finishedExecutions.remove(executionId);
+    }
+  }
+
+  /**
+   * Fallback for executions that announced nothing for a while. Changes made through the framework
+   * are pushed as they happen by {@link RedisSseService}, but results the listener writes straight
+   * to the database are not announced, so unfinished executions are read again at this interval.
+   * Finished executions and executions pushed recently cost nothing.
+   */
+  @Scheduled(fixedDelayString = "${atas.monitoring.sse.fallback-interval-ms:5000}")
+  public void broadcastUpdates() {
+    long staleBefore = System.currentTimeMillis() - fallbackIntervalMillis;
+    Set<String> followed = new HashSet<>();
+    for (String topic : sseHub.openTopics(EXECUTION_TOPIC)) {
+      String executionId = topic.substring(EXECUTION_TOPIC.length());
+      followed.add(executionId);
+      if (finishedExecutions.contains(executionId)
+          || lastPushed.getOrDefault(executionId, 0L) > staleBefore) {
         continue;
       }
-      for (Iterator<SseEmitter> iterator = entry.getValue().iterator(); iterator.hasNext(); ) {
-        SseEmitter emitter = iterator.next();
-        try {
-          emitter.send(status, MediaType.APPLICATION_JSON);
-        } catch (IOException e) {
-          log.warn("Removing dead SSE emitter for execution {}", executionId, e);
-          iterator.remove();
-        }
+      TestExecutionStatus status = getStatus(executionId);
+      if (status != null) {
+        pushStatus(executionId, status);
       }
     }
+    // Forget executions whose topic was closed
+    lastPushed.keySet().retainAll(followed);
+    finishedExecutions.retainAll(followed);
   }
 
   @Scheduled(fixedDelay = 2000)
   public void broadcastActiveExecutionsUpdates() {
-    if (activeExecutionsEmitters.isEmpty()) {
-      return;
-    }
-
-    List<RecentExecutionDto> activeExecutions = getActiveExecutions();
-
-    for (Iterator<SseEmitter> iterator = activeExecutionsEmitters.iterator();
-        iterator.hasNext(); ) {
-      SseEmitter emitter = iterator.next();
-      try {
-        emitter.send(activeExecutions, MediaType.APPLICATION_JSON);
-      } catch (IOException e) {
-        log.warn("Removing dead active executions SSE emitter: {}", e.getMessage());
-        iterator.remove();
-      }
+    if (sseHub.isOpen(ACTIVE_EXECUTIONS_TOPIC)) {
+      sseHub.publish(ACTIVE_EXECUTIONS_TOPIC, getActiveExecutions());
     }
   }
 
+  /**
+   * Totals over the whole history, read from the {@code dashboard_metrics} view instead of loading
+   * every execution. They are as recent as the last refresh; running tests and executions in
+   * progress are counted live.
+   */
   public DashboardOverviewDto getDashboardOverview() {
-    List<TestExecution> allExecutions = executionRepository.findAllWithResults();
-
-    long totalExecutions = allExecutions.size();
-    long totalTests = 0;
-    long passedTests = 0;
-    long failedTests = 0;
-    long skippedTests = 0;
-    long runningTests = 0;
-    long activeExecutions = 0;
-
-    LocalDateTime lastExecutionTime = null;
-    Duration totalDuration = Duration.ZERO;
-    int completedExecutions = 0;
-
-    for (TestExecution execution : allExecutions) {
-      List<TestResult> results = execution.getResults();
-      int executionResultCount = results.size();
-
-      for (TestResult result : results) {
-        switch (result.getStatus()) {
-          case PASSED -> passedTests++;
-          case FAILED -> failedTests++;
-          case SKIPPED -> skippedTests++;
-          case RUNNING -> runningTests++;
-          case ERROR -> failedTests++;
-        }
-      }
-
-      if (executionResultCount == 0 && execution.getStatus() != null) {
-        totalTests += 1;
-        switch (execution.getStatus()) {
-          case PASSED -> passedTests++;
-          case FAILED, ERROR -> failedTests++;
-          case SKIPPED -> skippedTests++;
-          case RUNNING -> runningTests++;
-        }
-      } else {
-        totalTests += executionResultCount;
-      }
-
-      if (execution.getStatus() == TestStatus.RUNNING) {
-        activeExecutions++;
-      }
+    DashboardMetrics metrics = dashboardMetricsRepository.find().orElse(null);
+    if (metrics == null) {
+      return DashboardOverviewDto.builder().averageExecutionTime("0s").build();
+    }
 
-      if (lastExecutionTime == null || execution.getStartTime().isAfter(lastExecutionTime)) {
-        lastExecutionTime = execution.getStartTime();
-      }
+    long failedTests = metrics.failedTests() + metrics.errorTests();
+    double successRate =
+        metrics.totalTests() > 0
+            ? (double) metrics.passedTests() / metrics.totalTests() * 100.0
+            : 0.0;
+    Double averageSeconds = metrics.avgExecutionDurationSeconds();
+
+    return DashboardOverviewDto.builder()
+        .totalExecutions(metrics.totalExecutions())
+        .totalTests(metrics.totalTests())
+        .passedTests(metrics.passedTests())
+        .failedTests(failedTests)
+        .skippedTests(metrics.skippedTests())
+        .runningTests(dashboardMetricsRepository.countRunningTests())
+        .successRate(successRate)
+        .activeExecutions(executionRepository.countByStatus(TestStatus.RUNNING))
+        .lastExecutionTime(
+            metrics.lastExecutionTime() != null
+                ? metrics.lastExecutionTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                : null)
+        .averageExecutionTime(
+            averageSeconds != null
+                ? formatDuration(Duration.ofSeconds(Math.round(averageSeconds)))
+                : "0s")
+        .build();
+  }
 
-      if (execution.getEndTime() != null) {
-        totalDuration =
-            totalDuration.plus(Duration.between(execution.getStartTime(), execution.getEndTime()));
-        completedExecutions++;
+  /**
+   * Recompute the dashboard totals; readers keep seeing the previous ones meanwhile. Every instance
+   * checks, but the view is skipped while another one refreshes it or did within the last interval.
+   */
+  @Scheduled(
+      fixedDelayString = "${atas.monitoring.dashboard.refresh-interval-ms:30000}",
+      initialDelayString = "${atas.monitoring.dashboard.refresh-interval-ms:30000}")
+  public void refreshDashboardMetrics() {
+    try {
+      long started = System.nanoTime();
+      if (dashboardMetricsRepository.refresh(Duration.ofMillis(dashboardRefreshMillis * 9 / 10))) {
+        log.debug(
+            "Refreshed dashboard metrics in {} ms",
+            Duration.ofNanos(System.nanoTime() - started).toMillis());
       }
+    } catch (DataAccessException e) {
+      log.warn("Could not refresh dashboard metrics: {}", e.getMessage());
     }
-
-    double successRate = totalTests > 0 ? (double) passedTests / totalTests * 100.0 : 0.0;
-    String averageExecutionTime =
-        completedExecutions > 0
-            ? formatDuration(totalDuration.dividedBy(completedExecutions))
-            : "0s";
-
-    DashboardOverviewDto dto =
-        DashboardOverviewDto.builder()
-            .totalExecutions(totalExecutions)
-            .totalTests(totalTests)
-            .passedTests(passedTests)
-            .failedTests(failedTests)
-            .skippedTests(skippedTests)
-            .runningTests(runningTests)
-            .successRate(successRate)
-            .activeExecutions(activeExecutions)
-            .lastExecutionTime(
-                lastExecutionTime != null
-                    ? lastExecutionTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-                    : null)
-            .averageExecutionTime(averageExecutionTime)
-            .build();
-
-    return dto;
   }
 
+  /**
+   * The most recently started executions with their result counts. Reads {@code limit} executions
+   * and one grouped count of their results, however many executions exist.
+   */
   public List<RecentExecutionDto> getRecentExecutions(int limit) {
-    List<TestExecution> recentExecutions =
-        executionRepository.findAllWithResults().stream()
-            .sorted((a, b) -> b.getStartTime().compareTo(a.getStartTime()))
-            .limit(limit)
-            .collect(Collectors.toList());
-
-    return recentExecutions.stream()
-        .map(
-            execution -> {
-              List<TestResult> results = execution.getResults();
-              int total = results.size();
-              int passed =
-                  (int) results.stream().filter(r -> r.getStatus() == TestStatus.PASSED).count();
-              int failed =
-                  (int)
-                      results.stream()
-                          .filter(
-                              r ->
-                                  r.getStatus() == TestStatus.FAILED
-                                      || r.getStatus() == TestStatus.ERROR)
-                          .count();
-              int skipped =
-                  (int) results.stream().filter(r -> r.getStatus() == TestStatus.SKIPPED).count();
-
-              if (total == 0 && execution.getStatus() != null) {
-                total = 1;
-                switch (execution.getStatus()) {
-                  case PASSED -> passed = 1;
-                  case FAILED, ERROR -> failed = 1;
-                  case SKIPPED -> skipped = 1;
-                  case RUNNING -> {}
-                }
-              }
-
-              double progress = TestExecutionStatus.computeProgress(total, passed, failed, skipped);
-
-              Duration duration;
-              if (execution.getEndTime() != null) {
-                duration = Duration.between(execution.getStartTime(), execution.getEndTime());
-              } else {
-                duration = Duration.between(execution.getStartTime(), LocalDateTime.now());
-              }
-
-              return RecentExecutionDto.builder()
-                  .executionId(execution.getExecutionId())
-                  .suiteName(
-                      execution.getSuiteName() != null ? execution.getSuiteName() : "Unknown Suite")
-                  .environment(
-                      execution.getEnvironment() != null ? execution.getEnvironment() : "N/A")
-                  .status(execution.getStatus().name())
-                  .startTime(execution.getStartTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
-                  .endTime(
-                      execution.getEndTime() != null
-                          ? execution.getEndTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-                          : null)
-                  .totalTests(total)
-                  .passedTests(passed)
-                  .failedTests(failed)
-                  .skippedTests(skipped)
-                  .progress(progress)
-                  .duration(formatDuration(duration))
-                  .build();
-            })
-        .collect(Collectors.toList());
+    return toRecentExecutionDtos(executionRepository.findRecentSummaries(Limit.of(limit)), true);
   }
 
+  /** Running and queued executions with their result counts, newest first */
   public List<RecentExecutionDto> getActiveExecutions() {
-    List<TestExecution> activeExecutions =
-        executionRepository.findAllWithResults().stream()
-            .filter(exec -> exec.getStatus() == TestStatus.RUNNING)
-            .sorted((a, b) -> b.getStartTime().compareTo(a.getStartTime()))
-            .collect(Collectors.toList());
-
-    return activeExecutions.stream()
-        .map(
-            execution -> {
-              List<TestResult> results = execution.getResults();
-              int total = results.size();
-              int passed =
-                  (int) results.stream().filter(r -> r.getStatus() == TestStatus.PASSED).count();
-              int failed =
-                  (int)
-                      results.stream()
-                          .filter(
-                              r ->
-                                  r.getStatus() == TestStatus.FAILED
-                                      || r.getStatus() == TestStatus.ERROR)
-                          .count();
-              int skipped =
-                  (int) results.stream().filter(r -> r.getStatus() == TestStatus.SKIPPED).count();
-
-              double progress = TestExecutionStatus.computeProgress(total, passed, failed, skipped);
-
-              Duration duration = Duration.between(execution.getStartTime(), LocalDateTime.now());
-
-              return RecentExecutionDto.builder()
-                  .executionId(execution.getExecutionId())
-                  .suiteName(
-                      execution.getSuiteName() != null ? execution.getSuiteName() : "Unknown Suite")
-                  .environment(
-                      execution.getEnvironment() != null ? execution.getEnvironment() : "N/A")
-                  .status(execution.getStatus().name())
-                  .startTime(execution.getStartTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
-                  .endTime(null)
-                  .totalTests(total)
-                  .passedTests(passed)
-                  .failedTests(failed)
-                  .skippedTests(skipped)
-                  .progress(progress)
-                  .duration(formatDuration(duration))
-                  .build();
-            })
-        .collect(Collectors.toList());
+    return toRecentExecutionDtos(
+        executionRepository.findSummariesByStatusIn(
+            EnumSet.of(TestStatus.RUNNING, TestStatus.QUEUED)),
+        false);
   }
 
-  public SseEmitter registerActiveExecutionsEmitter() {
-    SseEmitter emitter = new SseEmitter(0L);
-    emitter.onCompletion(() -> activeExecutionsEmitters.remove(emitter));
-    emitter.onTimeout(() -> activeExecutionsEmitters.remove(emitter));
-    emitter.onError(
-        (ex) -> {
-          activeExecutionsEmitters.remove(emitter);
-          log.warn("Active executions emitter error, removing emitter", ex);
-        });
-
-    activeExecutionsEmitters.add(emitter);
-
-    // Send initial data immediately when client connects
-    try {
-      List<RecentExecutionDto> activeExecutions = getActiveExecutions();
-      emitter.send(activeExecutions, MediaType.APPLICATION_JSON);
-    } catch (IOException e) {
-      log.error("Failed to send initial active executions data", e);
-      activeExecutionsEmitters.remove(emitter);
-      try {
-        emitter.completeWithError(e);
-      } catch (Exception ignored) {
-        // Ignore if already completed
+  /**
+   * @param countWithoutResults whether an execution without results counts as one test with the
+   *     execution's status
+   */
+  private List<RecentExecutionDto> toRecentExecutionDtos(
+      List<ExecutionSummaryView> executions, boolean countWithoutResults) {
+    if (executions.isEmpty()) {
+      return new ArrayList<>();
+    }
+    Map<Long, ResultCountsView> counts =
+        resultRepository
+            .countByExecutionIds(executions.stream().map(ExecutionSummaryView::getId).toList())
+            .stream()
+            .collect(Collectors.toMap(ResultCountsView::getExecutionId, c -> c));
+
+    List<RecentExecutionDto> dtos = new ArrayList<>(executions.size());
+    for (ExecutionSummaryView execution : executions) {
+      ResultCountsView count = counts.get(execution.getId());
+      int total = count != null ? (int) count.getTotal() : 0;
+      int passed = count != null ? (int) count.getPassed() : 0;
+      int failed = count != null ? (int) count.getFailed() : 0;
+      int skipped = count != null ? (int) count.getSkipped() : 0;
+
+      if (countWithoutResults && total == 0 && execution.getStatus() != null) {
+        total = 1;
+        switch (execution.getStatus()) {
+          case PASSED -> passed = 1;
+          case FAILED, ERROR -> failed = 1;
+          case SKIPPED -> skipped = 1;
+          default -> {}
+        }
       }
+
+      double progress = TestExecutionStatus.computeProgress(total, passed, failed, skipped);
+      LocalDateTime endTime = countWithoutResults ? execution.getEndTime() : null;
+      Duration duration =
+          Duration.between(
+              execution.getStartTime(), endTime != null ? endTime : LocalDateTime.now());
+
+      dtos.add(
+          RecentExecutionDto.builder()
+              .executionId(execution.getExecutionId())
+              .suiteName(
+                  execution.getSuiteName() != null ? execution.getSuiteName() : "Unknown Suite")
+              .environment(execution.getEnvironment() != null ? execution.getEnvironment() : "N/A")
+              .status(execution.getStatus().name())
+              .startTime(execution.getStartTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+              .endTime(
+                  endTime != null ? endTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null)
+              .totalTests(total)
+              .passedTests(passed)
+              .failedTests(failed)
+              .skippedTests(skipped)
+              .progress(progress)
+              .duration(formatDuration(duration))
+              .build());
     }
+    return dtos;
+  }
 
-    return emitter;
+  /**
+   * Subscribe to the list of active executions.
+   *
+   * @param lastEventId the {@code Last-Event-ID} of a reconnecting client, or {@code null}
+   */
+  public SseEmitter registerActiveExecutionsEmitter(String lastEventId) {
+    return sseHub.subscribe(ACTIVE_EXECUTIONS_TOPIC, lastEventId, this::getActiveExecutions);
   }
 
   public ExecutionTrendsDto getExecutionTrends(int days) {
-    LocalDateTime endDate = LocalDateTime.now();
-    LocalDateTime startDate = endDate.minusDays(days - 1);
+    return getExecutionTrends(days, null, null);
+  }
 
-    List<TestExecution> executions =
-        executionRepository.findAllWithResults().stream()
-            .filter(
-                exec ->
-                    exec.getStartTime().isAfter(startDate.minusDays(1))
-                        && exec.getStartTime().isBefore(endDate.plusDays(1)))
-            .collect(Collectors.toList());
+  /**
+   * Passed, failed and skipped tests per day over the last {@code days} days, read from the daily
+   * rollup so the cost depends on the number of days rather than on the history.
+   *
+   * @param suiteName suite to restrict to, or {@code null} for all
+   * @param environment environment to restrict to, or {@code null} for all
+   */
+  public ExecutionTrendsDto getExecutionTrends(int days, String suiteName, String environment) {
+    LocalDate endDate = LocalDate.now();
+    LocalDate startDate = endDate.minusDays(days - 1);
 
-    Map<String, List<TestExecution>> executionsByDate =
-        executions.stream()
-            .collect(Collectors.groupingBy(exec -> exec.getStartTime().toLocalDate().toString()));
+    Map<LocalDate, DailyTotals> totalsByDate =
+        dailyStatsRepository.findDailyTotals(startDate, endDate, suiteName, environment).stream()
+            .collect(Collectors.toMap(DailyTotals::date, t -> t));
 
     List<String> labels = new ArrayList<>();
     List<Integer> passedData = new ArrayList<>();
@@ -403,44 +367,13 @@ public class TestMonitoringService {
     List<Integer> skippedData = new ArrayList<>();
 
     for (int i = days - 1; i >= 0; i--) {
-      LocalDateTime date = endDate.minusDays(i);
-      String dateStr = date.toLocalDate().toString();
-      String label =
-          date.toLocalDate().format(java.time.format.DateTimeFormatter.ofPattern("MMM d"));
-
-      labels.add(label);
-
-      List<TestExecution> dayExecutions =
-          executionsByDate.getOrDefault(dateStr, Collections.emptyList());
-
-      int passed = 0;
-      int failed = 0;
-      int skipped = 0;
-
-      for (TestExecution execution : dayExecutions) {
-        List<TestResult> results = execution.getResults();
-        if (results.isEmpty() && execution.getStatus() != null) {
-          switch (execution.getStatus()) {
-            case PASSED -> passed++;
-            case FAILED, ERROR -> failed++;
-            case SKIPPED -> skipped++;
-            case RUNNING -> {}
-          }
-        } else {
-          for (TestResult result : results) {
-            switch (result.getStatus()) {
-              case PASSED -> passed++;
-              case FAILED, ERROR -> failed++;
-              case SKIPPED -> skipped++;
-              case RUNNING -> {}
-            }
-          }
-        }
-      }
+      LocalDate date = endDate.minusDays(i);
+      labels.add(date.format(DateTimeFormatter.ofPattern("MMM d")));
 
-      passedData.add(passed);
-      failedData.add(failed);
-      skippedData.add(skipped);
+      DailyTotals totals = totalsByDate.get(date);
+      passedData.add(totals != null ? (int) totals.passed() : 0);
+      failedData.add(totals != null ? (int) totals.failed() : 0);
+      skippedData.add(totals != null ? (int) totals.skipped() : 0);
     }
 
     return ExecutionTrendsDto.builder()
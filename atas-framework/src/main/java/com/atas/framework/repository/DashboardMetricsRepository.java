@@ -0,0 +1,154 @@
+package com.atas.framework.repository;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads the {@code dashboard_metrics} materialized view, a single row of totals over every
+ * execution and result, so the dashboard overview costs the same however long the history is. The
+ * view is refreshed periodically with {@link #refresh(Duration)}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DashboardMetricsRepository {
+
+  /** Key of the advisory lock held while refreshing, so only one instance refreshes at a time */
+  static final long REFRESH_LOCK = 0x6174617364617368L;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private volatile Boolean materialized;
+
+  /**
+   * Totals as of the last refresh.
+   *
+   * @return the totals, or empty if the view has not been populated
+   */
+  public Optional<DashboardMetrics> find() {
+    List<DashboardMetrics> rows =
+        jdbcTemplate.query(
+            "SELECT total_executions, total_tests, passed_tests, failed_tests, error_tests,"
+                + " skipped_tests, running_tests, active_executions, last_execution_time,"
+                + " avg_execution_duration_seconds, refreshed_at FROM dashboard_metrics",
+            (rs, rowNum) ->
+                new DashboardMetrics(
+                    rs.getLong("total_executions"),
+                    rs.getLong("total_tests"),
+                    rs.getLong("passed_tests"),
+                    rs.getLong("failed_tests"),
+                    rs.getLong("error_tests"),
+                    rs.getLong("skipped_tests"),
+                    rs.getLong("running_tests"),
+                    rs.getLong("active_executions"),
+                    toLocalDateTime(rs.getTimestamp("last_execution_time")),
+                    rs.getObject("avg_execution_duration_seconds") != null
+                        ? rs.getDouble("avg_execution_duration_seconds")
+                        : null,
+                    toLocalDateTime(rs.getTimestamp("refreshed_at"))));
+    return rows.stream().findFirst();
+  }
+
+  /**
+   * Tests currently running, counted live rather than as of the last refresh: RUNNING results and
+   * running executions without results, like the view counts them. Both are read through indexes.
+   */
+  public long countRunningTests() {
+    Long running =
+        jdbcTemplate.queryForObject(
+            "SELECT (SELECT COUNT(*) FROM test_results WHERE status = 'RUNNING')"
+                + " + (SELECT COUNT(*) FROM test_executions e WHERE e.status = 'RUNNING'"
+                + " AND NOT EXISTS (SELECT 1 FROM test_results r WHERE r.execution_id = e.id))",
+            Long.class);
+    return running != null ? running : 0;
+  }
+
+  /**
+   * Recompute the view without blocking readers, unless another instance is refreshing it or did
+   * within {@code minAge}. Instances take turns through a PostgreSQL advisory lock, so however many
+   * of them run, the view is refreshed about once per {@code minAge}. Does nothing on databases
+   * where it is a plain view.
+   *
+   * @return whether the view was refreshed
+   */
+  public boolean refresh(Duration minAge) {
+    if (!isMaterialized()) {
+      return false;
+    }
+    Boolean refreshed =
+        jdbcTemplate.execute(
+            (ConnectionCallback<Boolean>)
+                conn -> {
+                  if (!queryBoolean(conn, "SELECT pg_try_advisory_lock(" + REFRESH_LOCK + ")")) {
+                    return false;
+                  }
+                  try {
+                    if (queryBoolean(
+                        conn,
+                        "SELECT refreshed_at > NOW() - INTERVAL '"
+                            + minAge.toMillis()
+                            + " milliseconds' FROM dashboard_metrics")) {
+                      return false;
+                    }
+                    try (Statement statement = conn.createStatement()) {
+                      statement.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY dashboard_metrics");
+                    }
+                    return true;
+                  } finally {
+                    queryBoolean(conn, "SELECT pg_advisory_unlock(" + REFRESH_LOCK + ")");
+                  }
+                });
+    return Boolean.TRUE.equals(refreshed);
+  }
+
+  /** The first column of the first row, or {@code false} if there is none */
+  private static boolean queryBoolean(Connection conn, String sql) throws SQLException {
+    try (Statement statement = conn.createStatement();
+        ResultSet rs = statement.executeQuery(sql)) {
+      return rs.next() && rs.getBoolean(1);
+    }
+  }
+
+  private boolean isMaterialized() {
+    Boolean cached = materialized;
+    if (cached == null) {
+      cached =
+          jdbcTemplate.execute(
+              (ConnectionCallback<Boolean>)
+                  conn -> "PostgreSQL".equals(conn.getMetaData().getDatabaseProductName()));
+      materialized = cached;
+    }
+    return cached;
+  }
+
+  private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+    return timestamp != null ? timestamp.toLocalDateTime() : null;
+  }
+
+  /**
+   * One row of the view. ERROR results are counted apart from FAILED ones; an execution without
+   * results counts as one test with the execution's status.
+   */
+  public record DashboardMetrics(
+      long totalExecutions,
+      long totalTests,
+      long passedTests,
+      long failedTests,
+      long errorTests,
+      long skippedTests,
+      long runningTests,
+      long activeExecutions,
+      LocalDateTime lastExecutionTime,
+      Double avgExecutionDurationSeconds,
+      LocalDateTime refreshedAt) {}
+}
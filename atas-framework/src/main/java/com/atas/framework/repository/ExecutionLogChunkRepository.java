@@ -0,0 +1,47 @@
+package com.atas.framework.repository;
+
+import com.atas.framework.model.ExecutionLogChunk;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Repository for the incrementally persisted {@link ExecutionLogChunk} output of executions. */
+@Repository
+public interface ExecutionLogChunkRepository extends JpaRepository<ExecutionLogChunk, Long> {
+
+  /**
+   * Chunks containing bytes at or after the given offset, in log order.
+   *
+   * @param executionId the execution ID
+   * @param offset log offset to read from
+   * @param pageable limits the number of chunks returned
+   * @return matching chunks ordered by chunk index
+   */
+  List<ExecutionLogChunk> findByExecutionIdAndEndOffsetGreaterThanOrderByChunkIndexAsc(
+      String executionId, long offset, Pageable pageable);
+
+  /**
+   * Chunks containing lines at or after the given line number, in log order.
+   *
+   * @param executionId the execution ID
+   * @param line number of the first line wanted
+   * @param pageable limits the number of chunks returned
+   * @return matching chunks ordered by chunk index
+   */
+  List<ExecutionLogChunk> findByExecutionIdAndEndLineGreaterThanOrderByChunkIndexAsc(
+      String executionId, long line, Pageable pageable);
+
+  /** Whether the log has lines at or after the given line number */
+  boolean existsByExecutionIdAndEndLineGreaterThan(String executionId, long line);
+
+  /** Remove the log of an execution, e.g. before it is run again on another replica */
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM ExecutionLogChunk c WHERE c.executionId = :executionId")
+  int deleteByExecutionId(@Param("executionId") String executionId);
+}
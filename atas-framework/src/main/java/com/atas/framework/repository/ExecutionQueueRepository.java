@@ -0,0 +1,79 @@
+package com.atas.framework.repository;
+
+import com.atas.framework.model.ExecutionQueueEntry;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/** Repository for the {@link ExecutionQueueEntry} work queue shared by all replicas. */
+@Repository
+public interface ExecutionQueueRepository extends JpaRepository<ExecutionQueueEntry, Long> {
+
+  /**
+   * Lock the next claimable entries: pending ones and those whose lease expired. Entries are
+   * ordered by priority, then fair share (share keys with the fewest live leases first), then age.
+   * Rows locked by other replicas are skipped, so concurrent claims never block or return the same
+   * entry. Must be called inside a transaction that updates the returned entries.
+   *
+   * @param now current time, compared with the lease expiry
+   * @param limit maximum number of entries to claim
+   * @return locked entries in claim order
+   */
+  @Query(
+      value =
+          "SELECT * FROM execution_queue q"
+              + " WHERE q.status = 'PENDING' OR (q.status = 'LEASED' AND q.lease_expires_at < :now)"
+              + " ORDER BY q.priority,"
+              + " (SELECT COUNT(*) FROM execution_queue l WHERE l.status = 'LEASED'"
+              + " AND l.share_key = q.share_key AND l.lease_expires_at >= :now),"
+              + " q.enqueued_at"
+              + " LIMIT :limit FOR UPDATE SKIP LOCKED",
+      nativeQuery = true)
+  List<ExecutionQueueEntry> lockClaimable(
+      @Param("now") LocalDateTime now, @Param("limit") int limit);
+
+  /**
+   * Extend the leases held by a replica.
+   *
+   * @return number of leases that were still held by the replica
+   */
+  @Modifying
+  @Query(
+      "UPDATE ExecutionQueueEntry e SET e.leaseExpiresAt = :expiresAt"
+          + " WHERE e.executionId IN :executionIds AND e.owner = :owner")
+  int renewLeases(
+      @Param("executionIds") Collection<String> executionIds,
+      @Param("owner") String owner,
+      @Param("expiresAt") LocalDateTime expiresAt);
+
+  /** Remove an entry once the execution finished on the replica holding it */
+  @Modifying
+  @Query(
+      "DELETE FROM ExecutionQueueEntry e WHERE e.executionId = :executionId AND e.owner = :owner")
+  int deleteByExecutionIdAndOwner(
+      @Param("executionId") String executionId, @Param("owner") String owner);
+
+  Optional<ExecutionQueueEntry> findByExecutionId(String executionId);
+
+  /** Number of entries not yet claimed */
+  long countByStatus(ExecutionQueueEntry.Status status);
+
+  /**
+   * Number of pending entries that will be claimed before the given one, ignoring fair share.
+   *
+   * @return entries of a higher priority, or of the same priority enqueued earlier
+   */
+  @Query(
+      "SELECT COUNT(e) FROM ExecutionQueueEntry e, ExecutionQueueEntry self"
+          + " WHERE self.executionId = :executionId AND e.status = :status"
+          + " AND (e.priority < self.priority"
+          + " OR (e.priority = self.priority AND e.enqueuedAt < self.enqueuedAt))")
+  long countAhead(
+      @Param("executionId") String executionId, @Param("status") ExecutionQueueEntry.Status status);
+}
@@ -0,0 +1,206 @@
+package com.atas.framework.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintains the {@code test_daily_stats} rollup: per start date, environment and suite, the number
+ * of executions and their passed, failed and skipped tests. Rows are recomputed from the executions
+ * and results of their group rather than adjusted by deltas, so refreshing a group is idempotent
+ * and the rollup never drifts. As in the dashboard, ERROR results count as failed and an execution
+ * without results counts as one test with the execution's status.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TestDailyStatsRepository {
+
+  private static final String COLUMNS =
+      "stat_date, environment, suite_name, executions, finished_executions, passed, failed,"
+          + " skipped, duration_seconds, test_duration_seconds, updated_at";
+
+  /** Rollup rows of the executions matching the placeholder condition on {@code e} */
+  private static final String AGGREGATE =
+      "SELECT CAST(x.start_time AS DATE), COALESCE(x.environment, ''),"
+          + " COALESCE(x.suite_name, ''), COUNT(*), COUNT(x.end_time),"
+          + " SUM(CASE WHEN x.total > 0 THEN x.passed WHEN x.status = 'PASSED' THEN 1 ELSE 0 END),"
+          + " SUM(CASE WHEN x.total > 0 THEN x.failed"
+          + " WHEN x.status IN ('FAILED', 'ERROR') THEN 1 ELSE 0 END),"
+          + " SUM(CASE WHEN x.total > 0 THEN x.skipped WHEN x.status = 'SKIPPED' THEN 1 ELSE 0 END),"
+          + " COALESCE(SUM(EXTRACT(EPOCH FROM (x.end_time - x.start_time))), 0),"
+          + " COALESCE(SUM(x.test_seconds), 0), CURRENT_TIMESTAMP"
+          + " FROM (SELECT e.id, e.start_time, e.end_time, e.environment, e.suite_name, e.status,"
+          + " COUNT(r.id) AS total,"
+          + " COUNT(CASE WHEN r.status = 'PASSED' THEN 1 END) AS passed,"
+          + " COUNT(CASE WHEN r.status IN ('FAILED', 'ERROR') THEN 1 END) AS failed,"
+          + " COUNT(CASE WHEN r.status = 'SKIPPED' THEN 1 END) AS skipped,"
+          + " SUM(EXTRACT(EPOCH FROM (r.end_time - r.start_time))) AS test_seconds"
+          + " FROM test_executions e LEFT JOIN test_results r ON r.execution_id = e.id"
+          + " WHERE e.start_time IS NOT NULL AND %s"
+          + " GROUP BY e.id, e.start_time, e.end_time, e.environment, e.suite_name, e.status) x"
+          + " GROUP BY CAST(x.start_time AS DATE), COALESCE(x.environment, ''),"
+          + " COALESCE(x.suite_name, '')";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private volatile Boolean postgres;
+
+  /**
+   * Recompute the group the execution belongs to, after it reported results or changed status.
+   *
+   * @param executionId the external identifier
+   * @return whether the execution exists
+   */
+  @Transactional
+  public boolean refreshExecution(String executionId) {
+    List<Group> groups =
+        jdbcTemplate.query(
+            "SELECT start_time, environment, suite_name FROM test_executions"
+                + " WHERE execution_id = ? AND start_time IS NOT NULL",
+            (rs, rowNum) ->
+                new Group(
+                    rs.getObject("start_time", LocalDateTime.class).toLocalDate(),
+                    Objects.toString(rs.getString("environment"), ""),
+                    Objects.toString(rs.getString("suite_name"), "")),
+            executionId);
+    if (groups.isEmpty()) {
+      return false;
+    }
+    Group group = groups.get(0);
+
+    int written =
+        upsert(
+            "e.start_time >= ? AND e.start_time < ?"
+                + " AND COALESCE(e.environment, '') = ? AND COALESCE(e.suite_name, '') = ?",
+            group.day().atStartOfDay(),
+            group.day().plusDays(1).atStartOfDay(),
+            group.environment(),
+            group.suiteName());
+    if (written == 0) {
+      jdbcTemplate.update(
+          "DELETE FROM test_daily_stats WHERE stat_date = ? AND environment = ? AND suite_name = ?",
+          group.day(),
+          group.environment(),
+          group.suiteName());
+    }
+    return true;
+  }
+
+  /**
+   * Recompute every group from the given date on, dropping groups whose executions are gone.
+   *
+   * @param from first date to recompute, or {@code null} to rebuild the whole rollup
+   * @return number of rollup rows written
+   */
+  @Transactional
+  public int refreshSince(LocalDate from) {
+    if (from == null) {
+      jdbcTemplate.update("DELETE FROM test_daily_stats");
+      return upsert("1 = 1");
+    }
+    jdbcTemplate.update("DELETE FROM test_daily_stats WHERE stat_date >= ?", from);
+    return upsert("e.start_time >= ?", from.atStartOfDay());
+  }
+
+  /** Whether the rollup has no rows, e.g. right after the table was created */
+  public boolean isEmpty() {
+    return jdbcTemplate
+        .queryForList("SELECT stat_date FROM test_daily_stats LIMIT 1", LocalDate.class)
+        .isEmpty();
+  }
+
+  /**
+   * Totals per day over every environment and suite, or only the given ones.
+   *
+   * @param from first day, inclusive
+   * @param to last day, inclusive
+   * @param suiteName suite to restrict to, or {@code null} for all
+   * @param environment environment to restrict to, or {@code null} for all
+   * @return one row per day that has executions, in date order
+   */
+  public List<DailyTotals> findDailyTotals(
+      LocalDate from, LocalDate to, String suiteName, String environment) {
+    StringBuilder sql =
+        new StringBuilder(
+            "SELECT stat_date, SUM(executions) AS executions,"
+                + " SUM(finished_executions) AS finished_executions, SUM(passed) AS passed,"
+                + " SUM(failed) AS failed, SUM(skipped) AS skipped,"
+                + " SUM(duration_seconds) AS duration_seconds"
+                + " FROM test_daily_stats WHERE stat_date >= ? AND stat_date <= ?");
+    List<Object> args = new ArrayList<>(List.of(from, to));
+    if (suiteName != null) {
+      sql.append(" AND suite_name = ?");
+      args.add(suiteName);
+    }
+    if (environment != null) {
+      sql.append(" AND environment = ?");
+      args.add(environment);
+    }
+    sql.append(" GROUP BY stat_date ORDER BY stat_date");
+    return jdbcTemplate.query(
+        sql.toString(),
+        (rs, rowNum) ->
+            new DailyTotals(
+                rs.getObject("stat_date", LocalDate.class),
+                rs.getLong("executions"),
+                rs.getLong("finished_executions"),
+                rs.getLong("passed"),
+                rs.getLong("failed"),
+                rs.getLong("skipped"),
+                rs.getDouble("duration_seconds")),
+        args.toArray());
+  }
+
+  private int upsert(String condition, Object... args) {
+    String aggregate = String.format(AGGREGATE, condition);
+    String sql =
+        isPostgres()
+            ? "INSERT INTO test_daily_stats ("
+                + COLUMNS
+                + ") "
+                + aggregate
+                + " ON CONFLICT (stat_date, environment, suite_name) DO UPDATE SET"
+                + " executions = EXCLUDED.executions,"
+                + " finished_executions = EXCLUDED.finished_executions,"
+                + " passed = EXCLUDED.passed, failed = EXCLUDED.failed,"
+                + " skipped = EXCLUDED.skipped, duration_seconds = EXCLUDED.duration_seconds,"
+                + " test_duration_seconds = EXCLUDED.test_duration_seconds,"
+                + " updated_at = EXCLUDED.updated_at"
+            : "MERGE INTO test_daily_stats ("
+                + COLUMNS
+                + ") KEY (stat_date, environment, suite_name) "
+                + aggregate;
+    return jdbcTemplate.update(sql, args);
+  }
+
+  private boolean isPostgres() {
+    Boolean cached = postgres;
+    if (cached == null) {
+      cached =
+          jdbcTemplate.execute(
+              (ConnectionCallback<Boolean>)
+                  conn -> "PostgreSQL".equals(conn.getMetaData().getDatabaseProductName()));
+      postgres = cached;
+    }
+    return cached;
+  }
+
+  private record Group(LocalDate day, String environment, String suiteName) {}
+
+  /** Totals of one day */
+  public record DailyTotals(
+      LocalDate date,
+      long executions,
+      long finishedExecutions,
+      long passed,
+      long failed,
+      long skipped,
+      double durationSeconds) {}
+}
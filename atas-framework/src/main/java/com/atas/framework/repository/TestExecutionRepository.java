@@ -1,13 +1,19 @@
 package com.atas.framework.repository;
 
 import com.atas.framework.model.TestExecution;
+import com.atas.framework.model.TestStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository for managing {@link TestExecution} entities. In addition to standard CRUD operations
@@ -65,4 +71,110 @@ public interface TestExecutionRepository extends JpaRepository<TestExecution, Lo
   @Query("SELECT e FROM TestExecution e")
   org.springframework.data.domain.Page<TestExecution> findAllWithResults(
       org.springframework.data.domain.Pageable pageable);
+
+  /**
+   * Summaries of the most recently started executions, newest first, without their results. The
+   * start time index serves the order, so only {@code limit} rows are read.
+   *
+   * @param limit maximum number of executions
+   * @return execution summaries
+   */
+  @Query(
+      "SELECT e.id AS id, e.executionId AS executionId, e.suiteName AS suiteName,"
+          + " e.environment AS environment, e.status AS status, e.startTime AS startTime,"
+          + " e.endTime AS endTime FROM TestExecution e ORDER BY e.startTime DESC")
+  List<ExecutionSummaryView> findRecentSummaries(Limit limit);
+
+  /**
+   * Summaries of the executions in one of the given statuses, newest first, without their results.
+   *
+   * @param statuses statuses to include
+   * @return execution summaries
+   */
+  @Query(
+      "SELECT e.id AS id, e.executionId AS executionId, e.suiteName AS suiteName,"
+          + " e.environment AS environment, e.status AS status, e.startTime AS startTime,"
+          + " e.endTime AS endTime FROM TestExecution e WHERE e.status IN :statuses"
+          + " ORDER BY e.startTime DESC")
+  List<ExecutionSummaryView> findSummariesByStatusIn(
+      @Param("statuses") Collection<TestStatus> statuses);
+
+  /**
+   * Count executions in the given status without loading them.
+   *
+   * @param status the status
+   * @return number of executions in that status
+   */
+  long countByStatus(TestStatus status);
+
+  /**
+   * Whether the output of an execution has been fully persisted, without loading the execution.
+   *
+   * @param executionId the external identifier
+   * @return the flag, or empty if no such execution exists
+   */
+  @Query("SELECT e.outputComplete FROM TestExecution e WHERE e.executionId = :executionId")
+  Optional<Boolean> findOutputCompleteByExecutionId(@Param("executionId") String executionId);
+
+  /**
+   * Set the output-complete flag of an execution.
+   *
+   * @param executionId the external identifier
+   * @param outputComplete the new value
+   * @return number of updated executions
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      "UPDATE TestExecution e SET e.outputComplete = :outputComplete"
+          + " WHERE e.executionId = :executionId")
+  int updateOutputComplete(
+      @Param("executionId") String executionId, @Param("outputComplete") boolean outputComplete);
+
+  /**
+   * Move an execution to a new status in a single statement, provided its current status is one of
+   * the given predecessors (or not set). Leaving QUEUED for RUNNING restarts the clock so time
+   * spent waiting for a slot does not count towards the duration; terminal statuses stamp the end
+   * time.
+   *
+   * @param executionId the external identifier
+   * @param status the new status
+   * @param from statuses the execution may currently be in for the transition to apply
+   * @param terminal whether the new status ends the execution
+   * @param now timestamp used for the start or end time
+   * @return 1 if the transition was applied, 0 if the execution does not exist or its current
+   *     status takes precedence
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      "UPDATE TestExecution e SET e.status = :status,"
+          + " e.startTime = CASE WHEN e.status = com.atas.framework.model.TestStatus.QUEUED"
+          + " AND :status = com.atas.framework.model.TestStatus.RUNNING THEN :now"
+          + " ELSE e.startTime END,"
+          + " e.endTime = CASE WHEN :terminal = true THEN :now ELSE e.endTime END"
+          + " WHERE e.executionId = :executionId AND (e.status IS NULL OR e.status IN :from)")
+  int transitionStatus(
+      @Param("executionId") String executionId,
+      @Param("status") TestStatus status,
+      @Param("from") Collection<TestStatus> from,
+      @Param("terminal") boolean terminal,
+      @Param("now") LocalDateTime now);
+
+  /** Projection of {@link #findRecentSummaries} and {@link #findSummariesByStatusIn} */
+  interface ExecutionSummaryView {
+    Long getId();
+
+    String getExecutionId();
+
+    String getSuiteName();
+
+    String getEnvironment();
+
+    TestStatus getStatus();
+
+    LocalDateTime getStartTime();
+
+    LocalDateTime getEndTime();
+  }
 }
@@ -1,13 +1,20 @@
 package com.atas.framework.repository;
 
 import com.atas.framework.model.TestResult;
+import com.atas.framework.model.TestStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository for managing {@link TestResult} entities. This repository includes methods for
@@ -24,6 +31,16 @@ public interface TestResultRepository extends JpaRepository<TestResult, Long> {
    */
   List<TestResult> findByExecutionId(Long executionId);
 
+  /**
+   * Find the result of one test within an execution. There is at most one, enforced by a unique
+   * constraint.
+   *
+   * @param executionId the primary key of the execution
+   * @param testId the test identifier
+   * @return the result, if recorded
+   */
+  Optional<TestResult> findByExecutionIdAndTestId(Long executionId, String testId);
+
   /**
    * Find all test results with execution relationship eagerly loaded for efficient browsing. Uses
    * EntityGraph to eagerly fetch the execution relationship to avoid N+1 queries.
@@ -34,4 +51,88 @@ public interface TestResultRepository extends JpaRepository<TestResult, Long> {
   @EntityGraph(attributePaths = {"execution"})
   @Query("SELECT r FROM TestResult r")
   Page<TestResult> findAllWithExecution(Pageable pageable);
+
+  /**
+   * Average wall clock time per test class, computed from the method results recorded since the
+   * given time. Per execution the method durations of a class are summed first, so the average
+   * reflects how long the class takes in one run.
+   *
+   * @param since only results started after this time are considered
+   * @return one row per class with its fully qualified name and average duration in seconds
+   */
+  @Query(
+      value =
+          "SELECT per_execution.class_name AS className, AVG(per_execution.seconds) AS averageSeconds"
+              + " FROM (SELECT split_part(r.test_id, '#', 1) AS class_name,"
+              + " SUM(EXTRACT(EPOCH FROM (r.end_time - r.start_time))) AS seconds"
+              + " FROM test_results r"
+              + " WHERE r.start_time >= :since AND r.end_time IS NOT NULL"
+              + " GROUP BY split_part(r.test_id, '#', 1), r.execution_id) per_execution"
+              + " GROUP BY per_execution.class_name",
+      nativeQuery = true)
+  List<ClassDurationView> findAverageClassDurationsSince(@Param("since") LocalDateTime since);
+
+  /**
+   * Result counts per status of the given executions, in one grouped query instead of loading their
+   * results. FAILED and ERROR results both count as failed. Executions without results are left
+   * out.
+   *
+   * @param executionIds primary keys of the executions
+   * @return one row per execution that has results
+   */
+  @Query(
+      "SELECT r.execution.id AS executionId, COUNT(r) AS total,"
+          + " SUM(CASE WHEN r.status = com.atas.framework.model.TestStatus.PASSED"
+          + " THEN 1 ELSE 0 END) AS passed,"
+          + " SUM(CASE WHEN r.status = com.atas.framework.model.TestStatus.FAILED"
+          + " OR r.status = com.atas.framework.model.TestStatus.ERROR THEN 1 ELSE 0 END) AS failed,"
+          + " SUM(CASE WHEN r.status = com.atas.framework.model.TestStatus.SKIPPED"
+          + " THEN 1 ELSE 0 END) AS skipped,"
+          + " SUM(CASE WHEN r.status = com.atas.framework.model.TestStatus.RUNNING"
+          + " THEN 1 ELSE 0 END) AS running"
+          + " FROM TestResult r WHERE r.execution.id IN :executionIds GROUP BY r.execution.id")
+  List<ResultCountsView> countByExecutionIds(@Param("executionIds") Collection<Long> executionIds);
+
+  /**
+   * Move the results of an execution that are in one of the given statuses to a new status in a
+   * single statement.
+   *
+   * @param executionId the external identifier of the execution
+   * @param status the new status
+   * @param from statuses that are overwritten; results in any other status are left untouched
+   * @return number of updated results
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      "UPDATE TestResult r SET r.status = :status"
+          + " WHERE r.execution.id IN"
+          + " (SELECT e.id FROM TestExecution e WHERE e.executionId = :executionId)"
+          + " AND r.status IN :from")
+  int updateStatusByExecutionId(
+      @Param("executionId") String executionId,
+      @Param("status") TestStatus status,
+      @Param("from") Collection<TestStatus> from);
+
+  /** Projection of {@link #findAverageClassDurationsSince} */
+  interface ClassDurationView {
+    String getClassName();
+
+    Double getAverageSeconds();
+  }
+
+  /** Projection of {@link #countByExecutionIds} */
+  interface ResultCountsView {
+    Long getExecutionId();
+
+    long getTotal();
+
+    long getPassed();
+
+    long getFailed();
+
+    long getSkipped();
+
+    long getRunning();
+  }
 }
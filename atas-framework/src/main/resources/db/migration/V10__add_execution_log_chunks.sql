@@ -0,0 +1,14 @@
+-- Execution output persisted incrementally while the test process runs. Each chunk holds complete
+-- lines of up to about 64 KB; offsets are byte positions in the execution's log.
+CREATE TABLE execution_log_chunks (
+    id BIGSERIAL PRIMARY KEY,
+    execution_id VARCHAR(255) NOT NULL REFERENCES test_executions(execution_id) ON DELETE CASCADE,
+    chunk_index INTEGER NOT NULL,
+    start_offset BIGINT NOT NULL,
+    end_offset BIGINT NOT NULL,
+    data BYTEA NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_execution_log_chunks UNIQUE (execution_id, chunk_index)
+);
+
+CREATE INDEX idx_execution_log_chunks_offset ON execution_log_chunks(execution_id, end_offset);
@@ -0,0 +1,45 @@
+-- Execution log chunks are stored as gzip frames with a line index, so byte and line ranges can be
+-- read by decompressing only the frames that contain them.
+ALTER TABLE execution_log_chunks
+    ADD COLUMN compressed BOOLEAN NOT NULL DEFAULT FALSE,
+    ADD COLUMN first_line BIGINT NOT NULL DEFAULT 1,
+    ADD COLUMN end_line BIGINT NOT NULL DEFAULT 1;
+
+-- Line index of chunks written before compression (they hold complete lines only)
+UPDATE execution_log_chunks c
+SET first_line = counted.end_line - counted.line_count,
+    end_line = counted.end_line
+FROM (
+    SELECT id,
+           line_count,
+           1 + SUM(line_count) OVER (PARTITION BY execution_id ORDER BY chunk_index) AS end_line
+    FROM (
+        SELECT id, execution_id, chunk_index,
+               length(convert_from(data, 'UTF8'))
+                   - length(replace(convert_from(data, 'UTF8'), E'\n', '')) AS line_count
+        FROM execution_log_chunks
+    ) lines
+) counted
+WHERE c.id = counted.id;
+
+CREATE INDEX idx_execution_log_chunks_line ON execution_log_chunks(execution_id, end_line);
+
+-- Move output captured into test_executions.stdout_output before chunked logging into a single
+-- uncompressed chunk, and clear the column so its TOAST data can be reclaimed
+INSERT INTO execution_log_chunks
+    (execution_id, chunk_index, start_offset, end_offset, data, compressed, first_line, end_line)
+SELECT e.execution_id,
+       0,
+       0,
+       octet_length(convert_to(e.stdout_output, 'UTF8')),
+       convert_to(e.stdout_output, 'UTF8'),
+       FALSE,
+       1,
+       1 + length(e.stdout_output) - length(replace(e.stdout_output, E'\n', ''))
+           + CASE WHEN right(e.stdout_output, 1) = E'\n' THEN 0 ELSE 1 END
+FROM test_executions e
+WHERE e.stdout_output IS NOT NULL
+  AND e.stdout_output <> ''
+  AND NOT EXISTS (SELECT 1 FROM execution_log_chunks c WHERE c.execution_id = e.execution_id);
+
+UPDATE test_executions SET stdout_output = NULL WHERE stdout_output IS NOT NULL;
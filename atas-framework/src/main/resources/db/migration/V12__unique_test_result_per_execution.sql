@@ -0,0 +1,11 @@
+-- One row per test and execution, so results can be written with a single idempotent upsert
+
+-- Keep the most recent row of tests that were recorded more than once
+DELETE FROM test_results older
+USING test_results newer
+WHERE older.execution_id = newer.execution_id
+  AND older.test_id = newer.test_id
+  AND older.id < newer.id;
+
+ALTER TABLE test_results
+    ADD CONSTRAINT uk_test_results_execution_test UNIQUE (execution_id, test_id);
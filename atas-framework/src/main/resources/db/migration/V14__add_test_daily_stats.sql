@@ -0,0 +1,22 @@
+-- Daily rollup behind the execution trend charts, one row per start date, environment and suite.
+-- Rows are recomputed from test_executions and test_results whenever an execution of the group
+-- reports results or finishes, so the trends endpoint reads one row per day and group.
+-- Missing environments and suites are stored as '' to keep them part of the primary key.
+
+CREATE TABLE IF NOT EXISTS test_daily_stats (
+    stat_date DATE NOT NULL,
+    environment VARCHAR(255) NOT NULL,
+    suite_name VARCHAR(255) NOT NULL,
+    executions BIGINT NOT NULL,
+    finished_executions BIGINT NOT NULL,
+    passed BIGINT NOT NULL,
+    failed BIGINT NOT NULL,
+    skipped BIGINT NOT NULL,
+    duration_seconds DOUBLE PRECISION NOT NULL,
+    test_duration_seconds DOUBLE PRECISION NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (stat_date, environment, suite_name)
+);
+
+-- Per-suite trends
+CREATE INDEX IF NOT EXISTS idx_test_daily_stats_suite_date ON test_daily_stats (suite_name, stat_date);
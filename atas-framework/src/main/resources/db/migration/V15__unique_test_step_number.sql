@@ -0,0 +1,11 @@
+-- One row per step number and result, so replayed ingest batches can upsert steps
+
+-- Keep the most recent row of steps that were recorded more than once
+DELETE FROM test_steps older
+USING test_steps newer
+WHERE older.result_id = newer.result_id
+  AND older.step_number = newer.step_number
+  AND older.id < newer.id;
+
+ALTER TABLE test_steps
+    ADD CONSTRAINT uk_test_steps_result_step UNIQUE (result_id, step_number);
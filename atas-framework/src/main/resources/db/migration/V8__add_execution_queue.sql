@@ -0,0 +1,14 @@
+-- Work queue shared by all ATAS replicas. Executions are claimed with FOR UPDATE SKIP LOCKED and
+-- held under a lease that the owning replica renews; expired leases are claimed again.
+CREATE TABLE execution_queue (
+    id BIGSERIAL PRIMARY KEY,
+    execution_id VARCHAR(255) UNIQUE NOT NULL REFERENCES test_executions(execution_id) ON DELETE CASCADE,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    owner VARCHAR(255),
+    lease_expires_at TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    enqueued_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_execution_queue_claim ON execution_queue(status, lease_expires_at, enqueued_at);
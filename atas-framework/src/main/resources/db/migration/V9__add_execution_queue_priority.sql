@@ -0,0 +1,7 @@
+-- Priority and fair-share ordering of the execution queue
+ALTER TABLE execution_queue ADD COLUMN priority INTEGER NOT NULL DEFAULT 2;
+ALTER TABLE execution_queue ADD COLUMN share_key VARCHAR(255);
+
+DROP INDEX IF EXISTS idx_execution_queue_claim;
+CREATE INDEX idx_execution_queue_claim ON execution_queue(status, priority, enqueued_at);
+CREATE INDEX idx_execution_queue_share ON execution_queue(share_key, status);
@@ -0,0 +1,136 @@
+/**
+ * Live Channel Module
+ * One WebSocket for every live topic of a page, instead of one SSE connection per topic
+ * 
+ * @module components/live-channel
+ */
+
+import { config } from '../config.js';
+import { getAuthToken } from '../core/auth.js';
+
+/**
+ * Multiplexed subscription channel. Topics are 'execution/<id>', 'active' and 'database'.
+ * Events carry either the full payload or only the fields that changed, which are merged into
+ * the last known state before handlers are called. On reconnect every topic is subscribed again
+ * with the ID of the last event received, so the server replays what was missed.
+ */
+export class LiveChannel {
+    constructor() {
+        this.socket = null;
+        this.topics = new Map();
+        this.reconnectAttempts = 0;
+        this.onUnavailable = null;
+    }
+    
+    /**
+     * Follow a topic
+     * @param {string} topic - Topic name
+     * @param {Function} onData - Called with the full state of the topic after every event
+     */
+    subscribe(topic, onData) {
+        this.topics.set(topic, { onData, lastEventId: null, state: null });
+        this.connect();
+        this.send({ type: 'subscribe', topic });
+    }
+    
+    /**
+     * Stop following a topic
+     * @param {string} topic - Topic name
+     */
+    unsubscribe(topic) {
+        this.topics.delete(topic);
+        this.send({ type: 'unsubscribe', topic });
+    }
+    
+    /**
+     * Open the socket if it is not open yet
+     */
+    connect() {
+        if (this.socket) return;
+        if (!('WebSocket' in window)) {
+            if (this.onUnavailable) this.onUnavailable();
+            return;
+        }
+        const scheme = window.location.protocol === 'https:' ? 'wss://' : 'ws://';
+        const socket = new WebSocket(scheme + window.location.host + config.api.endpoints.monitoring.live);
+        this.socket = socket;
+        
+        socket.onopen = () => {
+            this.reconnectAttempts = 0;
+            socket.send(JSON.stringify({ type: 'auth', token: getAuthToken() }));
+            this.topics.forEach((entry, topic) => {
+                const command = { type: 'subscribe', topic };
+                if (entry.lastEventId) command.lastEventId = entry.lastEventId;
+                socket.send(JSON.stringify(command));
+            });
+        };
+        
+        socket.onmessage = (event) => {
+            let message;
+            try {
+                message = JSON.parse(event.data);
+            } catch (e) {
+                console.warn('Live channel parse error', e);
+                return;
+            }
+            if (message.type === 'error') {
+                console.warn('Live channel error:', message.topic || '', message.message);
+                return;
+            }
+            const entry = this.topics.get(message.topic);
+            if (!entry) return;
+            entry.lastEventId = String(message.id);
+            if ('delta' in message && entry.state && typeof entry.state === 'object') {
+                entry.state = { ...entry.state, ...message.delta };
+                Object.keys(message.delta).forEach(key => {
+                    if (message.delta[key] === null) delete entry.state[key];
+                });
+            } else {
+                entry.state = message.data;
+            }
+            entry.onData(entry.state);
+        };
+        
+        socket.onclose = (event) => {
+            this.socket = null;
+            // Closed for bad credentials: retrying will not help
+            if (event.code === 1008) {
+                if (this.onUnavailable) this.onUnavailable();
+                return;
+            }
+            if (this.topics.size === 0) return;
+            const backoff = config.polling.exponentialBackoff;
+            const delay = Math.min(
+                backoff.initialDelay * Math.pow(backoff.multiplier, this.reconnectAttempts),
+                backoff.maxDelay
+            );
+            this.reconnectAttempts++;
+            if (this.reconnectAttempts > 3 && this.onUnavailable) {
+                this.onUnavailable();
+                return;
+            }
+            setTimeout(() => this.connect(), delay);
+        };
+    }
+    
+    /**
+     * Send a command if the socket is open; otherwise it is sent on open
+     * @param {Object} command - Command to send
+     */
+    send(command) {
+        if (this.socket && this.socket.readyState === WebSocket.OPEN) {
+            this.socket.send(JSON.stringify(command));
+        }
+    }
+    
+    /**
+     * Close the socket and forget every topic
+     */
+    close() {
+        this.topics.clear();
+        if (this.socket) this.socket.close();
+        this.socket = null;
+    }
+}
+
+export const liveChannel = new LiveChannel();
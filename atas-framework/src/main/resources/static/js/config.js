@@ -18,6 +18,9 @@ export const config = {
                 dashboardRecent: '/api/v1/test-execution/dashboard/recent',
                 trends: '/api/v1/test-execution/dashboard/trends'
             },
+            monitoring: {
+                live: '/api/v1/monitoring/ws'
+            },
             database: {
                 health: '/api/v1/database/health',
                 operations: '/api/v1/database/operations',
@@ -0,0 +1,78 @@
+package com.atas.framework.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class GzipRequestFilterTest {
+
+  private final GzipRequestFilter filter = new GzipRequestFilter();
+
+  @Test
+  void shouldDecompressResultBatches() throws Exception {
+    // Given
+    MockHttpServletRequest request = gzipRequest("/api/v1/internal/ingest/results", "{\"a\":1}");
+    MockFilterChain chain = new MockFilterChain();
+
+    // When
+    filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+    // Then
+    HttpServletRequest passed = (HttpServletRequest) chain.getRequest();
+    assertThat(passed.getInputStream().readAllBytes())
+        .asString(StandardCharsets.UTF_8)
+        .isEqualTo("{\"a\":1}");
+    assertThat(passed.getContentLength()).isEqualTo(7);
+  }
+
+  @Test
+  void shouldRejectBodiesThatDecompressBeyondTheLimit() throws Exception {
+    // Given
+    ReflectionTestUtils.setField(filter, "maxBodyBytes", 1024);
+    MockHttpServletRequest request =
+        gzipRequest("/api/v1/internal/ingest/results", "0".repeat(1_000_000));
+    MockFilterChain chain = new MockFilterChain();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // When
+    filter.doFilter(request, response, chain);
+
+    // Then
+    assertThat(response.getStatus()).isEqualTo(413);
+    assertThat(chain.getRequest()).isNull();
+  }
+
+  @Test
+  void shouldLeaveOtherEndpointsAlone() throws Exception {
+    // Given
+    MockHttpServletRequest request = gzipRequest("/api/v1/auth/login", "{}");
+    MockFilterChain chain = new MockFilterChain();
+
+    // When
+    filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+    // Then
+    assertThat(chain.getRequest()).isSameAs(request);
+  }
+
+  private static MockHttpServletRequest gzipRequest(String uri, String body) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(body.getBytes(StandardCharsets.UTF_8));
+    }
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+    request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+    request.setContent(compressed.toByteArray());
+    return request;
+  }
+}
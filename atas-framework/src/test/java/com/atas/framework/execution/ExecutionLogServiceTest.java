@@ -0,0 +1,183 @@
+package com.atas.framework.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.atas.framework.config.ExecutionProperties;
+import com.atas.framework.execution.dto.ExecutionLogLines;
+import com.atas.framework.execution.dto.ExecutionLogSlice;
+import com.atas.framework.model.ExecutionLogChunk;
+import com.atas.framework.model.TestExecution;
+import com.atas.framework.model.TestStatus;
+import com.atas.framework.repository.ExecutionLogChunkRepository;
+import com.atas.framework.repository.TestExecutionRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest
+@ActiveProfiles("unit-test")
+class ExecutionLogServiceTest {
+
+  @Autowired private TestEntityManager entityManager;
+
+  @Autowired private ExecutionLogChunkRepository chunkRepository;
+
+  @Autowired private TestExecutionRepository executionRepository;
+
+  private ExecutionProperties properties;
+
+  private ExecutionLogService logService;
+
+  @BeforeEach
+  void setUp() {
+    entityManager.persist(
+        TestExecution.builder()
+            .executionId("exec-1")
+            .suiteName("suite")
+            .status(TestStatus.RUNNING)
+            .startTime(LocalDateTime.now())
+            .build());
+    entityManager.flush();
+
+    properties = new ExecutionProperties();
+    properties.getLogs().setChunkSizeBytes(16);
+    properties.getLogs().setMaxReadBytes(1024);
+    logService = new ExecutionLogService(chunkRepository, executionRepository, properties);
+  }
+
+  @Test
+  void shouldPersistCompleteLinesInChunks() {
+    // When
+    ExecutionLogService.LogWriter writer = logService.open("exec-1");
+    writer.accept("first line");
+    writer.accept("second line");
+    writer.accept("third");
+
+    // Then
+    List<ExecutionLogChunk> chunks =
+        chunkRepository.findByExecutionIdAndEndOffsetGreaterThanOrderByChunkIndexAsc(
+            "exec-1", 0, Pageable.unpaged());
+    assertThat(chunks).hasSize(1);
+    assertThat(chunks.get(0).getCompressed()).isTrue();
+    assertThat(chunks.get(0).getFirstLine()).isEqualTo(1);
+    assertThat(chunks.get(0).getEndLine()).isEqualTo(3);
+    assertThat(logService.read("exec-1", 0, 1024).orElseThrow().getContent())
+        .isEqualTo("first line\nsecond line\n");
+    assertThat(writer.size()).isEqualTo(29);
+  }
+
+  @Test
+  void shouldReadLineRangeFromCompressedFrames() {
+    // Given
+    ExecutionLogService.LogWriter writer = logService.open("exec-1");
+    for (int i = 1; i <= 5000; i++) {
+      writer.accept("Downloading from central: artifact-" + i + ".jar");
+    }
+    writer.close();
+
+    // When
+    ExecutionLogLines lines = logService.readLines("exec-1", 4000, 201).orElseThrow();
+    ExecutionLogLines end = logService.readLines("exec-1", 4990, 100).orElseThrow();
+
+    // Then
+    assertThat(lines.getLines()).hasSize(201);
+    assertThat(lines.getLines().get(0)).isEqualTo("Downloading from central: artifact-4000.jar");
+    assertThat(lines.getLines().get(200)).isEqualTo("Downloading from central: artifact-4200.jar");
+    assertThat(lines.getNextLine()).isEqualTo(4201);
+    assertThat(lines.isComplete()).isFalse();
+    assertThat(end.getLines()).hasSize(11);
+    assertThat(end.isComplete()).isTrue();
+  }
+
+  @Test
+  void shouldCompressRepetitiveOutput() {
+    // Given
+    properties.getLogs().setChunkSizeBytes(64 * 1024);
+    ExecutionLogService.LogWriter writer = logService.open("exec-1");
+    for (int i = 0; i < 20000; i++) {
+      writer.accept("[INFO] Downloading from central: https://repo.maven.apache.org/" + i % 50);
+    }
+    writer.close();
+
+    // When
+    List<ExecutionLogChunk> chunks =
+        chunkRepository.findByExecutionIdAndEndOffsetGreaterThanOrderByChunkIndexAsc(
+            "exec-1", 0, Pageable.unpaged());
+    long stored = chunks.stream().mapToLong(chunk -> chunk.getData().length).sum();
+
+    // Then
+    assertThat(writer.size()).isGreaterThan(stored * 10);
+  }
+
+  @Test
+  void shouldReadFromOffsetAcrossChunks() {
+    // Given
+    ExecutionLogService.LogWriter writer = logService.open("exec-1");
+    for (int i = 0; i < 10; i++) {
+      writer.accept("line " + i + " of output");
+    }
+    writer.flush();
+
+    // When
+    ExecutionLogSlice slice = logService.read("exec-1", 20, 1024).orElseThrow();
+
+    // Then
+    assertThat(slice.getContent()).startsWith("e 1 of output\nline 2");
+    assertThat(slice.getContent()).endsWith("line 9 of output\n");
+    assertThat(slice.getNextOffset()).isEqualTo(170);
+    assertThat(slice.isComplete()).isFalse();
+  }
+
+  @Test
+  void shouldReportCompleteOnlyAtEndOfClosedLog() {
+    // Given
+    ExecutionLogService.LogWriter writer = logService.open("exec-1");
+    writer.accept("line one");
+    writer.accept("line two");
+    writer.close();
+
+    // When
+    ExecutionLogSlice partial = logService.read("exec-1", 0, 9).orElseThrow();
+    ExecutionLogSlice rest = logService.read("exec-1", partial.getNextOffset(), 1024).orElseThrow();
+
+    // Then
+    assertThat(partial.getContent()).isEqualTo("line one\n");
+    assertThat(partial.isComplete()).isFalse();
+    assertThat(rest.getContent()).isEqualTo("line two\n");
+    assertThat(rest.isComplete()).isTrue();
+    assertThat(logService.read("unknown", 0, 1024)).isEmpty();
+  }
+
+  @Test
+  void shouldNotSplitMultiByteCharactersAtTheReadLimit() {
+    // Given
+    ExecutionLogService.LogWriter writer = logService.open("exec-1");
+    writer.accept("Größe ✓");
+    writer.accept("😀😀😀😀");
+    writer.accept("naïve café");
+    writer.close();
+
+    // When
+    ExecutionLogSlice first = logService.read("exec-1", 0, 9).orElseThrow();
+    StringBuilder output = new StringBuilder();
+    long offset = 0;
+    ExecutionLogSlice slice;
+    do {
+      slice = logService.read("exec-1", offset, 9).orElseThrow();
+      output.append(slice.getContent());
+      offset = slice.getNextOffset();
+    } while (!slice.isComplete() && output.length() < 100);
+
+    // Then
+    assertThat(first.getContent()).isEqualTo("Größe ");
+    assertThat(first.getNextOffset()).isEqualTo("Größe ".getBytes(StandardCharsets.UTF_8).length);
+    assertThat(output.toString()).isEqualTo("Größe ✓\n😀😀😀😀\nnaïve café\n");
+  }
+}
@@ -0,0 +1,132 @@
+package com.atas.framework.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.atas.framework.config.ExecutionProperties;
+import com.atas.framework.exception.ExecutionCapacityExceededException;
+import com.atas.framework.execution.dto.TestExecutionRequest.ExecutionPriority;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ExecutionSchedulerTest {
+
+  private final List<String> completed = new ArrayList<>();
+  private final List<Runnable> runningTasks = new ArrayList<>();
+  private ExecutionScheduler scheduler;
+
+  @BeforeEach
+  void setUp() {
+    ExecutionProperties properties = new ExecutionProperties();
+    properties.getScheduler().setMaxConcurrent(1);
+    properties.getScheduler().setMaxQueued(3);
+    properties.getScheduler().setDefaultRetryAfterSeconds(42);
+    scheduler = new ExecutionScheduler(properties, new ManualExecutor());
+  }
+
+  @Test
+  void shouldStartImmediatelyWhenSlotIsFree() {
+    // When
+    int position = submit("a", ExecutionPriority.P2, "team:x");
+
+    // Then
+    assertThat(position).isZero();
+    assertThat(runningTasks).hasSize(1);
+    assertThat(scheduler.freeSlots()).isZero();
+  }
+
+  @Test
+  void shouldOrderWaitingExecutionsByPriority() {
+    // Given
+    submit("running", ExecutionPriority.P2, "team:x");
+
+    // When
+    int low = submit("low", ExecutionPriority.P3, "team:y");
+    int urgent = submit("urgent", ExecutionPriority.P0, "team:y");
+
+    // Then
+    assertThat(low).isEqualTo(1);
+    assertThat(urgent).isEqualTo(1);
+    assertThat(scheduler.getQueuePosition("low")).isEqualTo(2);
+
+    finishNext();
+    finishNext();
+    assertThat(completed).containsExactly("running", "urgent");
+  }
+
+  @Test
+  void shouldPreferShareWithFewerRunningExecutions() {
+    // Given
+    submit("x1", ExecutionPriority.P2, "team:x");
+    submit("x2", ExecutionPriority.P2, "team:x");
+    submit("y1", ExecutionPriority.P2, "team:y");
+
+    // Then
+    assertThat(scheduler.getQueuePosition("y1")).isEqualTo(1);
+    assertThat(scheduler.getQueuePosition("x2")).isEqualTo(2);
+
+    finishNext();
+    finishNext();
+    assertThat(completed).containsExactly("x1", "y1");
+  }
+
+  @Test
+  void shouldRejectWhenQueueIsFull() {
+    // Given
+    submit("running", ExecutionPriority.P2, "team:x");
+    submit("w1", ExecutionPriority.P2, "team:x");
+    submit("w2", ExecutionPriority.P2, "team:x");
+    submit("w3", ExecutionPriority.P2, "team:x");
+
+    // When / Then
+    assertThatThrownBy(() -> submit("w4", ExecutionPriority.P0, "team:y"))
+        .isInstanceOf(ExecutionCapacityExceededException.class)
+        .extracting(e -> ((ExecutionCapacityExceededException) e).getRetryAfterSeconds())
+        .isEqualTo(42L);
+    assertThat(scheduler.getWaitingCount()).isEqualTo(3);
+  }
+
+  private int submit(String executionId, ExecutionPriority priority, String shareKey) {
+    return scheduler.submit(executionId, priority, shareKey, () -> completed.add(executionId));
+  }
+
+  /** Completes the oldest handed-off execution, which lets the scheduler dispatch the next one */
+  private void finishNext() {
+    runningTasks.remove(0).run();
+  }
+
+  /** Holds tasks until the test completes them, so executions stay "running" */
+  private class ManualExecutor extends AbstractExecutorService {
+    @Override
+    public void execute(Runnable command) {
+      runningTasks.add(command);
+    }
+
+    @Override
+    public void shutdown() {}
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      return List.of();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return false;
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return false;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.atas.framework.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+@EnabledOnOs({OS.LINUX, OS.MAC})
+class ProcessSupervisorTest {
+
+  private ProcessSupervisor supervisor;
+
+  @BeforeEach
+  void setUp() {
+    supervisor =
+        new ProcessSupervisor(
+            Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("test-output-", 0).factory()));
+  }
+
+  @AfterEach
+  void tearDown() {
+    supervisor.shutdown();
+  }
+
+  @Test
+  void shouldReportExitCodeAndOutput() throws Exception {
+    // Given
+    Process process = shell("echo first; echo second; exit 3");
+    List<String> lines = new ArrayList<>();
+
+    // When
+    CompletableFuture<Void> output = supervisor.readLines(process, lines::add);
+    int exitCode = supervisor.supervise(process, 10, TimeUnit.SECONDS).get();
+    output.get(5, TimeUnit.SECONDS);
+
+    // Then
+    assertThat(exitCode).isEqualTo(3);
+    assertThat(lines).containsExactly("first", "second");
+    assertThat(supervisor.pendingTimeouts()).isZero();
+  }
+
+  @Test
+  void shouldKillProcessWhenTimeoutElapses() throws Exception {
+    // Given
+    Process process = shell("sleep 30");
+
+    // When
+    CompletableFuture<Integer> exitCode = supervisor.supervise(process, 200, TimeUnit.MILLISECONDS);
+
+    // Then
+    assertThatThrownBy(exitCode::get)
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(TimeoutException.class);
+    assertThat(process.waitFor(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  /**
+   * Supervises 500 concurrent child processes, a tenth of which run into their timeout, and reports
+   * the wall time and the platform threads used. Run with {@code mvn -pl atas-framework test
+   * -Dtest=ProcessSupervisorTest -Datas.benchmark=true}.
+   */
+  @Test
+  @EnabledIfSystemProperty(named = "atas.benchmark", matches = "true")
+  void benchmarkConcurrentProcesses() throws Exception {
+    int processes = 500;
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    threads.resetPeakThreadCount();
+    int threadsBefore = threads.getThreadCount();
+    AtomicInteger lines = new AtomicInteger();
+    List<CompletableFuture<Integer>> exitCodes = new ArrayList<>();
+    List<CompletableFuture<Void>> outputs = new ArrayList<>();
+
+    long start = System.nanoTime();
+    for (int i = 0; i < processes; i++) {
+      boolean hangs = i % 10 == 0;
+      Process process =
+          shell(
+              hangs
+                  ? "echo start; sleep 60"
+                  : "for n in 1 2 3 4 5; do echo line $n; sleep 0.2; done; exit " + (i % 2));
+      outputs.add(supervisor.readLines(process, line -> lines.incrementAndGet()));
+      exitCodes.add(supervisor.supervise(process, hangs ? 3 : 60, TimeUnit.SECONDS));
+    }
+
+    int timedOut = 0;
+    int failed = 0;
+    for (CompletableFuture<Integer> exitCode : exitCodes) {
+      try {
+        failed += exitCode.get() != 0 ? 1 : 0;
+      } catch (ExecutionException e) {
+        assertThat(e.getCause()).isInstanceOf(TimeoutException.class);
+        timedOut++;
+      }
+    }
+    CompletableFuture.allOf(outputs.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    System.out.printf(
+        "Supervised %d processes in %d ms: %d timed out, %d non-zero exits, %d lines read, "
+            + "platform threads %d before / %d peak%n",
+        processes,
+        elapsedMillis,
+        timedOut,
+        failed,
+        lines.get(),
+        threadsBefore,
+        threads.getPeakThreadCount());
+
+    assertThat(timedOut).isEqualTo(processes / 10);
+    // Every odd-numbered process exits with 1; none of them is among the hanging ones
+    assertThat(failed).isEqualTo(processes / 2);
+    assertThat(lines.get()).isEqualTo(processes / 10 + (processes - processes / 10) * 5);
+    assertThat(supervisor.pendingTimeouts()).isZero();
+  }
+
+  private static Process shell(String script) throws Exception {
+    return new ProcessBuilder("sh", "-c", script).redirectErrorStream(true).start();
+  }
+}
@@ -0,0 +1,183 @@
+package com.atas.framework.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.atas.framework.model.TestStatus;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLTransientConnectionException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/** The writer commits on its own connections, so the test data is committed as well */
+@DataJpaTest
+@ActiveProfiles("unit-test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ResultBatchWriterTest {
+
+  @Autowired private DataSource dataSource;
+
+  @TempDir private Path spoolDirectory;
+
+  private JdbcTemplate jdbcTemplate;
+
+  private ResultBatchWriter.JdbcSink jdbcSink;
+
+  private final LocalDateTime now = LocalDateTime.now();
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.update(
+        "INSERT INTO test_executions (execution_id, suite_name, status, start_time)"
+            + " VALUES ('exec-1', 'suite', 'RUNNING', ?)",
+        now);
+    jdbcSink = new ResultBatchWriter.JdbcSink(dataSource::getConnection, "suite", "test");
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM test_results");
+    jdbcTemplate.update("DELETE FROM test_executions");
+  }
+
+  @Test
+  void shouldWriteSpooledResultsInBatches() throws Exception {
+    // Given
+    try (ResultBatchWriter writer = new ResultBatchWriter(jdbcSink, spoolDirectory, 25, 50)) {
+
+      // When
+      for (int i = 0; i < 120; i++) {
+        writer.submit(result("exec-1", "com.example.Test#test" + i, TestStatus.PASSED));
+      }
+      writer.submit(result("exec-1", "com.example.Test#test0", TestStatus.FAILED));
+      writer.flush();
+
+      // Then
+      assertThat(count()).isEqualTo(120);
+      assertThat(
+              jdbcTemplate.queryForObject(
+                  "SELECT status FROM test_results WHERE test_id = 'com.example.Test#test0'",
+                  String.class))
+          .isEqualTo("FAILED");
+      assertThat(writer.takeWritten("exec-1")).isEqualTo(121);
+    }
+    assertThat(spoolFiles()).isEmpty();
+  }
+
+  @Test
+  void shouldKeepResultsWhileTheDatabaseIsUnavailable() throws Exception {
+    // Given
+    AtomicBoolean available = new AtomicBoolean(false);
+    ResultBatchWriter.ResultSink sink =
+        batch -> {
+          if (!available.get()) {
+            throw new SQLTransientConnectionException("Connection refused");
+          }
+          jdbcSink.write(batch);
+        };
+
+    try (ResultBatchWriter writer = new ResultBatchWriter(sink, spoolDirectory, 10, 20)) {
+      // When
+      for (int i = 0; i < 30; i++) {
+        writer.submit(result("exec-1", "com.example.Test#test" + i, TestStatus.PASSED));
+      }
+      writer.flush();
+      assertThat(count()).isZero();
+
+      available.set(true);
+      awaitCount(30);
+
+      // Then
+      writer.flush();
+      assertThat(writer.takeWritten("exec-1")).isEqualTo(30);
+    }
+  }
+
+  @Test
+  void shouldReplayResultsLeftByAnEarlierRun() throws Exception {
+    // Given: a run that ends while the database is down, recording an execution unknown so far
+    ResultBatchWriter.ResultSink unavailable =
+        batch -> {
+          throw new SQLTransientConnectionException("Connection refused");
+        };
+    try (ResultBatchWriter writer = new ResultBatchWriter(unavailable, spoolDirectory, 10, 20)) {
+      for (int i = 0; i < 15; i++) {
+        writer.submit(result("exec-2", "com.example.Test#test" + i, TestStatus.PASSED));
+      }
+    }
+    assertThat(spoolFiles()).hasSize(1);
+
+    // When
+    try (ResultBatchWriter writer = new ResultBatchWriter(jdbcSink, spoolDirectory, 10, 20)) {
+      awaitCount(15);
+    }
+
+    // Then
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM test_executions WHERE execution_id = 'exec-2'",
+                Integer.class))
+        .isEqualTo(1);
+    assertThat(spoolFiles()).isEmpty();
+  }
+
+  @Test
+  void shouldSetAsideRejectedResultsOnly() throws Exception {
+    // Given
+    try (ResultBatchWriter writer = new ResultBatchWriter(jdbcSink, spoolDirectory, 10, 20)) {
+
+      // When
+      writer.submit(result("exec-1", "com.example.Test#first", TestStatus.PASSED));
+      // Longer than the column allows, which fails the whole batch
+      writer.submit(result("exec-1", "com.example.Test#" + "x".repeat(600), TestStatus.PASSED));
+      writer.submit(result("exec-1", "com.example.Test#last", TestStatus.PASSED));
+      writer.flush();
+
+      // Then
+      assertThat(count()).isEqualTo(2);
+      assertThat(writer.takeWritten("exec-1")).isEqualTo(2);
+    }
+    try (Stream<Path> files = Files.list(spoolDirectory)) {
+      assertThat(files.map(file -> file.getFileName().toString()))
+          .singleElement()
+          .satisfies(name -> assertThat(name).endsWith(".rejected"));
+    }
+  }
+
+  private ResultBatchWriter.PendingResult result(
+      String executionId, String testId, TestStatus status) {
+    return new ResultBatchWriter.PendingResult(executionId, testId, testId, status, now, now);
+  }
+
+  private int count() {
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM test_results", Integer.class);
+  }
+
+  private void awaitCount(int expected) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (count() < expected && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+    }
+    assertThat(count()).isEqualTo(expected);
+  }
+
+  private List<Path> spoolFiles() throws Exception {
+    try (Stream<Path> files = Files.list(spoolDirectory)) {
+      return files.filter(file -> file.toString().endsWith(ResultSpool.SUFFIX)).toList();
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.atas.framework.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+class ResultCompletionWatcherTest {
+
+  @Test
+  void shouldCompleteOnceEveryReporterPrintedItsMarker() {
+    // Given
+    List<String> output = new ArrayList<>();
+    ResultCompletionWatcher watcher = new ResultCompletionWatcher("exec-1", 2);
+    Consumer<String> consumer = watcher.watch(output::add);
+
+    // When
+    consumer.accept("Tests run: 3, Failures: 0");
+    consumer.accept(TestExecutionListener.RESULTS_MARKER + "exec-1 3");
+
+    // Then
+    assertThat(watcher.await(0, TimeUnit.MILLISECONDS)).isEmpty();
+
+    consumer.accept("[INFO] " + TestExecutionListener.RESULTS_MARKER + "exec-1 4");
+    assertThat(watcher.await(0, TimeUnit.MILLISECONDS)).contains(7L);
+    assertThat(output).containsExactly("Tests run: 3, Failures: 0");
+  }
+
+  @Test
+  void shouldIgnoreMarkersOfOtherExecutions() {
+    // Given
+    List<String> output = new ArrayList<>();
+    ResultCompletionWatcher watcher = new ResultCompletionWatcher("exec-1", 1);
+    Consumer<String> consumer = watcher.watch(output::add);
+
+    // When
+    consumer.accept(TestExecutionListener.RESULTS_MARKER + "exec-2 5");
+
+    // Then
+    assertThat(watcher.await(10, TimeUnit.MILLISECONDS)).isEmpty();
+    assertThat(output).hasSize(1);
+  }
+}
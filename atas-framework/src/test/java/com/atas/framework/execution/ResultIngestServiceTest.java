@@ -0,0 +1,205 @@
+package com.atas.framework.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.atas.framework.execution.dto.ResultIngestBatch;
+import com.atas.framework.execution.dto.ResultIngestResponse;
+import com.atas.framework.model.TestStatus;
+import com.atas.framework.monitoring.DailyStatsRollup;
+import com.atas.framework.monitoring.ExecutionUpdatePublisher;
+import com.atas.framework.monitoring.LiveExecutionCounters;
+import com.atas.framework.monitoring.LiveExecutionCounters.Transition;
+import com.atas.framework.repository.TestDailyStatsRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest
+@ActiveProfiles("unit-test")
+@Import({ResultIngestService.class, DailyStatsRollup.class, TestDailyStatsRepository.class})
+class ResultIngestServiceTest {
+
+  @Autowired private ResultIngestService resultIngestService;
+
+  @Autowired private LiveExecutionCounters liveCounters;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private final LocalDateTime now = LocalDateTime.now();
+
+  @BeforeEach
+  void setUp() {
+    clearInvocations(liveCounters);
+  }
+
+  @Test
+  void shouldPersistBatchAndAttachEventsToTheirResults() {
+    // Given
+    ResultIngestBatch batch = batchWithEvents();
+
+    // When
+    ResultIngestResponse response = resultIngestService.ingest(batch);
+
+    // Then
+    assertThat(response.getResults()).isEqualTo(2);
+    assertThat(response.getSteps()).isEqualTo(1);
+    assertThat(response.getAssertions()).isEqualTo(1);
+    assertThat(response.getMetrics()).isEqualTo(1);
+    assertThat(response.getSkipped()).isEqualTo(1);
+    assertThat(count("test_results")).isEqualTo(2);
+    assertThat(count("test_steps")).isEqualTo(1);
+    assertThat(count("test_assertions")).isEqualTo(1);
+    assertThat(count("test_metrics")).isEqualTo(1);
+    assertThat(executionStatus()).isEqualTo("FAILED");
+  }
+
+  @Test
+  void shouldNotDuplicateEventsOfAResentBatch() {
+    // Given: the first attempt committed, but its response never reached the client
+    resultIngestService.ingest(batchWithEvents());
+    Long stepId = jdbcTemplate.queryForObject("SELECT id FROM test_steps", Long.class);
+
+    // When
+    resultIngestService.ingest(batchWithEvents());
+
+    // Then
+    assertThat(count("test_results")).isEqualTo(2);
+    assertThat(count("test_steps")).isEqualTo(1);
+    assertThat(count("test_assertions")).isEqualTo(1);
+    assertThat(count("test_metrics")).isEqualTo(1);
+    // Updated in place, so whatever refers to the step stays attached
+    assertThat(jdbcTemplate.queryForObject("SELECT id FROM test_steps", Long.class))
+        .isEqualTo(stepId);
+  }
+
+  @Test
+  void shouldReplaceReportedResultsAndKeepFailuresOverPassedStatus() {
+    // Given
+    resultIngestService.ingest(
+        ResultIngestBatch.builder()
+            .executionId("exec-1")
+            .suiteName("maven-test-run")
+            .results(List.of(result("com.example.Test#flaky", TestStatus.PASSED)))
+            .build());
+
+    // When
+    resultIngestService.ingest(
+        ResultIngestBatch.builder()
+            .executionId("exec-1")
+            .suiteName("maven-test-run")
+            .results(List.of(result("com.example.Test#flaky", TestStatus.ERROR)))
+            .build());
+    resultIngestService.ingest(
+        ResultIngestBatch.builder().executionId("exec-1").status(TestStatus.PASSED).build());
+
+    // Then
+    assertThat(count("test_results")).isEqualTo(1);
+    assertThat(jdbcTemplate.queryForObject("SELECT status FROM test_results", String.class))
+        .isEqualTo("ERROR");
+    assertThat(executionStatus()).isEqualTo("FAILED");
+    verify(liveCounters)
+        .record("exec-1", List.of(new Transition(TestStatus.PASSED, TestStatus.ERROR)));
+  }
+
+  @Test
+  void shouldRejectBatchesOfUnknownExecutions() {
+    // Given
+    ResultIngestBatch batch =
+        ResultIngestBatch.builder()
+            .executionId("missing")
+            .results(List.of(result("com.example.Test#passes", TestStatus.PASSED)))
+            .build();
+
+    // When / Then
+    assertThatThrownBy(() -> resultIngestService.ingest(batch))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("missing");
+  }
+
+  private ResultIngestBatch batchWithEvents() {
+    return ResultIngestBatch.builder()
+        .executionId("exec-1")
+        .suiteName("maven-test-run")
+        .environment("dev")
+        .results(
+            List.of(
+                result("com.example.Test#passes", TestStatus.PASSED),
+                result("com.example.Test#fails", TestStatus.FAILED)))
+        .steps(
+            List.of(
+                ResultIngestBatch.StepEvent.builder()
+                    .testId("com.example.Test#passes")
+                    .stepNumber(1)
+                    .action("click")
+                    .status(TestStatus.PASSED)
+                    .data("{\"selector\":\"#login\"}")
+                    .build()))
+        .assertions(
+            List.of(
+                ResultIngestBatch.AssertionEvent.builder()
+                    .testId("com.example.Test#fails")
+                    .type("equals")
+                    .expectValue("200")
+                    .actualValue("500")
+                    .status(TestStatus.FAILED)
+                    .build()))
+        .metrics(
+            List.of(
+                ResultIngestBatch.MetricEvent.builder()
+                    .testId("com.example.Test#passes")
+                    .key("durationMs")
+                    .value("42")
+                    .build(),
+                ResultIngestBatch.MetricEvent.builder()
+                    .testId("com.example.Test#unknown")
+                    .key("durationMs")
+                    .value("1")
+                    .build()))
+        .build();
+  }
+
+  private ResultIngestBatch.ResultEvent result(String testId, TestStatus status) {
+    return ResultIngestBatch.ResultEvent.builder()
+        .testId(testId)
+        .testName(testId)
+        .status(status)
+        .startTime(now)
+        .endTime(now)
+        .build();
+  }
+
+  private int count(String table) {
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+  }
+
+  @TestConfiguration
+  static class Config {
+
+    @Bean
+    LiveExecutionCounters liveExecutionCounters() {
+      return mock(LiveExecutionCounters.class);
+    }
+
+    @Bean
+    ExecutionUpdatePublisher executionUpdatePublisher() {
+      return mock(ExecutionUpdatePublisher.class);
+    }
+  }
+
+  private String executionStatus() {
+    return jdbcTemplate.queryForObject(
+        "SELECT status FROM test_executions WHERE execution_id = 'exec-1'", String.class);
+  }
+}
@@ -0,0 +1,230 @@
+package com.atas.framework.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfEnvironmentVariable;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+/**
+ * Runs synthetic tests recorded by the listener on many threads at once and checks every result
+ * lands in the database exactly once. The listener reads its settings from system properties only
+ * when the environment does not set them, hence the condition.
+ */
+@DisabledIfEnvironmentVariable(named = "DB_URL", matches = ".+")
+class TestExecutionListenerStressTest {
+
+  private static final String DB_URL = "jdbc:h2:mem:atas_listener_stress;DB_CLOSE_DELAY=-1";
+  private static final int TESTS = 1000;
+  private static final int THREADS = 16;
+  private static final String EXECUTION_ID = "listener-stress";
+  private static final String SYNTHETIC_PROPERTY = "atas.listener.stress.synthetic";
+
+  private static final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+  @TempDir static Path spoolDirectory;
+
+  private static Connection connection;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    connection = DriverManager.getConnection(DB_URL, "sa", "");
+    ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+    // The listener refuses to connect without a password
+    try (Statement stmt = connection.createStatement()) {
+      stmt.execute("CREATE USER IF NOT EXISTS listener PASSWORD 'listener' ADMIN");
+    }
+    System.setProperty("DB_URL", DB_URL);
+    System.setProperty("DB_USERNAME", "listener");
+    System.setProperty("DB_PASSWORD", "listener");
+    System.setProperty("ATAS_LISTENER_SPOOL_DIR", spoolDirectory.toString());
+  }
+
+  @BeforeEach
+  void clearResults() throws Exception {
+    threads.clear();
+    try (Statement stmt = connection.createStatement()) {
+      stmt.execute("DELETE FROM test_results");
+      stmt.execute("DELETE FROM test_executions");
+    }
+  }
+
+  @AfterAll
+  static void tearDown() throws Exception {
+    System.clearProperty("DB_URL");
+    System.clearProperty("DB_USERNAME");
+    System.clearProperty("DB_PASSWORD");
+    System.clearProperty("ATAS_LISTENER_SPOOL_DIR");
+    connection.close();
+  }
+
+  @Test
+  void shouldRecordEveryResultOfTestsRunningInParallel() throws Exception {
+    // Given
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    // When
+    TestExecutionSummary result = run(EXECUTION_ID, output, selectClass(SyntheticTests.class));
+
+    // Then
+    assertThat(result.getTestsFoundCount()).isEqualTo(TESTS);
+    assertThat(result.getTestsFailedCount()).isEqualTo(TESTS / 10);
+    assertThat(threads).hasSizeGreaterThan(1);
+
+    assertThat(count("SELECT COUNT(*) FROM test_results")).isEqualTo(TESTS);
+    assertThat(count("SELECT COUNT(DISTINCT test_id) FROM test_results")).isEqualTo(TESTS);
+    assertThat(count("SELECT COUNT(*) FROM test_results WHERE status = 'FAILED'"))
+        .isEqualTo(TESTS / 10);
+    assertThat(count("SELECT COUNT(*) FROM test_results WHERE status = 'PASSED'"))
+        .isEqualTo(TESTS - TESTS / 10);
+    assertThat(count("SELECT COUNT(*) FROM test_executions WHERE status = 'FAILED'")).isEqualTo(1);
+    assertThat(output.toString(StandardCharsets.UTF_8))
+        .contains(TestExecutionListener.RESULTS_MARKER + EXECUTION_ID + " " + TESTS);
+
+    // The listener pool and this test's connection, however many threads recorded results
+    assertThat(count("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS")).isLessThanOrEqualTo(5);
+  }
+
+  @Test
+  void shouldFailTheExecutionWhenOneTestOfManyClassesRunningInParallelFails() throws Exception {
+    // Given
+    String executionId = "listener-stress-single-failure";
+
+    // When
+    TestExecutionSummary result =
+        run(
+            executionId,
+            new ByteArrayOutputStream(),
+            selectClass(SingleFailureA.class),
+            selectClass(SingleFailureB.class),
+            selectClass(SingleFailureC.class),
+            selectClass(SingleFailureD.class));
+
+    // Then
+    assertThat(result.getTestsFoundCount()).isEqualTo(TESTS);
+    assertThat(result.getTestsFailedCount()).isEqualTo(1);
+    assertThat(count("SELECT COUNT(*) FROM test_results")).isEqualTo(TESTS);
+    assertThat(count("SELECT COUNT(*) FROM test_results WHERE status = 'FAILED'")).isEqualTo(1);
+    // Classes finishing without failures while the failing one still runs must not win
+    assertThat(
+            count(
+                "SELECT COUNT(*) FROM test_executions WHERE execution_id = '"
+                    + executionId
+                    + "' AND status = 'FAILED'"))
+        .isEqualTo(1);
+  }
+
+  /** Run the selected synthetic classes, and the classes themselves, concurrently */
+  private TestExecutionSummary run(
+      String executionId, ByteArrayOutputStream output, DiscoverySelector... selectors) {
+    LauncherDiscoveryRequest request =
+        LauncherDiscoveryRequestBuilder.request()
+            .selectors(selectors)
+            .configurationParameters(
+                Map.of(
+                    "junit.jupiter.execution.parallel.enabled",
+                    "true",
+                    "junit.jupiter.execution.parallel.mode.default",
+                    "concurrent",
+                    "junit.jupiter.execution.parallel.mode.classes.default",
+                    "concurrent",
+                    "junit.jupiter.execution.parallel.config.strategy",
+                    "fixed",
+                    "junit.jupiter.execution.parallel.config.fixed.parallelism",
+                    String.valueOf(THREADS),
+                    TestExecutionListener.EXECUTION_ID_PARAMETER,
+                    executionId))
+            .build();
+    SummaryGeneratingListener summary = new SummaryGeneratingListener();
+    PrintStream stdout = System.out;
+    System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+    try {
+      System.setProperty(SYNTHETIC_PROPERTY, "true");
+      LauncherFactory.create().execute(request, summary);
+    } finally {
+      System.clearProperty(SYNTHETIC_PROPERTY);
+      System.setOut(stdout);
+    }
+    return summary.getSummary();
+  }
+
+  private int count(String sql) throws Exception {
+    try (Statement stmt = connection.createStatement();
+        ResultSet rs = stmt.executeQuery(sql)) {
+      rs.next();
+      return rs.getInt(1);
+    }
+  }
+
+  /** Only run through the launcher above, never by the surrounding test run */
+  @ExtendWith(TestExecutionListener.class)
+  @EnabledIfSystemProperty(named = SYNTHETIC_PROPERTY, matches = "true")
+  static class SyntheticTests {
+
+    @RepeatedTest(TESTS)
+    void synthetic(RepetitionInfo repetition) throws InterruptedException {
+      threads.add(Thread.currentThread().getName());
+      Thread.sleep(1);
+      if (repetition.getCurrentRepetition() % 10 == 0) {
+        fail("Synthetic failure " + repetition.getCurrentRepetition());
+      }
+    }
+  }
+
+  /**
+   * A quarter of the tests in each of four classes; only the last test of the first class fails, so
+   * the other classes finish without failures around it.
+   */
+  @ExtendWith(TestExecutionListener.class)
+  abstract static class SingleFailureTests {
+
+    @RepeatedTest(TESTS / 4)
+    void synthetic(RepetitionInfo repetition) throws InterruptedException {
+      Thread.sleep(1);
+      if (getClass() == SingleFailureA.class
+          && repetition.getCurrentRepetition() == repetition.getTotalRepetitions()) {
+        fail("Synthetic failure");
+      }
+    }
+  }
+
+  @EnabledIfSystemProperty(named = SYNTHETIC_PROPERTY, matches = "true")
+  static class SingleFailureA extends SingleFailureTests {}
+
+  @EnabledIfSystemProperty(named = SYNTHETIC_PROPERTY, matches = "true")
+  static class SingleFailureB extends SingleFailureTests {}
+
+  @EnabledIfSystemProperty(named = SYNTHETIC_PROPERTY, matches = "true")
+  static class SingleFailureC extends SingleFailureTests {}
+
+  @EnabledIfSystemProperty(named = SYNTHETIC_PROPERTY, matches = "true")
+  static class SingleFailureD extends SingleFailureTests {}
+}
@@ -4,10 +4,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import com.atas.framework.config.ExecutionProperties;
 import com.atas.framework.execution.dto.TestExecutionRequest;
 import com.atas.framework.execution.dto.TestExecutionResponse;
 import com.atas.framework.model.TestExecution;
 import com.atas.framework.model.TestStatus;
+import com.atas.framework.monitoring.DailyStatsRollup;
+import com.atas.framework.monitoring.ExecutionUpdatePublisher;
+import com.atas.framework.monitoring.LiveExecutionCounters;
 import com.atas.framework.repository.TestExecutionRepository;
 import com.atas.framework.repository.TestResultRepository;
 import com.atas.framework.security.AuditService;
@@ -19,7 +23,6 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.RedisTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class TestExecutionServiceTest {
@@ -34,15 +37,27 @@ class TestExecutionServiceTest {
 
   @Mock private AuditService auditService;
 
-  @Mock private RedisTemplate<String, Object> redisTemplate;
+  @Mock private ExecutionUpdatePublisher updatePublisher;
 
   @Mock
   @org.springframework.beans.factory.annotation.Qualifier("testExecutionExecutor")
   private ExecutorService executorService;
 
-  @Mock
-  @org.springframework.beans.factory.annotation.Qualifier("outputCaptureExecutor")
-  private ExecutorService outputCaptureExecutor;
+  @Mock private ProcessSupervisor processSupervisor;
+
+  @Mock private LauncherTestExecutor launcherTestExecutor;
+
+  @Mock private TestShardPlanner shardPlanner;
+
+  @Mock private DistributedExecutionQueue executionQueue;
+
+  @Mock private ExecutionScheduler executionScheduler;
+
+  @Mock private ExecutionLogService executionLogService;
+
+  @Mock private DailyStatsRollup dailyStatsRollup;
+
+  @Mock private LiveExecutionCounters liveCounters;
 
   private TestExecutionService testExecutionService;
 
@@ -80,9 +95,17 @@ class TestExecutionServiceTest {
             testDiscoveryService,
             testInputValidator,
             auditService,
-            redisTemplate,
+            updatePublisher,
             executorService,
-            outputCaptureExecutor);
+            processSupervisor,
+            launcherTestExecutor,
+            shardPlanner,
+            executionQueue,
+            executionScheduler,
+            executionLogService,
+            new ExecutionProperties(),
+            dailyStatsRollup,
+            liveCounters);
   }
 
   @Test
@@ -0,0 +1,66 @@
+package com.atas.framework.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.atas.framework.config.ExecutionProperties;
+import com.atas.framework.execution.runner.RunnerResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TestRunnerPoolTest {
+
+  @Mock private ExecutionScheduler scheduler;
+
+  private TestRunnerPool runnerPool;
+
+  @BeforeEach
+  void setUp() {
+    ExecutionProperties properties = new ExecutionProperties();
+    properties.getRunner().getPool().setMinIdle(1);
+    properties.getRunner().getPool().setMaxSize(4);
+    properties.getRunner().getPool().setMaxExecutionsPerRunner(10);
+    properties.getRunner().getPool().setMaxHeapUsagePercent(75);
+
+    runnerPool = new TestRunnerPool(properties, scheduler);
+  }
+
+  @Test
+  void shouldBeDisabledInMavenMode() {
+    assertThat(runnerPool.isEnabled()).isFalse();
+  }
+
+  @Test
+  void shouldRecycleAfterMaxExecutions() {
+    RunnerResult result = RunnerResult.builder().heapUsedBytes(10).heapMaxBytes(100).build();
+
+    assertThat(runnerPool.shouldRecycle(9, result)).isFalse();
+    assertThat(runnerPool.shouldRecycle(10, result)).isTrue();
+  }
+
+  @Test
+  void shouldRecycleWhenHeapCrossesThreshold() {
+    assertThat(
+            runnerPool.shouldRecycle(
+                1, RunnerResult.builder().heapUsedBytes(75).heapMaxBytes(100).build()))
+        .isFalse();
+    assertThat(
+            runnerPool.shouldRecycle(
+                1, RunnerResult.builder().heapUsedBytes(76).heapMaxBytes(100).build()))
+        .isTrue();
+  }
+
+  @Test
+  void shouldScaleIdleRunnersWithQueueDepth() {
+    // Nothing queued keeps the minimum warm
+    assertThat(runnerPool.targetIdle(0, 0)).isEqualTo(1);
+    // Queued executions each get a warm runner
+    assertThat(runnerPool.targetIdle(3, 0)).isEqualTo(3);
+    // Leased runners count against the maximum pool size
+    assertThat(runnerPool.targetIdle(10, 2)).isEqualTo(2);
+    assertThat(runnerPool.targetIdle(10, 4)).isZero();
+  }
+}
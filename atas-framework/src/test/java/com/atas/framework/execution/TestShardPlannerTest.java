@@ -0,0 +1,63 @@
+package com.atas.framework.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TestShardPlannerTest {
+
+  @Test
+  void shouldBalanceShardsByHistoricalDuration() {
+    // Given
+    Map<String, Double> durations =
+        Map.of(
+            "com.atas.SlowTest", 300.0,
+            "com.atas.MediumTest", 200.0,
+            "com.atas.FastTest", 100.0,
+            "com.atas.QuickTest", 100.0);
+
+    // When
+    List<List<String>> shards =
+        TestShardPlanner.partition(
+            List.of(
+                "com.atas.FastTest",
+                "com.atas.QuickTest",
+                "com.atas.SlowTest",
+                "com.atas.MediumTest"),
+            2,
+            durations,
+            60);
+
+    // Then
+    assertThat(shards).hasSize(2);
+    assertThat(shards.get(0)).containsExactly("com.atas.SlowTest", "com.atas.QuickTest");
+    assertThat(shards.get(1)).containsExactly("com.atas.MediumTest", "com.atas.FastTest");
+  }
+
+  @Test
+  void shouldMatchSimpleNamesAndDefaultUnknownClasses() {
+    // Given
+    Map<String, Double> durations = Map.of("com.atas.suite.LoginTest", 500.0);
+
+    // When
+    List<List<String>> shards =
+        TestShardPlanner.partition(
+            List.of("CartTest", "LoginTest", "SearchTest"), 2, durations, 60);
+
+    // Then
+    assertThat(shards.get(0)).containsExactly("LoginTest");
+    assertThat(shards.get(1)).containsExactlyInAnyOrder("CartTest", "SearchTest");
+  }
+
+  @Test
+  void shouldNotCreateMoreShardsThanClasses() {
+    // When
+    List<List<String>> shards =
+        TestShardPlanner.partition(List.of("com.atas.OnlyTest"), 4, Map.of(), 60);
+
+    // Then
+    assertThat(shards).containsExactly(List.of("com.atas.OnlyTest"));
+  }
+}
@@ -0,0 +1,99 @@
+package com.atas.framework.execution.runner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.atas.framework.execution.TestExecutionListener;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.discovery.ClassNameFilter;
+import org.junit.platform.engine.discovery.ClassSelector;
+import org.junit.platform.engine.discovery.MethodSelector;
+import org.junit.platform.engine.discovery.PackageSelector;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+
+class LauncherRequestFactoryTest {
+
+  @Test
+  void shouldSelectMethodForFullyQualifiedIndividualTest() {
+    // When
+    LauncherDiscoveryRequest request =
+        LauncherRequestFactory.create(
+            RunnerRequest.builder()
+                .executionId("exec-1")
+                .type("INDIVIDUAL_TEST")
+                .testClass("com.atas.features.LoginTest")
+                .testMethod("shouldLogin")
+                .build());
+
+    // Then
+    List<MethodSelector> selectors = request.getSelectorsByType(MethodSelector.class);
+    assertThat(selectors).hasSize(1);
+    assertThat(selectors.get(0).getClassName()).isEqualTo("com.atas.features.LoginTest");
+    assertThat(selectors.get(0).getMethodName()).isEqualTo("shouldLogin");
+    assertThat(
+            request.getConfigurationParameters().get(TestExecutionListener.EXECUTION_ID_PARAMETER))
+        .contains("exec-1");
+  }
+
+  @Test
+  void shouldScanBasePackageForSuite() {
+    // When
+    LauncherDiscoveryRequest request =
+        LauncherRequestFactory.create(
+            RunnerRequest.builder()
+                .executionId("exec-2")
+                .type("SUITE")
+                .suite("Authentication")
+                .basePackage("com.atas.suites")
+                .parameters(Map.of("browser", "firefox"))
+                .build());
+
+    // Then
+    assertThat(request.getSelectorsByType(PackageSelector.class))
+        .extracting(PackageSelector::getPackageName)
+        .containsExactly("com.atas.suites");
+    assertThat(request.getFiltersByType(ClassNameFilter.class)).hasSize(1);
+    assertThat(
+            request
+                .getFiltersByType(ClassNameFilter.class)
+                .get(0)
+                .apply("com.atas.suites.auth.AuthenticationTestSuite")
+                .included())
+        .isTrue();
+    assertThat(request.getConfigurationParameters().get("browser")).contains("firefox");
+  }
+
+  @Test
+  void shouldPreferExplicitClassNames() {
+    // When
+    LauncherDiscoveryRequest request =
+        LauncherRequestFactory.create(
+            RunnerRequest.builder()
+                .executionId("exec-3")
+                .type("TAGS")
+                .tags(List.of("smoke"))
+                .classNames(List.of("com.atas.a.FirstTest", "com.atas.b.SecondTest"))
+                .build());
+
+    // Then
+    assertThat(request.getSelectorsByType(ClassSelector.class))
+        .extracting(ClassSelector::getClassName)
+        .containsExactly("com.atas.a.FirstTest", "com.atas.b.SecondTest");
+    assertThat(request.getSelectorsByType(PackageSelector.class)).isEmpty();
+  }
+
+  @Test
+  void shouldConvertSurefirePatternsToRegex() {
+    // When
+    String[] patterns = LauncherRequestFactory.toClassNamePatterns("Login*Test, **/ApiTest#get*");
+
+    // Then
+    assertThat(patterns).hasSize(2);
+    assertThat(Pattern.matches(patterns[0], "com.atas.ui.LoginPageTest")).isTrue();
+    assertThat(Pattern.matches(patterns[0], "LoginTest")).isTrue();
+    assertThat(Pattern.matches(patterns[0], "com.atas.ui.LogoutTest")).isFalse();
+    assertThat(Pattern.matches(patterns[1], "com.atas.api.ApiTest")).isTrue();
+  }
+}
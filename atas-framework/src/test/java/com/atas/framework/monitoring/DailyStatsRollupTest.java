@@ -0,0 +1,45 @@
+package com.atas.framework.monitoring;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.atas.framework.repository.TestDailyStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+@ExtendWith(MockitoExtension.class)
+class DailyStatsRollupTest {
+
+  @Mock private TestDailyStatsRepository dailyStatsRepository;
+
+  @InjectMocks private DailyStatsRollup dailyStatsRollup;
+
+  @Test
+  void shouldRetryEveryExecutionNotRefreshedWhenTheDatabaseFails() {
+    // Given
+    for (int i = 0; i < 5; i++) {
+      dailyStatsRollup.markChanged("exec-" + i);
+    }
+    doThrow(new QueryTimeoutException("timeout"))
+        .when(dailyStatsRepository)
+        .refreshExecution(any());
+    dailyStatsRollup.flushChanged();
+    verify(dailyStatsRepository).refreshExecution(any());
+    clearInvocations(dailyStatsRepository);
+
+    // When
+    doReturn(true).when(dailyStatsRepository).refreshExecution(any());
+    dailyStatsRollup.flushChanged();
+
+    // Then
+    verify(dailyStatsRepository, times(5)).refreshExecution(any());
+  }
+}
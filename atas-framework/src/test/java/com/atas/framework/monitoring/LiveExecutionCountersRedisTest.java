@@ -0,0 +1,158 @@
+package com.atas.framework.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.atas.framework.model.TestStatus;
+import com.atas.framework.monitoring.LiveExecutionCounters.Counters;
+import com.atas.framework.monitoring.LiveExecutionCounters.Transition;
+import com.atas.framework.repository.TestResultRepository;
+import com.atas.framework.repository.TestResultRepository.ResultCountsView;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Interleaves seeding and recording against a real Redis, since the scripts decide whether a seed
+ * can be trusted.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class LiveExecutionCountersRedisTest {
+
+  private static final String KEY = "atas:execution:exec-1:counters";
+  private static final long SEED_TTL_MS = 2000;
+
+  @Container
+  @SuppressWarnings("resource")
+  static GenericContainer<?> redis =
+      new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+  private static LettuceConnectionFactory connectionFactory;
+
+  private final TestResultRepository resultRepository = mock(TestResultRepository.class);
+
+  private StringRedisTemplate redisTemplate;
+
+  private LiveExecutionCounters liveCounters;
+
+  @BeforeAll
+  static void connect() {
+    connectionFactory =
+        new LettuceConnectionFactory(
+            new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+    connectionFactory.afterPropertiesSet();
+    connectionFactory.start();
+  }
+
+  @AfterAll
+  static void disconnect() {
+    connectionFactory.destroy();
+  }
+
+  @BeforeEach
+  void setUp() {
+    redisTemplate = new StringRedisTemplate(connectionFactory);
+    redisTemplate.execute(
+        (RedisCallback<Object>)
+            connection -> {
+              connection.serverCommands().flushAll();
+              return null;
+            });
+    liveCounters = new LiveExecutionCounters(redisTemplate, resultRepository);
+    ReflectionTestUtils.setField(liveCounters, "ttlMillis", 3_600_000L);
+    ReflectionTestUtils.setField(liveCounters, "seedTtlMillis", SEED_TTL_MS);
+  }
+
+  @Test
+  void shouldNotKeepASeedThatAlreadyCountsABatchStillToBeApplied() {
+    // Given: the batch committed, its counters are applied after the seed counted it
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      liveCounters.record("exec-1", List.of(new Transition(null, TestStatus.PASSED)));
+      stubCounts(1, 1, 0);
+      liveCounters.get("exec-1", 42L);
+
+      // When
+      TransactionSynchronizationUtils.invokeAfterCompletion(
+          TransactionSynchronizationManager.getSynchronizations(),
+          TransactionSynchronization.STATUS_COMMITTED);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // Then
+    assertProvisional();
+  }
+
+  @Test
+  void shouldNotKeepASeedThatMissesABatchAppliedBeforeIt() {
+    // Given: the batch is committed and applied, to no hash, while the seed is being counted
+    ResultCountsView empty = counts(0, 0, 0);
+    when(resultRepository.countByExecutionIds(List.of(42L)))
+        .thenAnswer(
+            invocation -> {
+              liveCounters.record("exec-1", List.of(new Transition(null, TestStatus.PASSED)));
+              return List.of(empty);
+            });
+
+    // When
+    liveCounters.get("exec-1", 42L);
+
+    // Then
+    assertProvisional();
+  }
+
+  @Test
+  void shouldKeepASeedCountedWhileNothingWasWrittenUpToDate() {
+    // Given
+    stubCounts(1, 1, 0);
+    liveCounters.get("exec-1", 42L);
+
+    // When
+    liveCounters.record("exec-1", List.of(new Transition(null, TestStatus.FAILED)));
+
+    // Then
+    Counters counters = liveCounters.get("exec-1", 42L);
+    assertThat(counters.total()).isEqualTo(2);
+    assertThat(counters.passed()).isEqualTo(1);
+    assertThat(counters.failed()).isEqualTo(1);
+    assertThat(redisTemplate.getExpire(KEY, TimeUnit.MILLISECONDS)).isGreaterThan(SEED_TTL_MS);
+  }
+
+  /** The seed is marked and expires as seeded, however many results are recorded on top of it */
+  private void assertProvisional() {
+    liveCounters.record("exec-1", List.of(new Transition(null, TestStatus.SKIPPED)));
+    assertThat(redisTemplate.opsForHash().hasKey(KEY, "provisional")).isTrue();
+    assertThat(redisTemplate.getExpire(KEY, TimeUnit.MILLISECONDS)).isBetween(0L, SEED_TTL_MS);
+  }
+
+  private void stubCounts(long total, long passed, long failed) {
+    ResultCountsView row = counts(total, passed, failed);
+    when(resultRepository.countByExecutionIds(List.of(42L))).thenReturn(List.of(row));
+  }
+
+  private static ResultCountsView counts(long total, long passed, long failed) {
+    ResultCountsView row = mock(ResultCountsView.class);
+    when(row.getTotal()).thenReturn(total);
+    when(row.getPassed()).thenReturn(passed);
+    when(row.getFailed()).thenReturn(failed);
+    when(row.getSkipped()).thenReturn(0L);
+    when(row.getRunning()).thenReturn(0L);
+    return row;
+  }
+}
@@ -0,0 +1,114 @@
+package com.atas.framework.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.atas.framework.model.TestStatus;
+import com.atas.framework.monitoring.LiveExecutionCounters.Counters;
+import com.atas.framework.monitoring.LiveExecutionCounters.Transition;
+import com.atas.framework.repository.TestResultRepository;
+import com.atas.framework.repository.TestResultRepository.ResultCountsView;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+@ExtendWith(MockitoExtension.class)
+class LiveExecutionCountersTest {
+
+  @Mock private StringRedisTemplate redisTemplate;
+
+  @Mock private TestResultRepository resultRepository;
+
+  @InjectMocks private LiveExecutionCounters liveCounters;
+
+  @Test
+  void shouldApplyTheNetChangeOfRecordedResults() {
+    // When
+    liveCounters.record(
+        "exec-1",
+        List.of(
+            new Transition(null, TestStatus.RUNNING),
+            new Transition(TestStatus.RUNNING, TestStatus.PASSED),
+            new Transition(TestStatus.PASSED, TestStatus.ERROR),
+            new Transition(null, TestStatus.PASSED),
+            new Transition(TestStatus.SKIPPED, TestStatus.SKIPPED)));
+
+    // Then
+    verify(redisTemplate)
+        .execute(
+            any(),
+            eq(List.of("atas:execution:exec-1:counters", "atas:execution:exec-1:writes")),
+            eq("total"),
+            eq("2"),
+            eq("passed"),
+            eq("1"),
+            eq("failed"),
+            eq("1"),
+            any(),
+            any(),
+            eq("1"));
+  }
+
+  @Test
+  void shouldSeedProvisionallyWhileResultsAreBeingWritten() {
+    // Given
+    HashOperations<String, Object, Object> hashOperations = mock();
+    when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+    when(hashOperations.entries("atas:execution:exec-1:counters")).thenReturn(Map.of());
+    when(hashOperations.multiGet(eq("atas:execution:exec-1:writes"), any()))
+        .thenReturn(Arrays.asList("1", "7"));
+    when(resultRepository.countByExecutionIds(List.of(42L))).thenReturn(List.of());
+
+    // When
+    liveCounters.get("exec-1", 42L);
+
+    // Then
+    ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+    verify(redisTemplate)
+        .execute(
+            ArgumentMatchers.<RedisScript<Long>>any(),
+            eq(List.of("atas:execution:exec-1:counters", "atas:execution:exec-1:writes")),
+            args.capture());
+    List<Object> seed = Arrays.asList(args.getValue());
+    // The write sequence is left out, so the seed is stored as provisional
+    assertThat(seed.get(seed.size() - 2)).isEqualTo("");
+  }
+
+  @Test
+  void shouldCountResultsInTheDatabaseWithoutRedis() {
+    // Given
+    ResultCountsView row = mock(ResultCountsView.class);
+    when(row.getTotal()).thenReturn(5L);
+    when(row.getPassed()).thenReturn(2L);
+    when(row.getFailed()).thenReturn(1L);
+    when(row.getSkipped()).thenReturn(1L);
+    when(row.getRunning()).thenReturn(1L);
+    when(redisTemplate.opsForHash()).thenThrow(new RedisConnectionFailureException("down"));
+    when(resultRepository.countByExecutionIds(List.of(42L))).thenReturn(List.of(row));
+
+    // When
+    Counters counters = liveCounters.get("exec-1", 42L);
+
+    // Then
+    assertThat(counters.total()).isEqualTo(5);
+    assertThat(counters.passed()).isEqualTo(2);
+    assertThat(counters.failed()).isEqualTo(1);
+    assertThat(counters.skipped()).isEqualTo(1);
+    assertThat(counters.running()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,149 @@
+package com.atas.framework.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.atas.framework.security.JwtTokenProvider;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+@ExtendWith(MockitoExtension.class)
+class MonitoringWebSocketHandlerTest {
+
+  @Mock private TestMonitoringService monitoringService;
+
+  @Mock private JwtTokenProvider tokenProvider;
+
+  @Mock private UserDetailsService userDetailsService;
+
+  @Mock private WebSocketSession session;
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+  private final SseHub hub = new SseHub(objectMapper);
+
+  private MonitoringWebSocketHandler handler;
+
+  @BeforeEach
+  void setUp() {
+    handler =
+        new MonitoringWebSocketHandler(
+            hub, monitoringService, tokenProvider, userDetailsService, objectMapper);
+    when(session.getId()).thenReturn("session-1");
+    handler.afterConnectionEstablished(session);
+  }
+
+  @AfterEach
+  void tearDown() {
+    hub.shutdown();
+  }
+
+  @Test
+  void shouldServeSeveralTopicsOverOneSocketWithDeltas() throws Exception {
+    // Given
+    when(tokenProvider.validateToken("token")).thenReturn(true);
+    when(tokenProvider.isRefreshToken("token")).thenReturn(false);
+    when(tokenProvider.getUsernameFromToken("token")).thenReturn("admin");
+    when(userDetailsService.loadUserByUsername("admin"))
+        .thenReturn(User.withUsername("admin").password("x").roles("ADMIN").build());
+    when(monitoringService.executionSnapshot("exec-1")).thenReturn(status(10));
+
+    // When
+    send("{\"type\":\"auth\",\"token\":\"token\"}");
+    send("{\"type\":\"subscribe\",\"topic\":\"execution/exec-1\"}");
+    send("{\"type\":\"subscribe\",\"topic\":\"database\"}");
+    verify(session, timeout(1000)).sendMessage(any());
+    hub.publish("execution:exec-1", status(11));
+    hub.publish("database", Map.of("type", "database_update"));
+    hub.publish("execution:exec-1", status(12));
+
+    // Then
+    List<JsonNode> messages = received(4);
+    List<JsonNode> execution = onTopic(messages, "execution/exec-1");
+    List<JsonNode> database = onTopic(messages, "database");
+    assertThat(execution).hasSize(3);
+    assertThat(database).hasSize(1);
+    assertThat(database.get(0).get("data").get("type").asText()).isEqualTo("database_update");
+
+    // Events in order, the last one only with what changed since the one before
+    assertThat(execution.get(0).get("data").get("passed").asInt()).isEqualTo(10);
+    assertThat(execution.get(1).get("data").get("passed").asInt()).isEqualTo(11);
+    JsonNode delta = execution.get(2).get("delta");
+    assertThat(execution.get(2).has("data")).isFalse();
+    assertThat(delta.get("passed").asInt()).isEqualTo(12);
+    assertThat(delta.has("executionId")).isFalse();
+    assertThat(execution)
+        .extracting(message -> message.get("id").asLong())
+        .isSortedAccordingTo(Long::compare);
+  }
+
+  @Test
+  void shouldRejectSubscriptionsBeforeAuthentication() throws Exception {
+    // When
+    send("{\"type\":\"subscribe\",\"topic\":\"active\"}");
+
+    // Then
+    ArgumentCaptor<CloseStatus> status = ArgumentCaptor.forClass(CloseStatus.class);
+    verify(session).close(status.capture());
+    assertThat(status.getValue().getCode()).isEqualTo(CloseStatus.POLICY_VIOLATION.getCode());
+    verify(monitoringService, never()).getActiveExecutions();
+    assertThat(hub.isOpen(TestMonitoringService.ACTIVE_EXECUTIONS_TOPIC)).isFalse();
+  }
+
+  private void send(String command) throws Exception {
+    handler.handleMessage(session, new TextMessage(command));
+  }
+
+  private List<JsonNode> received(int count) throws Exception {
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<WebSocketMessage<?>> captor = ArgumentCaptor.forClass(WebSocketMessage.class);
+    verify(session, timeout(1000).times(count)).sendMessage(captor.capture());
+    return captor.getAllValues().stream()
+        .map(message -> readTree(((TextMessage) message).getPayload()))
+        .toList();
+  }
+
+  private static List<JsonNode> onTopic(List<JsonNode> messages, String topic) {
+    return messages.stream().filter(m -> topic.equals(m.get("topic").asText())).toList();
+  }
+
+  private JsonNode readTree(String payload) {
+    try {
+      return objectMapper.readTree(payload);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static TestExecutionStatus status(int passed) {
+    return TestExecutionStatus.builder()
+        .executionId("exec-1")
+        .startTime(LocalDateTime.of(2026, 1, 1, 12, 0))
+        .total(20)
+        .passed(passed)
+        .progress(passed * 5.0)
+        .duration(Duration.ofMinutes(1))
+        .build();
+  }
+}
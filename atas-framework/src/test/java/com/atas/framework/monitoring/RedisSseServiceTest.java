@@ -0,0 +1,188 @@
+package com.atas.framework.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.atas.framework.model.TestStatus;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamInfo.XInfoConsumers;
+import org.springframework.data.redis.connection.stream.StreamInfo.XInfoGroups;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class RedisSseServiceTest {
+
+  private static final String STREAM = ExecutionUpdatePublisher.STREAM;
+
+  @Mock private StringRedisTemplate redisTemplate;
+
+  @Mock private StreamOperations<String, Object, Object> streamOperations;
+
+  @Mock private TestMonitoringService monitoringService;
+
+  private RedisSseService redisSseService;
+
+  @BeforeEach
+  void setUp() {
+    redisSseService = new RedisSseService(redisTemplate, monitoringService);
+    ReflectionTestUtils.setField(redisSseService, "coalesceWindowMillis", 100L);
+    ReflectionTestUtils.setField(redisSseService, "group", "sse-replica-a");
+    ReflectionTestUtils.setField(redisSseService, "consumer", "replica-a");
+  }
+
+  @AfterEach
+  void tearDown() {
+    redisSseService.shutdown();
+  }
+
+  @Test
+  void shouldPushABurstOfUpdatesOnceAndAcknowledgeEveryEvent() {
+    // Given
+    when(redisTemplate.opsForStream()).thenReturn(streamOperations);
+    TestExecutionStatus status =
+        TestExecutionStatus.builder()
+            .executionId("exec-1")
+            .startTime(LocalDateTime.now())
+            .duration(Duration.ZERO)
+            .build();
+    when(monitoringService.hasSubscribers("exec-1")).thenReturn(true);
+    when(monitoringService.getStatus("exec-1")).thenReturn(status);
+
+    // When
+    for (int i = 0; i < 50; i++) {
+      redisSseService.onMessage(
+          event(i, Map.of("executionId", "exec-1", "status", TestStatus.RUNNING.name())));
+    }
+
+    // Then
+    verify(monitoringService, timeout(1000)).pushStatus("exec-1", status);
+    verify(monitoringService).getStatus("exec-1");
+    verify(monitoringService, timeout(1000)).broadcastActiveExecutionsUpdates();
+    verify(streamOperations, times(50))
+        .acknowledge(
+            eq("sse-replica-a"), ArgumentMatchers.<MapRecord<String, String, String>>any());
+  }
+
+  @Test
+  void shouldNotReadExecutionsNobodyFollows() {
+    // Given
+    when(redisTemplate.opsForStream()).thenReturn(streamOperations);
+    MapRecord<String, String, String> event = event(1, Map.of("executionId", "exec-1"));
+
+    // When
+    redisSseService.onMessage(event);
+
+    // Then
+    verify(monitoringService, never()).getStatus(any());
+    verify(streamOperations).acknowledge("sse-replica-a", event);
+  }
+
+  @Test
+  void shouldHandleAgainWhatWasDeliveredButNotAcknowledged() {
+    // Given
+    when(redisTemplate.opsForStream()).thenReturn(streamOperations);
+    RecordId failed = RecordId.of(1000L, 1);
+    RecordId poison = RecordId.of(1000L, 2);
+    when(streamOperations.pending(STREAM, "sse-replica-a", Range.unbounded(), 100L))
+        .thenReturn(
+            new PendingMessages(
+                "sse-replica-a",
+                List.of(
+                    pending(failed, Duration.ofMinutes(1), 1),
+                    pending(poison, Duration.ofMinutes(1), 5))));
+    MapRecord<String, Object, Object> record =
+        StreamRecords.<String, Object, Object>mapBacked(
+                Map.of("executionId", "exec-1", "status", TestStatus.PASSED.name()))
+            .withStreamKey(STREAM)
+            .withId(failed);
+    when(streamOperations.claim(
+            STREAM, "sse-replica-a", "replica-a", Duration.ofSeconds(30), failed))
+        .thenReturn(List.of(record));
+
+    // When
+    redisSseService.reclaimPending();
+
+    // Then
+    verify(streamOperations).acknowledge(STREAM, "sse-replica-a", poison);
+    verify(streamOperations).acknowledge(STREAM, "sse-replica-a", failed);
+    verify(monitoringService, timeout(1000)).broadcastActiveExecutionsUpdates();
+  }
+
+  @Test
+  void shouldRemoveOnlyGroupsOfInstancesThatAreGone() {
+    // Given
+    when(redisTemplate.opsForStream()).thenReturn(streamOperations);
+    when(streamOperations.groups(STREAM))
+        .thenReturn(
+            XInfoGroups.fromList(
+                List.of(group("sse-replica-a"), group("sse-replica-b"), group("sse-replica-c"))));
+    when(streamOperations.consumers(STREAM, "sse-replica-b"))
+        .thenReturn(XInfoConsumers.fromList("sse-replica-b", List.of(consumer(7_200_000L))));
+    when(streamOperations.consumers(STREAM, "sse-replica-c"))
+        .thenReturn(XInfoConsumers.fromList("sse-replica-c", List.of()));
+
+    // When
+    redisSseService.removeStaleGroups();
+
+    // Then
+    verify(streamOperations).destroyGroup(STREAM, "sse-replica-b");
+    verify(streamOperations).destroyGroup(STREAM, "sse-replica-c");
+    verify(streamOperations, never()).destroyGroup(STREAM, "sse-replica-a");
+  }
+
+  @Test
+  void shouldRefuseToStartWithoutAStableReplicaId() {
+    // Given
+    ReflectionTestUtils.setField(redisSseService, "replicaId", " ");
+
+    // When / Then
+    assertThatThrownBy(redisSseService::init)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("ATAS_EVENTS_REPLICA_ID");
+    verifyNoInteractions(redisTemplate);
+  }
+
+  private static MapRecord<String, String, String> event(int sequence, Map<String, String> body) {
+    return StreamRecords.string(body).withStreamKey(STREAM).withId(RecordId.of(1000L, sequence));
+  }
+
+  private static PendingMessage pending(RecordId id, Duration idle, long deliveries) {
+    return new PendingMessage(id, Consumer.from("sse-replica-a", "replica-a"), idle, deliveries);
+  }
+
+  /** A group as XINFO GROUPS reports it */
+  private static List<Object> group(String name) {
+    return List.of("name", name, "consumers", 1L, "pending", 0L, "last-delivered-id", "0-0");
+  }
+
+  /** A consumer as XINFO CONSUMERS reports it */
+  private static List<Object> consumer(long idleMillis) {
+    return List.of("name", "replica-b", "pending", 0L, "idle", idleMillis);
+  }
+}
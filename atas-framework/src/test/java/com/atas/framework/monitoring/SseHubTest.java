@@ -0,0 +1,336 @@
+package com.atas.framework.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class SseHubTest {
+
+  private static final Pattern EVENT_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+  private final SseHub hub = new SseHub(objectMapper);
+
+  private final TestExecutionStatus status =
+      TestExecutionStatus.builder()
+          .executionId("exec-1")
+          .suiteName("regression")
+          .environment("staging")
+          .startTime(LocalDateTime.of(2026, 1, 1, 12, 0))
+          .total(1200)
+          .passed(1000)
+          .failed(20)
+          .skipped(30)
+          .running(150)
+          .progress(87.5)
+          .duration(Duration.ofMinutes(12))
+          .build();
+
+  @AfterEach
+  void tearDown() {
+    hub.shutdown();
+  }
+
+  @Test
+  void shouldWriteWhatSendingTheEventWouldHaveWritten() throws IOException {
+    // Given
+    RecordingEmitter perEmitter = new RecordingEmitter(objectMapper);
+    RecordingEmitter shared = new RecordingEmitter(objectMapper);
+
+    // When
+    perEmitter.send(SseEmitter.event().id("42").data(status, MediaType.APPLICATION_JSON));
+    hub.encode(42, status).sendTo(shared);
+
+    // Then
+    assertThat(shared.written()).isEqualTo(perEmitter.written());
+    assertThat(shared.text()).startsWith("id:42\ndata:{").endsWith("}\n\n");
+  }
+
+  @Test
+  void shouldDescribeWhatChangedBetweenObjects() throws IOException {
+    // When
+    var delta =
+        SseHub.diff(
+            objectMapper.readTree("{\"passed\":1,\"failed\":0,\"endTime\":null,\"gone\":1}"),
+            objectMapper.readTree("{\"passed\":2,\"failed\":0,\"endTime\":\"12:00\"}"));
+
+    // Then
+    assertThat(delta).hasToString("{\"passed\":2,\"endTime\":\"12:00\",\"gone\":null}");
+    assertThat(SseHub.diff(objectMapper.readTree("[1]"), objectMapper.readTree("[2]"))).isNull();
+  }
+
+  @Test
+  void shouldReplayWhatAReconnectingClientMissed() {
+    // Given
+    RecordingEmitter first = new RecordingEmitter(objectMapper);
+    hub.subscribe("execution:exec-1", null, () -> null, first);
+    for (int i = 1; i <= 3; i++) {
+      hub.publish("execution:exec-1", Map.of("update", i));
+    }
+    await(() -> eventIds(first).size() == 3);
+    List<Long> ids = eventIds(first);
+
+    // When
+    RecordingEmitter resumed = new RecordingEmitter(objectMapper);
+    hub.subscribe(
+        "execution:exec-1",
+        String.valueOf(ids.get(0)),
+        () -> {
+          throw new AssertionError("Resuming clients need no snapshot");
+        },
+        resumed);
+
+    // Then
+    await(() -> eventIds(resumed).size() == 2);
+    assertThat(eventIds(resumed)).isEqualTo(ids.subList(1, 3));
+    assertThat(resumed.text()).contains("{\"update\":2}").contains("{\"update\":3}");
+  }
+
+  @Test
+  void shouldSendASnapshotWhenTheMissedEventsAreNoLongerKept() {
+    // Given
+    ReflectionTestUtils.setField(hub, "replayBufferSize", 2);
+    RecordingEmitter first = new RecordingEmitter(objectMapper);
+    hub.subscribe("execution:exec-1", null, () -> null, first);
+    for (int i = 1; i <= 5; i++) {
+      hub.publish("execution:exec-1", Map.of("update", i));
+    }
+    await(() -> eventIds(first).size() == 5);
+
+    // When
+    RecordingEmitter resumed = new RecordingEmitter(objectMapper);
+    hub.subscribe(
+        "execution:exec-1",
+        String.valueOf(eventIds(first).get(0)),
+        () -> Map.of("snapshot", true),
+        resumed);
+    hub.publish("execution:exec-1", Map.of("update", 6));
+
+    // Then
+    await(() -> eventIds(resumed).size() == 2);
+    assertThat(resumed.text()).startsWith("id:").contains("{\"snapshot\":true}");
+    assertThat(resumed.text()).contains("{\"update\":6}").doesNotContain("{\"update\":5}");
+  }
+
+  @Test
+  void shouldDisconnectAClientThatFallsBehindWithoutHoldingUpOthers() {
+    // Given
+    ReflectionTestUtils.setField(hub, "clientQueueSize", 4);
+    ReflectionTestUtils.setField(hub, "replayBufferSize", 4);
+    CountDownLatch release = new CountDownLatch(1);
+    RecordingEmitter fast = new RecordingEmitter(objectMapper);
+    hub.subscribe("executions:active", null, () -> null, new StalledEmitter(release));
+    hub.subscribe("executions:active", null, () -> null, fast);
+
+    // When
+    int updates = 20;
+    for (int i = 1; i <= updates; i++) {
+      hub.publish("executions:active", Map.of("update", i));
+      int published = i;
+      await(() -> eventIds(fast).size() == published);
+    }
+
+    // Then
+    assertThat(hub.subscriberCount("executions:active")).isEqualTo(1);
+    release.countDown();
+  }
+
+  @Test
+  void shouldReapClientsWhoseConnectionIsGone() {
+    // Given
+    hub.subscribe("database", null, () -> null, new FailingEmitter());
+    hub.subscribe("database", null, () -> null, new RecordingEmitter(objectMapper));
+
+    // When
+    hub.heartbeat();
+
+    // Then
+    await(() -> hub.subscriberCount("database") == 1);
+    assertThat(hub.isOpen("database")).isTrue();
+  }
+
+  /**
+   * Pushes one status to 5,000 subscribers, once serialized per subscriber on the calling thread
+   * and once published through the hub, and reports the time per fan-out until every subscriber has
+   * it. Run with {@code mvn -pl atas-framework test -Dtest=SseHubTest -Datas.benchmark=true}.
+   */
+  @Test
+  @EnabledIfSystemProperty(named = "atas.benchmark", matches = "true")
+  void benchmarkFanOutToManySubscribers() throws IOException {
+    int subscribers = 5000;
+    int rounds = 50;
+    List<RecordingEmitter> emitters = new ArrayList<>(subscribers);
+    for (int i = 0; i < subscribers; i++) {
+      RecordingEmitter emitter = new RecordingEmitter(objectMapper);
+      emitters.add(emitter);
+      hub.subscribe("execution:exec-1", null, () -> null, emitter);
+    }
+
+    // Warm up both paths before measuring
+    for (int round = 0; round < rounds; round++) {
+      sendPerEmitter(emitters);
+      publishAndWait(emitters);
+    }
+
+    long start = System.nanoTime();
+    for (int round = 0; round < rounds; round++) {
+      sendPerEmitter(emitters);
+    }
+    long perEmitterNanos = (System.nanoTime() - start) / rounds;
+
+    long publishNanos = 0;
+    start = System.nanoTime();
+    for (int round = 0; round < rounds; round++) {
+      publishNanos += publishAndWait(emitters);
+    }
+    long hubNanos = (System.nanoTime() - start) / rounds;
+
+    System.out.printf(
+        "Fan-out of a %d byte update to %d subscribers: %.2f ms serialized per subscriber on the "
+            + "publishing thread; through the hub the publishing thread is held %.2f ms and every "
+            + "subscriber has it after %.2f ms%n",
+        hub.encode(0, status).size(),
+        subscribers,
+        perEmitterNanos / (double) TimeUnit.MILLISECONDS.toNanos(1),
+        publishNanos / rounds / (double) TimeUnit.MILLISECONDS.toNanos(1),
+        hubNanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+  }
+
+  private void sendPerEmitter(List<RecordingEmitter> emitters) throws IOException {
+    for (RecordingEmitter emitter : emitters) {
+      emitter.send(status, MediaType.APPLICATION_JSON);
+    }
+    emitters.forEach(RecordingEmitter::reset);
+  }
+
+  /** Publish once, wait until every emitter has it and return how long publishing took */
+  private long publishAndWait(List<RecordingEmitter> emitters) {
+    long start = System.nanoTime();
+    hub.publish("execution:exec-1", status);
+    long publishNanos = System.nanoTime() - start;
+    for (RecordingEmitter emitter : emitters) {
+      await(() -> emitter.size() > 0);
+      emitter.reset();
+    }
+    return publishNanos;
+  }
+
+  private static List<Long> eventIds(RecordingEmitter emitter) {
+    List<Long> ids = new ArrayList<>();
+    Matcher matcher = EVENT_ID.matcher(emitter.text());
+    while (matcher.find()) {
+      ids.add(Long.parseLong(matcher.group(1)));
+    }
+    return ids;
+  }
+
+  private static void await(BooleanSupplier condition) {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      if (System.nanoTime() > deadline) {
+        throw new AssertionError("Condition not met within 5 seconds");
+      }
+      Thread.onSpinWait();
+    }
+  }
+
+  /**
+   * Stands in for a connected browser: writes what is sent the way the MVC message converters do,
+   * running objects through Jackson and writing strings and byte arrays as they are.
+   */
+  private static class RecordingEmitter extends SseEmitter {
+
+    private final ObjectMapper objectMapper;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    RecordingEmitter(ObjectMapper objectMapper) {
+      this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      // What SseEmitter does, minus handing the event to the servlet response
+      send(builder.build());
+    }
+
+    @Override
+    public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+      for (DataWithMediaType item : items) {
+        Object data = item.getData();
+        if (data instanceof byte[] bytes) {
+          out.write(bytes);
+        } else if (data instanceof String text) {
+          out.write(text.getBytes(StandardCharsets.UTF_8));
+        } else {
+          out.write(objectMapper.writeValueAsBytes(data));
+        }
+      }
+    }
+
+    synchronized byte[] written() {
+      return out.toByteArray();
+    }
+
+    synchronized String text() {
+      return out.toString(StandardCharsets.UTF_8);
+    }
+
+    synchronized int size() {
+      return out.size();
+    }
+
+    synchronized void reset() {
+      out.reset();
+    }
+  }
+
+  /** A client that stopped reading: writes block until released */
+  private static class StalledEmitter extends SseEmitter {
+
+    private final CountDownLatch release;
+
+    StalledEmitter(CountDownLatch release) {
+      this.release = release;
+    }
+
+    @Override
+    public void send(Set<DataWithMediaType> items) throws IOException {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+    }
+  }
+
+  private static class FailingEmitter extends SseEmitter {
+
+    @Override
+    public void send(Set<DataWithMediaType> items) throws IOException {
+      throw new IOException("Broken pipe");
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.atas.framework.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.atas.framework.model.TestExecution;
+import com.atas.framework.model.TestResult;
+import com.atas.framework.model.TestStatus;
+import com.atas.framework.repository.DashboardMetricsRepository.DashboardMetrics;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest
+@ActiveProfiles("unit-test")
+@Import(DashboardMetricsRepository.class)
+class DashboardMetricsRepositoryTest {
+
+  @Autowired private TestEntityManager entityManager;
+
+  @Autowired private DashboardMetricsRepository dashboardMetricsRepository;
+
+  private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+  @Test
+  void shouldAggregateExecutionsAndResults() {
+    // Given
+    TestExecution finished = execution("exec-1", TestStatus.FAILED, now.minusMinutes(10), 120);
+    result(finished, "a", TestStatus.PASSED);
+    result(finished, "b", TestStatus.PASSED);
+    result(finished, "c", TestStatus.FAILED);
+    result(finished, "d", TestStatus.ERROR);
+    result(finished, "e", TestStatus.SKIPPED);
+    // Executions without results count as a single test with their own status
+    execution("exec-2", TestStatus.PASSED, now.minusMinutes(5), 60);
+    execution("exec-3", TestStatus.RUNNING, now, null);
+    entityManager.flush();
+
+    // When
+    DashboardMetrics metrics = dashboardMetricsRepository.find().orElseThrow();
+
+    // Then
+    assertThat(metrics.totalExecutions()).isEqualTo(3);
+    assertThat(metrics.totalTests()).isEqualTo(7);
+    assertThat(metrics.passedTests()).isEqualTo(3);
+    assertThat(metrics.failedTests()).isEqualTo(1);
+    assertThat(metrics.errorTests()).isEqualTo(1);
+    assertThat(metrics.skippedTests()).isEqualTo(1);
+    assertThat(metrics.runningTests()).isEqualTo(1);
+    assertThat(metrics.activeExecutions()).isEqualTo(1);
+    assertThat(dashboardMetricsRepository.countRunningTests()).isEqualTo(metrics.runningTests());
+    assertThat(metrics.lastExecutionTime()).isEqualTo(now);
+    assertThat(metrics.avgExecutionDurationSeconds()).isEqualTo(90.0);
+  }
+
+  @Test
+  void shouldNotRefreshAPlainView() {
+    assertThat(dashboardMetricsRepository.refresh(Duration.ZERO)).isFalse();
+  }
+
+  private TestExecution execution(
+      String executionId, TestStatus status, LocalDateTime startTime, Integer durationSeconds) {
+    return entityManager.persist(
+        TestExecution.builder()
+            .executionId(executionId)
+            .suiteName("suite")
+            .status(status)
+            .startTime(startTime)
+            .endTime(durationSeconds != null ? startTime.plusSeconds(durationSeconds) : null)
+            .build());
+  }
+
+  private void result(TestExecution execution, String testId, TestStatus status) {
+    entityManager.persist(
+        TestResult.builder()
+            .execution(execution)
+            .testId(testId)
+            .testName(testId)
+            .status(status)
+            .startTime(execution.getStartTime())
+            .endTime(execution.getStartTime())
+            .build());
+  }
+}
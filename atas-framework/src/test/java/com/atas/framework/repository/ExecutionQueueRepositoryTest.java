@@ -0,0 +1,94 @@
+package com.atas.framework.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.atas.framework.model.ExecutionQueueEntry;
+import com.atas.framework.model.TestExecution;
+import com.atas.framework.model.TestStatus;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest
+@ActiveProfiles("unit-test")
+class ExecutionQueueRepositoryTest {
+
+  @Autowired private TestEntityManager entityManager;
+
+  @Autowired private ExecutionQueueRepository executionQueueRepository;
+
+  private final LocalDateTime now = LocalDateTime.now();
+
+  @BeforeEach
+  void setUp() {
+    for (String executionId : List.of("pending", "expired", "leased")) {
+      entityManager.persist(
+          TestExecution.builder()
+              .executionId(executionId)
+              .suiteName("suite")
+              .status(TestStatus.RUNNING)
+              .startTime(now)
+              .build());
+    }
+    entityManager.persist(entry("pending", ExecutionQueueEntry.Status.PENDING, null, null, 2));
+    entityManager.persist(
+        entry("expired", ExecutionQueueEntry.Status.LEASED, "replica-a", now.minusSeconds(5), 1));
+    entityManager.persist(
+        entry("leased", ExecutionQueueEntry.Status.LEASED, "replica-b", now.plusSeconds(60), 0));
+    entityManager.flush();
+  }
+
+  @Test
+  void shouldLockPendingAndExpiredEntriesOldestFirst() {
+    // When
+    List<ExecutionQueueEntry> claimable = executionQueueRepository.lockClaimable(now, 10);
+
+    // Then
+    assertThat(claimable)
+        .extracting(ExecutionQueueEntry::getExecutionId)
+        .containsExactly("pending", "expired");
+  }
+
+  @Test
+  void shouldRenewOnlyLeasesOfOwner() {
+    // When
+    int renewed =
+        executionQueueRepository.renewLeases(
+            List.of("expired", "leased"), "replica-b", now.plusSeconds(120));
+
+    // Then
+    assertThat(renewed).isEqualTo(1);
+  }
+
+  @Test
+  void shouldDeleteOnlyEntriesOfOwner() {
+    // When / Then
+    assertThat(executionQueueRepository.deleteByExecutionIdAndOwner("leased", "replica-a"))
+        .isZero();
+    assertThat(executionQueueRepository.deleteByExecutionIdAndOwner("leased", "replica-b"))
+        .isEqualTo(1);
+    assertThat(executionQueueRepository.countByStatus(ExecutionQueueEntry.Status.LEASED))
+        .isEqualTo(1);
+  }
+
+  private ExecutionQueueEntry entry(
+      String executionId,
+      ExecutionQueueEntry.Status status,
+      String owner,
+      LocalDateTime leaseExpiresAt,
+      int minutesAgo) {
+    return ExecutionQueueEntry.builder()
+        .executionId(executionId)
+        .payload("{}")
+        .status(status)
+        .owner(owner)
+        .leaseExpiresAt(leaseExpiresAt)
+        .enqueuedAt(now.minusMinutes(minutesAgo))
+        .build();
+  }
+}
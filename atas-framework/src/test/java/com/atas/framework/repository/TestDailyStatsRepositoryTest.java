@@ -0,0 +1,110 @@
+package com.atas.framework.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.atas.framework.model.TestExecution;
+import com.atas.framework.model.TestResult;
+import com.atas.framework.model.TestStatus;
+import com.atas.framework.repository.TestDailyStatsRepository.DailyTotals;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest
+@ActiveProfiles("unit-test")
+@Import(TestDailyStatsRepository.class)
+class TestDailyStatsRepositoryTest {
+
+  @Autowired private TestEntityManager entityManager;
+
+  @Autowired private TestDailyStatsRepository dailyStatsRepository;
+
+  private final LocalDate today = LocalDate.now();
+
+  @Test
+  void shouldBackfillAndSumGroupsPerDay() {
+    // Given
+    TestExecution first = execution("exec-1", "smoke", "dev", today.atTime(9, 0));
+    result(first, "a", TestStatus.PASSED);
+    result(first, "b", TestStatus.FAILED);
+    result(first, "c", TestStatus.ERROR);
+    TestExecution second = execution("exec-2", "regression", "dev", today.atTime(10, 0));
+    result(second, "a", TestStatus.SKIPPED);
+    // Executions without results count as a single test with their own status
+    execution("exec-3", "smoke", "dev", today.minusDays(1).atTime(9, 0));
+    entityManager.flush();
+
+    // When
+    int rows = dailyStatsRepository.refreshSince(null);
+    List<DailyTotals> all =
+        dailyStatsRepository.findDailyTotals(today.minusDays(6), today, null, null);
+    List<DailyTotals> smoke =
+        dailyStatsRepository.findDailyTotals(today.minusDays(6), today, "smoke", "dev");
+
+    // Then
+    assertThat(rows).isEqualTo(3);
+    assertThat(dailyStatsRepository.isEmpty()).isFalse();
+    assertThat(all)
+        .extracting(
+            DailyTotals::date, DailyTotals::passed, DailyTotals::failed, DailyTotals::skipped)
+        .containsExactly(tuple(today.minusDays(1), 1L, 0L, 0L), tuple(today, 1L, 2L, 1L));
+    assertThat(all.get(1).executions()).isEqualTo(2);
+    assertThat(smoke).extracting(DailyTotals::executions).containsExactly(1L, 1L);
+  }
+
+  @Test
+  void shouldRecomputeTheGroupOfAnExecution() {
+    // Given
+    TestExecution execution = execution("exec-1", "smoke", "dev", today.atTime(9, 0));
+    result(execution, "a", TestStatus.PASSED);
+    entityManager.flush();
+    dailyStatsRepository.refreshExecution("exec-1");
+
+    // When
+    result(execution, "b", TestStatus.FAILED);
+    entityManager.flush();
+    boolean found = dailyStatsRepository.refreshExecution("exec-1");
+    // Refreshing again changes nothing
+    dailyStatsRepository.refreshExecution("exec-1");
+
+    // Then
+    assertThat(found).isTrue();
+    assertThat(dailyStatsRepository.refreshExecution("unknown")).isFalse();
+    DailyTotals totals = dailyStatsRepository.findDailyTotals(today, today, null, null).get(0);
+    assertThat(totals.executions()).isEqualTo(1);
+    assertThat(totals.passed()).isEqualTo(1);
+    assertThat(totals.failed()).isEqualTo(1);
+  }
+
+  private TestExecution execution(
+      String executionId, String suiteName, String environment, LocalDateTime startTime) {
+    return entityManager.persist(
+        TestExecution.builder()
+            .executionId(executionId)
+            .suiteName(suiteName)
+            .environment(environment)
+            .status(TestStatus.PASSED)
+            .startTime(startTime)
+            .endTime(startTime.plusMinutes(1))
+            .build());
+  }
+
+  private void result(TestExecution execution, String testId, TestStatus status) {
+    entityManager.persist(
+        TestResult.builder()
+            .execution(execution)
+            .testId(testId)
+            .testName(testId)
+            .status(status)
+            .startTime(execution.getStartTime())
+            .endTime(execution.getStartTime().plusSeconds(1))
+            .build());
+  }
+}
@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.atas.framework.model.TestExecution;
 import com.atas.framework.model.TestStatus;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 @DataJpaTest
@@ -137,4 +139,80 @@ class TestExecutionRepositoryTest {
     Optional<TestExecution> found = testExecutionRepository.findById(saved.getId());
     assertThat(found).isEmpty();
   }
+
+  @Test
+  void shouldTransitionStatusOnlyFromPredecessors() {
+    // Given
+    testExecutionRepository.save(
+        testExecution.toBuilder().status(TestStatus.QUEUED).endTime(null).build());
+    entityManager.flush();
+    LocalDateTime started = LocalDateTime.now().withNano(0).plusSeconds(1);
+    LocalDateTime finished = started.plusMinutes(1);
+
+    // When
+    int running =
+        testExecutionRepository.transitionStatus(
+            "test-execution-123",
+            TestStatus.RUNNING,
+            EnumSet.of(TestStatus.QUEUED, TestStatus.RUNNING),
+            false,
+            started);
+    int failed =
+        testExecutionRepository.transitionStatus(
+            "test-execution-123",
+            TestStatus.FAILED,
+            EnumSet.of(TestStatus.RUNNING, TestStatus.PASSED, TestStatus.FAILED),
+            true,
+            finished);
+    int passed =
+        testExecutionRepository.transitionStatus(
+            "test-execution-123",
+            TestStatus.PASSED,
+            EnumSet.of(TestStatus.RUNNING, TestStatus.PASSED),
+            true,
+            finished.plusMinutes(1));
+    entityManager.clear();
+
+    // Then
+    assertThat(running).isEqualTo(1);
+    assertThat(failed).isEqualTo(1);
+    assertThat(passed).isZero();
+    TestExecution found = testExecutionRepository.findByExecutionId("test-execution-123").get();
+    assertThat(found.getStatus()).isEqualTo(TestStatus.FAILED);
+    assertThat(found.getStartTime()).isEqualTo(started);
+    assertThat(found.getEndTime()).isEqualTo(finished);
+  }
+
+  @Test
+  void shouldFindRecentAndActiveSummaries() {
+    // Given
+    LocalDateTime now = LocalDateTime.now().withNano(0);
+    for (int i = 0; i < 5; i++) {
+      testExecutionRepository.save(
+          testExecution.toBuilder()
+              .executionId("exec-" + i)
+              .status(i == 4 ? TestStatus.RUNNING : i == 3 ? TestStatus.QUEUED : TestStatus.PASSED)
+              .startTime(now.minusMinutes(10 - i))
+              .build());
+    }
+    entityManager.flush();
+    entityManager.clear();
+
+    // When
+    List<TestExecutionRepository.ExecutionSummaryView> recent =
+        testExecutionRepository.findRecentSummaries(Limit.of(2));
+    List<TestExecutionRepository.ExecutionSummaryView> active =
+        testExecutionRepository.findSummariesByStatusIn(
+            EnumSet.of(TestStatus.RUNNING, TestStatus.QUEUED));
+
+    // Then
+    assertThat(recent)
+        .extracting(TestExecutionRepository.ExecutionSummaryView::getExecutionId)
+        .containsExactly("exec-4", "exec-3");
+    assertThat(recent.get(0).getStatus()).isEqualTo(TestStatus.RUNNING);
+    assertThat(recent.get(0).getStartTime()).isEqualTo(now.minusMinutes(6));
+    assertThat(active)
+        .extracting(TestExecutionRepository.ExecutionSummaryView::getExecutionId)
+        .containsExactly("exec-4", "exec-3");
+  }
 }
@@ -6,16 +6,21 @@ import com.atas.framework.model.TestExecution;
 import com.atas.framework.model.TestResult;
 import com.atas.framework.model.TestStatus;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @ActiveProfiles("unit-test")
 class TestResultRepositoryTest {
 
@@ -160,4 +165,134 @@ class TestResultRepositoryTest {
     Optional<TestResult> found = testResultRepository.findById(savedResult.getId());
     assertThat(found).isEmpty();
   }
+
+  @Test
+  void shouldSyncResultStatusesInOneStatement() {
+    // Given
+    saveResults(300);
+    Statistics statistics = statistics();
+    statistics.clear();
+
+    // When
+    int updated =
+        testResultRepository.updateStatusByExecutionId(
+            "test-execution-123",
+            TestStatus.FAILED,
+            EnumSet.of(TestStatus.PASSED, TestStatus.SKIPPED));
+    entityManager.clear();
+
+    // Then
+    assertThat(updated).isEqualTo(200);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    assertThat(testResultRepository.findByExecutionId(testExecution.getId()))
+        .hasSize(300)
+        .allMatch(result -> result.getStatus() != TestStatus.PASSED);
+  }
+
+  /**
+   * Compares syncing 5,000 results row by row (load, then one UPDATE per result) with the single
+   * set-based statement. Run with {@code mvn -pl atas-framework test
+   * -Dtest=TestResultRepositoryTest -Datas.benchmark=true}.
+   */
+  @Test
+  @EnabledIfSystemProperty(named = "atas.benchmark", matches = "true")
+  void benchmarkRowByRowVersusSetBasedSync() {
+    int results = 5000;
+    saveResults(results);
+    Statistics statistics = statistics();
+
+    statistics.clear();
+    long start = System.nanoTime();
+    for (TestResult result :
+        testExecutionRepository
+            .findByExecutionIdWithResults("test-execution-123")
+            .get()
+            .getResults()) {
+      if (result.getStatus() == TestStatus.PASSED || result.getStatus() == TestStatus.SKIPPED) {
+        result.setStatus(TestStatus.ERROR);
+        testResultRepository.save(result);
+      }
+    }
+    entityManager.flush();
+    long rowByRowMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    long rowByRowStatements = statistics.getPrepareStatementCount();
+    entityManager.clear();
+
+    statistics.clear();
+    start = System.nanoTime();
+    int updated =
+        testResultRepository.updateStatusByExecutionId(
+            "test-execution-123", TestStatus.FAILED, EnumSet.of(TestStatus.ERROR));
+    long setBasedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    long setBasedStatements = statistics.getPrepareStatementCount();
+
+    System.out.printf(
+        "Synced %d of %d results: row by row %d statements in %d ms, set-based %d statement in"
+            + " %d ms%n",
+        updated, results, rowByRowStatements, rowByRowMillis, setBasedStatements, setBasedMillis);
+
+    assertThat(rowByRowStatements).isGreaterThan(updated);
+    assertThat(setBasedStatements).isEqualTo(1);
+  }
+
+  @Test
+  void shouldCountResultsPerExecutionInOneQuery() {
+    // Given
+    TestExecution empty =
+        testExecutionRepository.save(
+            TestExecution.builder()
+                .executionId("empty")
+                .status(TestStatus.RUNNING)
+                .startTime(LocalDateTime.now())
+                .build());
+    saveResults(7);
+    entityManager.persist(
+        TestResult.builder()
+            .execution(entityManager.find(TestExecution.class, testExecution.getId()))
+            .testId("com.example.TestClass#error")
+            .status(TestStatus.ERROR)
+            .build());
+    entityManager.flush();
+
+    // When
+    List<TestResultRepository.ResultCountsView> counts =
+        testResultRepository.countByExecutionIds(List.of(testExecution.getId(), empty.getId()));
+
+    // Then
+    assertThat(counts).hasSize(1);
+    TestResultRepository.ResultCountsView count = counts.get(0);
+    assertThat(count.getExecutionId()).isEqualTo(testExecution.getId());
+    assertThat(count.getTotal()).isEqualTo(8);
+    assertThat(count.getPassed()).isEqualTo(3);
+    assertThat(count.getFailed()).isEqualTo(3);
+    assertThat(count.getSkipped()).isEqualTo(2);
+  }
+
+  /** Save results for the execution: two thirds PASSED or SKIPPED, one third FAILED */
+  private void saveResults(int count) {
+    for (int i = 0; i < count; i++) {
+      entityManager.persist(
+          TestResult.builder()
+              .execution(testExecution)
+              .testId("com.example.TestClass#test" + i)
+              .testName("test" + i)
+              .status(
+                  switch (i % 3) {
+                    case 0 -> TestStatus.PASSED;
+                    case 1 -> TestStatus.SKIPPED;
+                    default -> TestStatus.FAILED;
+                  })
+              .build());
+    }
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  private Statistics statistics() {
+    return entityManager
+        .getEntityManager()
+        .getEntityManagerFactory()
+        .unwrap(SessionFactory.class)
+        .getStatistics();
+  }
 }
@@ -29,7 +29,8 @@ CREATE TABLE IF NOT EXISTS test_results (
     framework VARCHAR(100),
     environment_details VARCHAR(1000),
     owner VARCHAR(255),
-    FOREIGN KEY (execution_id) REFERENCES test_executions(id) ON DELETE CASCADE
+    FOREIGN KEY (execution_id) REFERENCES test_executions(id) ON DELETE CASCADE,
+    CONSTRAINT uk_test_results_execution_test UNIQUE (execution_id, test_id)
 );
 
 CREATE TABLE IF NOT EXISTS test_steps (
@@ -42,7 +43,8 @@ CREATE TABLE IF NOT EXISTS test_steps (
     start_time TIMESTAMP,
     end_time TIMESTAMP,
     data VARCHAR(1000),
-    FOREIGN KEY (result_id) REFERENCES test_results(id) ON DELETE CASCADE
+    FOREIGN KEY (result_id) REFERENCES test_results(id) ON DELETE CASCADE,
+    CONSTRAINT uk_test_steps_result_step UNIQUE (result_id, step_number)
 );
 
 CREATE TABLE IF NOT EXISTS test_attachments (
@@ -77,3 +79,92 @@ CREATE TABLE IF NOT EXISTS test_assertions (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (result_id) REFERENCES test_results(id) ON DELETE CASCADE
 );
+
+CREATE TABLE IF NOT EXISTS execution_queue (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    execution_id VARCHAR(255) UNIQUE NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    owner VARCHAR(255),
+    lease_expires_at TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    enqueued_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    priority INTEGER NOT NULL DEFAULT 2,
+    share_key VARCHAR(255),
+    FOREIGN KEY (execution_id) REFERENCES test_executions(execution_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS execution_log_chunks (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    execution_id VARCHAR(255) NOT NULL,
+    chunk_index INTEGER NOT NULL,
+    start_offset BIGINT NOT NULL,
+    end_offset BIGINT NOT NULL,
+    data BYTEA NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    compressed BOOLEAN NOT NULL DEFAULT FALSE,
+    first_line BIGINT NOT NULL DEFAULT 1,
+    end_line BIGINT NOT NULL DEFAULT 1,
+    CONSTRAINT uk_execution_log_chunks UNIQUE (execution_id, chunk_index),
+    FOREIGN KEY (execution_id) REFERENCES test_executions(execution_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS test_daily_stats (
+    stat_date DATE NOT NULL,
+    environment VARCHAR(255) NOT NULL,
+    suite_name VARCHAR(255) NOT NULL,
+    executions BIGINT NOT NULL,
+    finished_executions BIGINT NOT NULL,
+    passed BIGINT NOT NULL,
+    failed BIGINT NOT NULL,
+    skipped BIGINT NOT NULL,
+    duration_seconds DOUBLE PRECISION NOT NULL,
+    test_duration_seconds DOUBLE PRECISION NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (stat_date, environment, suite_name)
+);
+
+-- A plain view stands in for the PostgreSQL materialized view, so it never needs refreshing
+CREATE VIEW IF NOT EXISTS dashboard_metrics AS
+SELECT
+    1 AS id,
+    x.total AS total_executions,
+    r.total + ee.total AS total_tests,
+    r.passed + ee.passed AS passed_tests,
+    r.failed + ee.failed AS failed_tests,
+    r.error + ee.error AS error_tests,
+    r.skipped + ee.skipped AS skipped_tests,
+    r.running + ee.running AS running_tests,
+    x.active AS active_executions,
+    x.last_start_time AS last_execution_time,
+    x.avg_duration_seconds AS avg_execution_duration_seconds,
+    CURRENT_TIMESTAMP AS refreshed_at
+FROM (
+    SELECT
+        COUNT(*) AS total,
+        COUNT(CASE WHEN status = 'PASSED' THEN 1 END) AS passed,
+        COUNT(CASE WHEN status = 'FAILED' THEN 1 END) AS failed,
+        COUNT(CASE WHEN status = 'ERROR' THEN 1 END) AS error,
+        COUNT(CASE WHEN status = 'SKIPPED' THEN 1 END) AS skipped,
+        COUNT(CASE WHEN status = 'RUNNING' THEN 1 END) AS running
+    FROM test_results
+) r
+CROSS JOIN (
+    SELECT
+        COUNT(e.status) AS total,
+        COUNT(CASE WHEN e.status = 'PASSED' THEN 1 END) AS passed,
+        COUNT(CASE WHEN e.status = 'FAILED' THEN 1 END) AS failed,
+        COUNT(CASE WHEN e.status = 'ERROR' THEN 1 END) AS error,
+        COUNT(CASE WHEN e.status = 'SKIPPED' THEN 1 END) AS skipped,
+        COUNT(CASE WHEN e.status = 'RUNNING' THEN 1 END) AS running
+    FROM test_executions e
+    WHERE NOT EXISTS (SELECT 1 FROM test_results tr WHERE tr.execution_id = e.id)
+) ee
+CROSS JOIN (
+    SELECT
+        COUNT(*) AS total,
+        COUNT(CASE WHEN status = 'RUNNING' THEN 1 END) AS active,
+        MAX(start_time) AS last_start_time,
+        AVG(CAST(DATEDIFF('SECOND', start_time, end_time) AS DOUBLE PRECISION)) AS avg_duration_seconds
+    FROM test_executions
+) x;
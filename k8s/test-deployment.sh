@@ -241,7 +241,7 @@ else
 fi
 echo ""
 echo -e "${YELLOW}Other commands:${NC}"
-echo "1. Check pod logs: kubectl logs -f deployment/atas-service -n ${NAMESPACE}"
+echo "1. Check pod logs: kubectl logs -f statefulset/atas-service -n ${NAMESPACE}"
 echo "2. Stop port-forward: pkill -f 'kubectl port-forward.*atas-service'"
 echo "3. Deploy HPA: kubectl apply -f hpa.yaml"
 echo "4. Deploy Ingress: kubectl apply -f ingress.yaml"